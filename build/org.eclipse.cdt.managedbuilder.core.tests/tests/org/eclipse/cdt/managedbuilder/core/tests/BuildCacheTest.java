@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.core.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildCache;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildCommand;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the build cache with commands that are not executed, the outputs and the
+ * dependency file of the commands are written by the tests.
+ */
+public class BuildCacheTest {
+	private File fDir;
+	private File fCompiler;
+	private File fSource;
+	private File fHeader;
+	private File fObject;
+	private File fDependencyFile;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		fDir = Files.createTempDirectory("buildCache").toFile();
+		fCompiler = write(new File(fDir, "bin/cc"), "compiler 1");
+		fSource = write(new File(fDir, "src/main.c"), "#include <header.h>");
+		// A header outside of the workspace, only listed in the dependency file
+		fHeader = write(new File(fDir, "include/header.h"), "int header;");
+		fObject = new File(fDir, "build/main.o");
+		fDependencyFile = new File(fDir, "build/main.d");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<java.nio.file.Path> files = Files.walk(fDir.toPath())) {
+			files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private static File write(File file, String contents) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.writeString(file.toPath(), contents);
+		return file;
+	}
+
+	private IBuildCommand[] getCommands(String dependencyOption) {
+		String[] args = { "-c", "src/main.c", "-o", "build/main.o", dependencyOption, "-MF", "build/main.d" };
+		return new IBuildCommand[] {
+				new BuildCommand(new Path(fCompiler.getAbsolutePath()), args, null, new Path(fDir.getAbsolutePath()),
+						null) };
+	}
+
+	private String getKey(BuildCache cache) {
+		return cache.getKey(getCommands("-MD"), new IPath[] { new Path(fSource.getAbsolutePath()) },
+				new IPath[] { new Path(fObject.getAbsolutePath()) });
+	}
+
+	// Does what the compiler would do
+	private void build(BuildCache cache, String key, String object) throws IOException {
+		write(fObject, object);
+		write(fDependencyFile, "build/main.o: src/main.c \\\n " + fHeader.getAbsolutePath() + "\n");
+		cache.store(key, new IPath[] { new Path(fObject.getAbsolutePath()) });
+	}
+
+	private boolean restore(BuildCache cache, String key) {
+		fObject.delete();
+		return cache.restore(key, new IPath[] { new Path(fObject.getAbsolutePath()) }, null);
+	}
+
+	@Test
+	public void testHit() throws IOException {
+		BuildCache cache = new BuildCache(new File(fDir, "cache"));
+		String key = getKey(cache);
+		assertNotNull(key);
+		assertFalse(restore(cache, key));
+		build(cache, key, "object 1");
+
+		// Another build with the same inputs
+		cache = new BuildCache(new File(fDir, "cache"));
+		assertEquals(key, getKey(cache));
+		assertTrue(restore(cache, key));
+		assertEquals("object 1", Files.readString(fObject.toPath()));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testMissOnHeaderChange() throws IOException {
+		BuildCache cache = new BuildCache(new File(fDir, "cache"));
+		String key = getKey(cache);
+		build(cache, key, "object 1");
+
+		write(fHeader, "long header;");
+		cache = new BuildCache(new File(fDir, "cache"));
+		key = getKey(cache);
+		assertFalse(restore(cache, key));
+		assertEquals(1, cache.getMissCount());
+
+		// The entry is replaced by the outputs built with the new header
+		build(cache, key, "object 2");
+		cache = new BuildCache(new File(fDir, "cache"));
+		assertTrue(restore(cache, getKey(cache)));
+		assertEquals("object 2", Files.readString(fObject.toPath()));
+	}
+
+	@Test
+	public void testMissOnCompilerChange() throws IOException {
+		BuildCache cache = new BuildCache(new File(fDir, "cache"));
+		String key = getKey(cache);
+		build(cache, key, "object 1");
+
+		write(fCompiler, "compiler 2.0");
+		cache = new BuildCache(new File(fDir, "cache"));
+		String newKey = getKey(cache);
+		assertNotEquals(key, newKey);
+		assertFalse(restore(cache, newKey));
+	}
+
+	@Test
+	public void testDefaultToolchain() throws IOException {
+		// The command line of the internal builder for the default GNU toolchain
+		String[] args = { "-O0", "-g3", "-Wall", "-c", "-fmessage-length=0", "-MMD", "-MP",
+				"-MF\"build/main.d\"", "-MT\"build/main.o\"", "-o", "build/main.o", "src/main.c" };
+		IBuildCommand[] cmds = { new BuildCommand(new Path(fCompiler.getAbsolutePath()), args, null,
+				new Path(fDir.getAbsolutePath()), null) };
+		IPath[] inputs = { new Path(fSource.getAbsolutePath()) };
+		IPath[] outputs = { new Path(fObject.getAbsolutePath()) };
+
+		BuildCache cache = new BuildCache(new File(fDir, "cache"));
+		String key = cache.getKey(cmds, inputs, outputs);
+		assertNotNull(key);
+		write(fObject, "object 1");
+		// Only the user headers are listed with -MMD, -MP adds a target for each of them
+		write(fDependencyFile, "build/main.o: src/main.c include/header.h\n\ninclude/header.h:\n");
+		cache.store(key, outputs);
+
+		cache = new BuildCache(new File(fDir, "cache"));
+		assertTrue(restore(cache, cache.getKey(cmds, inputs, outputs)));
+		assertEquals("object 1", Files.readString(fObject.toPath()));
+
+		write(fHeader, "long header;");
+		cache = new BuildCache(new File(fDir, "cache"));
+		assertFalse(restore(cache, cache.getKey(cmds, inputs, outputs)));
+	}
+
+	@Test
+	public void testNoDependencyFile() {
+		BuildCache cache = new BuildCache(new File(fDir, "cache"));
+		// Without -MD or -MMD no dependency file is written, the headers of the step are unknown
+		assertNull(cache.getKey(getCommands("-MP"), new IPath[] { new Path(fSource.getAbsolutePath()) },
+				new IPath[] { new Path(fObject.getAbsolutePath()) }));
+	}
+}
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.core.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildCommand;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildProcessManager;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildStepDurations;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.GenDirInfo;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.ParallelBuilder;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.ProcessLauncher;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the dispatching of the parallel internal builder with fake build steps, whose
+ * commands are not executed but complete after a short delay.
+ */
+public class ParallelBuilderTest {
+	private static final IPath CWD = new Path(System.getProperty("java.io.tmpdir"));
+
+	/** The start and the end of the commands, in the order they happened */
+	private final List<String> fEvents = Collections.synchronizedList(new ArrayList<>());
+	/** The commands that exit with an error */
+	private final Set<String> fFailing = new HashSet<>();
+	/** The output resources of the steps */
+	private final Map<IBuildStep, IBuildResource> fOutputs = new HashMap<>();
+	private NullProgressMonitor fMonitor;
+	private String fCancelOn;
+
+	@BeforeEach
+	public void setUp() {
+		fMonitor = new NullProgressMonitor();
+	}
+
+	/**
+	 * Creates a fake object implementing the given interface. Its methods return the values
+	 * in the map by method name.
+	 */
+	private static <T> T fake(Class<T> type, String name, Map<String, Object> values) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return name;
+					default:
+						return values.get(method.getName());
+					}
+				}));
+	}
+
+	/**
+	 * Creates a step with one command per name, that depends on the outputs of the given steps.
+	 */
+	private IBuildStep step(String[] commandNames, IBuildStep... prerequisites) {
+		Map<String, Object> stepValues = new HashMap<>();
+		IBuildStep step = fake(IBuildStep.class, commandNames[0], stepValues);
+
+		Map<String, Object> outputValues = new HashMap<>();
+		outputValues.put("getProducerStep", step);
+		outputValues.put("getLocation", CWD.append(commandNames[0] + ".o"));
+		IBuildResource output = fake(IBuildResource.class, commandNames[0] + ".o", outputValues);
+		fOutputs.put(step, output);
+
+		IBuildResource[] inputs = new IBuildResource[prerequisites.length];
+		for (int i = 0; i < prerequisites.length; i++) {
+			inputs[i] = fOutputs.get(prerequisites[i]);
+		}
+		IBuildCommand[] commands = new IBuildCommand[commandNames.length];
+		for (int i = 0; i < commandNames.length; i++) {
+			commands[i] = new BuildCommand(new Path(commandNames[i]), new String[0], null, CWD, null);
+		}
+		stepValues.put("getInputResources", inputs);
+		stepValues.put("getOutputResources", new IBuildResource[] { output });
+		stepValues.put("getCommands", commands);
+		return step;
+	}
+
+	private IBuildStep step(String name, IBuildStep... prerequisites) {
+		return step(new String[] { name }, prerequisites);
+	}
+
+	private int indexOf(String event) {
+		int index = fEvents.indexOf(event);
+		assertTrue(index >= 0, "missing event " + event + " in " + fEvents);
+		return index;
+	}
+
+	private void assertBefore(String first, String second) {
+		assertTrue(indexOf(first) < indexOf(second), first + " must precede " + second + " in " + fEvents);
+	}
+
+	private List<String> getStarted() {
+		List<String> started = new ArrayList<>();
+		for (String event : fEvents) {
+			if (event.startsWith("start ")) {
+				started.add(event.substring("start ".length()));
+			}
+		}
+		return started;
+	}
+
+	/**
+	 * A command that is not executed, it completes after a short delay.
+	 */
+	private class FakeLauncher extends ProcessLauncher {
+		private final String fName;
+		private volatile int fState = STATE_RUNNING;
+
+		FakeLauncher(IBuildCommand cmd, IPath cwd, IProgressMonitor monitor) {
+			super(cmd.getCommand(), cmd.getArgs(), null, cwd, null, null, monitor, false);
+			fName = cmd.getCommand().toString();
+		}
+
+		@Override
+		public void launch(Consumer<ProcessLauncher> completionListener) {
+			fEvents.add("start " + fName);
+			CompletableFuture.runAsync(() -> {
+				fEvents.add("end " + fName);
+				fState = STATE_DONE;
+				completionListener.accept(this);
+			}, CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+		}
+
+		@Override
+		public int queryState() {
+			return fState;
+		}
+
+		@Override
+		public int getExitCode() {
+			return fFailing.contains(fName) ? 1 : 0;
+		}
+	}
+
+	private class FakeProcessManager extends BuildProcessManager {
+		FakeProcessManager(int processCount) {
+			super(null, null, false, processCount);
+		}
+
+		@Override
+		public ProcessLauncher launchProcess(IBuildCommand cmd, IPath cwd, IProgressMonitor monitor,
+				Consumer<ProcessLauncher> completionListener) {
+			for (int i = 0; i < maxProcesses; i++) {
+				if (i >= processes.size() || processes.get(i).queryState() == ProcessLauncher.STATE_DONE) {
+					FakeLauncher launcher = new FakeLauncher(cmd, cwd, monitor);
+					if (i >= processes.size()) {
+						processes.add(launcher);
+					} else {
+						processes.set(i, launcher);
+					}
+					launcher.launch(completionListener);
+					if (launcher.fName.equals(fCancelOn)) {
+						monitor.setCanceled(true);
+					}
+					return launcher;
+				}
+			}
+			return null;
+		}
+	}
+
+	private class TestBuilder extends ParallelBuilder {
+		TestBuilder(boolean resumeOnErrors) {
+			super(CWD, new GenDirInfo(ResourcesPlugin.getWorkspace().getRoot().getProject("ParallelBuilderTest")),
+					null, null, fMonitor, resumeOnErrors, false, null, null);
+		}
+
+		TestBuilder add(IBuildStep step, int level) {
+			addElement(step, level);
+			return this;
+		}
+
+		int build(int processCount) {
+			sortQueue();
+			return dispatch(new FakeProcessManager(processCount));
+		}
+	}
+
+	@Test
+	public void testDependencies() {
+		IBuildStep a = step("a");
+		IBuildStep b = step("b");
+		IBuildStep c = step(new String[] { "c1", "c2" }, a, b);
+		IBuildStep d = step("d", c);
+		IBuildStep e = step("e");
+		int status = new TestBuilder(false).add(a, 0).add(b, 0).add(c, 1).add(d, 2).add(e, 0).build(3);
+
+		assertEquals(ParallelBuilder.STATUS_OK, status);
+		assertEquals(Set.of("a", "b", "c1", "c2", "d", "e"), new HashSet<>(getStarted()));
+		assertEquals(6, getStarted().size());
+		assertBefore("end a", "start c1");
+		assertBefore("end b", "start c1");
+		// The commands of a step are executed one after the other
+		assertBefore("end c1", "start c2");
+		assertBefore("end c2", "start d");
+	}
+
+	@Test
+	public void testLongestPathFirst() {
+		IBuildStep x1 = step("x1");
+		IBuildStep x2 = step("x2", x1);
+		IBuildStep x3 = step("x3", x2);
+		IBuildStep s1 = step("s1");
+		IBuildStep s2 = step("s2");
+		int status = new TestBuilder(false).add(s1, 0).add(s2, 0).add(x1, 0).add(x2, 1).add(x3, 2).build(1);
+
+		assertEquals(ParallelBuilder.STATUS_OK, status);
+		// x1 and x2 are on the longest path, x3 has the priority of s1 and s2 but a higher level
+		List<String> started = getStarted();
+		assertEquals(5, started.size());
+		assertEquals(Arrays.asList("x1", "x2"), started.subList(0, 2));
+		assertEquals("x3", started.get(4));
+	}
+
+	@Test
+	public void testFailure() {
+		IBuildStep a = step("a");
+		IBuildStep b = step("b", a);
+		IBuildStep c = step("c");
+		fFailing.add("a");
+		int status = new TestBuilder(false).add(a, 0).add(b, 1).add(c, 0).build(1);
+
+		assertEquals(ParallelBuilder.STATUS_ERROR, status);
+		assertEquals(Arrays.asList("a"), getStarted());
+	}
+
+	@Test
+	public void testResumeOnErrors() {
+		IBuildStep a = step("a");
+		IBuildStep b = step("b", a);
+		IBuildStep c = step("c");
+		fFailing.add("a");
+		int status = new TestBuilder(true).add(a, 0).add(b, 1).add(c, 0).build(1);
+
+		// The status of the build is reported by the error parsers
+		assertEquals(ParallelBuilder.STATUS_OK, status);
+		assertEquals(Set.of("a", "b", "c"), new HashSet<>(getStarted()));
+		assertBefore("end a", "start b");
+	}
+
+	@Test
+	public void testCancel() {
+		IBuildStep a = step("a");
+		IBuildStep b = step("b", a);
+		IBuildStep c = step("c", b);
+		fCancelOn = "b";
+		int status = new TestBuilder(false).add(a, 0).add(b, 1).add(c, 2).build(2);
+
+		assertEquals(ParallelBuilder.STATUS_CANCELED, status);
+		assertEquals(Arrays.asList("a", "b"), getStarted());
+	}
+
+	@Test
+	public void testStepDurations() {
+		IBuildStep a = step("a");
+		IBuildStep b = step("b");
+		IBuildStep c = step("c");
+		BuildStepDurations durations = new BuildStepDurations();
+		// Without history every step gets the same duration
+		assertEquals(1, durations.getDuration(a));
+
+		durations.setDuration(a, 100);
+		durations.setDuration(b, 300);
+		assertEquals(100, durations.getDuration(a));
+		assertEquals(300, durations.getDuration(b));
+		// Steps without history get the average
+		assertEquals(200, durations.getDuration(c));
+
+		// A new duration replaces the old one in the average
+		durations.setDuration(a, 500);
+		assertEquals(500, durations.getDuration(a));
+		assertEquals(400, durations.getDuration(c));
+
+		// Steps without outputs cannot be identified
+		Map<String, Object> values = new HashMap<>();
+		values.put("getOutputResources", new IBuildResource[0]);
+		IBuildStep noOutputs = fake(IBuildStep.class, "noOutputs", values);
+		durations.setDuration(noOutputs, 10_000);
+		assertEquals(400, durations.getDuration(noOutputs));
+		assertEquals(400, durations.getDuration(c));
+	}
+}
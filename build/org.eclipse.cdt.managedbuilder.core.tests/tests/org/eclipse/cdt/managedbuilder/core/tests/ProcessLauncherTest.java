@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.core.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.ProcessLauncher;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the notification of the completion of processes launched by the internal builder.
+ * The processes are run with the Java executable running the tests.
+ */
+public class ProcessLauncherTest {
+	private final ByteArrayOutputStream fOut = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream fErr = new ByteArrayOutputStream();
+
+	private ProcessLauncher createLauncher(String command, String... args) {
+		return new ProcessLauncher(new Path(command), args, null, new Path(System.getProperty("java.io.tmpdir")),
+				fOut, fErr, new NullProgressMonitor(), false);
+	}
+
+	private static String getJava() {
+		String java = ProcessHandle.current().info().command().orElse(null);
+		assumeTrue(java != null, "the Java executable is unknown");
+		return java;
+	}
+
+	/**
+	 * Launches the process and returns the output written when the listener was notified.
+	 */
+	private String launchAndWait(ProcessLauncher launcher) throws Exception {
+		CompletableFuture<String> output = new CompletableFuture<>();
+		launcher.launch(l -> {
+			assertSame(launcher, l);
+			// The process must not be reported as running any more
+			output.complete(l.queryState() + " " + fErr.toString() + fOut.toString());
+		});
+		return output.get(60, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testCompletion() throws Exception {
+		ProcessLauncher launcher = createLauncher(getJava(), "-version");
+		String output = launchAndWait(launcher);
+		// All the output has been written when the listener is notified
+		assertTrue(output.startsWith(ProcessLauncher.STATE_DONE + " "), output);
+		assertTrue(output.contains("version"), output);
+		assertEquals(0, launcher.getExitCode());
+	}
+
+	@Test
+	public void testCompletionWithError() throws Exception {
+		ProcessLauncher launcher = createLauncher(getJava(), "-XX:+NoSuchOptionOfTheProcessLauncherTest");
+		String output = launchAndWait(launcher);
+		assertTrue(output.startsWith(ProcessLauncher.STATE_DONE + " "), output);
+		assertNotEquals(0, launcher.getExitCode());
+	}
+
+	@Test
+	public void testLaunchFailure() throws Exception {
+		ProcessLauncher launcher = createLauncher(
+				new Path(System.getProperty("java.io.tmpdir")).append("noSuchCommand").toOSString());
+		String output = launchAndWait(launcher);
+		assertTrue(output.startsWith(ProcessLauncher.STATE_ILLEGAL + " "), output);
+		assertFalse(launcher.getErrorMessage().isEmpty());
+	}
+}
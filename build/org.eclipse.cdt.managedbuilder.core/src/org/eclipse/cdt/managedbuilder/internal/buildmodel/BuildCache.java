@@ -0,0 +1,567 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.buildmodel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildDescription;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.core.ManagedMakeMessages;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Content addressed cache of the outputs of build steps. The outputs of a step are stored
+ * under a key computed from the command lines and environment of the step, from the
+ * executable of the tool and from the contents of the input resources of the step. Each
+ * entry also records the contents of all the files the step depended on, as listed in the
+ * dependency file written by the compiler. When a step has to be rebuilt because of a
+ * changed time stamp, but the contents of its inputs and dependencies are the same as in a
+ * previous build, its outputs are restored from the cache instead of invoking the tool.
+ * <p>
+ * Only the steps whose commands write a dependency file are cached, with <code>-MD</code>
+ * or <code>-MMD</code> and <code>-MF &lt;file&gt;</code> as the default GNU toolchain does.
+ * With <code>-MMD</code> the system headers are not listed. They are installed with the
+ * compiler, whose executable is part of the key.
+ * <p>
+ * The cache is disabled by default, it is enabled with the system property
+ * <code>org.eclipse.cdt.managedbuilder.buildCache</code>. The maximum number of cached
+ * steps can be set with the system property
+ * <code>org.eclipse.cdt.managedbuilder.buildCache.maxEntries</code>.
+ * <p>
+ * A cache is used for a single build only, the methods must not be called concurrently.
+ */
+public class BuildCache {
+	private static final boolean ENABLED = Boolean.getBoolean("org.eclipse.cdt.managedbuilder.buildCache"); //$NON-NLS-1$
+	private static final int MAX_ENTRIES = Integer.getInteger("org.eclipse.cdt.managedbuilder.buildCache.maxEntries", //$NON-NLS-1$
+			5000);
+	private static final String CACHE_DIR = "buildCache"; //$NON-NLS-1$
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final String DEPENDENCIES_ENTRY = "dependencies"; //$NON-NLS-1$
+	private static final String DEPENDENCY_FILE_ENTRY = "d"; //$NON-NLS-1$
+	private static final String BUILDER_MSG_HEADER = "InternalBuilder.msg.header"; //$NON-NLS-1$
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator", "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** The hash of the contents of a file, with the time stamp and size it was computed for. */
+	private static class FileHash {
+		final long lastModified;
+		final long length;
+		final String hash;
+
+		FileHash(long lastModified, long length, String hash) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.hash = hash;
+		}
+	}
+
+	private final File fCacheDir;
+	private final Map<File, FileHash> fFileHashes = new HashMap<>();
+	// The dependency file written by the step of each key, and the directory it is relative to
+	private final Map<String, File[]> fDependencyFiles = new HashMap<>();
+	private int fHits;
+	private int fMisses;
+	private int fStores;
+
+	/**
+	 * Creates a cache in the given directory.
+	 */
+	public BuildCache(File cacheDir) {
+		fCacheDir = cacheDir;
+	}
+
+	/**
+	 * Returns a cache for a build, or <code>null</code> if the build cache is disabled.
+	 */
+	public static BuildCache create() {
+		if (!ENABLED)
+			return null;
+		IPath stateLocation = ManagedBuilderCorePlugin.getDefault().getStateLocation();
+		return new BuildCache(stateLocation.append(CACHE_DIR).toFile());
+	}
+
+	/**
+	 * Computes the key for the outputs of the given step, or returns <code>null</code> if the
+	 * outputs of the step cannot be cached. Must be called before the step is executed.
+	 *
+	 * @param cmds the commands that build the step
+	 */
+	public String getKey(IBuildStep step, IBuildCommand[] cmds) {
+		IBuildDescription des = step.getBuildDescription();
+		if (step == des.getInputStep() || step == des.getOutputStep())
+			return null;
+		if (!(step instanceof BuildStep) || ((BuildStep) step).getTool() == null)
+			return null;
+		IPath[] inputs = getLocations(step.getInputResources());
+		IPath[] outputs = getLocations(step.getOutputResources());
+		if (inputs == null || outputs == null)
+			return null;
+		String key = getKey(cmds, inputs, outputs);
+		if (key == null && DbgUtil.DEBUG)
+			DbgUtil.trace("build cache: step not cached " + DbgUtil.stepName(step)); //$NON-NLS-1$
+		return key;
+	}
+
+	/**
+	 * Computes the key for the outputs of the given commands, or returns <code>null</code> if
+	 * the outputs cannot be cached. Must be called before the commands are executed.
+	 *
+	 * @param cmds the commands that build the outputs
+	 * @param inputs the locations of the input files of the commands
+	 * @param outputs the locations of the output files of the commands
+	 */
+	public String getKey(IBuildCommand[] cmds, IPath[] inputs, IPath[] outputs) {
+		if (cmds == null || cmds.length == 0 || outputs.length == 0)
+			return null;
+		File[] dependencyFile = null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			for (IBuildCommand cmd : cmds) {
+				// The same command line gives different outputs with another version of the tool
+				File tool = findExecutable(cmd);
+				String toolHash = tool != null ? getContentHash(tool) : null;
+				if (toolHash == null)
+					return null;
+				update(digest, "cmd", cmd.getCommand()); //$NON-NLS-1$
+				update(digest, "tool", tool.getAbsolutePath()); //$NON-NLS-1$
+				update(digest, "hash", toolHash); //$NON-NLS-1$
+				for (String arg : cmd.getArgs()) {
+					update(digest, "arg", arg); //$NON-NLS-1$
+				}
+				update(digest, "cwd", cmd.getCWD()); //$NON-NLS-1$
+				Map<String, String> env = cmd.getEnvironment();
+				if (env != null) {
+					for (Map.Entry<String, String> entry : new TreeMap<>(env).entrySet()) {
+						update(digest, "env", entry.getKey() + '=' + entry.getValue()); //$NON-NLS-1$
+					}
+				}
+				File file = getDependencyFile(cmd);
+				if (file != null) {
+					if (dependencyFile != null)
+						return null;
+					dependencyFile = new File[] { file, cmd.getCWD() != null ? cmd.getCWD().toFile() : null };
+				}
+			}
+			// The headers of the step are only known from the dependency file
+			if (dependencyFile == null)
+				return null;
+
+			// The order of the inputs does not depend on the order of the dependency files.
+			TreeMap<String, File> inputFiles = new TreeMap<>();
+			for (IPath input : inputs) {
+				inputFiles.put(input.toString(), input.toFile());
+			}
+			for (Map.Entry<String, File> entry : inputFiles.entrySet()) {
+				String hash = getContentHash(entry.getValue());
+				if (hash == null)
+					return null;
+				update(digest, "in", entry.getKey()); //$NON-NLS-1$
+				update(digest, "hash", hash); //$NON-NLS-1$
+			}
+
+			for (IPath output : outputs) {
+				update(digest, "out", output); //$NON-NLS-1$
+			}
+			String key = HexFormat.of().formatHex(digest.digest());
+			fDependencyFiles.put(key, dependencyFile);
+			return key;
+		} catch (NoSuchAlgorithmException | IOException e) {
+			if (DbgUtil.DEBUG)
+				DbgUtil.trace("build cache: no key: " + e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	private static IPath[] getLocations(IBuildResource[] resources) {
+		IPath[] locations = new IPath[resources.length];
+		for (int i = 0; i < resources.length; i++) {
+			locations[i] = resources[i].getLocation();
+			if (locations[i] == null)
+				return null;
+		}
+		return locations;
+	}
+
+	/**
+	 * Returns the executable run by the given command, searched in the <code>PATH</code> of
+	 * the command if needed, or <code>null</code> if it is not found.
+	 */
+	private static File findExecutable(IBuildCommand cmd) {
+		IPath command = cmd.getCommand();
+		if (command == null)
+			return null;
+		if (command.isAbsolute())
+			return command.toFile().isFile() ? command.toFile() : null;
+		if (command.segmentCount() > 1) {
+			File file = cmd.getCWD() != null ? cmd.getCWD().append(command).toFile() : null;
+			return file != null && file.isFile() ? file : null;
+		}
+
+		String path = null;
+		Map<String, String> env = cmd.getEnvironment();
+		if (env != null) {
+			for (Map.Entry<String, String> entry : env.entrySet()) {
+				if (entry.getKey().equalsIgnoreCase("PATH")) { //$NON-NLS-1$
+					path = entry.getValue();
+					break;
+				}
+			}
+		}
+		if (path == null)
+			path = System.getenv("PATH"); //$NON-NLS-1$
+		if (path == null)
+			return null;
+		String name = command.toString();
+		boolean windows = File.separatorChar == '\\';
+		for (String dir : path.split(File.pathSeparator)) {
+			if (dir.isEmpty())
+				continue;
+			File file = new File(dir, name);
+			if (file.isFile())
+				return file;
+			if (windows && !name.endsWith(".exe")) { //$NON-NLS-1$
+				file = new File(dir, name + ".exe"); //$NON-NLS-1$
+				if (file.isFile())
+					return file;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the dependency file written by the given command with <code>-MD</code> or
+	 * <code>-MMD</code> and <code>-MF &lt;file&gt;</code>, or <code>null</code> if the command
+	 * does not list its dependencies in a dependency file.
+	 */
+	private static File getDependencyFile(IBuildCommand cmd) {
+		String[] args = cmd.getArgs();
+		if (args == null)
+			return null;
+		boolean dependencies = false;
+		String file = null;
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("-MD") || arg.equals("-MMD")) { //$NON-NLS-1$ //$NON-NLS-2$
+				dependencies = true;
+			} else if (arg.equals("-MF") && i + 1 < args.length) { //$NON-NLS-1$
+				file = args[++i];
+			} else if (arg.startsWith("-MF")) { //$NON-NLS-1$
+				file = arg.substring(3);
+			}
+		}
+		if (!dependencies || file == null)
+			return null;
+		if (file.length() > 1 && file.startsWith("\"") && file.endsWith("\"")) //$NON-NLS-1$ //$NON-NLS-2$
+			file = file.substring(1, file.length() - 1);
+		File dependencyFile = new File(file);
+		if (!dependencyFile.isAbsolute() && cmd.getCWD() != null)
+			dependencyFile = new File(cmd.getCWD().toFile(), file);
+		return dependencyFile;
+	}
+
+	/**
+	 * Returns the prerequisites listed in a dependency file in the make syntax, resolved
+	 * against the given directory.
+	 */
+	static List<File> parseDependencyFile(File file, File dir) throws IOException {
+		String text = Files.readString(file.toPath());
+		text = text.replace("\\\r\n", " ").replace("\\\n", " "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		List<File> dependencies = new ArrayList<>();
+		for (String line : text.split("\r?\n")) { //$NON-NLS-1$
+			// The targets end with a colon that is not the one of a drive letter
+			int colon = -1;
+			for (int i = line.indexOf(':'); i >= 0; i = line.indexOf(':', i + 1)) {
+				if (i + 1 == line.length() || Character.isWhitespace(line.charAt(i + 1))) {
+					colon = i;
+					break;
+				}
+			}
+			if (colon < 0)
+				continue;
+			StringBuilder name = new StringBuilder();
+			for (int i = colon + 1; i <= line.length(); i++) {
+				char c = i < line.length() ? line.charAt(i) : ' ';
+				if (c == '\\' && i + 1 < line.length() && (line.charAt(i + 1) == ' ' || line.charAt(i + 1) == '#')) {
+					name.append(line.charAt(++i));
+				} else if (c == '$' && i + 1 < line.length() && line.charAt(i + 1) == '$') {
+					name.append(line.charAt(++i));
+				} else if (Character.isWhitespace(c)) {
+					if (name.length() > 0) {
+						File dependency = new File(name.toString());
+						if (!dependency.isAbsolute() && dir != null)
+							dependency = new File(dir, name.toString());
+						dependencies.add(dependency);
+						name.setLength(0);
+					}
+				} else {
+					name.append(c);
+				}
+			}
+		}
+		return dependencies;
+	}
+
+	private static void update(MessageDigest digest, String tag, Object value) {
+		digest.update(tag.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	/**
+	 * Returns the hash of the contents of the given file, or <code>null</code> if the file
+	 * does not exist. The hash of a file is computed once per build unless the file changes.
+	 */
+	private String getContentHash(File file) throws IOException, NoSuchAlgorithmException {
+		if (!file.isFile())
+			return null;
+		long lastModified = file.lastModified();
+		long length = file.length();
+		FileHash fileHash = fFileHashes.get(file);
+		if (fileHash == null || fileHash.lastModified != lastModified || fileHash.length != length) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			byte[] buffer = new byte[8192];
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				int n;
+				while ((n = in.read(buffer)) > 0) {
+					digest.update(buffer, 0, n);
+				}
+			}
+			fileHash = new FileHash(lastModified, length, HexFormat.of().formatHex(digest.digest()));
+			fFileHashes.put(file, fileHash);
+		}
+		return fileHash.hash;
+	}
+
+	private File getEntryDir(String key) {
+		return new File(new File(fCacheDir, key.substring(0, 2)), key);
+	}
+
+	/**
+	 * Restores the outputs of the given step from the cache.
+	 *
+	 * @param key the key computed for the step, may be <code>null</code>.
+	 * @param out the stream the restored outputs are reported to, may be <code>null</code>.
+	 * @return whether the outputs have been restored. If not, the step has to be executed.
+	 */
+	public boolean restore(String key, IBuildStep step, OutputStream out) {
+		if (key == null)
+			return false;
+		return restore(key, getLocations(step.getOutputResources()), out);
+	}
+
+	/**
+	 * Restores the given outputs from the cache.
+	 *
+	 * @param key the key computed for the outputs, may be <code>null</code>.
+	 * @param out the stream the restored outputs are reported to, may be <code>null</code>.
+	 * @return whether the outputs have been restored. If not, they have to be built.
+	 */
+	public boolean restore(String key, IPath[] outputs, OutputStream out) {
+		if (key == null)
+			return false;
+		File entryDir = getEntryDir(key);
+		boolean restored = entryDir.isDirectory();
+		for (int i = 0; restored && i < outputs.length; i++) {
+			restored = new File(entryDir, Integer.toString(i)).isFile();
+		}
+		File[] dependencyFile = fDependencyFiles.get(key);
+		restored = restored && dependencyFile != null && isUpToDate(entryDir);
+		if (restored) {
+			try {
+				for (int i = 0; i < outputs.length; i++) {
+					Path target = outputs[i].toFile().toPath();
+					Files.copy(new File(entryDir, Integer.toString(i)).toPath(), target,
+							StandardCopyOption.REPLACE_EXISTING);
+					// The restored output has to be newer than the inputs of the step.
+					target.toFile().setLastModified(System.currentTimeMillis());
+				}
+				Files.copy(new File(entryDir, DEPENDENCY_FILE_ENTRY).toPath(), dependencyFile[0].toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+				entryDir.setLastModified(System.currentTimeMillis());
+			} catch (IOException e) {
+				ManagedBuilderCorePlugin.log(e);
+				restored = false;
+			}
+		}
+		if (restored) {
+			fHits++;
+			printMessage(ManagedMakeMessages.getFormattedString("BuildCache.restored", //$NON-NLS-1$
+					outputs[0].lastSegment()), out);
+		} else {
+			fMisses++;
+		}
+		return restored;
+	}
+
+	/**
+	 * Returns whether the files the cached step depended on have the same contents as when
+	 * the step was executed.
+	 */
+	private boolean isUpToDate(File entryDir) {
+		try {
+			for (String line : Files.readAllLines(new File(entryDir, DEPENDENCIES_ENTRY).toPath(),
+					StandardCharsets.UTF_8)) {
+				int separator = line.indexOf(' ');
+				if (separator < 0)
+					return false;
+				String hash = getContentHash(new File(line.substring(separator + 1)));
+				if (!line.substring(0, separator).equals(hash))
+					return false;
+			}
+			return true;
+		} catch (IOException | NoSuchAlgorithmException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Stores the outputs of the given step in the cache, after the step has been executed
+	 * successfully.
+	 *
+	 * @param key the key computed for the step before it was executed, may be <code>null</code>.
+	 */
+	public void store(String key, IBuildStep step) {
+		if (key == null)
+			return;
+		store(key, getLocations(step.getOutputResources()));
+	}
+
+	/**
+	 * Stores the given outputs in the cache, after they have been built successfully. The
+	 * outputs are not stored if a file listed in the dependency file of the commands is missing.
+	 *
+	 * @param key the key computed for the outputs before they were built, may be <code>null</code>.
+	 */
+	public void store(String key, IPath[] outputs) {
+		File[] dependencyFile = key != null ? fDependencyFiles.get(key) : null;
+		if (dependencyFile == null || !dependencyFile[0].isFile())
+			return;
+		for (IPath output : outputs) {
+			if (!output.toFile().isFile())
+				return;
+		}
+
+		File entryDir = getEntryDir(key);
+		File tempDir = new File(entryDir.getPath() + TEMP_SUFFIX);
+		try {
+			StringBuilder dependencies = new StringBuilder();
+			for (File dependency : parseDependencyFile(dependencyFile[0], dependencyFile[1])) {
+				String hash = getContentHash(dependency);
+				if (hash == null)
+					return;
+				dependencies.append(hash).append(' ').append(dependency.getAbsolutePath()).append('\n');
+			}
+
+			deleteDir(tempDir);
+			if (!tempDir.mkdirs())
+				return;
+			for (int i = 0; i < outputs.length; i++) {
+				Files.copy(outputs[i].toFile().toPath(), new File(tempDir, Integer.toString(i)).toPath());
+			}
+			Files.copy(dependencyFile[0].toPath(), new File(tempDir, DEPENDENCY_FILE_ENTRY).toPath());
+			Files.writeString(new File(tempDir, DEPENDENCIES_ENTRY).toPath(), dependencies, StandardCharsets.UTF_8);
+			// An entry whose dependencies changed is replaced. Readers never see an incomplete entry.
+			deleteDir(entryDir);
+			if (tempDir.renameTo(entryDir)) {
+				fStores++;
+			} else {
+				deleteDir(tempDir);
+			}
+		} catch (IOException | NoSuchAlgorithmException e) {
+			ManagedBuilderCorePlugin.log(e);
+			deleteDir(tempDir);
+		}
+	}
+
+	/**
+	 * Removes the entries used least recently if the cache contains more than the maximum
+	 * number of entries. Does nothing if no entries have been added during the build.
+	 */
+	public void trim() {
+		if (fStores == 0)
+			return;
+		List<File> entries = new ArrayList<>();
+		File[] buckets = fCacheDir.listFiles(File::isDirectory);
+		if (buckets == null)
+			return;
+		for (File bucket : buckets) {
+			File[] entryDirs = bucket.listFiles(File::isDirectory);
+			if (entryDirs != null)
+				entries.addAll(Arrays.asList(entryDirs));
+		}
+		if (entries.size() <= MAX_ENTRIES)
+			return;
+		entries.sort(Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < entries.size() - MAX_ENTRIES; i++) {
+			deleteDir(entries.get(i));
+		}
+	}
+
+	private static void deleteDir(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	public int getHitCount() {
+		return fHits;
+	}
+
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Reports the number of cache hits and misses of the build, if the cache has been used.
+	 */
+	public void printSummary(OutputStream out) {
+		if (fHits + fMisses > 0) {
+			printMessage(ManagedMakeMessages.getFormattedString("BuildCache.summary", //$NON-NLS-1$
+					new String[] { Integer.toString(fHits), Integer.toString(fMisses) }), out);
+		}
+	}
+
+	private static void printMessage(String msg, OutputStream os) {
+		if (os != null) {
+			msg = ManagedMakeMessages.getFormattedString(BUILDER_MSG_HEADER, msg) + LINE_SEPARATOR;
+			try {
+				os.write(msg.getBytes());
+				os.flush();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 Intel Corporation and others.
+ * Copyright (c) 2006, 2026 Intel Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Vector;
+import java.util.function.Consumer;
 
 import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
 import org.eclipse.core.runtime.IPath;
@@ -68,12 +69,24 @@ public class BuildProcessManager {
 	 * @param monitor Progress monitor for this task
 	 */
 	public ProcessLauncher launchProcess(IBuildCommand cmd, IPath cwd, IProgressMonitor monitor) {
+		return launchProcess(cmd, cwd, monitor, null);
+	}
+
+	/**
+	 * Performs an attempt to launch new process, like
+	 * {@link #launchProcess(IBuildCommand, IPath, IProgressMonitor)}.
+	 *
+	 * @param completionListener notified when the process is done, may be <code>null</code>
+	 * @see ProcessLauncher#launch(Consumer)
+	 */
+	public ProcessLauncher launchProcess(IBuildCommand cmd, IPath cwd, IProgressMonitor monitor,
+			Consumer<ProcessLauncher> completionListener) {
 		for (int i = 0; i < maxProcesses; i++) {
 			if (i >= processes.size()) {
 				ProcessLauncher process = new ProcessLauncher(cmd.getCommand(), cmd.getArgs(),
 						mapToStringArray(cmd.getEnvironment()), cwd, out, err, monitor, show);
 				processes.add(process);
-				process.launch();
+				process.launch(completionListener);
 				return process;
 
 			}
@@ -81,7 +94,7 @@ public class BuildProcessManager {
 				ProcessLauncher process = new ProcessLauncher(cmd.getCommand(), cmd.getArgs(),
 						mapToStringArray(cmd.getEnvironment()), cwd, out, err, monitor, show);
 				processes.set(i, process);
-				process.launch();
+				process.launch(completionListener);
 				return process;
 			}
 		}
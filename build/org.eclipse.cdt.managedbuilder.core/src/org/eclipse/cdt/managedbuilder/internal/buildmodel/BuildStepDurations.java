@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.buildmodel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.core.IConfiguration;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Durations of build steps recorded in previous builds of a configuration. The steps are
+ * identified by the location of their first output resource. The durations are used by the
+ * {@link ParallelBuilder} to start the steps on the longest path through the build first.
+ */
+public class BuildStepDurations {
+	private static final String FILE_EXTENSION = ".durations"; //$NON-NLS-1$
+
+	private final File fFile;
+	private final Properties fDurations = new Properties();
+	private boolean fIsDirty;
+	private long fTotal;
+	private int fCount;
+
+	/**
+	 * Creates durations that are not persisted.
+	 */
+	public BuildStepDurations() {
+		fFile = null;
+	}
+
+	private BuildStepDurations(File file) {
+		fFile = file;
+		if (file.exists()) {
+			try (InputStream iStream = new FileInputStream(file)) {
+				fDurations.load(iStream);
+			} catch (IOException e) {
+				ManagedBuilderCorePlugin.log(e);
+			}
+			for (Object value : fDurations.values()) {
+				try {
+					fTotal += Long.parseLong((String) value);
+					fCount++;
+				} catch (NumberFormatException e) {
+					// Ignore the entry.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the durations recorded for the given configuration.
+	 */
+	public static BuildStepDurations load(IConfiguration cfg) {
+		IResource owner = cfg.getOwner();
+		if (!(owner instanceof IProject))
+			return new BuildStepDurations();
+		IPath path = BuildStateManager.getInstance().getPrefsDirPath((IProject) owner);
+		return new BuildStepDurations(path.append(cfg.getId() + FILE_EXTENSION).toFile());
+	}
+
+	private static String getKey(IBuildStep step) {
+		IBuildResource[] outputs = step.getOutputResources();
+		if (outputs.length == 0 || outputs[0].getLocation() == null)
+			return null;
+		return outputs[0].getLocation().toString();
+	}
+
+	/**
+	 * Returns the duration of the given step in milliseconds, as recorded in a previous build.
+	 * For steps without recorded duration the average duration of all steps is returned, or 1
+	 * if no durations have been recorded at all.
+	 */
+	public synchronized long getDuration(IBuildStep step) {
+		String key = getKey(step);
+		String value = key == null ? null : fDurations.getProperty(key);
+		if (value != null) {
+			try {
+				return Math.max(1, Long.parseLong(value));
+			} catch (NumberFormatException e) {
+				// Use the average.
+			}
+		}
+		return fCount == 0 ? 1 : Math.max(1, fTotal / fCount);
+	}
+
+	/**
+	 * Records the duration of the given step.
+	 *
+	 * @param millis the duration in milliseconds
+	 */
+	public synchronized void setDuration(IBuildStep step, long millis) {
+		String key = getKey(step);
+		if (key == null)
+			return;
+		Object old = fDurations.setProperty(key, Long.toString(millis));
+		if (old != null) {
+			try {
+				fTotal -= Long.parseLong((String) old);
+				fCount--;
+			} catch (NumberFormatException e) {
+				// The entry was not counted.
+			}
+		}
+		fTotal += millis;
+		fCount++;
+		fIsDirty = true;
+	}
+
+	/**
+	 * Stores the durations if they have been changed.
+	 */
+	public synchronized void save() {
+		if (fFile == null || !fIsDirty)
+			return;
+
+		File parent = fFile.getParentFile();
+		if (!parent.exists())
+			parent.mkdirs();
+
+		try (OutputStream oStream = new FileOutputStream(fFile)) {
+			fDurations.store(oStream, ""); //$NON-NLS-1$
+			fIsDirty = false;
+		} catch (IOException e) {
+			ManagedBuilderCorePlugin.log(e);
+		}
+	}
+}
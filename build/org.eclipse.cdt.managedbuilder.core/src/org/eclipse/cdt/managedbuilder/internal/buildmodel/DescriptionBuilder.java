@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 Intel Corporation and others.
+ * Copyright (c) 2006, 2026 Intel Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -54,6 +54,7 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 	private int fNumCommands = -1;
 	private GenDirInfo fDir;
 	private IResourceRebuildStateContainer fRebuildStateContainer;
+	private BuildCache fBuildCache;
 
 	private class BuildStepVisitor implements IStepVisitor {
 		private OutputStream fOut;
@@ -139,6 +140,7 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 			fCWD = fDes.getDefaultBuildDirLocation();
 
 		fRebuildStateContainer = rs;
+		fBuildCache = BuildCache.create();
 	}
 
 	/* (non-Javadoc)
@@ -165,6 +167,11 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 
 			if (status == STATUS_OK)
 				status = visitor.fStatus;
+
+			if (fBuildCache != null) {
+				fBuildCache.printSummary(out);
+				fBuildCache.trim();
+			}
 		} else {
 			printMessage(ManagedMakeMessages.getFormattedString(BUILDER_NOTHING_TODO,
 					fDes.getConfiguration().getOwner().getName()), out);
@@ -196,7 +203,7 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 	protected StepBuilder getStepBuilder(IBuildStep step) {
 		StepBuilder b = fStepToStepBuilderMap.get(step);
 		if (b == null) {
-			b = new StepBuilder(step, fCWD, fResumeOnErrs, fDir, fRebuildStateContainer);
+			b = new StepBuilder(step, fCWD, fResumeOnErrs, fDir, fRebuildStateContainer, fBuildCache);
 			fStepToStepBuilderMap.put(step, b);
 		}
 		return b;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 Intel Corporation and others.
+ * Copyright (c) 2006, 2026 Intel Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,12 +17,17 @@ package org.eclipse.cdt.managedbuilder.internal.buildmodel;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Vector;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
@@ -52,6 +57,10 @@ public class ParallelBuilder {
 	public static final int STATUS_ERROR = 1;
 	public static final int STATUS_CANCELED = 2;
 	public static final int STATUS_INVALID = -1;
+	/**
+	 * The maximum time in milliseconds the dispatcher waits for a process to complete,
+	 * before it checks for cancellation.
+	 */
 	public static final long MAIN_LOOP_DELAY = 50L;
 
 	private static final String BUILDER_MSG_HEADER = "InternalBuilder.msg.header"; //$NON-NLS-1$
@@ -71,6 +80,16 @@ public class ParallelBuilder {
 	protected LinkedList<BuildQueueElement> queue = new LinkedList<>();
 	private IResourceRebuildStateContainer fRebuildStateContainer;
 	private IBuildDescription fDes;
+	private BuildStepDurations fDurations = new BuildStepDurations();
+	private BuildCache fCache;
+
+	/**
+	 * Orders the elements by decreasing priority, elements with equal priority by level.
+	 */
+	private static final Comparator<BuildQueueElement> PRIORITY_ORDER = (e1, e2) -> {
+		int cmp = Long.compare(e2.priority, e1.priority);
+		return cmp != 0 ? cmp : e1.compareTo(e2);
+	};
 
 	/**
 	 * This class implements queue element
@@ -78,6 +97,12 @@ public class ParallelBuilder {
 	protected class BuildQueueElement implements Comparable<BuildQueueElement> {
 		protected IBuildStep step;
 		protected int level;
+		/** The queued steps that depend on the output of this step. */
+		protected List<BuildQueueElement> dependents = new ArrayList<>();
+		/** The number of queued steps this step depends on that have not completed, yet. */
+		protected int pendingPrerequisites;
+		/** The expected duration of the longest path from this step to the end of the build. */
+		protected long priority = -1;
 
 		public BuildQueueElement(IBuildStep _step, int _level) {
 			step = _step;
@@ -142,9 +167,20 @@ public class ParallelBuilder {
 		protected int activeCmd;
 		protected boolean done;
 		protected ProcessLauncher launcher;
+		protected BuildQueueElement element;
+		protected long startTime;
+		protected boolean failed;
+		/** The key of the outputs of the step in the build cache, or <code>null</code>. */
+		protected String cacheKey;
+
+		public ActiveBuildStep(BuildQueueElement _element) {
+			this(_element.getStep());
+			element = _element;
+		}
 
 		public ActiveBuildStep(IBuildStep _step) {
 			step = _step;
+			startTime = System.currentTimeMillis();
 
 			if (dirs == null)
 				stepDirs = new GenDirInfo(step.getBuildDescription().getConfiguration());
@@ -161,6 +197,14 @@ public class ParallelBuilder {
 		}
 
 		public boolean launchNextCmd(BuildProcessManager mgr) {
+			return launchNextCmd(mgr, null);
+		}
+
+		/**
+		 * Launches the next command of the step, the given queue receives the step once the
+		 * command has completed.
+		 */
+		public boolean launchNextCmd(BuildProcessManager mgr, BlockingQueue<ActiveBuildStep> completed) {
 			if (monitor.isCanceled()) {
 				done = true;
 				return false;
@@ -169,7 +213,8 @@ public class ParallelBuilder {
 				done = true;
 			else {
 				IBuildCommand cmd = cmds[++activeCmd];
-				launcher = mgr.launchProcess(cmd, stepCwd, monitor);
+				launcher = mgr.launchProcess(cmd, stepCwd, monitor,
+						completed == null ? null : l -> completed.add(this));
 				if (launcher != null)
 					return true;
 				activeCmd--;
@@ -267,10 +312,17 @@ public class ParallelBuilder {
 		builder.initRebuildStates();
 		builder.enqueueAll(des);
 		builder.sortQueue();
+		builder.fDurations = BuildStepDurations.load(cfg);
+		builder.fCache = BuildCache.create();
 		monitor.beginTask("", builder.queue.size()); //$NON-NLS-1$
 		BuildProcessManager buildProcessManager = new BuildProcessManager(out, err, true, threads);
 		status = builder.dispatch(buildProcessManager);
 		lastThreadsUsed = buildProcessManager.getThreadsUsed();
+		builder.fDurations.save();
+		if (builder.fCache != null) {
+			builder.fCache.printSummary(out);
+			builder.fCache.trim();
+		}
 		monitor.done();
 
 		if (status == IBuildModelBuilder.STATUS_OK) {
@@ -468,18 +520,67 @@ public class ParallelBuilder {
 	}
 
 	/**
-	 * Dispatches the build queue and returns build status
+	 * Links the queued steps to the queued steps they depend on and computes their priorities.
+	 */
+	protected void computeDependencies() {
+		HashMap<IBuildStep, BuildQueueElement> elements = new HashMap<>();
+		for (BuildQueueElement elem : queue) {
+			elements.put(elem.getStep(), elem);
+		}
+		for (BuildQueueElement elem : queue) {
+			HashSet<BuildQueueElement> prerequisites = new HashSet<>();
+			for (IBuildResource bldRes : elem.getStep().getInputResources()) {
+				IBuildStep producer = bldRes.getProducerStep();
+				BuildQueueElement prerequisite = producer == null ? null : elements.get(producer);
+				if (prerequisite != null && prerequisite != elem && prerequisites.add(prerequisite)) {
+					prerequisite.dependents.add(elem);
+					elem.pendingPrerequisites++;
+				}
+			}
+		}
+		for (BuildQueueElement elem : queue) {
+			computePriority(elem);
+		}
+	}
+
+	/**
+	 * Computes the expected duration of the longest path from the given step to the end of the
+	 * build, based on the durations of the steps in previous builds.
+	 */
+	private long computePriority(BuildQueueElement elem) {
+		if (elem.priority < 0) {
+			elem.priority = 0; // Breaks dependency cycles.
+			long longestDependentPath = 0;
+			for (BuildQueueElement dependent : elem.dependents) {
+				longestDependentPath = Math.max(longestDependentPath, computePriority(dependent));
+			}
+			elem.priority = fDurations.getDuration(elem.getStep()) + longestDependentPath;
+		}
+		return elem.priority;
+	}
+
+	/**
+	 * Dispatches the build queue and returns build status. A step is started as soon as the
+	 * steps producing its inputs have completed and a process slot is available. Of the steps
+	 * that can be started, the ones on the longest remaining path through the build are
+	 * started first.
 	 */
 	protected int dispatch(BuildProcessManager mgr) {
 		int maxProcesses = mgr.getMaxProcesses();
-		Vector<ActiveBuildStep> active = new Vector<>(Math.min(maxProcesses, 10), 10);
+		List<ActiveBuildStep> active = new ArrayList<>(Math.min(maxProcesses, 10));
+		BlockingQueue<ActiveBuildStep> completed = new LinkedBlockingQueue<>();
+		List<ActiveBuildStep> completedSteps = new ArrayList<>();
+
+		computeDependencies();
+		PriorityQueue<BuildQueueElement> ready = new PriorityQueue<>(PRIORITY_ORDER);
+		for (BuildQueueElement elem : queue) {
+			if (elem.pendingPrerequisites == 0)
+				ready.add(elem);
+		}
 
-		int activeCount = 0;
-		int maxLevel = 0;
 		int status = STATUS_OK;
 		String errorMsg = null;
 
-		// Going into "infinite" main loop
 		main_loop: while (true) {
 			if (monitor.isCanceled()) {
 				status = STATUS_CANCELED;
@@ -497,130 +598,58 @@ public class ParallelBuilder {
 				errorMsg = launcher.getErrorMessage();
 				break main_loop;
 			}
-			// Everything goes OK.
-			boolean proceed = true;
 
-			// Check if there is room for new process
-			if (!mgr.hasEmpty()) {
-				proceed = false;
-			} else {
-				// Check "active steps" list for completed ones
-				for (ActiveBuildStep buildStep : active) {
-					ProcessLauncher pl = buildStep.getLauncher();
-					if (pl == null)
-						continue;
-					if (pl.queryState() == ProcessLauncher.STATE_DONE) {
-						// If process has terminated with error, break loop
-						// (except resumeOnErrors == true)
-
-						if (!resumeOnErrors && pl.getExitCode() != 0) {
-							status = STATUS_ERROR;
-							break main_loop;
-						}
-						// Try to launch next command for the current active step
-						if (buildStep.isDone())
-							continue;
-						if (buildStep.launchNextCmd(mgr)) {
-							// Command has been launched. Check if process pool is not maximized yet
-							if (!mgr.hasEmpty()) {
-								proceed = false;
-								break;
-							}
-						} else {
-							// Command has not been launched: step complete
-							refreshOutputs(buildStep.getStep());
-							activeCount--;
-							monitor.worked(1);
-						}
+			// Handle the steps whose current command has completed
+			completed.drainTo(completedSteps);
+			for (ActiveBuildStep buildStep : completedSteps) {
+				if (buildStep.getLauncher().getExitCode() != 0) {
+					// If process has terminated with error, break loop
+					// (except resumeOnErrors == true)
+					if (!resumeOnErrors) {
+						status = STATUS_ERROR;
+						break main_loop;
 					}
+					buildStep.failed = true;
 				}
-			}
-
-			// If nothing to do, then sleep and continue main loop
-			if (!proceed) {
-				try {
-					Thread.sleep(MAIN_LOOP_DELAY);
-				} catch (InterruptedException e) {
-					// do nothing
+				// Try to launch next command for the current active step
+				if (!buildStep.launchNextCmd(mgr, completed)) {
+					// Command has not been launched: step complete
+					active.remove(buildStep);
+					stepCompleted(buildStep, ready);
 				}
-				continue main_loop;
 			}
-
-			// Check if we need to schedule another process
-			if (queue.size() != 0 && activeCount < maxProcesses) {
-				// Need to schedule another process
-				Iterator<BuildQueueElement> iter = queue.iterator();
-
-				// Iterate over build queue
-				while (iter.hasNext()) {
-					BuildQueueElement elem = iter.next();
-
-					// If "active steps" list reaches maximum, then break loop
-					if (activeCount == maxProcesses)
-						break;
-
-					// If current element's level exceeds maximum level of currently built
-					// resources, then stop iteration (we can not build it anyway)
-					if (elem.getLevel() > maxLevel + 1)
-						break;
-
-					//Check if all prerequisites are built
-					boolean prereqBuilt = true;
-					for (IBuildResource bldRes : elem.getStep().getInputResources()) {
-						IBuildStep step = bldRes.getProducerStep(); // step which produces input for curr
-						boolean built = true;
-						if (step != step.getBuildDescription().getInputStep()) {
-							for (ActiveBuildStep buildStep : active) {
-								if (buildStep != null && buildStep.getStep().equals(step) && !buildStep.isDone()) {
-									built = false;
-									break;
-								}
-							}
-						}
-						if (!built) {
-							prereqBuilt = false;
-							break;
-						}
-					}
-
-					if (prereqBuilt) {
-						// All prereqs are built
-						IBuildStep step = elem.getStep();
-
-						// Remove element from the build queue and add it to the
-						// "active steps" list.
-						iter.remove();
-						for (int i = 0; i < maxProcesses; i++) {
-							if (i >= active.size()) {
-								// add new item
-								ActiveBuildStep buildStep = new ActiveBuildStep(step);
-								active.add(buildStep);
-								if (buildStep.launchNextCmd(mgr))
-									activeCount++;
-								break;
-							}
-							if (active.get(i).isDone()) {
-								// replace old item
-								ActiveBuildStep buildStep = new ActiveBuildStep(step);
-								active.set(i, buildStep);
-								if (buildStep.launchNextCmd(mgr))
-									activeCount++;
-								break;
-							}
-						}
-
-						// Update maxLevel
-						if (elem.getLevel() > maxLevel)
-							maxLevel = elem.getLevel();
-						// We don't need to start new process immediately since
-						// it will be done on the next main loop iteration
+			completedSteps.clear();
+
+			// Start the ready steps with the highest priority
+			while (!ready.isEmpty() && active.size() < maxProcesses && mgr.hasEmpty()) {
+				ActiveBuildStep buildStep = new ActiveBuildStep(ready.poll());
+				if (fCache != null) {
+					buildStep.cacheKey = fCache.getKey(buildStep.getStep(), buildStep.cmds);
+					if (fCache.restore(buildStep.cacheKey, buildStep.getStep(), out)) {
+						buildStep.cacheKey = null;
+						stepCompleted(buildStep, ready);
+						continue;
 					}
 				}
+				if (buildStep.launchNextCmd(mgr, completed)) {
+					active.add(buildStep);
+				} else {
+					stepCompleted(buildStep, ready);
+				}
 			}
 
 			// Now finally, check if we're done
-			if (activeCount <= 0 && queue.size() == 0)
+			if (active.isEmpty() && ready.isEmpty())
 				break main_loop;
+
+			// Wait for the completion of a command
+			try {
+				ActiveBuildStep buildStep = completed.poll(MAIN_LOOP_DELAY, TimeUnit.MILLISECONDS);
+				if (buildStep != null)
+					completedSteps.add(buildStep);
+			} catch (InterruptedException e) {
+				// do nothing
+			}
 		}
 
 		if (status != STATUS_OK && errorMsg != null)
@@ -628,6 +657,25 @@ public class ParallelBuilder {
 		return status;
 	}
 
+	/**
+	 * Handles the completion of all commands of a step, makes the steps depending on it ready.
+	 * The outputs of a step that has been executed successfully are added to the build cache.
+	 */
+	private void stepCompleted(ActiveBuildStep buildStep, PriorityQueue<BuildQueueElement> ready) {
+		refreshOutputs(buildStep.getStep());
+		monitor.worked(1);
+		if (!buildStep.failed && !monitor.isCanceled() && buildStep.activeCmd >= 0
+				&& buildStep.activeCmd == buildStep.cmds.length - 1) {
+			fDurations.setDuration(buildStep.getStep(), System.currentTimeMillis() - buildStep.startTime);
+			if (fCache != null)
+				fCache.store(buildStep.cacheKey, buildStep.getStep());
+		}
+		for (BuildQueueElement dependent : buildStep.element.dependents) {
+			if (--dependent.pendingPrerequisites == 0)
+				ready.add(dependent);
+		}
+	}
+
 	/**
 	 * Prints output to the console
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2016 Intel Corporation and others.
+ * Copyright (c) 2006, 2026 Intel Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.cdt.managedbuilder.internal.buildmodel;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Consumer;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.internal.core.ProcessClosure;
@@ -133,12 +134,25 @@ public class ProcessLauncher {
 	 * Launches a process
 	 */
 	public void launch() {
+		launch(null);
+	}
+
+	/**
+	 * Launches a process and notifies the given listener as soon as {@link #queryState()} no
+	 * longer reports {@link #STATE_RUNNING}, i.e. when the process has terminated and all of
+	 * its output has been written, or when the process could not be launched.
+	 *
+	 * @param completionListener the listener, may be <code>null</code>. It is called from a
+	 *     thread other than the calling one.
+	 */
+	public void launch(Consumer<ProcessLauncher> completionListener) {
 		try {
 			if (show)
 				printCommandLine();
 			state = STATE_RUNNING;
 			process = ProcessFactory.getFactory().exec(cmd, env, cwd);
-			closure = new ProcessClosure(process, out, err);
+			final ProcessClosure processClosure = new ProcessClosure(process, out, err);
+			closure = processClosure;
 			// Close the input of the process since we will never write to it
 			try {
 				process.getOutputStream().close();
@@ -146,9 +160,17 @@ public class ProcessLauncher {
 				// do nothing
 			}
 			closure.runNonBlocking();
+			if (completionListener != null) {
+				process.onExit().whenComplete((p, t) -> {
+					processClosure.waitForOutput();
+					completionListener.accept(this);
+				});
+			}
 		} catch (IOException e) {
 			error = e.getMessage();
 			closure = null;
+			if (completionListener != null)
+				completionListener.accept(this);
 		}
 	}
 
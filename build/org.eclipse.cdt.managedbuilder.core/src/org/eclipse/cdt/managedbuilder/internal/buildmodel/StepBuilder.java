@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 Intel Corporation and others.
+ * Copyright (c) 2006, 2026 Intel Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,7 +49,9 @@ public class StepBuilder implements IBuildModelBuilder {
 	private boolean fResumeOnErrs;
 	private int fNumCommands = -1;
 	private CommandBuilder fCommandBuilders[];
+	private IBuildCommand fCommands[];
 	private IResourceRebuildStateContainer fRebuildStateContainer;
+	private BuildCache fBuildCache;
 
 	public StepBuilder(IBuildStep step, IResourceRebuildStateContainer rs) {
 		this(step, null, rs);
@@ -61,6 +63,15 @@ public class StepBuilder implements IBuildModelBuilder {
 
 	public StepBuilder(IBuildStep step, IPath cwd, boolean resumeOnErrs, GenDirInfo dirs,
 			IResourceRebuildStateContainer rs) {
+		this(step, cwd, resumeOnErrs, dirs, rs, null);
+	}
+
+	/**
+	 * @param cache the cache the outputs of the step are restored from and stored in,
+	 * may be <code>null</code>.
+	 */
+	public StepBuilder(IBuildStep step, IPath cwd, boolean resumeOnErrs, GenDirInfo dirs,
+			IResourceRebuildStateContainer rs, BuildCache cache) {
 		fStep = step;
 		fCWD = cwd;
 		fDirs = dirs;
@@ -73,6 +84,7 @@ public class StepBuilder implements IBuildModelBuilder {
 			fCWD = fStep.getBuildDescription().getDefaultBuildDirLocation();
 
 		fRebuildStateContainer = rs;
+		fBuildCache = cache;
 	}
 
 	/* (non-Javadoc)
@@ -90,6 +102,16 @@ public class StepBuilder implements IBuildModelBuilder {
 			//TODO: monitor
 			createOutDirs(new NullProgressMonitor());
 
+			String cacheKey = null;
+			if (fBuildCache != null) {
+				cacheKey = fBuildCache.getKey(fStep, fCommands);
+				if (fBuildCache.restore(cacheKey, fStep, out)) {
+					monitor.worked(getNumCommands());
+					bs = new CommandBuilder[0];
+					cacheKey = null;
+				}
+			}
+
 			for (int i = 0; i < bs.length && status != STATUS_CANCELLED
 					&& (fResumeOnErrs || status == STATUS_OK); i++) {
 				CommandBuilder builder = bs[i];
@@ -108,6 +130,8 @@ public class StepBuilder implements IBuildModelBuilder {
 					break;
 				}
 			}
+			if (status == STATUS_OK && cacheKey != null)
+				fBuildCache.store(cacheKey, fStep);
 			//TODO: monitor
 			status = postProcess(status, new NullProgressMonitor());
 		}
@@ -219,6 +243,7 @@ public class StepBuilder implements IBuildModelBuilder {
 	protected CommandBuilder[] getCommandBuilders() {
 		if (fCommandBuilders == null) {
 			IBuildCommand cmds[] = fStep.getCommands(fCWD, null, null, true);
+			fCommands = cmds;
 			if (cmds == null)
 				fCommandBuilders = new CommandBuilder[0];
 			else {
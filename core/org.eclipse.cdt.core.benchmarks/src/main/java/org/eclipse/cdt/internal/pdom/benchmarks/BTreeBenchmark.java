@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.benchmarks;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.internal.core.pdom.db.BTree;
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
+import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building and searching a {@link BTree} of records holding random int keys.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BTreeBenchmark {
+	@Param({ "10000", "1000000" })
+	public int size;
+
+	private File file;
+	private Database db;
+	private IBTreeComparator comparator;
+	private long[] records;
+	private int[] keys;
+	private BTree tree;
+	private FindVisitor visitor;
+	private int next;
+
+	private class FindVisitor implements IBTreeVisitor {
+		int key;
+		long result;
+
+		@Override
+		public int compare(long record) throws CoreException {
+			return Integer.compare(db.getInt(record), key);
+		}
+
+		@Override
+		public boolean visit(long record) throws CoreException {
+			result = record;
+			return false;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		file = File.createTempFile("btreeBenchmark", ".pdom"); //$NON-NLS-1$ //$NON-NLS-2$
+		db = new Database(file, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+		comparator = (record1, record2) -> Integer.compare(db.getInt(record1), db.getInt(record2));
+
+		Random random = new Random(42);
+		records = new long[size];
+		keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = random.nextInt();
+			records[i] = db.malloc(Database.INT_SIZE);
+			db.putInt(records[i], keys[i]);
+		}
+		tree = newTree();
+		for (long record : records) {
+			tree.insert(record);
+		}
+		db.flush();
+		visitor = new FindVisitor();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		db.close();
+		file.delete();
+	}
+
+	private BTree newTree() throws CoreException {
+		return new BTree(db, db.malloc(Database.PTR_SIZE), comparator);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public long lookup() throws Exception {
+		visitor.key = keys[next++ % keys.length];
+		visitor.result = 0;
+		tree.accept(visitor);
+		return visitor.result;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public BTree insertAll() throws Exception {
+		BTree newTree = newTree();
+		for (long record : records) {
+			newTree.insert(record);
+		}
+		return newTree;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public BTree bulkLoad() throws Exception {
+		BTree newTree = newTree();
+		newTree.bulkLoad(records.clone());
+		return newTree;
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.benchmarks;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads from a read-only database that is larger than its chunk cache. The hit rate
+ * of the cache is printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkCacheBenchmark {
+	/** Fraction of the reads going to the hot chunks in {@link #skewedRead}. */
+	private static final double HOT_READS = 0.9;
+	/** Fraction of the chunks that are hot in {@link #skewedRead}. */
+	private static final double HOT_CHUNKS = 0.1;
+
+	@Param({ "16384" })
+	public int databaseChunks;
+
+	@Param({ "1024", "8192" })
+	public int cacheChunks;
+
+	@Param({ "false", "true" })
+	public boolean mapped;
+
+	private File file;
+	private Database db;
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		final Random random = new Random();
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		file = File.createTempFile("chunkCacheBenchmark", ".pdom"); //$NON-NLS-1$ //$NON-NLS-2$
+		Database writable = new Database(file, new ChunkCache(), 0, false);
+		writable.setExclusiveLock();
+		int count = 0;
+		while (writable.getSizeBytes() < (long) databaseChunks * Database.CHUNK_SIZE) {
+			writable.putInt(writable.malloc(Database.MAX_MALLOC_SIZE), count);
+			if (++count % 1000 == 0) {
+				writable.flush();
+			}
+		}
+		writable.close();
+
+		db = new Database(file, new ChunkCache((long) cacheChunks * Database.CHUNK_SIZE), 0, true, mapped);
+		db.setLocked(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		db.setExclusiveLock();
+		db.close();
+		file.delete();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetCounters() {
+		db.resetCacheCounters();
+	}
+
+	@TearDown(Level.Iteration)
+	public void printHitRate() {
+		long hits = db.getCacheHits();
+		long total = hits + db.getCacheMisses();
+		System.out.printf("cache hit rate: %.2f%%, evictions: %d%n", total == 0 ? 0 : 100.0 * hits / total, //$NON-NLS-1$
+				db.getCacheEvictions());
+	}
+
+	private int read(int chunk) throws Exception {
+		// Chunk 0 is the header, which is not cached.
+		return db.getInt((long) (1 + chunk) * Database.CHUNK_SIZE);
+	}
+
+	@Benchmark
+	public int uniformRead(ThreadState state) throws Exception {
+		return read(state.random.nextInt(databaseChunks - 1));
+	}
+
+	@Benchmark
+	public int skewedRead(ThreadState state) throws Exception {
+		int hotChunks = (int) (databaseChunks * HOT_CHUNKS);
+		if (state.random.nextDouble() < HOT_READS) {
+			return read(state.random.nextInt(hotChunks));
+		}
+		return read(hotChunks + state.random.nextInt(databaseChunks - 1 - hotChunks));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public int skewedReadConcurrent(ThreadState state) throws Exception {
+		return skewedRead(state);
+	}
+}
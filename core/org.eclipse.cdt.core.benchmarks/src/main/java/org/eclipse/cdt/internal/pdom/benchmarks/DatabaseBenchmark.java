@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.benchmarks;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures allocating and freeing blocks of a {@link Database} whose free lists have been
+ * fragmented by a number of live blocks of random sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+	@Param({ "16", "256", "2048" })
+	public int blockSize;
+
+	@Param({ "100000" })
+	public int liveBlocks;
+
+	private File file;
+	private Database db;
+	private long[] blocks;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		file = File.createTempFile("databaseBenchmark", ".pdom"); //$NON-NLS-1$ //$NON-NLS-2$
+		db = new Database(file, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+		Random random = new Random(42);
+		blocks = new long[liveBlocks];
+		for (int i = 0; i < blocks.length; i++) {
+			blocks[i] = db.malloc(1 + random.nextInt(blockSize));
+		}
+		// Leave holes of all sizes in the free lists.
+		for (int i = 0; i < blocks.length; i += 2) {
+			db.free(blocks[i]);
+			blocks[i] = db.malloc(1 + random.nextInt(blockSize));
+		}
+		db.flush();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		db.close();
+		file.delete();
+	}
+
+	@Benchmark
+	public long mallocFree() throws Exception {
+		long block = db.malloc(blockSize);
+		db.free(block);
+		return block;
+	}
+
+	@Benchmark
+	public long replaceLiveBlock() throws Exception {
+		int i = next++ % blocks.length;
+		db.free(blocks[i]);
+		return blocks[i] = db.malloc(blockSize);
+	}
+
+	@Benchmark
+	public long newString() throws Exception {
+		int i = next++ % blocks.length;
+		db.free(blocks[i]);
+		return blocks[i] = db.newString("benchmark_identifier_" + i).getRecord(); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.eclipse.cdt.core.dom.ILinkage;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexBinding;
+import org.eclipse.cdt.core.index.IIndexMacro;
+import org.eclipse.cdt.core.index.IIndexName;
+import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.index.URIRelativeLocationConverter;
+import org.eclipse.cdt.core.parser.IScannerInfo;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.indexer.FileEncodingRegistry;
+import org.eclipse.cdt.internal.core.indexer.IStandaloneScannerInfoProvider;
+import org.eclipse.cdt.internal.core.indexer.StandaloneFastIndexer;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.c.PDOMCLinkageFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMCPPLinkageFactory;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures typical index queries on an index of a synthetic C++ code base, which is created with
+ * the standalone indexer. Every source file includes a common header and defines a class, a
+ * macro and a number of functions, each of which calls a function declared in the header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexQueryBenchmark {
+	private static final String HEADER = "common.h"; //$NON-NLS-1$
+
+	@Param({ "100", "1000" })
+	public int fileCount;
+
+	@Param({ "20" })
+	public int functionsPerFile;
+
+	private File sourceDir;
+	private File indexFile;
+	private StandaloneFastIndexer indexer;
+	private IIndex index;
+	private IIndexBinding sharedFunction;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		sourceDir = Files.createTempDirectory("indexQueryBenchmark").toFile(); //$NON-NLS-1$
+		indexFile = File.createTempFile("indexQueryBenchmark", ".pdom"); //$NON-NLS-1$ //$NON-NLS-2$
+		writeSources();
+
+		Map<String, IPDOMLinkageFactory> linkageFactories = new HashMap<>();
+		linkageFactories.put(ILinkage.C_LINKAGE_NAME, new PDOMCLinkageFactory());
+		linkageFactories.put(ILinkage.CPP_LINKAGE_NAME, new PDOMCPPLinkageFactory());
+		IStandaloneScannerInfoProvider scannerInfo = new IStandaloneScannerInfoProvider() {
+			@Override
+			public IScannerInfo getScannerInformation(String path) {
+				return new ScannerInfo();
+			}
+
+			@Override
+			public IScannerInfo getDefaultScannerInformation(int linkageID) {
+				return new ScannerInfo();
+			}
+		};
+		indexer = new StandaloneFastIndexer(indexFile, new URIRelativeLocationConverter(sourceDir.toURI()),
+				linkageFactories, scannerInfo, new FileEncodingRegistry("UTF-8"), //$NON-NLS-1$
+				file -> GPPLanguage.getDefault(), new NullLogService());
+		indexer.setValidSourceUnitNames(Set.of("cpp")); //$NON-NLS-1$
+		indexer.rebuild(List.of(sourceDir.getAbsolutePath()), new NullProgressMonitor());
+
+		index = indexer.getIndex();
+		index.acquireReadLock();
+		IIndexBinding[] bindings = index.findBindings("shared".toCharArray(), IndexFilter.ALL, null); //$NON-NLS-1$
+		if (bindings.length != 1) {
+			throw new IllegalStateException("Synthetic index is incomplete"); //$NON-NLS-1$
+		}
+		sharedFunction = bindings[0];
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		index.releaseReadLock();
+		IWritableIndex writableIndex = indexer.getIndex();
+		WritablePDOM pdom = (WritablePDOM) writableIndex.getWritableFragment();
+		pdom.acquireWriteLock(null);
+		try {
+			pdom.close();
+		} finally {
+			pdom.releaseWriteLock();
+		}
+		indexFile.delete();
+		try (Stream<Path> files = Files.walk(sourceDir.toPath())) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private void writeSources() throws IOException {
+		StringBuilder header = new StringBuilder();
+		header.append("#define SHARED_MACRO 1\n"); //$NON-NLS-1$
+		header.append("int shared(int x);\n"); //$NON-NLS-1$
+		Files.writeString(new File(sourceDir, HEADER).toPath(), header);
+
+		for (int i = 0; i < fileCount; i++) {
+			StringBuilder source = new StringBuilder();
+			source.append("#include \"").append(HEADER).append("\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			source.append("#define MACRO_").append(i).append(" ").append(i).append('\n'); //$NON-NLS-1$ //$NON-NLS-2$
+			source.append("namespace ns").append(i).append(" {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			source.append("struct Type").append(i).append(" { int field; int method(int x); };\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			source.append("}\n"); //$NON-NLS-1$
+			for (int j = 0; j < functionsPerFile; j++) {
+				source.append("int function").append(i).append('_').append(j).append("(int x);\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			for (int j = 0; j < functionsPerFile; j++) {
+				source.append("int function").append(i).append('_').append(j).append("(int x) {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				source.append("  return shared(x)"); //$NON-NLS-1$
+				if (j > 0) {
+					source.append(" + function").append(i).append('_').append(j - 1).append("(x)"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				source.append(" + MACRO_").append(i).append(";\n}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			Files.writeString(new File(sourceDir, "source" + i + ".cpp").toPath(), source); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private int nextFile() {
+		return next++ % fileCount;
+	}
+
+	@Benchmark
+	public IIndexBinding[] findBindings() throws Exception {
+		return index.findBindings(("function" + nextFile() + "_0").toCharArray(), IndexFilter.ALL, null); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Benchmark
+	public IIndexBinding[] findBindingsForPrefix() throws Exception {
+		return index.findBindingsForPrefix(("function" + nextFile() + "_").toCharArray(), false, IndexFilter.ALL, //$NON-NLS-1$ //$NON-NLS-2$
+				null);
+	}
+
+	@Benchmark
+	public IIndexName[] findReferencesOfSharedFunction() throws Exception {
+		return index.findReferences(sharedFunction);
+	}
+
+	@Benchmark
+	public IIndexMacro[] findMacros() throws Exception {
+		return index.findMacros(("MACRO_" + nextFile()).toCharArray(), IndexFilter.ALL, null); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.db.IString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures comparisons of strings stored in the database, which differ in their last character
+ * only. Strings longer than a chunk are stored as long strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBenchmark {
+	@Param({ "8", "64", "4000" })
+	public int length;
+
+	@Param({ "false", "true" })
+	public boolean wide;
+
+	private File file;
+	private Database db;
+	private IString string1;
+	private IString string2;
+	private char[] chars2;
+	private char[] prefix;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		file = File.createTempFile("stringBenchmark", ".pdom"); //$NON-NLS-1$ //$NON-NLS-2$
+		db = new Database(file, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+
+		char[] chars1 = new char[length];
+		for (int i = 0; i < length; i++) {
+			// Wide strings are stored with two bytes per character.
+			chars1[i] = (char) ((wide ? 'α' : 'a') + i % 26);
+		}
+		chars2 = chars1.clone();
+		chars2[length - 1]++;
+		prefix = Arrays.copyOf(chars1, length / 2);
+		string1 = db.newString(chars1);
+		string2 = db.newString(chars2);
+		db.flush();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		db.close();
+		file.delete();
+	}
+
+	@Benchmark
+	public int compareStrings() throws Exception {
+		return string1.compare(string2, true);
+	}
+
+	@Benchmark
+	public int compareChars() throws Exception {
+		return string1.compare(chars2, true);
+	}
+
+	@Benchmark
+	public int compareCompatibleWithIgnoreCase() throws Exception {
+		return string1.compareCompatibleWithIgnoreCase(string2);
+	}
+
+	@Benchmark
+	public int comparePrefix() throws Exception {
+		return string1.comparePrefix(prefix, false);
+	}
+
+	@Benchmark
+	public char[] getChars() throws Exception {
+		return string1.getChars();
+	}
+}
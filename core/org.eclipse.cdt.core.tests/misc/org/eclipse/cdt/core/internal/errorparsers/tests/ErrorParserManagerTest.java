@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2016 QNX Software Systems and others.
+ * Copyright (c) 2008, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.cdt.core.internal.errorparsers.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -168,6 +169,41 @@ public class ErrorParserManagerTest extends BaseTestCase5 {
 		assertEquals(22, errorList.size());
 	}
 
+	@Test
+	public void testPipelinedOutput() throws IOException {
+		String[] errorParsersIds = { "org.eclipse.cdt.core.CWDLocator", "org.eclipse.cdt.core.GCCErrorParser",
+				"org.eclipse.cdt.core.GmakeErrorParser", };
+		System.setProperty("org.eclipse.cdt.core.errorParserManager.pipelined", "true");
+		try {
+			epManager = new ErrorParserManager(cProject.getProject(), markerGenerator, errorParsersIds);
+		} finally {
+			System.clearProperty("org.eclipse.cdt.core.errorParserManager.pipelined");
+		}
+
+		epManager.getOutputStream();
+		for (int i = 0; i < 20000; i++) {
+			output("make[1]: Entering directory '/dir" + i + "'\n");
+			if (i % 2 == 0) {
+				output("\u001b[01mfile" + i + ".c:" + (i + 1) + ":1: \u001b[01;31merror: \u001b[0mfailure " + i + "\r\n");
+			} else {
+				// The line is parsed later, so it is not reported as consumed.
+				assertFalse(epManager.processLine("file" + i + ".c:" + (i + 1) + ":1: warning: failure " + i));
+			}
+			output("make[1]: Leaving directory '/dir" + i + "'\n");
+		}
+		epManager.close();
+
+		assertEquals(60000, epManager.getLineCounter());
+		assertEquals(10000, epManager.getErrorCount());
+		assertEquals(10000, epManager.getWarningCount());
+		assertEquals(20000, errorList.size());
+		for (int i = 0; i < errorList.size(); i++) {
+			ProblemMarkerInfo problemMarkerInfo = errorList.get(i);
+			assertEquals("failure " + i, problemMarkerInfo.description);
+			assertEquals(i + 1, problemMarkerInfo.lineNumber);
+		}
+	}
+
 	private String addErrorParserExtension(String shortId, Class cl) {
 		String ext = "<plugin><extension id=\"" + shortId + "\" name=\"" + shortId
 				+ "\" point=\"org.eclipse.cdt.core.ErrorParser\">" + "<errorparser class=\"" + cl.getName() + "\"/>"
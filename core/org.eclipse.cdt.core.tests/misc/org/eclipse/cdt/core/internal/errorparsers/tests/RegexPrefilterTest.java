@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.internal.errorparsers.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.cdt.internal.errorparsers.RegexPrefilter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the cheap test run before the regular expressions of error patterns.
+ */
+public class RegexPrefilterTest {
+	private static final String[] LINES = { "", "gcc -O2 -c -o main.o main.c", "main.c:12:5: error: expected ';'",
+			"main.c:12: warning: unused variable 'x'", "make[1]: Entering directory '/home/user/project'",
+			"make[2]: *** [Makefile:12: all] Error 1", "main.cpp(12) : error C2143: syntax error",
+			"ERROR: something failed", "abd", "abcd", "xx.yyyz", "fooooobar", "a+b", "[x]", "line with \t tab" };
+
+	private static final String[] PATTERNS = { "(.*?):(\\d+):(\\d+:)? (?:fatal )?error: (.*)",
+			"(.*?):(\\d+): warning: (.*)", "make\\[\\d+\\]: Entering directory [`'](.*)'",
+			"make(\\[\\d+\\])?: \\*\\*\\* \\[(.*)\\] Error (\\d+)", "(.*)\\((\\d+)\\) : error (C\\d+): (.*)",
+			"(?i)error: (.*)", "abc?d", "x\\.y+z", "fo{2,}bar", "a\\+b", "\\[x\\]", "error|warning", "with \\t tab",
+			"[]x]", "(?<file>.*):(?<line>\\d+): (.*)", "\\Qa+b\\E", "^ERROR", "ERROR: .*$" };
+
+	/**
+	 * A line matching a pattern must never be rejected.
+	 */
+	@Test
+	public void testMatchingLinesAreAccepted() {
+		for (String regex : PATTERNS) {
+			Pattern pattern = Pattern.compile(regex);
+			RegexPrefilter prefilter = new RegexPrefilter(regex);
+			for (String line : LINES) {
+				if (pattern.matcher(line).find()) {
+					assertTrue(prefilter.mayMatch(line), regex + " rejects " + line);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNonMatchingLinesAreRejected() {
+		assertFalse(new RegexPrefilter(PATTERNS[0]).mayMatch(LINES[1]));
+		assertFalse(new RegexPrefilter(PATTERNS[1]).mayMatch(LINES[2]));
+		assertFalse(new RegexPrefilter(PATTERNS[2]).mayMatch(LINES[5]));
+		assertFalse(new RegexPrefilter(PATTERNS[4]).mayMatch(LINES[2]));
+		assertFalse(new RegexPrefilter("x\\.y+z").mayMatch("xy"));
+	}
+
+	@Test
+	public void testUnanalyzedPatternsAcceptAllLines() {
+		String[] patterns = { "(?i)error", "error|warning", "\\Qerror\\E", "(a)\\1", "[]x]error", "\\x41error" };
+		for (String regex : patterns) {
+			RegexPrefilter prefilter = new RegexPrefilter(regex);
+			for (String line : LINES) {
+				assertTrue(prefilter.mayMatch(line), regex + " rejects " + line);
+			}
+		}
+	}
+
+	@Test
+	public void testCountOfRejectedLines() {
+		RegexPrefilter prefilter = new RegexPrefilter(PATTERNS[0]);
+		int rejected = 0;
+		for (String line : LINES) {
+			if (!prefilter.mayMatch(line)) {
+				rejected++;
+			}
+		}
+		assertEquals(LINES.length - 1, rejected);
+	}
+}
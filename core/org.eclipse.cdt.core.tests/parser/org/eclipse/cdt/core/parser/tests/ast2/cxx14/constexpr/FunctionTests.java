@@ -64,6 +64,24 @@ public abstract class FunctionTests extends TestBase {
 		assertEvaluationEquals(55);
 	}
 
+	// constexpr int fib(int n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }
+
+	// constexpr int x = fib(20);
+	public void testRepeatedCallsAreEvaluatedOnce() throws Exception {
+		// Without reusing the results of calls, the evaluation exceeds the maximum number of steps.
+		assertEvaluationEquals(6765);
+	}
+
+	// constexpr int increment(int n) {
+	//   n = n + 1;
+	//   return n;
+	// }
+
+	// constexpr int x = increment(1) + increment(1) + increment(2);
+	public void testRepeatedCallsWithModifiedParameter() throws Exception {
+		assertEvaluationEquals(7);
+	}
+
 	// constexpr int helper(int n) {
 	//   int m = 5;
 	//   return m + n;
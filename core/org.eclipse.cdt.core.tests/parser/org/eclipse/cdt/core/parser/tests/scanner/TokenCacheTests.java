@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.scanner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.parser.scanner.AbstractCharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.CharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.ILexerLog;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
+import org.eclipse.cdt.internal.core.parser.scanner.Token;
+import org.eclipse.cdt.internal.core.parser.scanner.TokenCache;
+
+import junit.framework.TestSuite;
+
+/**
+ * Compares the tokens replayed from the {@link TokenCache} with the tokens of a lexer without cache.
+ */
+public class TokenCacheTests extends BaseTestCase {
+	private static final String INPUT = """
+			#ifndef GUARD_H
+			#define GUARD_H
+			#include <header.h> // comment
+			#include "other.h" /* comment */
+			/* multi
+			   line */ int x = 'a' + 0x1p3 + "str";
+			%: define DIGRAPH <: :> <% %>
+			int y = ??= + \\
+			  z;
+			char c = 'unterminated
+			#include <unterminated
+			#endif
+			/* unterminated""";
+
+	public static TestSuite suite() {
+		return suite(TokenCacheTests.class);
+	}
+
+	private static class Log implements ILexerLog {
+		final List<String> fEvents = new ArrayList<>();
+
+		@Override
+		public void handleComment(boolean isBlockComment, int offset, int endOffset, AbstractCharArray input) {
+			fEvents.add("comment " + isBlockComment + " " + offset + "-" + endOffset);
+		}
+
+		@Override
+		public void handleProblem(int problemID, char[] arg, int offset, int endOffset) {
+			fEvents.add("problem " + problemID + " " + new String(arg) + " " + offset + "-" + endOffset);
+		}
+	}
+
+	private TokenCache fCache;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fCache = new TokenCache(1024 * 1024);
+	}
+
+	private static String toString(Token t) {
+		return t.getType() + " " + t.getOffset() + "-" + t.getEndOffset() + " " + t.getImage();
+	}
+
+	/**
+	 * Lexes the input like the preprocessor does, header names are lexed inside of include directives.
+	 */
+	private static List<String> lex(Lexer lexer, Log log, boolean useDirectives) throws Exception {
+		List<String> result = new ArrayList<>();
+		Token t = lexer.nextToken();
+		while (t.getType() != IToken.tEND_OF_INPUT) {
+			if (t.getType() == IToken.tPOUND && lexer.currentTokenIsFirstOnLine()) {
+				t = lexer.nextToken();
+				result.add(toString(t));
+				if ("include".equals(t.getImage())) {
+					lexer.setInsideIncludeDirective(true);
+					t = lexer.nextToken();
+					lexer.setInsideIncludeDirective(false);
+				} else if (useDirectives) {
+					t = lexer.nextDirective();
+				} else {
+					t = lexer.nextToken();
+				}
+			} else {
+				t = lexer.nextToken();
+			}
+			result.add(toString(t));
+		}
+		result.addAll(log.fEvents);
+		return result;
+	}
+
+	private List<String> lex(String input, TokenCache cache, boolean useDirectives) throws Exception {
+		Log log = new Log();
+		CharArray chars = new CharArray(input.toCharArray());
+		Lexer lexer = cache == null ? new Lexer(chars, new LexerOptions(), log, null)
+				: new Lexer(chars, new LexerOptions(), log, null, cache);
+		return lex(lexer, log, useDirectives);
+	}
+
+	public void testReplayedTokens() throws Exception {
+		for (boolean useDirectives : new boolean[] { false, true }) {
+			fCache.clear();
+			List<String> expected = lex(INPUT, null, useDirectives);
+			assertEquals(expected, lex(INPUT, fCache, useDirectives));
+			assertEquals(1, fCache.size());
+			assertEquals(expected, lex(INPUT, fCache, useDirectives));
+			assertEquals(1, fCache.size());
+		}
+	}
+
+	public void testRecordedDifferentlyFromReplay() throws Exception {
+		// Record with directives being skipped, replay with tokens being fetched for all directives.
+		lex(INPUT, fCache, true);
+		assertEquals(lex(INPUT, null, false), lex(INPUT, fCache, false));
+		fCache.clear();
+		lex(INPUT, fCache, false);
+		assertEquals(lex(INPUT, null, true), lex(INPUT, fCache, true));
+	}
+
+	public void testSaveAndRestoreState() throws Exception {
+		lex(INPUT, fCache, false);
+		Lexer lexer = new Lexer(new CharArray(INPUT.toCharArray()), new LexerOptions(), ILexerLog.NULL, null, fCache);
+		lexer.nextToken();
+		lexer.nextToken();
+		lexer.saveState();
+		List<String> first = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			first.add(toString(lexer.nextToken()));
+		}
+		lexer.restoreState();
+		List<String> second = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			second.add(toString(lexer.nextToken()));
+		}
+		assertEquals(first, second);
+	}
+
+	public void testIncompleteLexingIsNotCached() throws Exception {
+		Lexer lexer = new Lexer(new CharArray(INPUT.toCharArray()), new LexerOptions(), ILexerLog.NULL, null, fCache);
+		lexer.nextToken();
+		lexer.nextToken();
+		assertEquals(0, fCache.size());
+	}
+
+	public void testOptionsArePartOfTheKey() throws Exception {
+		lex(INPUT, fCache, false);
+		LexerOptions options = new LexerOptions();
+		options.fSupportDollarInIdentifiers = false;
+		Lexer lexer = new Lexer(new CharArray(INPUT.toCharArray()), options, ILexerLog.NULL, null, fCache);
+		while (lexer.nextToken().getType() != IToken.tEND_OF_INPUT) {
+		}
+		assertEquals(2, fCache.size());
+	}
+
+	public void testDisabledCache() throws Exception {
+		TokenCache cache = new TokenCache(0);
+		assertEquals(lex(INPUT, null, false), lex(INPUT, cache, false));
+		assertEquals(0, cache.size());
+	}
+}
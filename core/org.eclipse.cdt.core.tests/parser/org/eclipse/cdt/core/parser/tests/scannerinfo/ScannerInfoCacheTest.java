@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.cdt.core.parser.tests.scannerinfo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.build.ScannerInfoCache;
+import org.eclipse.cdt.core.parser.ExtendedScannerInfo;
+import org.eclipse.cdt.core.parser.IExtendedScannerInfo;
+import org.eclipse.cdt.core.parser.IncludeExportPatterns;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ScannerInfoCacheTest {
+	private IProject project;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("ScannerInfoCacheTest");
+		project.create(null);
+		project.open(null);
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		project.delete(true, null);
+	}
+
+	private static ScannerInfoCache writeAndRead(ScannerInfoCache cache) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			cache.write(out);
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return ScannerInfoCache.read(in);
+		}
+	}
+
+	@Test
+	public void testBinaryFormat() throws Exception {
+		ScannerInfoCache cache = new ScannerInfoCache();
+		cache.initCache();
+
+		ExtendedScannerInfo info = new ExtendedScannerInfo(Map.of("__STDC__", "1", "NDEBUG", ""),
+				new String[] { "/usr/local/include", "/usr/include" });
+		info.setIncludeExportPatterns(new IncludeExportPatterns("pattern1", null, "pattern3"));
+		List<String> command1 = List.of("gcc", "-O2", "-DNDEBUG");
+		List<String> command2 = List.of("gcc", "-O2", "-DNDEBUG", "-Wall");
+		List<IFile> files = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			IFile file = project.getFile("file" + i + ".c");
+			files.add(file);
+			cache.addScannerInfo(i % 2 == 0 ? command1 : command2, info, file);
+		}
+		List<String> command3 = List.of("g++", "-std=c++17");
+		IFile cppFile = project.getFile("file.cpp");
+		cache.addScannerInfo(command3, new ExtendedScannerInfo(Map.of("__cplusplus", "201703L"), null), cppFile);
+
+		ScannerInfoCache result = writeAndRead(cache);
+		assertTrue(result.hasCommand(command1));
+		assertTrue(result.hasCommand(command2));
+		assertTrue(result.hasCommand(command3));
+		for (int i = 0; i < files.size(); i++) {
+			assertTrue(result.hasResource(i % 2 == 0 ? command1 : command2, files.get(i)));
+			assertFalse(result.hasResource(i % 2 == 0 ? command2 : command1, files.get(i)));
+		}
+
+		// scanner infos with equal content are shared
+		IExtendedScannerInfo info1 = result.getScannerInfo(command1);
+		assertSame(info1, result.getScannerInfo(command2));
+		assertSame(info1, result.getScannerInfo(files.get(0)));
+		assertEquals(info.getDefinedSymbols(), info1.getDefinedSymbols());
+		assertArrayEquals(info.getIncludePaths(), info1.getIncludePaths());
+		IncludeExportPatterns patterns = ((ExtendedScannerInfo) info1).getIncludeExportPatterns();
+		assertEquals("pattern1", patterns.getIncludeExportPattern().pattern());
+		assertNull(patterns.getIncludeBeginExportsPattern());
+		assertEquals("pattern3", patterns.getIncludeEndExportsPattern().pattern());
+
+		IExtendedScannerInfo info3 = result.getScannerInfo(cppFile);
+		assertEquals(Map.of("__cplusplus", "201703L"), info3.getDefinedSymbols());
+		assertNull(((ExtendedScannerInfo) info3).getIncludeExportPatterns());
+
+		// the read cache can be modified
+		result.removeResource(cppFile);
+		assertFalse(result.hasCommand(command3));
+		result.addResource(command1, files.get(1));
+		assertTrue(result.hasResource(command1, files.get(1)));
+		assertFalse(result.hasResource(command2, files.get(1)));
+	}
+
+	@Test
+	public void testInvalidInput() {
+		byte[] bytes = "{\"commands\":[]}".getBytes();
+		assertThrows(IOException.class,
+				() -> ScannerInfoCache.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+	}
+}
@@ -115,6 +115,11 @@ public class EmptyIndexFragment implements IIndexFragment {
 		return 0;
 	}
 
+	@Override
+	public long getCacheEvictions() {
+		return 0;
+	}
+
 	@Override
 	@Deprecated
 	public IIndexFragmentFile getFile(int linkageID, IIndexFileLocation location) throws CoreException {
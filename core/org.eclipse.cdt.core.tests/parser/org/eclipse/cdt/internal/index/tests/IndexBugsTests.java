@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2006, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -88,6 +88,7 @@ import org.eclipse.cdt.core.testplugin.TestScannerProvider;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
 import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
+import org.eclipse.cdt.internal.core.index.IndexContentCache;
 import org.eclipse.cdt.internal.core.pdom.CModelListener;
 import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
 import org.eclipse.core.resources.IContainer;
@@ -2637,4 +2638,51 @@ public class IndexBugsTests extends BaseTestCase {
 		}
 	}
 
+	// #pragma once
+	// #define A 1
+
+	// #pragma once
+	// #include "a.h"
+	// #define B A
+
+	// #include "a.h"
+	// #include "b.h"
+	// int x = B;
+
+	// #include "b.h"
+	// int y = A;
+	public void testIndexContentCache() throws Exception {
+		String[] contents = getContentsForTest(4);
+		TestSourceReader.createFile(fCProject.getProject(), "a.h", contents[0]);
+		TestSourceReader.createFile(fCProject.getProject(), "b.h", contents[1]);
+		IFile s1 = TestSourceReader.createFile(fCProject.getProject(), "s1.cpp", contents[2]);
+		IFile s2 = TestSourceReader.createFile(fCProject.getProject(), "s2.cpp", contents[3]);
+		CCorePlugin.getIndexManager().reindex(fCProject);
+		waitForIndexer();
+
+		IndexContentCache cache = IndexContentCache.getDefault();
+		cache.clear();
+		ITranslationUnit tu1 = (ITranslationUnit) CoreModel.getDefault().create(s1);
+		ITranslationUnit tu2 = (ITranslationUnit) CoreModel.getDefault().create(s2);
+		fIndex.acquireReadLock();
+		try {
+			int hits = cache.getHitCount();
+			IASTTranslationUnit ast = tu1.getAST(fIndex, ITranslationUnit.AST_SKIP_INDEXED_HEADERS);
+			assertEquals(hits, cache.getHitCount());
+			assertEquals(1, ast.getMacroExpansions().length);
+
+			// The content of both headers is reused.
+			ast = tu1.getAST(fIndex, ITranslationUnit.AST_SKIP_INDEXED_HEADERS);
+			assertEquals(hits + 2, cache.getHitCount());
+			assertEquals(1, ast.getMacroExpansions().length);
+
+			// The content of b.h has been collected after a.h had been included, it cannot be reused.
+			ast = tu2.getAST(fIndex, ITranslationUnit.AST_SKIP_INDEXED_HEADERS);
+			assertEquals(hits + 2, cache.getHitCount());
+			assertEquals(1, ast.getMacroExpansions().length);
+			assertEquals("A", ast.getMacroExpansions()[0].getMacroReference().toString());
+		} finally {
+			fIndex.releaseReadLock();
+		}
+	}
 }
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.index.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.IPDOMManager;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexBinding;
+import org.eclipse.cdt.core.index.IIndexFile;
+import org.eclipse.cdt.core.index.IIndexManager;
+import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.model.ICProject;
+import org.eclipse.cdt.core.testplugin.CProjectHelper;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase5;
+import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
+import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for rebuilding the index with several parsing workers.
+ */
+public class ParallelIndexingTest extends BaseTestCase5 {
+	private static final int SOURCE_COUNT = 60;
+	private static final int WORKER_COUNT = 4;
+
+	private ICProject fProject;
+
+	@BeforeEach
+	protected void createProject() throws Exception {
+		fProject = CProjectHelper.createCCProject("testParallelIndexing", null, IPDOMManager.ID_FAST_INDEXER);
+		TestSourceReader.createFile(fProject.getProject(), "common.h",
+				"#ifndef COMMON_H\n#define COMMON_H\nstruct Common { int value; };\n#endif\n");
+		for (int i = 0; i < SOURCE_COUNT; i++) {
+			StringBuilder content = new StringBuilder();
+			content.append("#include \"common.h\"\n");
+			content.append("struct Local").append(i).append(" : Common {};\n");
+			content.append("int func").append(i).append("(Common& c) { return c.value + ").append(i).append("; }\n");
+			TestSourceReader.createFile(fProject.getProject(), "source" + i + ".cpp", content.toString());
+		}
+		waitForIndexer(fProject);
+	}
+
+	@AfterEach
+	protected void deleteProject() throws Exception {
+		if (fProject != null) {
+			CProjectHelper.delete(fProject);
+		}
+	}
+
+	private void setWorkerCount(int count) {
+		IndexerPreferences.set(fProject.getProject(), IndexerPreferences.KEY_INDEXER_WORKER_THREADS,
+				String.valueOf(count));
+	}
+
+	private void rebuild() throws Exception {
+		CCorePlugin.getIndexManager().reindex(fProject);
+		waitForIndexer(fProject);
+	}
+
+	/**
+	 * Returns a description of the content of the index that does not depend on the order in which
+	 * the sources have been written.
+	 */
+	private List<String> describeIndex() throws Exception {
+		List<String> result = new ArrayList<>();
+		IIndex index = CCorePlugin.getIndexManager().getIndex(fProject);
+		index.acquireReadLock();
+		try {
+			IIndexFile[] files = index.getAllFiles();
+			result.add("files: " + files.length);
+			IIndexBinding[] common = index.findBindings("Common".toCharArray(), IndexFilter.ALL, npm());
+			result.add("Common: " + common.length);
+			if (common.length == 1) {
+				result.add("references: " + index.findReferences(common[0]).length);
+			}
+			for (int i = 0; i < SOURCE_COUNT; i++) {
+				result.add("func" + i + ": "
+						+ index.findBindings(("func" + i).toCharArray(), IndexFilter.ALL, npm()).length);
+				result.add("Local" + i + ": "
+						+ index.findBindings(("Local" + i).toCharArray(), IndexFilter.ALL, npm()).length);
+			}
+		} finally {
+			index.releaseReadLock();
+		}
+		return result;
+	}
+
+	private void waitForIndexerToStart() throws InterruptedException {
+		IIndexManager indexManager = CCorePlugin.getIndexManager();
+		for (int i = 0; i < 100 && indexManager.isIndexerIdle(); i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void testParallelRebuild() throws Exception {
+		setWorkerCount(1);
+		rebuild();
+		List<String> serial = describeIndex();
+		assertEquals("files: " + (SOURCE_COUNT + 1), serial.get(0));
+		assertEquals("references: " + 2 * SOURCE_COUNT, serial.get(2));
+
+		setWorkerCount(WORKER_COUNT);
+		rebuild();
+		assertEquals(serial, describeIndex());
+
+		// Rebuild twice, such that the content of the index does not depend on the previous run.
+		rebuild();
+		assertEquals(serial, describeIndex());
+	}
+
+	@Test
+	public void testCancelParallelRebuild() throws Exception {
+		setWorkerCount(1);
+		rebuild();
+		List<String> serial = describeIndex();
+
+		setWorkerCount(WORKER_COUNT);
+		for (int i = 0; i < 3; i++) {
+			CCorePlugin.getIndexManager().reindex(fProject);
+			waitForIndexerToStart();
+			// Cancels the running rebuild, the workers must stop before the next rebuild starts.
+		}
+		rebuild();
+		assertEquals(serial, describeIndex());
+	}
+}
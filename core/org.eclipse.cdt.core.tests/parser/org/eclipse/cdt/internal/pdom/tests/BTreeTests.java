@@ -120,6 +120,44 @@ public class BTreeTests extends BaseTestCase5 {
 		}
 	}
 
+	/**
+	 * Test loading random (but reproducible via known seed) records, including duplicates,
+	 * into an empty and a non-empty B-tree.
+	 */
+	@Test
+	public void testBulkLoad() throws Exception {
+		Random random = new Random(4711);
+		for (int degree = 2; degree < 10; degree++) {
+			for (int size : new int[] { 0, 1, 2 * degree - 1, 2 * degree, 1000 + random.nextInt(20000) }) {
+				init(degree);
+				try {
+					final SortedSet expected = new TreeSet();
+					long[] records = new long[size];
+					for (int i = 0; i < size; i++) {
+						int value = random.nextInt(size + 1);
+						expected.add(Integer.valueOf(value));
+						records[i] = new BTMockRecord(db, value).getRecord();
+					}
+					btree.bulkLoad(records);
+					assertBTreeMatchesSortedSet("[Bulk load] ", btree, expected);
+					assertBTreeInvariantsHold("[Bulk load]");
+
+					long[] more = new long[100];
+					for (int i = 0; i < more.length; i++) {
+						int value = random.nextInt(2 * size + 1);
+						expected.add(Integer.valueOf(value));
+						more[i] = new BTMockRecord(db, value).getRecord();
+					}
+					btree.bulkLoad(more);
+					assertBTreeMatchesSortedSet("[Bulk load, non-empty] ", btree, expected);
+					assertBTreeInvariantsHold("[Bulk load, non-empty]");
+				} finally {
+					finish();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Insert/Delete a random number of records into/from the B-tree
 	 * @param seed the seed for obtaining the deterministic random testing
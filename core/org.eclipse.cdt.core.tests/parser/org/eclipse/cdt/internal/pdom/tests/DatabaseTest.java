@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 QNX Software Systems
+ * Copyright (c) 2005, 2026 QNX Software Systems
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.RandomAccessFile;
 import java.util.Random;
 
 import org.eclipse.cdt.core.testplugin.CTestPlugin;
@@ -95,8 +96,8 @@ public class DatabaseTest extends BaseTestCase5 {
 		assertEquals(-blocksize, db.getShort(mem - Database.BLOCK_HEADER_SIZE));
 		db.free(mem);
 		assertEquals(blocksize, db.getShort(mem - Database.BLOCK_HEADER_SIZE));
-		assertEquals(mem, db.getRecPtr((deltas - Database.MIN_BLOCK_DELTAS + 1) * Database.INT_SIZE));
-		assertEquals(mem + blocksize, db.getRecPtr((freeDeltas - Database.MIN_BLOCK_DELTAS + 1) * Database.INT_SIZE));
+		assertEquals(mem, db.getRecPtr((deltas - Database.MIN_BLOCK_DELTAS + 2) * Database.INT_SIZE));
+		assertEquals(mem + blocksize, db.getRecPtr((freeDeltas - Database.MIN_BLOCK_DELTAS + 2) * Database.INT_SIZE));
 	}
 
 	@Test
@@ -136,7 +137,7 @@ public class DatabaseTest extends BaseTestCase5 {
 		long mem2 = db.malloc(realsize);
 		db.free(mem1);
 		db.free(mem2);
-		assertEquals(mem2, db.getRecPtr((deltas - Database.MIN_BLOCK_DELTAS + 1) * Database.INT_SIZE));
+		assertEquals(mem2, db.getRecPtr((deltas - Database.MIN_BLOCK_DELTAS + 2) * Database.INT_SIZE));
 		assertEquals(0, db.getRecPtr(mem2));
 		assertEquals(mem1, db.getRecPtr(mem2 + Database.INT_SIZE));
 		assertEquals(mem2, db.getRecPtr(mem1));
@@ -151,6 +152,307 @@ public class DatabaseTest extends BaseTestCase5 {
 		assertEquals(mem2, mem1);
 	}
 
+	@Test
+	public void testMemoryMappedDatabase() throws Exception {
+		long mem1 = db.malloc(42);
+		db.putInt(mem1, 42);
+		db.putLong(mem1 + 4, Long.MIN_VALUE);
+		long string = db.newString("mapped").getRecord();
+		db.flush();
+
+		Database mapped = new Database(db.getLocation(), new ChunkCache(), 0, true, true);
+		mapped.setLocked(true);
+		try {
+			assertTrue(mapped.isMapped());
+			assertEquals(42, mapped.getInt(mem1));
+			assertEquals(Long.MIN_VALUE, mapped.getLong(mem1 + 4));
+			assertTrue(mapped.getString(string).equals("mapped"));
+		} finally {
+			mapped.setExclusiveLock();
+			mapped.close();
+		}
+
+		// Modifications must become visible through the mapped regions after a flush.
+		db.putInt(mem1, 43);
+		long mem2 = db.malloc(Database.MAX_MALLOC_SIZE);
+		db.putInt(mem2, 44);
+		db.flush();
+
+		mapped = new Database(db.getLocation(), new ChunkCache(), 0, true, true);
+		mapped.setLocked(true);
+		try {
+			assertEquals(43, mapped.getInt(mem1));
+			assertEquals(44, mapped.getInt(mem2));
+		} finally {
+			mapped.setExclusiveLock();
+			mapped.close();
+		}
+	}
+
+	@Test
+	public void testTruncateMemoryMappedDatabase() throws Exception {
+		long[] records = new long[16];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(Database.MAX_MALLOC_SIZE);
+			db.putInt(records[i], i);
+		}
+		db.flush();
+		long length = db.getLocation().length();
+
+		Database mapped = new Database(db.getLocation(), new ChunkCache(), 0, false, true);
+		mapped.setExclusiveLock();
+		try {
+			// The chunks are served from the mapped regions.
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(i, mapped.getInt(records[i]));
+			}
+
+			// The regions are released before the file is truncated.
+			for (int i = records.length / 2; i < records.length; i++) {
+				mapped.free(records[i]);
+			}
+			int position = 1;
+			do {
+				position = mapped.defragment(position, 16);
+			} while (position != 0);
+			assertTrue(mapped.releaseFreeChunks() > 0);
+			mapped.flush();
+			assertTrue(mapped.getLocation().length() < length);
+			for (int i = 0; i < records.length / 2; i++) {
+				assertEquals(i, mapped.getInt(records[i]));
+			}
+
+			mapped.clear(0);
+			assertEquals(Database.CHUNK_SIZE, mapped.getLocation().length());
+			long record = mapped.malloc(42);
+			mapped.putInt(record, 42);
+			mapped.flush();
+			assertEquals(42, mapped.getInt(record));
+		} finally {
+			mapped.close();
+		}
+	}
+
+	@Test
+	public void testCacheCounters() throws Exception {
+		Database small = new Database(getTestDir().append(getName() + "small.dat").toFile(),
+				new ChunkCache(4 * Database.CHUNK_SIZE), 0, false);
+		small.setExclusiveLock();
+		try {
+			long[] records = new long[16];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = small.malloc(Database.MAX_MALLOC_SIZE);
+				small.putInt(records[i], i);
+			}
+			small.giveUpExclusiveLock(true);
+			small.resetCacheCounters();
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(i, small.getInt(records[i]));
+				assertEquals(i, small.getInt(records[i]));
+			}
+			assertTrue(small.getCacheHits() >= records.length);
+			assertTrue(small.getCacheMisses() > 0);
+			assertTrue(small.getCacheEvictions() > 0);
+
+			small.resetCacheCounters();
+			assertEquals(0, small.getCacheHits());
+			assertEquals(0, small.getCacheMisses());
+			assertEquals(0, small.getCacheEvictions());
+		} finally {
+			small.setExclusiveLock();
+			small.close();
+			small.getLocation().delete();
+		}
+	}
+
+	@Test
+	public void testFlushOfScatteredChunks() throws Exception {
+		// More adjacent chunks than are written with a single call, with gaps in between.
+		long[] records = new long[600];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(Database.MAX_MALLOC_SIZE);
+			db.putInt(records[i], i);
+		}
+		db.flush();
+		for (int i = records.length; --i >= 0;) {
+			if (i % 3 != 0) {
+				db.putInt(records[i], -i);
+			}
+		}
+		db.flush();
+
+		Database reopened = new Database(db.getLocation(), new ChunkCache(), 0, true);
+		reopened.setLocked(true);
+		try {
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(i % 3 != 0 ? -i : i, reopened.getInt(records[i]));
+			}
+		} finally {
+			reopened.setExclusiveLock();
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testCompressedDatabase() throws Exception {
+		long[] records = new long[1000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(Database.MAX_MALLOC_SIZE / 8);
+			db.putInt(records[i], i);
+		}
+		long string = db.newString("compressed").getRecord();
+		db.flush();
+
+		File compressed = getTestDir().append(getName() + System.currentTimeMillis() + ".zdat").toFile();
+		try {
+			Database.compress(db.getLocation(), compressed);
+			assertTrue(compressed.length() < db.getLocation().length());
+			try {
+				new Database(compressed, new ChunkCache(), 0, false);
+				fail("Compressed database must not be writable");
+			} catch (CoreException e) {
+			}
+
+			Database reopened = new Database(compressed, new ChunkCache(), 0, true);
+			reopened.setLocked(true);
+			try {
+				assertTrue(reopened.isCompressed());
+				for (int i = 0; i < records.length; i++) {
+					assertEquals(i, reopened.getInt(records[i]));
+				}
+				assertEquals("compressed", reopened.getString(string).getString());
+			} finally {
+				reopened.setExclusiveLock();
+				reopened.close();
+			}
+		} finally {
+			compressed.delete();
+		}
+	}
+
+	@Test
+	public void testCorruptedCompressedDatabase() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			db.putInt(db.malloc(Database.MAX_MALLOC_SIZE / 8), i);
+		}
+		db.flush();
+
+		File compressed = getTestDir().append(getName() + System.currentTimeMillis() + ".zdat").toFile();
+		try {
+			Database.compress(db.getLocation(), compressed);
+			try (RandomAccessFile file = new RandomAccessFile(compressed, "rw")) {
+				// A chunk count that does not fit into the file.
+				file.seek(Database.INT_SIZE);
+				int chunkCount = file.readInt();
+				file.seek(Database.INT_SIZE);
+				file.writeInt(Integer.MAX_VALUE - 1);
+				assertCorrupted(compressed);
+
+				// An offset beyond the end of the file.
+				file.seek(Database.INT_SIZE);
+				file.writeInt(chunkCount);
+				file.seek(2 * Database.INT_SIZE + 8);
+				file.writeLong(file.length() + 1);
+				assertCorrupted(compressed);
+
+				// Offsets that are not in ascending order.
+				file.seek(2 * Database.INT_SIZE + 8);
+				file.writeLong(0);
+				assertCorrupted(compressed);
+			}
+		} finally {
+			compressed.delete();
+		}
+	}
+
+	private void assertCorrupted(File file) {
+		try {
+			new Database(file, new ChunkCache(), 0, true);
+			fail("Corrupted database must not be opened");
+		} catch (CoreException e) {
+		}
+	}
+
+	@Test
+	public void testDefragmentAndReleaseFreeChunks() throws Exception {
+		Random random = new Random(42);
+		long[] records = new long[20000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(Database.INT_SIZE + random.nextInt(300));
+			db.putInt(records[i], i);
+		}
+		db.flush();
+		long length = db.getLocation().length();
+
+		// Free the second half of the records and every other record of the first half.
+		for (int i = 0; i < records.length; i++) {
+			if (i >= records.length / 2 || i % 2 == 1) {
+				db.free(records[i]);
+				records[i] = 0;
+			}
+		}
+		assertTrue(db.getFreedSinceDefragmentation() > 0);
+		int position = 1;
+		do {
+			position = db.defragment(position, 16);
+		} while (position != 0);
+		assertEquals(0, db.getFreedSinceDefragmentation());
+		assertTrue(db.releaseFreeChunks() > 0);
+		db.flush();
+		assertTrue(db.getLocation().length() < length);
+
+		for (int i = 0; i < records.length; i++) {
+			if (records[i] != 0) {
+				assertEquals(i, db.getInt(records[i]));
+			}
+		}
+		// Merged blocks are reused for new records.
+		long record = db.malloc(Database.MAX_MALLOC_SIZE);
+		db.putInt(record, -1);
+		for (int i = 0; i < records.length; i++) {
+			if (records[i] != 0) {
+				assertEquals(i, db.getInt(records[i]));
+			}
+		}
+		assertEquals(-1, db.getInt(record));
+	}
+
+	@Test
+	public void testLargeBlockSizeDelta() throws Exception {
+		final int bits = Database.BLOCK_SIZE_DELTA_BITS + 2;
+		db.clear(0, bits);
+		assertEquals(bits, db.getBlockSizeDeltaBits());
+		assertEquals(Database.MAX_DB_SIZE * 4, db.getMaxSize());
+
+		long[] records = new long[1000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(i % 100);
+			assertEquals(0, (records[i] - Database.BLOCK_HEADER_SIZE) % (1 << bits));
+			db.putInt(records[i], i);
+		}
+		for (int i = 0; i < records.length; i += 2) {
+			db.free(records[i]);
+		}
+		// Pointers beyond the default maximum size can be stored.
+		long pointer = Database.MAX_DB_SIZE * 3 + Database.BLOCK_HEADER_SIZE;
+		long record = db.malloc(Database.PTR_SIZE);
+		db.putRecPtr(record, pointer);
+		db.flush();
+
+		Database reopened = new Database(db.getLocation(), new ChunkCache(), 0, true);
+		reopened.setLocked(true);
+		try {
+			assertEquals(bits, reopened.getBlockSizeDeltaBits());
+			assertEquals(pointer, reopened.getRecPtr(record));
+			for (int i = 1; i < records.length; i += 2) {
+				assertEquals(i, reopened.getInt(records[i]));
+			}
+		} finally {
+			reopened.setExclusiveLock();
+			reopened.close();
+		}
+	}
+
 	private static class FindVisitor implements IBTreeVisitor {
 		private Database db;
 		private String key;
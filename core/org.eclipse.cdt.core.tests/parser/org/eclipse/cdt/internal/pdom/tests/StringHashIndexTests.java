@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase5;
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.db.StringHashIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StringHashIndexTests extends BaseTestCase5 {
+	protected File dbFile;
+	protected Database db;
+	protected StringHashIndex index;
+
+	@BeforeEach
+	protected void beforeEach() throws Exception {
+		dbFile = File.createTempFile("stringhashindextest", "db");
+		db = new Database(dbFile, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+		// The records of the strings serve as records of the index.
+		index = new StringHashIndex(db, Database.DATA_AREA, record -> record);
+	}
+
+	@AfterEach
+	protected void afterEach() throws Exception {
+		db.close();
+		dbFile.deleteOnExit();
+	}
+
+	private long insert(String name) throws Exception {
+		long record = db.newString(name).getRecord();
+		index.insert(record, name.toCharArray());
+		return record;
+	}
+
+	@Test
+	public void testFindInsertDelete() throws Exception {
+		char[] longChars = new char[Database.CHUNK_SIZE];
+		Arrays.fill(longChars, 'x');
+		String longName = new String(longChars);
+		// "Aa" and "BB" have the same hash code.
+		String[] names = { "", "a", "Aa", "BB", "äöü", "αβ", longName };
+		long[] records = new long[names.length];
+
+		assertEquals(0, index.find("a".toCharArray()));
+		for (int i = 0; i < names.length; i++) {
+			records[i] = insert(names[i]);
+		}
+		for (int i = 0; i < names.length; i++) {
+			assertEquals(records[i], index.find(names[i].toCharArray()));
+		}
+		assertEquals(0, index.find("b".toCharArray()));
+		assertEquals(0, index.find("AA".toCharArray()));
+		assertEquals(0, index.find((longName + 'x').toCharArray()));
+
+		index.delete(records[2], names[2].toCharArray());
+		assertEquals(0, index.find(names[2].toCharArray()));
+		assertEquals(records[3], index.find(names[3].toCharArray()));
+		index.delete(records[2], names[2].toCharArray());
+		assertEquals(records[3], index.find(names[3].toCharArray()));
+	}
+
+	@Test
+	public void testManyRecords() throws Exception {
+		long[] records = new long[100000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = insert("name" + i);
+		}
+		for (int i = 0; i < records.length; i++) {
+			assertEquals(records[i], index.find(("name" + i).toCharArray()));
+		}
+		for (int i = 0; i < records.length; i += 2) {
+			index.delete(records[i], ("name" + i).toCharArray());
+		}
+		for (int i = 0; i < records.length; i++) {
+			assertEquals(i % 2 == 0 ? 0 : records[i], index.find(("name" + i).toCharArray()));
+		}
+		// Growing the table after the deletions keeps the remaining records.
+		long[] moreRecords = new long[records.length];
+		for (int i = 0; i < moreRecords.length; i++) {
+			moreRecords[i] = insert("more" + i);
+		}
+		for (int i = 0; i < records.length; i++) {
+			assertEquals(i % 2 == 0 ? 0 : records[i], index.find(("name" + i).toCharArray()));
+			assertEquals(moreRecords[i], index.find(("more" + i).toCharArray()));
+		}
+	}
+
+	@Test
+	public void testReopen() throws Exception {
+		long[] records = new long[1000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = insert("name" + i);
+		}
+		db.close();
+		db = new Database(dbFile, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+		index = new StringHashIndex(db, Database.DATA_AREA, record -> record);
+		for (int i = 0; i < records.length; i++) {
+			assertEquals(records[i], index.find(("name" + i).toCharArray()));
+		}
+		// The table keeps growing from its stored size.
+		long record = insert("name" + records.length);
+		assertEquals(record, index.find(("name" + records.length).toCharArray()));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 QNX Software Systems and others.
+ * Copyright (c) 2000, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -74,6 +74,7 @@ import org.eclipse.cdt.core.settings.model.ICProjectDescription;
 import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
 import org.eclipse.cdt.internal.core.index.IndexBasedFileContentProvider;
+import org.eclipse.cdt.internal.core.index.IndexContentCache;
 import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.ParserLogService;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
@@ -907,6 +908,7 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 			IndexBasedFileContentProvider ibcf = new IndexBasedFileContentProvider(index, pathResolver, linkageID,
 					fileContentsProvider);
 			ibcf.setContextToHeaderGap(contextToHeader);
+			ibcf.setContentCache(IndexContentCache.getDefault());
 			fileContentsProvider = ibcf;
 		}
 
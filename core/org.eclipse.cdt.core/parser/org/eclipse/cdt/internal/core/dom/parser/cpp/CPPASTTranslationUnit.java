@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -44,6 +44,8 @@ import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPInheritance.FinalOverriderMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConstexprCallRequest;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.MemoizationCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeInstantiationRequest;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
@@ -57,6 +59,9 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 	private final CPPScopeMapper fScopeMapper;
 	private CPPASTAmbiguityResolver fAmbiguityResolver;
 
+	private static final int INSTANTIATION_CACHE_SIZE = 100000;
+	private static final int CONSTEXPR_CALL_CACHE_SIZE = 10000;
+
 	// Caches.
 	private final Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache = new HashMap<>();
 	// Cache for type instantiations. This is currently only used for instantiations of
@@ -64,7 +69,11 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 	// instantiations. Note that class template instances are already cached by the
 	// template definition, so we wouldn't want to double-cache those. (But we could e.g.
 	// cache instantiations of function types if we found it worthwhile.)
-	private final Map<TypeInstantiationRequest, IType> fInstantiationCache = new HashMap<>();
+	private final MemoizationCache<TypeInstantiationRequest, IType> fInstantiationCache = new MemoizationCache<>(
+			INSTANTIATION_CACHE_SIZE);
+	// Cache for the results of constexpr function calls with fixed argument values.
+	private final MemoizationCache<ConstexprCallRequest, ICPPEvaluation> fConstexprCallCache = new MemoizationCache<>(
+			CONSTEXPR_CALL_CACHE_SIZE);
 
 	public CPPASTTranslationUnit() {
 		fScopeMapper = new CPPScopeMapper(this);
@@ -266,10 +275,14 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 		return fFinalOverriderMapCache;
 	}
 
-	public Map<TypeInstantiationRequest, IType> getInstantiationCache() {
+	public MemoizationCache<TypeInstantiationRequest, IType> getInstantiationCache() {
 		return fInstantiationCache;
 	}
 
+	public MemoizationCache<ConstexprCallRequest, ICPPEvaluation> getConstexprCallCache() {
+		return fConstexprCallCache;
+	}
+
 	public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec,
 			ICPPClassTemplatePartialSpecialization astSpec) {
 		fScopeMapper.recordPartialSpecialization(indexSpec, astSpec);
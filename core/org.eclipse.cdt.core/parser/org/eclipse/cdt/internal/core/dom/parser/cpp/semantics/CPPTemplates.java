@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,7 +30,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -3449,7 +3448,7 @@ public class CPPTemplates {
 		return true;
 	}
 
-	private static Map<TypeInstantiationRequest, IType> getInstantiationCache() {
+	private static MemoizationCache<TypeInstantiationRequest, IType> getInstantiationCache() {
 		IASTNode lookupPoint = CPPSemantics.getCurrentLookupPoint();
 		if (lookupPoint != null) {
 			IASTTranslationUnit tu = lookupPoint.getTranslationUnit();
@@ -3461,12 +3460,12 @@ public class CPPTemplates {
 	}
 
 	private static IType getCachedInstantiation(TypeInstantiationRequest instantiationRequest) {
-		Map<TypeInstantiationRequest, IType> cache = getInstantiationCache();
+		MemoizationCache<TypeInstantiationRequest, IType> cache = getInstantiationCache();
 		return cache != null ? cache.get(instantiationRequest) : null;
 	}
 
 	private static void putCachedInstantiation(TypeInstantiationRequest instantiationRequest, IType result) {
-		Map<TypeInstantiationRequest, IType> cache = getInstantiationCache();
+		MemoizationCache<TypeInstantiationRequest, IType> cache = getInstantiationCache();
 		if (cache != null) {
 			cache.put(instantiationRequest, result);
 		}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import java.util.Objects;
+
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
+
+/**
+ * A call of a constexpr function with fixed argument values, used as a key in the cache of the
+ * results of constexpr function calls.
+ */
+public class ConstexprCallRequest {
+	private final ICPPFunction function;
+	private final EvalFixed[] arguments;
+	private final int hashCode;
+
+	private ConstexprCallRequest(ICPPFunction function, EvalFixed[] arguments) {
+		this.function = function;
+		this.arguments = arguments;
+		int hash = function.hashCode();
+		for (EvalFixed argument : arguments) {
+			hash = hash * 31 + Objects.hashCode(argument.getValue().numberValue());
+		}
+		this.hashCode = hash;
+	}
+
+	/**
+	 * Creates a request for the call of the given function, or returns <code>null</code> if the
+	 * result of the call may depend on more than the values of the arguments.
+	 *
+	 * @param args the function followed by the arguments of the call.
+	 */
+	public static ConstexprCallRequest create(ICPPFunction function, ICPPEvaluation[] args) {
+		EvalFixed[] arguments = new EvalFixed[args.length - 1];
+		for (int i = 1; i < args.length; i++) {
+			if (!(args[i] instanceof EvalFixed) || args[i] == EvalFixed.INCOMPLETE)
+				return null;
+			// The function body may modify the values of its parameters.
+			arguments[i - 1] = new EvalFixed(args[i].getType(), args[i].getValueCategory(),
+					args[i].getValue().clone());
+		}
+		return new ConstexprCallRequest(function, arguments);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ConstexprCallRequest))
+			return false;
+		ConstexprCallRequest other = (ConstexprCallRequest) obj;
+		if (!function.equals(other.function) || arguments.length != other.arguments.length)
+			return false;
+		for (int i = 0; i < arguments.length; i++) {
+			if (!arguments[i].isEquivalentTo(other.arguments[i]))
+				return false;
+		}
+		return true;
+	}
+}
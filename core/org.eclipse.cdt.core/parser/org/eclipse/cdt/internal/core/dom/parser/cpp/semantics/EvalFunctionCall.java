@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2012, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -46,6 +46,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
 import org.eclipse.cdt.internal.core.dom.parser.DependentValue;
 import org.eclipse.cdt.internal.core.dom.parser.ITypeMarshalBuffer;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClosureType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
@@ -348,6 +349,40 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		if (!function.isConstexpr())
 			return EvalFixed.INCOMPLETE;
 
+		// The result of a call with fixed argument values is cached, unless it depends on an object.
+		MemoizationCache<ConstexprCallRequest, ICPPEvaluation> cache = getConstexprCallCache();
+		ConstexprCallRequest request = null;
+		if (cache != null && !(function instanceof ICPPMethod && !((ICPPMethod) function).isStatic())) {
+			request = ConstexprCallRequest.create(function, fArguments);
+			if (request != null) {
+				ICPPEvaluation result = cache.get(request);
+				if (result != null)
+					return copy(result);
+			}
+		}
+		ICPPEvaluation result = computeFunctionBody(function, context);
+		if (request != null && result instanceof EvalFixed && result != EvalFixed.INCOMPLETE) {
+			cache.put(request, copy(result));
+		}
+		return result;
+	}
+
+	/**
+	 * Copies a result of a constexpr function call, such that the value can be modified.
+	 */
+	private static ICPPEvaluation copy(ICPPEvaluation result) {
+		return new EvalFixed(result.getType(), result.getValueCategory(), result.getValue().clone());
+	}
+
+	private static MemoizationCache<ConstexprCallRequest, ICPPEvaluation> getConstexprCallCache() {
+		IASTNode lookupPoint = CPPSemantics.getCurrentLookupPoint();
+		if (lookupPoint != null && lookupPoint.getTranslationUnit() instanceof CPPASTTranslationUnit tu) {
+			return tu.getConstexprCallCache();
+		}
+		return null;
+	}
+
+	private ICPPEvaluation computeFunctionBody(ICPPFunction function, ConstexprEvaluationContext context) {
 		ActivationRecord record = createActivationRecord(function.getParameters(), fArguments, getImplicitThis());
 		ICPPExecution bodyExec = CPPFunction.getFunctionBodyExecution(function);
 		if (bodyExec == null) {
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import org.eclipse.cdt.internal.core.parser.util.LRUCache;
+
+/**
+ * Cache for results of semantic computations within an AST, e.g. of the evaluation of constexpr
+ * function calls. The cache is limited in size, the entries used least recently are evicted first.
+ * The number of hits and misses is counted for statistics.
+ */
+public class MemoizationCache<K, V> {
+	private final LRUCache<K, V> fEntries;
+	private int fHits;
+	private int fMisses;
+
+	public MemoizationCache(int limit) {
+		fEntries = new LRUCache<>(limit);
+	}
+
+	/**
+	 * Returns the cached result for the given key, or <code>null</code>.
+	 */
+	public V get(K key) {
+		V result = fEntries.get(key);
+		if (result != null) {
+			fHits++;
+		} else {
+			fMisses++;
+		}
+		return result;
+	}
+
+	public void put(K key, V value) {
+		fEntries.put(key, value);
+	}
+
+	public int size() {
+		return fEntries.size();
+	}
+
+	public int getHitCount() {
+		return fHits;
+	}
+
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	@Override
+	public String toString() {
+		int total = fHits + fMisses;
+		return fHits + " hits, " + fMisses + " misses (" //$NON-NLS-1$ //$NON-NLS-2$
+				+ (total == 0 ? 0 : fHits * 100 / total) + "% hit rate), " + size() + " entries"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -734,6 +734,14 @@ public class CIndex implements IIndex {
 		return result;
 	}
 
+	public long getCacheEvictions() {
+		long result = 0;
+		for (IIndexFragment fragment : fFragments) {
+			result += fragment.getCacheEvictions();
+		}
+		return result;
+	}
+
 	public void resetCacheCounters() {
 		for (IIndexFragment fragment : fFragments) {
 			fragment.resetCacheCounters();
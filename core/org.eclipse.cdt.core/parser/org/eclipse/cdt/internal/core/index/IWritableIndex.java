@@ -157,6 +157,11 @@ public interface IWritableIndex extends IIndex {
 	 */
 	long getCacheMisses();
 
+	/**
+	 * Returns cache evictions since last reset of counters.
+	 */
+	long getCacheEvictions();
+
 	/**
 	 * Returns the primary writable fragment, or <code>null</code> if there is
 	 * no writable fragment.
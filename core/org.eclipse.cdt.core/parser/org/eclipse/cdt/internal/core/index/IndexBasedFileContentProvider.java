@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 QNX Software Systems and others.
+ * Copyright (c) 2005, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -65,6 +65,8 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 	private IIndexFile[] fContextToHeaderGap;
 	private final Map<IIndexFileLocation, IFileNomination> fPragmaOnce = new HashMap<>();
 	private Set<String> fHeadersToIndexAllVersions = Collections.emptySet();
+	private IndexContentCache fContentCache;
+	private IndexContentCache.Context fContentCacheContext;
 
 	private boolean fIndexAllHeaderVersions;
 
@@ -86,6 +88,15 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 		fContextToHeaderGap = ctxToHeader;
 	}
 
+	/**
+	 * Sets a cache for the content collected from the index, which is shared with other providers
+	 * for the same index.
+	 */
+	public void setContentCache(IndexContentCache cache) {
+		fContentCacheContext = IndexContentCache.createContext(fIndex);
+		fContentCache = fContentCacheContext != null ? cache : null;
+	}
+
 	public void setFileSizeLimit(long limit) {
 		fFileSizeLimit = limit;
 	}
@@ -132,15 +143,24 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 		try {
 			IIndexFile file = selectIndexFile(macroDictionary, ifl);
 			if (file != null) {
+				InternalFileContent cached = getCachedContent(path, file);
+				if (cached != null)
+					return cached;
 				try {
 					List<IIndexFile> files = new ArrayList<>();
 					List<IIndexMacro> macros = new ArrayList<>();
 					List<ICPPUsingDirective> directives = new ArrayList<>();
 					Map<IIndexFileLocation, IFileNomination> newPragmaOnce = new HashMap<>();
 					LinkedHashSet<IIndexFile> preLoaded = new LinkedHashSet<>();
-					collectFileContent(file, null, newPragmaOnce, preLoaded, files, macros, directives, null);
+					Map<IIndexFileLocation, Boolean> pragmaOnceChecks = fContentCache != null ? new HashMap<>() : null;
+					collectFileContent(file, null, newPragmaOnce, preLoaded, files, macros, directives, null,
+							pragmaOnceChecks);
 					// Report pragma once inclusions, only if no exception was thrown.
 					fPragmaOnce.putAll(newPragmaOnce);
+					if (fContentCache != null) {
+						fContentCache.put(fContentCacheContext, file, new IndexContentCache.Entry(files, macros,
+								directives, new ArrayList<>(preLoaded), newPragmaOnce, pragmaOnceChecks));
+					}
 					return new InternalFileContent(path, macros, directives, files, toList(preLoaded));
 				} catch (DependsOnOutdatedFileException e) {
 				}
@@ -163,6 +183,26 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 		return null;
 	}
 
+	/**
+	 * Returns the content of the given file from the content cache, provided that the same files
+	 * have been included with pragma once semantics as when the content was collected.
+	 */
+	private InternalFileContent getCachedContent(String path, IIndexFile file) throws CoreException {
+		if (fContentCache == null)
+			return null;
+		IndexContentCache.Entry entry = fContentCache.get(fContentCacheContext, file);
+		if (entry == null)
+			return null;
+		for (Map.Entry<IIndexFileLocation, Boolean> check : entry.fPragmaOnceChecks.entrySet()) {
+			if (fPragmaOnce.containsKey(check.getKey()) != check.getValue())
+				return null;
+		}
+		fContentCache.hit();
+		fPragmaOnce.putAll(entry.fPragmaOnce);
+		return new InternalFileContent(path, entry.fMacros, entry.fUsingDirectives, entry.fFiles,
+				toList(entry.fPreLoaded));
+	}
+
 	public List<String> toPathList(Collection<IIndexFileLocation> newPragmaOnce) {
 		List<String> newPragmaOncePaths = new ArrayList<>(newPragmaOnce.size());
 		for (IIndexFileLocation l : newPragmaOnce) {
@@ -193,7 +233,8 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 	private boolean collectFileContent(IIndexFile file, IIndexFile stopAt,
 			Map<IIndexFileLocation, IFileNomination> newPragmaOnce, LinkedHashSet<IIndexFile> preLoaded,
 			List<IIndexFile> files, List<IIndexMacro> macros, List<ICPPUsingDirective> usingDirectives,
-			Set<IIndexFile> preventRecursion) throws CoreException, DependsOnOutdatedFileException {
+			Set<IIndexFile> preventRecursion, Map<IIndexFileLocation, Boolean> pragmaOnceChecks)
+			throws CoreException, DependsOnOutdatedFileException {
 		if (file.equals(stopAt))
 			return true;
 
@@ -204,7 +245,11 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 			newPragmaOnce.put(ifl, file);
 
 		if (preventRecursion != null) {
-			if (fPragmaOnce.containsKey(ifl))
+			final boolean included = fPragmaOnce.containsKey(ifl);
+			if (pragmaOnceChecks != null) {
+				pragmaOnceChecks.putIfAbsent(ifl, included);
+			}
+			if (included)
 				return false;
 		} else {
 			preventRecursion = new HashSet<>();
@@ -241,7 +286,7 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 						usingDirectives.add(uds[udx]);
 					}
 					if (collectFileContent(includedFile, stopAt, newPragmaOnce, preLoaded, files, macros,
-							usingDirectives, preventRecursion))
+							usingDirectives, preventRecursion, pragmaOnceChecks))
 						return true;
 				}
 			}
@@ -273,7 +318,7 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 			ArrayList<ICPPUsingDirective> directives = new ArrayList<>();
 			LinkedHashSet<IIndexFile> preLoaded = new LinkedHashSet<>();
 			if (!collectFileContent(contextFile, targetFile, newPragmaOnce, preLoaded, filesIncluded, macros,
-					directives, new HashSet<IIndexFile>())) {
+					directives, new HashSet<IIndexFile>(), null)) {
 				return null;
 			}
 
@@ -286,7 +331,7 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 		return null;
 	}
 
-	private List<FileVersion> toList(LinkedHashSet<IIndexFile> preLoaded) throws CoreException {
+	private List<FileVersion> toList(Collection<IIndexFile> preLoaded) throws CoreException {
 		List<FileVersion> result = new ArrayList<>(preLoaded.size());
 		for (IIndexFile file : preLoaded) {
 			String path = fPathResolver.getASTPath(file.getLocation());
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.index;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.IFileNomination;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDirective;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexFile;
+import org.eclipse.cdt.core.index.IIndexFileLocation;
+import org.eclipse.cdt.core.index.IIndexMacro;
+
+/**
+ * Caches the content that {@link IndexBasedFileContentProvider} collects from the index for an
+ * included header, i.e. the macros and the files of the header together with all the headers it
+ * includes. Translation units are parsed over and over again in the editor, mostly with the same
+ * leading include directives. For these the content is taken from the cache, as long as the index
+ * has not been modified.
+ * <p>
+ * The content depends on the files that have been included with pragma once semantics before the
+ * header is included, therefore every entry records the files for which this has been checked.
+ */
+public final class IndexContentCache {
+	private static final int MAX_ENTRIES = 256;
+	private static final IndexContentCache DEFAULT = new IndexContentCache();
+
+	private Context fContext;
+	private final LinkedHashMap<IIndexFile, Entry> fEntries = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IIndexFile, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	private int fHits;
+
+	public static IndexContentCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the context for the cached content of the given index, or <code>null</code> if the
+	 * content of the index cannot be cached.
+	 */
+	static Context createContext(IIndex index) {
+		if (index instanceof CIndex cindex)
+			return new Context(cindex.getFragments(), index.getLastWriteAccess());
+		return null;
+	}
+
+	synchronized Entry get(Context context, IIndexFile file) {
+		if (!context.equals(fContext))
+			return null;
+		return fEntries.get(file);
+	}
+
+	synchronized void put(Context context, IIndexFile file, Entry entry) {
+		if (!context.equals(fContext)) {
+			fEntries.clear();
+			fContext = context;
+		}
+		fEntries.put(file, entry);
+	}
+
+	synchronized void hit() {
+		fHits++;
+	}
+
+	/**
+	 * Returns the number of times content has been taken from the cache, for testing purposes.
+	 */
+	public synchronized int getHitCount() {
+		return fHits;
+	}
+
+	public synchronized void clear() {
+		fEntries.clear();
+		fContext = null;
+	}
+
+	/**
+	 * The fragments of an index together with the time of the last modification.
+	 */
+	static final class Context {
+		private final IIndexFragment[] fFragments;
+		private final long fLastWriteAccess;
+
+		Context(IIndexFragment[] fragments, long lastWriteAccess) {
+			fFragments = fragments;
+			fLastWriteAccess = lastWriteAccess;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(fFragments) * 31 + Long.hashCode(fLastWriteAccess);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Context other && fLastWriteAccess == other.fLastWriteAccess
+					&& Arrays.equals(fFragments, other.fFragments);
+		}
+	}
+
+	/**
+	 * The content collected for a header.
+	 */
+	static final class Entry {
+		final List<IIndexFile> fFiles;
+		final List<IIndexMacro> fMacros;
+		final List<ICPPUsingDirective> fUsingDirectives;
+		final List<IIndexFile> fPreLoaded;
+		final Map<IIndexFileLocation, IFileNomination> fPragmaOnce;
+		/** Whether the files had been included with pragma once semantics before the header. */
+		final Map<IIndexFileLocation, Boolean> fPragmaOnceChecks;
+
+		Entry(List<IIndexFile> files, List<IIndexMacro> macros, List<ICPPUsingDirective> usingDirectives,
+				List<IIndexFile> preLoaded, Map<IIndexFileLocation, IFileNomination> pragmaOnce,
+				Map<IIndexFileLocation, Boolean> pragmaOnceChecks) {
+			fFiles = files;
+			fMacros = macros;
+			fUsingDirectives = usingDirectives;
+			fPreLoaded = preLoaded;
+			fPragmaOnce = pragmaOnce;
+			fPragmaOnceChecks = pragmaOnceChecks;
+		}
+	}
+}
@@ -151,11 +151,13 @@ public abstract class StandaloneIndexerTask extends AbstractIndexerTask {
 			if (index != null) {
 				long misses = index.getCacheMisses();
 				long hits = index.getCacheHits();
+				long evictions = index.getCacheEvictions();
 				long tries = misses + hits;
 				double missPct = tries == 0 ? 0.0 : (double) misses / (double) tries;
 				trace(name + " Cache: " //$NON-NLS-1$
 						+ hits + " hits, " //$NON-NLS-1$
-						+ misses + "(" + nf.format(missPct) + ") misses."); //$NON-NLS-1$ //$NON-NLS-2$
+						+ misses + "(" + nf.format(missPct) + ") misses, " //$NON-NLS-1$ //$NON-NLS-2$
+						+ evictions + " evictions."); //$NON-NLS-1$
 			}
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -279,6 +279,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 	final private char[] fAdditionalNumericLiteralSuffixes;
 	final private CharArrayIntMap fKeywords;
 	final private CharArrayIntMap fPPKeywords;
+	private final TokenCache fTokenCache = TokenCache.getDefault();
 	private final IncludeSearchPath fIncludeSearchPath;
 	private String[][] fPreIncludedFiles = null;
 
@@ -373,7 +374,9 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 
 	private char[] detectIncludeGuard(String filePath, AbstractCharArray source, ScannerContext ctx) {
 		if (!fFileContentProvider.shouldIndexAllHeaderVersions(filePath)) {
-			final char[] guard = IncludeGuardDetection.detectIncludeGuard(source, fLexOptions, fPPKeywords);
+			// Only included files are likely to be lexed again, by other translation units.
+			final char[] guard = IncludeGuardDetection.detectIncludeGuard(source, fLexOptions, fPPKeywords,
+					ctx != fRootContext ? fTokenCache : null);
 			if (guard != null) {
 				IFileNomination nom = fLocationMap.reportPragmaOnceSemantics(ctx.getLocationCtx());
 				fFileContentProvider.reportPragmaOnceSemantics(filePath, nom);
@@ -1783,7 +1786,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 				ILocationCtx ctx = fLocationMap.pushInclusion(poundOffset, nameOffsets[0], nameOffsets[1],
 						condEndOffset, source, path, headerName, userInclude, isHeuristic, fi.isSource());
 				ScannerContext fctx = new ScannerContext(ctx, fCurrentContext,
-						new Lexer(source, fLexOptions, this, this));
+						new Lexer(source, fLexOptions, this, this, fTokenCache));
 				fctx.setFoundOnPath(fi.getFoundOnPath(), includeDirective);
 				detectIncludeGuard(path, source, fctx);
 				fCurrentContext = fctx;
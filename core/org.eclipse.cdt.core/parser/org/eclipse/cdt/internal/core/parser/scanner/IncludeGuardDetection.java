@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 Wind River Systems, Inc. and others.
+ * Copyright (c) 2011, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,7 +30,17 @@ public class IncludeGuardDetection {
 
 	public static char[] detectIncludeGuard(AbstractCharArray content, Lexer.LexerOptions lexOptions,
 			CharArrayIntMap ppKeywords) {
-		Lexer l = new Lexer(content, lexOptions, ILexerLog.NULL, null);
+		return detectIncludeGuard(content, lexOptions, ppKeywords, null);
+	}
+
+	/**
+	 * Detects the include guard of the given content, the tokens of the content are replayed from
+	 * or recorded in the given token cache, unless it is <code>null</code>.
+	 */
+	public static char[] detectIncludeGuard(AbstractCharArray content, Lexer.LexerOptions lexOptions,
+			CharArrayIntMap ppKeywords, TokenCache tokenCache) {
+		Lexer l = tokenCache != null ? new Lexer(content, lexOptions, ILexerLog.NULL, null, tokenCache)
+				: new Lexer(content, lexOptions, ILexerLog.NULL, null);
 		char[] guard = findIncludeGuard(l, ppKeywords);
 		if (guard != null && currentIfSpansFile(l, ppKeywords)) {
 			return guard;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -111,6 +111,20 @@ final public class Lexer implements ITokenSequence {
 	private boolean fMarkInsideIncludeDirective;
 	private Token fMarkToken;
 	private Token fMarkLastToken;
+	private int fMarkReplayIndex;
+	private int fMarkReplayEvent;
+	private int fMarkReplayEndOffset;
+	private boolean fMarkReplayPaused;
+
+	// Tokens are replayed from or recorded for the token cache, see TokenCache.
+	private TokenCache fTokenCache;
+	private TokenCache.Key fTokenCacheKey;
+	private TokenCache.TokenStream fReplay;
+	private TokenCache.Builder fRecorder;
+	private int fReplayIndex;
+	private int fReplayEvent;
+	private int fReplayEndOffset;
+	private boolean fReplayPaused; // The input is lexed, until replay can be resumed after a newline.
 
 	public Lexer(char[] input, LexerOptions options, ILexerLog log, Object source) {
 		this(new CharArray(input), 0, input.length, options, log, source);
@@ -120,6 +134,15 @@ final public class Lexer implements ITokenSequence {
 		this(input, 0, input.tryGetLength(), options, log, source);
 	}
 
+	/**
+	 * Creates a lexer for the entire input, which replays the tokens of the input from the given
+	 * cache or records them in the cache.
+	 */
+	public Lexer(AbstractCharArray input, LexerOptions options, ILexerLog log, Object source, TokenCache cache) {
+		this(input, options, log, source);
+		fTokenCache = cache;
+	}
+
 	public Lexer(AbstractCharArray input, int start, int end, LexerOptions options, ILexerLog log, Object source) {
 		fInput = input;
 		fStart = fOffset = fEndOffset = start;
@@ -150,6 +173,9 @@ final public class Lexer implements ITokenSequence {
 	 */
 	public void setContentAssistMode(int offset) {
 		fSupportContentAssist = true;
+		fTokenCache = null;
+		fReplay = null;
+		fRecorder = null;
 		if (isValidOffset(offset)) {
 			fLimit = offset;
 		}
@@ -262,9 +288,76 @@ final public class Lexer implements ITokenSequence {
 	}
 
 	/**
-	 * Computes the next token.
+	 * Computes the next token, or replays it from the token cache.
 	 */
 	private Token fetchToken() throws OffsetLimitReachedException {
+		if (fTokenCache != null && fTokenCacheKey == null) {
+			initTokenCache();
+		}
+		if (fReplay != null && !fReplayPaused) {
+			if (!fInsideIncludeDirective && fReplayIndex < fReplay.size() && !fReplay.hasGapBefore(fReplayIndex)) {
+				fReplayEvent = fReplay.reportEvents(fReplayEvent, fReplayIndex, fLog, fInput);
+				final Token t = fReplay.createToken(fReplayIndex++, fSource);
+				fReplayEndOffset = t.getEndOffset();
+				return t;
+			}
+			// Continue lexing the input after the last token that has been replayed.
+			fReplayPaused = true;
+			fEndOffset = fReplayEndOffset;
+			nextCharPhase3();
+		}
+
+		final boolean insideIncludeDirective = fInsideIncludeDirective;
+		final Token t = lexToken();
+		if (fReplay != null) {
+			if (t.getType() == tNEWLINE) {
+				resumeReplay(t);
+			}
+		} else if (fRecorder != null) {
+			if (insideIncludeDirective) {
+				fRecorder.addGap(t);
+			} else {
+				fRecorder.addToken(t);
+				if (t.getType() == IToken.tEND_OF_INPUT) {
+					fTokenCache.put(fTokenCacheKey, fRecorder.build());
+					fRecorder = null;
+				}
+			}
+		}
+		return t;
+	}
+
+	private void initTokenCache() {
+		fTokenCacheKey = fTokenCache.createKey(fInput, fOptions);
+		if (fTokenCacheKey == null) {
+			fTokenCache = null;
+			return;
+		}
+		fReplay = fTokenCache.get(fTokenCacheKey);
+		fReplayEndOffset = fStart;
+		if (fReplay == null) {
+			fRecorder = new TokenCache.Builder();
+		}
+	}
+
+	/**
+	 * Resumes replaying tokens after a newline that has been lexed, if the newline is part of the
+	 * cached tokens.
+	 */
+	private void resumeReplay(Token newline) {
+		final int index = fReplay.findNewline(newline.getOffset());
+		if (index >= 0) {
+			fReplayIndex = index + 1;
+			fReplayEvent = fReplay.firstEventAfter(index);
+			fReplayEndOffset = newline.getEndOffset();
+			fReplayPaused = false;
+		}
+	}
+
+	/**
+	 * Lexes the next token from the input.
+	 */
+	private Token lexToken() throws OffsetLimitReachedException {
 		while (true) {
 			final int start = fOffset;
 			final int c = fCharPhase3;
@@ -742,9 +835,19 @@ final public class Lexer implements ITokenSequence {
 	}
 
 	private void handleProblem(int problemID, char[] arg, int offset) {
+		if (fRecorder != null) {
+			fRecorder.addProblem(problemID, arg, offset, fOffset);
+		}
 		fLog.handleProblem(problemID, arg, offset, fOffset);
 	}
 
+	private void handleComment(boolean isBlockComment, int offset, int endOffset) {
+		if (fRecorder != null) {
+			fRecorder.addComment(isBlockComment, offset, endOffset);
+		}
+		fLog.handleComment(isBlockComment, offset, endOffset, fInput);
+	}
+
 	private Token headerName(final int start, final boolean expectQuotes) throws OffsetLimitReachedException {
 		int length = 1;
 		boolean done = false;
@@ -782,14 +885,14 @@ final public class Lexer implements ITokenSequence {
 				fEndOffset = pos;
 				if (nextCharPhase3() == '/') {
 					nextCharPhase3();
-					fLog.handleComment(true, start, fOffset, fInput);
+					handleComment(true, start, fOffset);
 					return;
 				}
 			}
 		}
 		fCharPhase3 = END_OF_INPUT;
 		fOffset = fEndOffset = pos;
-		fLog.handleComment(true, start, pos, fInput);
+		handleComment(true, start, pos);
 	}
 
 	private void lineComment(final int start) {
@@ -798,7 +901,7 @@ final public class Lexer implements ITokenSequence {
 			switch (c) {
 			case END_OF_INPUT:
 			case '\n':
-				fLog.handleComment(false, start, fOffset, fInput);
+				handleComment(false, start, fOffset);
 				return;
 			}
 			c = nextCharPhase3();
@@ -1476,6 +1579,10 @@ final public class Lexer implements ITokenSequence {
 		fMarkInsideIncludeDirective = fInsideIncludeDirective;
 		fMarkToken = fToken;
 		fMarkLastToken = fLastToken;
+		fMarkReplayIndex = fReplayIndex;
+		fMarkReplayEvent = fReplayEvent;
+		fMarkReplayEndOffset = fReplayEndOffset;
+		fMarkReplayPaused = fReplayPaused;
 	}
 
 	public void restoreState() {
@@ -1485,5 +1592,9 @@ final public class Lexer implements ITokenSequence {
 		fInsideIncludeDirective = fMarkInsideIncludeDirective;
 		fToken = fMarkToken;
 		fLastToken = fMarkLastToken;
+		fReplayIndex = fMarkReplayIndex;
+		fReplayEvent = fMarkReplayEvent;
+		fReplayEndOffset = fMarkReplayEndOffset;
+		fReplayPaused = fMarkReplayPaused;
 	}
 }
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
+
+/**
+ * Cache for the tokens of files, shared by all translation units. Headers included by many
+ * translation units are lexed once, subsequently the {@link Lexer} replays the cached tokens.
+ * <p>
+ * The tokens of a file do not depend on the macros defined when the file is included, therefore
+ * they are cached by the hash and the length of the content of the file together with the lexer
+ * options. The size of the cache is bounded by an estimate of the memory used by the cached tokens,
+ * the entries used least recently are evicted first.
+ */
+public final class TokenCache {
+	/** System property with the maximum size of the cache in bytes, <code>0</code> disables the cache. */
+	private static final String SIZE_PROPERTY = "org.eclipse.cdt.core.parser.scanner.tokenCacheSize"; //$NON-NLS-1$
+	private static final long DEFAULT_SIZE = Math.min(64L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 32);
+	private static final TokenCache DEFAULT = new TokenCache(Long.getLong(SIZE_PROPERTY, DEFAULT_SIZE));
+
+	private final long fMaxSize;
+	private long fSize;
+	private final LinkedHashMap<Key, TokenStream> fEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+	public TokenCache(long maxSize) {
+		fMaxSize = maxSize;
+	}
+
+	public static TokenCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the key for the given content lexed with the given options, or <code>null</code> if
+	 * the cache is disabled.
+	 */
+	Key createKey(AbstractCharArray input, LexerOptions options) {
+		if (fMaxSize <= 0)
+			return null;
+		// The hash causes the content to be read completely, after that its length is known.
+		final long hash = input.getContentsHash();
+		return new Key(hash, input.getLength(), options);
+	}
+
+	synchronized TokenStream get(Key key) {
+		return fEntries.get(key);
+	}
+
+	synchronized void put(Key key, TokenStream tokens) {
+		final long size = tokens.getMemorySize();
+		if (size > fMaxSize / 4)
+			return;
+		final TokenStream old = fEntries.put(key, tokens);
+		if (old != null) {
+			fSize -= old.getMemorySize();
+		}
+		fSize += size;
+		for (Iterator<TokenStream> it = fEntries.values().iterator(); fSize > fMaxSize && it.hasNext();) {
+			fSize -= it.next().getMemorySize();
+			it.remove();
+		}
+	}
+
+	public synchronized void clear() {
+		fEntries.clear();
+		fSize = 0;
+	}
+
+	/**
+	 * Returns the number of files in the cache, for testing purposes.
+	 */
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	static final class Key {
+		private final long fHash;
+		private final int fLength;
+		private final int fOptions;
+
+		Key(long hash, int length, LexerOptions options) {
+			fHash = hash;
+			fLength = length;
+			int flags = 0;
+			for (boolean flag : new boolean[] { options.fSupportDollarInIdentifiers,
+					options.fSupportAtSignInIdentifiers, options.fSupportMinAndMax, options.fCreateImageLocations,
+					options.fSupportSlashPercentComments, options.fSupportUTFLiterals,
+					options.fSupportRawStringLiterals, options.fSupportUserDefinedLiterals,
+					options.fSupportDigitSeparators, options.fSupportThreeWayComparisonOperator }) {
+				flags = (flags << 1) | (flag ? 1 : 0);
+			}
+			fOptions = flags;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(fHash) * 31 + fLength + fOptions;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key other && fHash == other.fHash && fLength == other.fLength
+					&& fOptions == other.fOptions;
+		}
+	}
+
+	/**
+	 * The tokens of a file together with the comments and problems reported while lexing them. Only
+	 * tokens lexed outside of include directives are recorded, a gap marks a range of the file for
+	 * which no tokens are available. Token images are shared by all replayed tokens and must not be
+	 * modified.
+	 */
+	static final class TokenStream {
+		private static final int BLOCK_COMMENT = -1;
+		private static final int LINE_COMMENT = -2;
+
+		private final int fCount;
+		private final int[] fKinds;
+		private final int[] fOffsets;
+		private final int[] fEndOffsets;
+		private final char[][] fImages;
+		private final BitSet fDigraphs;
+		private final BitSet fGaps;
+		// Comments and problems, in the order they were reported while lexing the tokens.
+		private final int fEventCount;
+		private final int[] fEventTokens;
+		private final int[] fEventIds;
+		private final int[] fEventOffsets;
+		private final int[] fEventEndOffsets;
+		private final char[][] fEventArgs;
+		private final long fMemorySize;
+
+		private TokenStream(Builder b) {
+			fCount = b.fCount;
+			fKinds = Arrays.copyOf(b.fKinds, fCount);
+			fOffsets = Arrays.copyOf(b.fOffsets, fCount);
+			fEndOffsets = Arrays.copyOf(b.fEndOffsets, fCount);
+			fImages = Arrays.copyOf(b.fImages, fCount);
+			fDigraphs = b.fDigraphs;
+			fGaps = b.fGaps;
+			fEventCount = b.fEventCount;
+			fEventTokens = Arrays.copyOf(b.fEventTokens, fEventCount);
+			fEventIds = Arrays.copyOf(b.fEventIds, fEventCount);
+			fEventOffsets = Arrays.copyOf(b.fEventOffsets, fEventCount);
+			fEventEndOffsets = Arrays.copyOf(b.fEventEndOffsets, fEventCount);
+			fEventArgs = Arrays.copyOf(b.fEventArgs, fEventCount);
+
+			long size = 128 + 20L * fCount + 28L * fEventCount;
+			for (char[] image : fImages) {
+				if (image != null) {
+					size += 16 + 2 * image.length;
+				}
+			}
+			for (char[] arg : fEventArgs) {
+				if (arg != null) {
+					size += 16 + 2 * arg.length;
+				}
+			}
+			fMemorySize = size;
+		}
+
+		long getMemorySize() {
+			return fMemorySize;
+		}
+
+		int size() {
+			return fCount;
+		}
+
+		/**
+		 * Returns whether tokens preceding the given one are missing from the stream.
+		 */
+		boolean hasGapBefore(int index) {
+			return fGaps.get(index);
+		}
+
+		Token createToken(int index, Object source) {
+			final int kind = fKinds[index];
+			final int offset = fOffsets[index];
+			final int endOffset = fEndOffsets[index];
+			final char[] image = fImages[index];
+			if (image != null)
+				return new TokenWithImage(kind, source, offset, endOffset, image);
+			if (fDigraphs.get(index))
+				return new TokenForDigraph(kind, source, offset, endOffset);
+			return new Token(kind, source, offset, endOffset);
+		}
+
+		/**
+		 * Returns the index of the newline token at the given offset, or <code>-1</code>.
+		 */
+		int findNewline(int offset) {
+			final int index = Arrays.binarySearch(fOffsets, 0, fCount, offset);
+			return index >= 0 && fKinds[index] == Lexer.tNEWLINE ? index : -1;
+		}
+
+		/**
+		 * Reports the comments and problems that were reported while lexing the given token.
+		 * @param event the index of the first event that has not yet been reported.
+		 * @return the index of the first event of the following tokens.
+		 */
+		int reportEvents(int event, int index, ILexerLog log, AbstractCharArray input) {
+			for (; event < fEventCount && fEventTokens[event] <= index; event++) {
+				if (fEventTokens[event] < index)
+					continue;
+				final int id = fEventIds[event];
+				if (id == BLOCK_COMMENT || id == LINE_COMMENT) {
+					log.handleComment(id == BLOCK_COMMENT, fEventOffsets[event], fEventEndOffsets[event], input);
+				} else {
+					log.handleProblem(id, fEventArgs[event], fEventOffsets[event], fEventEndOffsets[event]);
+				}
+			}
+			return event;
+		}
+
+		/**
+		 * Returns the index of the first event reported while lexing a token following the given one.
+		 */
+		int firstEventAfter(int index) {
+			int low = 0;
+			int high = fEventCount;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (fEventTokens[mid] <= index) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * Records the tokens fetched by a lexer. Tokens that are fetched again after the lexer has been
+	 * reset to an earlier state are ignored.
+	 */
+	static final class Builder {
+		private int fCount;
+		private int[] fKinds = new int[256];
+		private int[] fOffsets = new int[256];
+		private int[] fEndOffsets = new int[256];
+		private char[][] fImages = new char[256][];
+		private final BitSet fDigraphs = new BitSet();
+		private final BitSet fGaps = new BitSet();
+		private int fEndOffset;
+
+		private int fEventCount;
+		private int fPendingEvents;
+		private int[] fEventTokens = new int[16];
+		private int[] fEventIds = new int[16];
+		private int[] fEventOffsets = new int[16];
+		private int[] fEventEndOffsets = new int[16];
+		private char[][] fEventArgs = new char[16][];
+
+		void addComment(boolean isBlockComment, int offset, int endOffset) {
+			addEvent(isBlockComment ? TokenStream.BLOCK_COMMENT : TokenStream.LINE_COMMENT, offset, endOffset, null);
+		}
+
+		void addProblem(int id, char[] arg, int offset, int endOffset) {
+			addEvent(id, offset, endOffset, arg);
+		}
+
+		private void addEvent(int id, int offset, int endOffset, char[] arg) {
+			final int event = fEventCount + fPendingEvents++;
+			if (event == fEventIds.length) {
+				final int length = event * 2;
+				fEventTokens = Arrays.copyOf(fEventTokens, length);
+				fEventIds = Arrays.copyOf(fEventIds, length);
+				fEventOffsets = Arrays.copyOf(fEventOffsets, length);
+				fEventEndOffsets = Arrays.copyOf(fEventEndOffsets, length);
+				fEventArgs = Arrays.copyOf(fEventArgs, length);
+			}
+			fEventIds[event] = id;
+			fEventOffsets[event] = offset;
+			fEventEndOffsets[event] = endOffset;
+			fEventArgs[event] = arg;
+		}
+
+		/**
+		 * Records a token together with the comments and problems reported while lexing it.
+		 */
+		void addToken(Token t) {
+			final int pendingEvents = fPendingEvents;
+			fPendingEvents = 0;
+			if (t.getOffset() < fEndOffset)
+				return;
+			if (fCount == fKinds.length) {
+				final int length = fCount * 2;
+				fKinds = Arrays.copyOf(fKinds, length);
+				fOffsets = Arrays.copyOf(fOffsets, length);
+				fEndOffsets = Arrays.copyOf(fEndOffsets, length);
+				fImages = Arrays.copyOf(fImages, length);
+			}
+			fKinds[fCount] = t.getType();
+			fOffsets[fCount] = t.getOffset();
+			fEndOffsets[fCount] = fEndOffset = t.getEndOffset();
+			if (t instanceof TokenWithImage) {
+				fImages[fCount] = t.getCharImage();
+			} else if (t instanceof TokenForDigraph) {
+				fDigraphs.set(fCount);
+			}
+			for (int i = 0; i < pendingEvents; i++) {
+				fEventTokens[fEventCount++] = fCount;
+			}
+			fCount++;
+		}
+
+		/**
+		 * Skips a token that was lexed differently than the others, e.g. a header name.
+		 */
+		void addGap(Token t) {
+			fPendingEvents = 0;
+			if (t.getOffset() < fEndOffset)
+				return;
+			fEndOffset = t.getEndOffset();
+			fGaps.set(fCount);
+		}
+
+		TokenStream build() {
+			return new TokenStream(this);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,6 +33,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -317,6 +326,41 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	}
 
 	private int fUpdateFlags = IIndexManager.UPDATE_ALL;
+
+	/**
+	 * A source file parsed by a worker thread, waiting to be written to the index.
+	 */
+	private static class ParsedSource {
+		final IIndexFileLocation fLocation;
+		final Object fTu;
+		final AbstractLanguage fLanguage;
+		final IScannerInfo fScannerInfo;
+		FileContent fCodeReader;
+		IASTTranslationUnit fAST;
+		long fParsingTime;
+		Throwable fError;
+
+		ParsedSource(IIndexFileLocation ifl, Object tu, AbstractLanguage language, IScannerInfo scannerInfo) {
+			fLocation = ifl;
+			fTu = tu;
+			fLanguage = language;
+			fScannerInfo = scannerInfo;
+		}
+
+		/**
+		 * Rethrows the problem that occurred while parsing on the worker thread, such that it can be
+		 * handled by the writer like a problem that occurred while parsing on its own thread.
+		 */
+		void rethrowError() throws CoreException {
+			if (fError instanceof CoreException)
+				throw (CoreException) fError;
+			if (fError instanceof RuntimeException)
+				throw (RuntimeException) fError;
+			if (fError instanceof Error)
+				throw (Error) fError;
+		}
+	}
+
 	private UnusedHeaderStrategy fIndexHeadersWithoutContext = UnusedHeaderStrategy.useDefaultLanguage;
 	private boolean fIndexFilesWithoutConfiguration = true;
 	private boolean fIndexAllHeaderVersions = false;
@@ -339,6 +383,10 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	private long fIncludedFileSizeLimit;
 	private InternalFileContentProvider fCodeReaderFactory;
 	private int fSwallowOutOfMemoryError = 5;
+	private int fParallelWorkerCount = 1;
+	private ExecutorService fParsingExecutor;
+	/** Held shared by the workers while parsing and exclusively by the task while using the index. */
+	private final ReadWriteLock fParseGate = new ReentrantReadWriteLock();
 	/**
 	 * A queue of urgent indexing tasks that contribute additional files to this task.
 	 * The files from the urgent tasks are indexed before all not yet processed files.
@@ -394,6 +442,18 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		fHeadersToIndexAllVersions = headers;
 	}
 
+	/**
+	 * Sets the number of worker threads used to parse source files concurrently. The ASTs are
+	 * passed through a bounded queue and written to the index one after the other by the thread
+	 * running the task, while none of the workers is parsing. ASTs waiting to be written may refer
+	 * to content of the index, therefore parallel parsing may only be used when writing a file
+	 * cannot remove content from the index, i.e. when the index has been cleared before the task
+	 * runs.
+	 */
+	public final void setParallelWorkerCount(int count) {
+		fParallelWorkerCount = Math.max(1, count);
+	}
+
 	public void setPragmaPrivatePattern(Pattern pattern) {
 		fPragmaPrivatePattern = pattern;
 	}
@@ -548,6 +608,9 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
 			fIndex.resetCacheCounters();
 			fIndex.acquireReadLock();
+			if (fParallelWorkerCount > 1) {
+				fParsingExecutor = createParsingExecutor();
+			}
 
 			try {
 				try {
@@ -625,6 +688,10 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 			} catch (CoreException e) {
 				logException(e);
 			} finally {
+				if (fParsingExecutor != null) {
+					fParsingExecutor.shutdownNow();
+					fParsingExecutor = null;
+				}
 				fIndex.releaseReadLock();
 			}
 		} finally {
@@ -634,6 +701,15 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		}
 	}
 
+	private ExecutorService createParsingExecutor() {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newFixedThreadPool(fParallelWorkerCount, r -> {
+			Thread thread = new Thread(r, "Indexer Worker " + threadNumber.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	private void setResume(boolean value, IProgressMonitor monitor) throws InterruptedException, CoreException {
 		fIndex.acquireWriteLock(monitor);
 		try {
@@ -897,17 +973,22 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 				continue;
 
 			// First parse the required sources.
-			for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext();) {
-				IIndexFileLocation ifl = it.next();
-				LocationTask locTask = map.find(ifl);
-				if (locTask == null || locTask.isCompleted()) {
-					it.remove();
-				} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
-					if (hasUrgentTasks())
-						return;
-					final Object tu = locTask.fTu;
-					final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
-					parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+			if (fParsingExecutor != null) {
+				if (!parseSourcesInParallel(linkageID, map, filesAtPriority, progress))
+					return;
+			} else {
+				for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext();) {
+					IIndexFileLocation ifl = it.next();
+					LocationTask locTask = map.find(ifl);
+					if (locTask == null || locTask.isCompleted()) {
+						it.remove();
+					} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+						if (hasUrgentTasks())
+							return;
+						final Object tu = locTask.fTu;
+						final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
+						parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+					}
 				}
 			}
 
@@ -979,6 +1060,99 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		}
 	}
 
+	/**
+	 * Parses the required sources with the worker threads. The parsed sources are passed to the
+	 * calling thread through a bounded queue and written to the index in the order they have been
+	 * parsed. The calling thread holds the read lock on behalf of the workers. Workers parse only
+	 * while the calling thread waits for the queue, the parse gate keeps them from reading the
+	 * index while it is written. Parsing and writing therefore take turns: several sources are
+	 * parsed at once, but no source is parsed while one is written.
+	 * @return <code>false</code> if parsing was interrupted by an urgent task.
+	 */
+	private boolean parseSourcesInParallel(int linkageID, LinkageTask map, List<IIndexFileLocation> files,
+			SubMonitor progress) throws CoreException, InterruptedException {
+		// Give every worker a source to parse as soon as the writer releases the gate, but limit the
+		// number of ASTs kept in memory.
+		final int capacity = 2 * fParallelWorkerCount;
+		final BlockingQueue<ParsedSource> parsed = new ArrayBlockingQueue<>(capacity);
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final Lock gate = fParseGate.writeLock();
+		int pending = 0;
+		boolean interrupted = false;
+		gate.lock();
+		try {
+			Iterator<IIndexFileLocation> it = files.iterator();
+			while (true) {
+				while (pending < capacity && !interrupted && it.hasNext()) {
+					IIndexFileLocation ifl = it.next();
+					LocationTask locTask = map.find(ifl);
+					if (locTask == null || locTask.isCompleted()) {
+						it.remove();
+					} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+						if (hasUrgentTasks()) {
+							interrupted = true;
+							break;
+						}
+						final Object tu = locTask.fTu;
+						final ParsedSource source = new ParsedSource(ifl, tu, getLanguage(tu, linkageID),
+								getScannerInfo(linkageID, tu));
+						fParsingExecutor.execute(() -> parseInWorker(source, parsed, stopped, progress));
+						pending++;
+					}
+				}
+				if (pending == 0)
+					break;
+
+				ParsedSource source;
+				gate.unlock();
+				try {
+					source = parsed.take();
+				} finally {
+					gate.lock();
+				}
+				// Write all sources that have been parsed in the meantime, the workers wait until the
+				// writer releases the gate.
+				do {
+					pending--;
+					parseFile(source.fTu, source.fLanguage, source.fLocation, source.fScannerInfo, null, source,
+							progress.split(1));
+				} while ((source = parsed.poll()) != null);
+			}
+		} finally {
+			// No worker is parsing while the gate is held, the ones not yet started skip their source.
+			stopped.set(true);
+			parsed.clear();
+			gate.unlock();
+		}
+		return !hasUrgentTasks();
+	}
+
+	private void parseInWorker(ParsedSource source, BlockingQueue<ParsedSource> parsed, AtomicBoolean stopped,
+			IProgressMonitor monitor) {
+		final Lock gate = fParseGate.readLock();
+		gate.lock();
+		try {
+			if (stopped.get())
+				return;
+			long start = System.currentTimeMillis();
+			FileContent codeReader = fResolver.getCodeReader(source.fTu);
+			source.fCodeReader = codeReader;
+			if (codeReader != null && !exceedsSizeLimit(codeReader)) {
+				InternalFileContentProvider fileContentProvider = createFileContentProvider(
+						source.fLanguage.getLinkageID(), null);
+				source.fAST = createAST(source.fLanguage, codeReader, source.fScannerInfo, fileContentProvider,
+						fASTOptions, monitor);
+			}
+			source.fParsingTime = System.currentTimeMillis() - start;
+		} catch (CoreException | RuntimeException | Error e) {
+			source.fError = e;
+		} finally {
+			gate.unlock();
+		}
+		// The number of pending sources never exceeds the capacity of the queue.
+		parsed.add(source);
+	}
+
 	private void parseVersionInContext(int linkageID, LinkageTask map, IIndexFileLocation ifl,
 			final FileVersionTask versionTask, Object tu, LinkedHashSet<IIndexFile> safeGuard, IProgressMonitor monitor)
 			throws CoreException, InterruptedException {
@@ -1086,6 +1260,16 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	private DependsOnOutdatedFileException parseFile(Object tu, AbstractLanguage lang, IIndexFileLocation ifl,
 			IScannerInfo scanInfo, FileContext ctx, IProgressMonitor monitor)
 			throws CoreException, InterruptedException {
+		return parseFile(tu, lang, ifl, scanInfo, ctx, null, monitor);
+	}
+
+	/**
+	 * Parses a file and writes it to the index. When <code>parsed</code> is not <code>null</code>,
+	 * the result of parsing the file on a worker thread is written instead.
+	 */
+	private DependsOnOutdatedFileException parseFile(Object tu, AbstractLanguage lang, IIndexFileLocation ifl,
+			IScannerInfo scanInfo, FileContext ctx, ParsedSource parsed, IProgressMonitor monitor)
+			throws CoreException, InterruptedException {
 		SubMonitor progress = SubMonitor.convert(monitor, 21);
 		boolean resultCacheCleared = false;
 		IPath path = getLabel(ifl);
@@ -1096,11 +1280,21 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 			}
 			progress.subTask(
 					getMessage(MessageKind.parsingFileTask, path.lastSegment(), path.removeLastSegments(1).toString()));
-			FileContent codeReader = fResolver.getCodeReader(tu);
+			FileContent codeReader;
+			IASTTranslationUnit ast;
 
 			long start = System.currentTimeMillis();
-			IASTTranslationUnit ast = createAST(lang, codeReader, scanInfo, fASTOptions, ctx, progress.split(10));
-			fStatistics.fParsingTime += System.currentTimeMillis() - start;
+			if (parsed == null) {
+				codeReader = fResolver.getCodeReader(tu);
+				ast = createAST(lang, codeReader, scanInfo, fASTOptions, ctx, progress.split(10));
+				fStatistics.fParsingTime += System.currentTimeMillis() - start;
+			} else {
+				parsed.rethrowError();
+				codeReader = parsed.fCodeReader;
+				ast = parsed.fAST;
+				fStatistics.fParsingTime += parsed.fParsingTime;
+				progress.split(10);
+			}
 			if (ast == null) {
 				++fStatistics.fTooManyTokensCount;
 			} else {
@@ -1210,38 +1404,24 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
 	private final IASTTranslationUnit createAST(AbstractLanguage language, FileContent codeReader,
 			IScannerInfo scanInfo, int options, FileContext ctx, IProgressMonitor monitor) throws CoreException {
-		if (codeReader == null) {
-			return null;
-		}
-		if (fTranslationUnitSizeLimit > 0
-				&& fResolver.getFileSize(codeReader.getFileLocation()) > fTranslationUnitSizeLimit) {
-			if (fShowActivity) {
-				trace("Indexer: Skipping large file " + codeReader.getFileLocation()); //$NON-NLS-1$
-			}
+		if (codeReader == null || exceedsSizeLimit(codeReader)) {
 			return null;
 		}
 		final IIndexFile[] ctx2header = ctx == null ? null : new IIndexFile[] { ctx.fContext, ctx.fOldFile };
 		if (fCodeReaderFactory == null) {
-			InternalFileContentProvider fileContentProvider = createInternalFileContentProvider();
-			if (fIsFastIndexer) {
-				IndexBasedFileContentProvider ibfcp = new IndexBasedFileContentProvider(fIndex, fResolver,
-						language.getLinkageID(), fileContentProvider, this);
-				ibfcp.setContextToHeaderGap(ctx2header);
-				ibfcp.setFileSizeLimit(fIncludedFileSizeLimit);
-				ibfcp.setHeadersToIndexAllVersions(fHeadersToIndexAllVersions);
-				ibfcp.setIndexAllHeaderVersions(fIndexAllHeaderVersions);
-				fCodeReaderFactory = ibfcp;
-			} else {
-				fCodeReaderFactory = fileContentProvider;
-			}
-			fCodeReaderFactory.setIncludeResolutionHeuristics(createIncludeHeuristics());
+			fCodeReaderFactory = createFileContentProvider(language.getLinkageID(), ctx2header);
 		} else if (fIsFastIndexer) {
 			final IndexBasedFileContentProvider ibfcp = (IndexBasedFileContentProvider) fCodeReaderFactory;
 			ibfcp.setContextToHeaderGap(ctx2header);
 			ibfcp.setLinkage(language.getLinkageID());
 		}
+		return createAST(language, codeReader, scanInfo, fCodeReaderFactory, options, monitor);
+	}
 
-		IASTTranslationUnit ast = language.getASTTranslationUnit(codeReader, scanInfo, fCodeReaderFactory, fIndex,
+	private IASTTranslationUnit createAST(AbstractLanguage language, FileContent codeReader, IScannerInfo scanInfo,
+			InternalFileContentProvider fileContentProvider, int options, IProgressMonitor monitor)
+			throws CoreException {
+		IASTTranslationUnit ast = language.getASTTranslationUnit(codeReader, scanInfo, fileContentProvider, fIndex,
 				options, getLogService());
 		if (monitor.isCanceled()) {
 			throw new OperationCanceledException();
@@ -1249,6 +1429,32 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		return ast;
 	}
 
+	private boolean exceedsSizeLimit(FileContent codeReader) {
+		if (fTranslationUnitSizeLimit > 0
+				&& fResolver.getFileSize(codeReader.getFileLocation()) > fTranslationUnitSizeLimit) {
+			if (fShowActivity) {
+				trace("Indexer: Skipping large file " + codeReader.getFileLocation()); //$NON-NLS-1$
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private InternalFileContentProvider createFileContentProvider(int linkageID, IIndexFile[] ctx2header) {
+		InternalFileContentProvider fileContentProvider = createInternalFileContentProvider();
+		if (fIsFastIndexer) {
+			IndexBasedFileContentProvider ibfcp = new IndexBasedFileContentProvider(fIndex, fResolver, linkageID,
+					fileContentProvider, this);
+			ibfcp.setContextToHeaderGap(ctx2header);
+			ibfcp.setFileSizeLimit(fIncludedFileSizeLimit);
+			ibfcp.setHeadersToIndexAllVersions(fHeadersToIndexAllVersions);
+			ibfcp.setIndexAllHeaderVersions(fIndexAllHeaderVersions);
+			fileContentProvider = ibfcp;
+		}
+		fileContentProvider.setIncludeResolutionHeuristics(createIncludeHeuristics());
+		return fileContentProvider;
+	}
+
 	private InternalFileContentProvider createInternalFileContentProvider() {
 		final IncludeFileContentProvider fileContentProvider = createReaderFactory();
 		if (fileContentProvider instanceof InternalFileContentProvider)
@@ -1444,10 +1650,16 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 					throw new DependsOnOutdatedFileException(request.fTu, task.fIndexFile);
 			}
 		}
-		IndexFileContent fc = fIndexContentCache.get(file);
+		// The caches may be accessed by multiple worker threads.
+		IndexFileContent fc;
+		synchronized (fIndexContentCache) {
+			fc = fIndexContentCache.get(file);
+		}
 		if (fc == null) {
 			fc = new IndexFileContent(file);
-			fIndexContentCache.put(file, fc);
+			synchronized (fIndexContentCache) {
+				fIndexContentCache.put(file, fc);
+			}
 		}
 		return fc;
 	}
@@ -1499,7 +1711,10 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	}
 
 	public IIndexFragmentFile[] getAvailableIndexFiles(int linkageID, IIndexFileLocation ifl) throws CoreException {
-		IIndexFragmentFile[] files = fIndexFilesCache.get(ifl);
+		IIndexFragmentFile[] files;
+		synchronized (fIndexFilesCache) {
+			files = fIndexFilesCache.get(ifl);
+		}
 		if (files == null) {
 			IIndexFragmentFile[] fragFiles = fIndex.getWritableFiles(linkageID, ifl);
 			int j = 0;
@@ -1516,7 +1731,9 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 				files = new IIndexFragmentFile[j];
 				System.arraycopy(fragFiles, 0, files, 0, j);
 			}
-			fIndexFilesCache.put(ifl, files);
+			synchronized (fIndexFilesCache) {
+				fIndexFilesCache.put(ifl, files);
+			}
 		}
 		return files;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,4 +26,8 @@ public class IndexerStatistics {
 	public int fPreprocessorProblemCount = 0;
 	public int fSyntaxProblemsCount = 0;
 	public int fTooManyTokensCount = 0;
+	public int fInstantiationCacheHits = 0;
+	public int fInstantiationCacheMisses = 0;
+	public int fConstexprCallCacheHits = 0;
+	public int fConstexprCallCacheMisses = 0;
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 QNX Software Systems and others.
+ * Copyright (c) 2005, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -116,6 +120,19 @@ public class PDOM extends PlatformObject implements IPDOM {
 	private static final int LONG_WRITE_LOCK_REPORT_THRESHOLD = 1000;
 	private static final int LONG_READ_LOCK_WAIT_REPORT_THRESHOLD = 1000;
 	static boolean sDEBUG_LOCKS; // Initialized in the PDOMManager, because IBM needs PDOM independent of runtime plugin.
+	/**
+	 * System property selecting the memory-mapped database backend for the indexes that do not
+	 * select it themselves, see {@link Database#isMapped()}.
+	 */
+	public static final String MEMORY_MAPPED_DATABASE_PROPERTY = "org.eclipse.cdt.core.parser.pdom.mmap"; //$NON-NLS-1$
+	/**
+	 * System property with the maximum time in milliseconds that changes released from the write lock
+	 * without flushing may be kept in memory, before they are flushed by a background thread. By
+	 * default such changes are kept until the database is flushed explicitly.
+	 */
+	private static final String FLUSH_INTERVAL_PROPERTY = "org.eclipse.cdt.core.parser.pdom.flush.interval"; //$NON-NLS-1$
+	private static final long FLUSH_INTERVAL = Long.getLong(FLUSH_INTERVAL_PROPERTY, 0);
+	private static ScheduledExecutorService sFlushExecutor;
 
 	/**
 	 * Identifier for PDOM format
@@ -311,10 +328,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 	 *
 	 *  CDT 10.4 development
 	 *  220.0 - Changed marshalling of CPPBasicType to store new "from literal" flag, bug 573764
+	 *
+	 *  221.0 - Added growing hash index for looking up macro containers by name, stored the block size
+	 *          delta in the database header, allowing for databases larger than 32GB
 	 */
-	private static final int MIN_SUPPORTED_VERSION = version(220, 0);
-	private static final int MAX_SUPPORTED_VERSION = version(220, Short.MAX_VALUE);
-	private static final int DEFAULT_VERSION = version(220, 0);
+	private static final int MIN_SUPPORTED_VERSION = version(221, 0);
+	private static final int MAX_SUPPORTED_VERSION = version(221, Short.MAX_VALUE);
+	private static final int DEFAULT_VERSION = version(221, 0);
 
 	private static int version(int major, int minor) {
 		return (major << 16) + minor;
@@ -417,6 +437,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	private BTree indexOfFiledWithUnresolvedIncludes;
 	private final Map<Integer, PDOMLinkage> fLinkageIDCache = new HashMap<>();
 	private File fPath;
+	private final boolean fMemoryMapped;
 	private final IIndexLocationConverter locationConverter;
 	private final Map<String, IPDOMLinkageFactory> fPDOMLinkageFactoryCache;
 	private final HashMap<Object, Object> fResultCache = new HashMap<>();
@@ -431,7 +452,18 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
 			Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+		this(dbPath, locationConverter, cache, linkageFactoryMappings,
+				Boolean.getBoolean(MEMORY_MAPPED_DATABASE_PROPERTY));
+	}
+
+	/**
+	 * @param memoryMapped whether the database reads chunks from memory-mapped regions of the file
+	 *     rather than copying them into heap buffers
+	 */
+	public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
+			Map<String, IPDOMLinkageFactory> linkageFactoryMappings, boolean memoryMapped) throws CoreException {
 		fPDOMLinkageFactoryCache = linkageFactoryMappings;
+		fMemoryMapped = memoryMapped;
 		loadDatabase(dbPath, cache);
 		this.locationConverter = locationConverter;
 		if (sDEBUG_LOCKS) {
@@ -452,7 +484,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 		final boolean lockDB = db == null || lockCount != 0;
 
 		clearCaches();
-		db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly());
+		db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly(), fMemoryMapped);
 
 		db.setLocked(lockDB);
 		try {
@@ -664,7 +696,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 		// Clear out the database, everything is set to zero.
 		int vers = getDefaultVersion();
-		db.clear(vers);
+		int blockSizeDeltaBits = db.getBlockSizeDeltaBits();
+		// A database that has used up more than half of its address space is recreated with a larger
+		// block size delta, such that it can keep growing.
+		if (db.getSizeBytes() > db.getMaxSize() / 2 && blockSizeDeltaBits < Database.MAX_BLOCK_SIZE_DELTA_BITS) {
+			blockSizeDeltaBits++;
+		}
+		db.clear(vers, blockSizeDeltaBits);
 		clearCaches();
 		fEvent.setCleared();
 	}
@@ -1003,6 +1041,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	// Read-write lock rules. Readers don't conflict with other readers,
 	// Writers conflict with readers, and everyone conflicts with writers.
 	private final Object mutex = new Object();
+	private ScheduledFuture<?> fScheduledFlush;
 	private int lockCount;
 	private int waitingReaders;
 	private long lastWriteAccess = 0;
@@ -1147,9 +1186,73 @@ public class PDOM extends PlatformObject implements IPDOM {
 			mutex.notifyAll();
 			db.setLocked(lockCount != 0);
 		}
+		if (!flush && FLUSH_INTERVAL > 0) {
+			scheduleFlush();
+		}
 		fireChange(event);
 	}
 
+	private void scheduleFlush() {
+		synchronized (mutex) {
+			if (fScheduledFlush == null) {
+				fScheduledFlush = getFlushExecutor().schedule(this::flushInBackground, FLUSH_INTERVAL,
+						TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Cancels the flush scheduled in the background, if any. A flush that has already started
+	 * holds the read lock, so it cannot overlap with the write lock held by the caller, and it
+	 * skips the flush once it gets the read lock.
+	 */
+	private void cancelScheduledFlush() {
+		synchronized (mutex) {
+			if (fScheduledFlush != null) {
+				fScheduledFlush.cancel(false);
+				fScheduledFlush = null;
+			}
+		}
+	}
+
+	private static synchronized ScheduledExecutorService getFlushExecutor() {
+		if (sFlushExecutor == null) {
+			sFlushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Index Flush"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return sFlushExecutor;
+	}
+
+	/**
+	 * Writes the changes kept in memory to the file. Holding the read lock keeps writers out while
+	 * the database is flushed, other readers may continue to access it.
+	 */
+	private void flushInBackground() {
+		try {
+			acquireReadLock();
+		} catch (InterruptedException e) {
+			return;
+		}
+		try {
+			synchronized (mutex) {
+				if (fScheduledFlush == null) {
+					// Canceled by close() while waiting for the read lock.
+					return;
+				}
+				// Changes released from now on need another flush.
+				fScheduledFlush = null;
+			}
+			db.flush();
+		} catch (CoreException e) {
+			CCorePlugin.log(e);
+		} finally {
+			releaseReadLock();
+		}
+	}
+
 	@Override
 	public boolean hasWaitingReaders() {
 		synchronized (mutex) {
@@ -1507,6 +1610,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	}
 
 	public void close() throws CoreException {
+		cancelScheduledFlush();
 		db.close();
 		clearCaches();
 	}
@@ -1540,6 +1644,11 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return db.getCacheMisses();
 	}
 
+	@Override
+	public long getCacheEvictions() {
+		return db.getCacheEvictions();
+	}
+
 	@Override
 	public void resetCacheCounters() {
 		db.resetCacheCounters();
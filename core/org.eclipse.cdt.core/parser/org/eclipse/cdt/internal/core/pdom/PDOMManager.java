@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 QNX Software Systems and others.
+ * Copyright (c) 2005, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -386,9 +386,13 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 				fromScratch = true;
 			}
 
+			// The backend is chosen per project, a change takes effect when the index is opened again.
+			final boolean memoryMapped = Boolean.parseBoolean(
+					IndexerPreferences.get(project, IndexerPreferences.KEY_MEMORY_MAPPED_INDEX, null));
 			WritablePDOM pdom;
 			try {
-				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project), getLinkageFactories());
+				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project),
+						ChunkCache.getSharedInstance(), getLinkageFactories(), memoryMapped);
 			} catch (CoreException | RuntimeException e) {
 				// Index file is likely corrupted. Recover by rebuilding the index.
 				// See http://bugs.eclipse.org/510054
@@ -396,7 +400,8 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 						+ " - rebuilding the index", e); //$NON-NLS-1$
 				dbFile.delete();
 				fromScratch = true;
-				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project), getLinkageFactories());
+				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project),
+						ChunkCache.getSharedInstance(), getLinkageFactories(), memoryMapped);
 			}
 
 			if (!pdom.isSupportedVersion() || fromScratch) {
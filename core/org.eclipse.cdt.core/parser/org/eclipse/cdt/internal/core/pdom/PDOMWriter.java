@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -65,6 +65,7 @@ import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.ASTInternal;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalDeclaredVariable;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPUnknownBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
@@ -457,6 +458,12 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 			}
 		}
 
+		if (data.fAST instanceof CPPASTTranslationUnit ast) {
+			fStatistics.fInstantiationCacheHits += ast.getInstantiationCache().getHitCount();
+			fStatistics.fInstantiationCacheMisses += ast.getInstantiationCache().getMissCount();
+			fStatistics.fConstexprCallCacheHits += ast.getConstexprCallCache().getHitCount();
+			fStatistics.fConstexprCallCacheMisses += ast.getConstexprCallCache().getMissCount();
+		}
 		fStatistics.fResolutionTime += System.currentTimeMillis() - start;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2006, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ package org.eclipse.cdt.internal.core.pdom;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +40,7 @@ import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
 import org.eclipse.cdt.internal.core.model.TranslationUnit;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
 import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
@@ -48,14 +50,25 @@ import org.eclipse.cdt.internal.core.pdom.dom.PDOMMacro;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMMacroReferenceName;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMName;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 public class WritablePDOM extends PDOM implements IWritableIndexFragment {
+	/**
+	 * Minimum number of bytes that need to be freed before compacting the database is considered.
+	 */
+	private static final long COMPACTION_THRESHOLD = 4 * 1024 * 1024;
+	/**
+	 * Number of chunks processed by {@link #compact} before the write lock is yielded to readers.
+	 */
+	private static final int COMPACTION_SLICE = 256;
+
 	private boolean fClearedBecauseOfVersionMismatch = false;
 	private boolean fCreatedFromScratch = false;
 	private ASTFilePathResolver fPathResolver;
 	private PDOMFile fileBeingUpdated;
 	private PDOMFile uncommittedFile;
 	private FileContentKey uncommittedKey;
+	private int fCompactionPosition = 1;
 
 	public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter,
 			Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
@@ -67,6 +80,11 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 		super(dbPath, locationConverter, cache, linkageFactoryMappings);
 	}
 
+	public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
+			Map<String, IPDOMLinkageFactory> linkageFactoryMappings, boolean memoryMapped) throws CoreException {
+		super(dbPath, locationConverter, cache, linkageFactoryMappings, memoryMapped);
+	}
+
 	public void setASTFilePathResolver(ASTFilePathResolver resolver) {
 		fPathResolver = resolver;
 	}
@@ -232,15 +250,19 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 
 		clearFileIndex();
 		final List<PDOMFile> notConverted = new ArrayList<>();
+		final long[] records = new long[pdomfiles.size()];
+		int count = 0;
 		for (PDOMFile file : pdomfiles) {
 			String internalFormat = newConverter.toInternalFormat(file.getLocation());
 			if (internalFormat != null) {
 				file.setInternalLocation(internalFormat);
-				getFileIndex().insert(file.getRecord());
+				records[count++] = file.getRecord();
 			} else {
 				notConverted.add(file);
 			}
 		}
+		// All keys are known, build the new file index in one go.
+		getFileIndex().bulkLoad(Arrays.copyOf(records, count));
 
 		// remove content where converter returns null
 		for (PDOMFile file : notConverted) {
@@ -362,4 +384,36 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 	public long getDatabaseSizeBytes() {
 		return getDB().getSizeBytes();
 	}
+
+	/**
+	 * Returns whether enough space has been freed since the database has last been compacted to
+	 * make another compaction worthwhile.
+	 */
+	public boolean needsCompaction() {
+		final Database db = getDB();
+		return db.getFreedSinceDefragmentation() > Math.max(COMPACTION_THRESHOLD, db.getSizeBytes() / 10);
+	}
+
+	/**
+	 * Merges adjacent free blocks of the database and releases the unused chunks at its end, such
+	 * that the file is truncated with the next flush. The work is done in slices, between which the
+	 * write lock is yielded to waiting readers. A compaction that is canceled is resumed where it
+	 * stopped by the next call.
+	 *
+	 * @param lock the write lock on the index, which must be held by the caller
+	 * @return whether the compaction has been completed
+	 */
+	public boolean compact(YieldableIndexLock lock, IProgressMonitor monitor)
+			throws CoreException, FailedToReAcquireLockException {
+		final Database db = getDB();
+		do {
+			if (monitor.isCanceled())
+				return false;
+			fCompactionPosition = db.defragment(fCompactionPosition, COMPACTION_SLICE);
+			lock.yield();
+		} while (fCompactionPosition != 0);
+		fCompactionPosition = 1;
+		db.releaseFreeChunks();
+		return true;
+	}
 }
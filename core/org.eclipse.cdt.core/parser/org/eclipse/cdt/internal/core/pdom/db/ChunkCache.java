@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,126 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.db;
 
+/**
+ * Cache for the chunks of databases, shared between multiple databases.
+ * <p>
+ * The cache is divided into segments, each of them managing its part of the chunks with the CLOCK
+ * algorithm and protected by its own lock. Lookups of chunks that are already cached and not
+ * requested for writing do not acquire any lock.
+ */
 public final class ChunkCache {
+	private static final int MAX_SEGMENT_COUNT = 16;
+
 	private static ChunkCache sSharedInstance = new ChunkCache();
 
-	private Chunk[] fPageTable;
-	private boolean fTableIsFull;
-	private int fPointer;
+	/**
+	 * A page table managed with the CLOCK algorithm.
+	 */
+	private static final class Segment {
+		private Chunk[] fPageTable;
+		private boolean fTableIsFull;
+		private int fPointer;
+
+		Segment(int length) {
+			fPageTable = new Chunk[length];
+		}
+
+		synchronized void add(Chunk chunk, boolean locked) {
+			if (locked) {
+				chunk.fLocked = true;
+			}
+			if (chunk.fCacheIndex >= 0) {
+				chunk.fCacheHitFlag = true;
+				return;
+			}
+			if (fTableIsFull) {
+				evictChunk();
+				chunk.fCacheIndex = fPointer;
+				fPageTable[fPointer] = chunk;
+			} else {
+				chunk.fCacheIndex = fPointer;
+				fPageTable[fPointer] = chunk;
+
+				fPointer++;
+				if (fPointer == fPageTable.length) {
+					fPointer = 0;
+					fTableIsFull = true;
+				}
+			}
+		}
+
+		/**
+		 * Evicts a chunk from the page table and the chunk table.
+		 * After this method returns, {@link #fPointer}  will contain
+		 * the index of the evicted chunk within the page table.
+		 */
+		private void evictChunk() {
+			/*
+			 * Use the CLOCK algorithm to determine which chunk to evict.
+			 * i.e., if the chunk in the current slot of the page table has been
+			 * recently referenced (i.e. the reference flag is set), unset the
+			 * reference flag and move to the next slot.  Otherwise, evict the
+			 * chunk in the current slot.
+			 */
+			while (true) {
+				Chunk chunk = fPageTable[fPointer];
+				if (chunk.fCacheHitFlag) {
+					chunk.fCacheHitFlag = false;
+					fPointer = (fPointer + 1) % fPageTable.length;
+				} else {
+					chunk.fDatabase.releaseChunk(chunk);
+					chunk.fCacheIndex = -1;
+					fPageTable[fPointer] = null;
+					return;
+				}
+			}
+		}
+
+		synchronized void remove(Chunk chunk) {
+			final int idx = chunk.fCacheIndex;
+			if (idx >= 0) {
+				if (fTableIsFull) {
+					fPointer = fPageTable.length - 1;
+					fTableIsFull = false;
+				} else {
+					fPointer--;
+				}
+				chunk.fCacheIndex = -1;
+				final Chunk move = fPageTable[fPointer];
+				fPageTable[idx] = move;
+				move.fCacheIndex = idx;
+				fPageTable[fPointer] = null;
+			}
+		}
+
+		synchronized int getLength() {
+			return fPageTable.length;
+		}
+
+		synchronized void setLength(int newLength) {
+			final int oldLength = fTableIsFull ? fPageTable.length : fPointer;
+			if (newLength > oldLength) {
+				Chunk[] newTable = new Chunk[newLength];
+				System.arraycopy(fPageTable, 0, newTable, 0, oldLength);
+				fTableIsFull = false;
+				fPointer = oldLength;
+				fPageTable = newTable;
+			} else {
+				for (int i = newLength; i < oldLength; i++) {
+					final Chunk chunk = fPageTable[i];
+					chunk.fDatabase.releaseChunk(chunk);
+					chunk.fCacheIndex = -1;
+				}
+				Chunk[] newTable = new Chunk[newLength];
+				System.arraycopy(fPageTable, 0, newTable, 0, newLength);
+				fTableIsFull = true;
+				fPointer = 0;
+				fPageTable = newTable;
+			}
+		}
+	}
+
+	private final Segment[] fSegments;
 
 	public static ChunkCache getSharedInstance() {
 		return sSharedInstance;
@@ -29,82 +143,48 @@ public final class ChunkCache {
 	}
 
 	public ChunkCache(long maxSize) {
-		fPageTable = new Chunk[computeLength(maxSize)];
+		final int length = computeLength(maxSize);
+		// Use a power of two for the number of segments, such that each of them holds at least one chunk.
+		int segmentCount = MAX_SEGMENT_COUNT;
+		while (segmentCount > length) {
+			segmentCount >>= 1;
+		}
+		fSegments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			fSegments[i] = new Segment(computeSegmentLength(length, i));
+		}
 	}
 
-	public synchronized void add(Chunk chunk, boolean locked) {
-		if (locked) {
-			chunk.fLocked = true;
-		}
-		if (chunk.fCacheIndex >= 0) {
+	public void add(Chunk chunk, boolean locked) {
+		// Fast path for a chunk that is already cached. The check is not synchronized with the eviction
+		// of the chunk, which is fine for readers. Locking a chunk needs to be synchronized with the
+		// eviction, though.
+		if (!locked && chunk.fCacheIndex >= 0) {
 			chunk.fCacheHitFlag = true;
 			return;
 		}
-		if (fTableIsFull) {
-			evictChunk();
-			chunk.fCacheIndex = fPointer;
-			fPageTable[fPointer] = chunk;
-		} else {
-			chunk.fCacheIndex = fPointer;
-			fPageTable[fPointer] = chunk;
-
-			fPointer++;
-			if (fPointer == fPageTable.length) {
-				fPointer = 0;
-				fTableIsFull = true;
-			}
-		}
+		getSegment(chunk).add(chunk, locked);
 	}
 
-	/**
-	 * Evicts a chunk from the page table and the chunk table.
-	 * After this method returns, {@link #fPointer}  will contain
-	 * the index of the evicted chunk within the page table.
-	 */
-	private void evictChunk() {
-		/*
-		 * Use the CLOCK algorithm to determine which chunk to evict.
-		 * i.e., if the chunk in the current slot of the page table has been
-		 * recently referenced (i.e. the reference flag is set), unset the
-		 * reference flag and move to the next slot.  Otherwise, evict the
-		 * chunk in the current slot.
-		 */
-		while (true) {
-			Chunk chunk = fPageTable[fPointer];
-			if (chunk.fCacheHitFlag) {
-				chunk.fCacheHitFlag = false;
-				fPointer = (fPointer + 1) % fPageTable.length;
-			} else {
-				chunk.fDatabase.releaseChunk(chunk);
-				chunk.fCacheIndex = -1;
-				fPageTable[fPointer] = null;
-				return;
-			}
-		}
+	public void remove(Chunk chunk) {
+		getSegment(chunk).remove(chunk);
 	}
 
-	public synchronized void remove(Chunk chunk) {
-		final int idx = chunk.fCacheIndex;
-		if (idx >= 0) {
-			if (fTableIsFull) {
-				fPointer = fPageTable.length - 1;
-				fTableIsFull = false;
-			} else {
-				fPointer--;
-			}
-			chunk.fCacheIndex = -1;
-			final Chunk move = fPageTable[fPointer];
-			fPageTable[idx] = move;
-			move.fCacheIndex = idx;
-			fPageTable[fPointer] = null;
-		}
+	private Segment getSegment(Chunk chunk) {
+		int hash = System.identityHashCode(chunk.fDatabase) * 31 + chunk.fSequenceNumber;
+		hash ^= hash >>> 16;
+		return fSegments[hash & (fSegments.length - 1)];
 	}
 
 	/**
 	 * Returns the maximum size of the chunk cache in bytes.
 	 */
-	public synchronized long getMaxSize() {
-		return (long) fPageTable.length * Database.CHUNK_SIZE;
+	public long getMaxSize() {
+		long length = 0;
+		for (Segment segment : fSegments) {
+			length += segment.getLength();
+		}
+		return length * Database.CHUNK_SIZE;
 	}
 
 	/**
@@ -113,25 +193,9 @@ public final class ChunkCache {
 	 * @param maxSize the total size of the chunks in bytes.
 	 */
 	public synchronized void setMaxSize(long maxSize) {
-		final int newLength = computeLength(maxSize);
-		final int oldLength = fTableIsFull ? fPageTable.length : fPointer;
-		if (newLength > oldLength) {
-			Chunk[] newTable = new Chunk[newLength];
-			System.arraycopy(fPageTable, 0, newTable, 0, oldLength);
-			fTableIsFull = false;
-			fPointer = oldLength;
-			fPageTable = newTable;
-		} else {
-			for (int i = newLength; i < oldLength; i++) {
-				final Chunk chunk = fPageTable[i];
-				chunk.fDatabase.releaseChunk(chunk);
-				chunk.fCacheIndex = -1;
-			}
-			Chunk[] newTable = new Chunk[newLength];
-			System.arraycopy(fPageTable, 0, newTable, 0, newLength);
-			fTableIsFull = true;
-			fPointer = 0;
-			fPageTable = newTable;
+		final int length = computeLength(maxSize);
+		for (int i = 0; i < fSegments.length; i++) {
+			fSegments[i].setLength(computeSegmentLength(length, i));
 		}
 	}
 
@@ -139,4 +203,9 @@ public final class ChunkCache {
 		long maxLength = Math.min(maxSize / Database.CHUNK_SIZE, Integer.MAX_VALUE);
 		return Math.max(1, (int) maxLength);
 	}
+
+	private int computeSegmentLength(int length, int segment) {
+		final int segmentLength = length / fSegments.length;
+		return Math.max(1, segment < length % fSegments.length ? segmentLength + 1 : segmentLength);
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 QNX Software Systems and others.
+ * Copyright (c) 2005, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,21 +18,34 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.db;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -56,12 +69,23 @@ import org.eclipse.osgi.util.NLS;
  * offset            content
  * 	                 _____________________________
  * 0                | version number
- * INT_SIZE         | pointer to head of linked list of blocks of size MIN_BLOCK_DELTAS*BLOCK_SIZE_DELTA
+ * INT_SIZE         | log2 of the block size delta of the database (d), see below
+ * 2 * INT_SIZE     | pointer to head of linked list of blocks of size MIN_BLOCK_DELTAS*BLOCK_SIZE_DELTA
  * ..               | ...
- * INT_SIZE * m (1) | pointer to head of linked list of blocks of size (m + MIN_BLOCK_DELTAS) * BLOCK_SIZE_DELTA
+ * INT_SIZE * m (1) | pointer to head of linked list of blocks of size (m + MIN_BLOCK_DELTAS - 2) * BLOCK_SIZE_DELTA
  * DATA_AREA        | undefined (PDOM stores its own house-keeping data in this area)
  *
- * (1) where 2 <= m <= CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1
+ * (1) where 3 <= m <= CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 2
+ *
+ * ===== block size delta
+ *
+ * Blocks are aligned to, and their sizes are multiples of, the block size delta of 2^d bytes.
+ * Record pointers are stored in 4 bytes as the offset of the block divided by the block size
+ * delta, which limits the size of the database to 2^(32+d) bytes. By default d is
+ * BLOCK_SIZE_DELTA_BITS, a larger value of up to MAX_BLOCK_SIZE_DELTA_BITS can be chosen when
+ * the database is cleared, see {@link #clear(int, int)}. This trades some space lost to alignment
+ * for a larger maximum size. The list heads in the header chunk are then used for block sizes
+ * of up to CHUNK_SIZE only, all other constants describe the default block size delta.
  *
  * ===== block structure
  *
@@ -71,6 +95,28 @@ import org.eclipse.osgi.util.NLS;
  * PREV_OFFSET      | pointer to previous block (of same size) (only in free blocks)
  * NEXT_OFFSET      | pointer to next block (of same size) (only in free blocks)
  *
+ * ===== memory-mapped backend
+ *
+ * When created with mapped set to true, chunks that are read from disk are served from read-only
+ * mapped regions of size MAPPED_REGION_SIZE rather than being copied into heap buffers. A chunk is
+ * copied to the heap the first time it is modified, modified chunks are flushed through the file
+ * channel as usual. This keeps the protocol of marking the file incomplete before writing intact.
+ *
+ * ===== compressed format
+ *
+ * A database file can be converted into a compressed file with {@link #compress(File, File)}, e.g.
+ * for shipping pre-built indexes. Each chunk is compressed separately, the file starts with
+ * COMPRESSED_MAGIC, the number of chunks and the offsets of the compressed chunks:
+ *
+ * offset                content
+ * _____________________________
+ * 0                     | COMPRESSED_MAGIC
+ * INT_SIZE              | number of chunks (n)
+ * 2 * INT_SIZE          | n + 1 offsets (8 bytes each) of the compressed chunks, the last one is the end of the file
+ * ...                   | the compressed chunks
+ *
+ * Compressed databases can only be opened read-only, chunks are decompressed when they are read
+ * into the cache.
  */
 public class Database {
 	// Public for tests only, you shouldn't need these.
@@ -91,32 +137,81 @@ public class Database {
 	public static final int EVALUATION_SIZE = TYPE_SIZE; // size of an evaluation in the database in bytes
 	public static final int EXECUTION_SIZE = TYPE_SIZE; // size of an execution in the database in bytes
 	public static final int ARGUMENT_SIZE = TYPE_SIZE; // size of a template argument in the database in bytes
+	// Maximum size of a database with the default block size delta, see getMaxSize().
 	public static final long MAX_DB_SIZE = ((long) 1 << (Integer.SIZE + BLOCK_SIZE_DELTA_BITS));
 
+	/** Maximum value for the log2 of the block size delta, see {@link #clear(int, int)}. */
+	public static final int MAX_BLOCK_SIZE_DELTA_BITS = 6;
+	/** Minimum size of a block, such that it can hold the pointers linking the free blocks. */
+	private static final int MIN_BLOCK_SIZE = MIN_BLOCK_DELTAS * BLOCK_SIZE_DELTA;
+
 	public static final int VERSION_OFFSET = 0;
-	public static final int DATA_AREA = (CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 2) * INT_SIZE;
+	public static final int BLOCK_SIZE_DELTA_BITS_OFFSET = INT_SIZE;
+	public static final int DATA_AREA = (CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 3) * INT_SIZE;
+
+	/**
+	 * Size of the regions of the database file that are mapped at once by the memory-mapped backend,
+	 * must be a multiple of {@link #CHUNK_SIZE}.
+	 */
+	private static final int MAPPED_REGION_SIZE = 64 * 1024 * CHUNK_SIZE;
+	/**
+	 * Releases a mapped region right away, <code>null</code> if the platform does not support it.
+	 * Otherwise the region is released by the garbage collector, but a file with a mapped region
+	 * cannot be truncated on Windows.
+	 */
+	private static final MethodHandle UNMAP = findUnmap();
+	/**
+	 * Maximum number of adjacent dirty chunks written to the file with a single call.
+	 */
+	private static final int MAX_CHUNKS_PER_WRITE = 256;
+	/**
+	 * First int of a compressed database file. Is negative, such that it cannot be confused with
+	 * the version stored at the same offset of an uncompressed file.
+	 */
+	private static final int COMPRESSED_MAGIC = 0xCDC0DB01;
+	private static final int COMPRESSED_CHUNK_COUNT_OFFSET = INT_SIZE;
+	private static final int COMPRESSED_OFFSETS_OFFSET = 2 * INT_SIZE;
+
+	/**
+	 * Provides access to the elements of {@link #fChunks} with memory ordering, such that chunks
+	 * can be looked up without acquiring a lock.
+	 */
+	private static final VarHandle CHUNKS = MethodHandles.arrayElementVarHandle(Chunk[].class);
 
 	private static final int BLOCK_PREV_OFFSET = BLOCK_HEADER_SIZE;
 	private static final int BLOCK_NEXT_OFFSET = BLOCK_HEADER_SIZE + INT_SIZE;
 
 	private final File fLocation;
 	private final boolean fReadOnly;
+	private final boolean fMapped;
 	private RandomAccessFile fFile;
+	private MappedByteBuffer[] fMappedRegions = {};
+	private final long[] fCompressedChunkOffsets; // null, unless the file is compressed.
 	private boolean fExclusiveLock; // Necessary for any write operation.
 	private boolean fLocked; // Necessary for any operation.
 	private boolean fIsMarkedIncomplete;
 
 	private int fVersion;
+	// The block size delta of this database and the values derived from it, see BLOCK_SIZE_DELTA_BITS.
+	private int fBlockSizeDeltaBits;
+	private int fBlockSizeDelta;
+	private int fMinBlockDeltas;
+	private int fMaxBlockDeltas;
 	private final Chunk fHeaderChunk;
-	private Chunk[] fChunks;
+	// Modifications of the chunk table are protected by fChunksLock, lookups of cached chunks for
+	// reading may be done without the lock.
+	private volatile Chunk[] fChunks;
 	private int fChunksUsed;
 	private int fChunksAllocated;
+	private final Object fChunksLock = new Object();
 	private ChunkCache fCache;
 
 	private long malloced;
 	private long freed;
-	private long cacheHits;
-	private long cacheMisses;
+	private long fFreedSinceDefragmentation;
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder cacheEvictions = new LongAdder();
 
 	/** Soft reference wrapper to keep track of the record for disposed strings. */
 	private static class SoftStringRef extends SoftReference<IString> {
@@ -145,27 +240,64 @@ public class Database {
 	 * @throws CoreException
 	 */
 	public Database(File location, ChunkCache cache, int version, boolean openReadOnly) throws CoreException {
+		this(location, cache, version, openReadOnly, false);
+	}
+
+	/**
+	 * Construct a new Database object, creating a backing file if necessary.
+	 * @param location the local file path for the database
+	 * @param cache the cache to be used optimization
+	 * @param version the version number to store in the database (only applicable for new databases)
+	 * @param openReadOnly whether this Database object will ever need writing to
+	 * @param mapped whether chunks are to be read from memory-mapped regions of the file rather
+	 *     than being copied into heap buffers
+	 * @throws CoreException
+	 */
+	public Database(File location, ChunkCache cache, int version, boolean openReadOnly, boolean mapped)
+			throws CoreException {
+		fLocation = location;
+		fReadOnly = openReadOnly;
+		fCache = cache;
 		try {
-			fLocation = location;
-			fReadOnly = openReadOnly;
-			fCache = cache;
 			openFile();
-
-			int nChunksOnDisk = (int) (fFile.length() / CHUNK_SIZE);
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+		boolean success = false;
+		try {
+			fCompressedChunkOffsets = readCompressedChunkOffsets();
+			// Compressed chunks cannot be served from mapped regions.
+			fMapped = mapped && fCompressedChunkOffsets == null;
+			int nChunksOnDisk = fCompressedChunkOffsets != null ? fCompressedChunkOffsets.length - 1
+					: (int) (fFile.length() / CHUNK_SIZE);
 			fHeaderChunk = new Chunk(this, 0);
 			fHeaderChunk.fLocked = true; // Never makes it into the cache, needed to satisfy assertions.
 			if (nChunksOnDisk <= 0) {
 				fVersion = version;
+				setBlockSizeDeltaBits(BLOCK_SIZE_DELTA_BITS);
 				fChunks = new Chunk[1];
 				fChunksUsed = fChunksAllocated = fChunks.length;
 			} else {
 				fHeaderChunk.read();
 				fVersion = fHeaderChunk.getInt(VERSION_OFFSET);
+				// Files of an older format are recognized by their version and are not read any further.
+				int bits = fHeaderChunk.getInt(BLOCK_SIZE_DELTA_BITS_OFFSET);
+				setBlockSizeDeltaBits(bits >= BLOCK_SIZE_DELTA_BITS && bits <= MAX_BLOCK_SIZE_DELTA_BITS ? bits
+						: BLOCK_SIZE_DELTA_BITS);
 				fChunks = new Chunk[nChunksOnDisk]; // chunk[0] is unused.
 				fChunksUsed = fChunksAllocated = nChunksOnDisk;
 			}
+			success = true;
 		} catch (IOException e) {
 			throw new CoreException(new DBStatus(e));
+		} finally {
+			if (!success) {
+				try {
+					fFile.close();
+				} catch (IOException e) {
+					// Report the original problem.
+				}
+			}
 		}
 	}
 
@@ -173,6 +305,136 @@ public class Database {
 		fFile = new RandomAccessFile(fLocation, fReadOnly ? "r" : "rw"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	/**
+	 * Returns the offsets of the compressed chunks, or <code>null</code> if the file is not compressed.
+	 */
+	private long[] readCompressedChunkOffsets() throws IOException, CoreException {
+		if (fFile.length() < COMPRESSED_OFFSETS_OFFSET)
+			return null;
+		ByteBuffer buf = ByteBuffer.allocate(COMPRESSED_OFFSETS_OFFSET);
+		readFully(buf, 0);
+		if (buf.getInt(0) != COMPRESSED_MAGIC)
+			return null;
+		if (!fReadOnly) {
+			String msg = MessageFormat.format(Messages.getString("Database.CompressedDatabaseNotWritable"), //$NON-NLS-1$
+					new Object[] { fLocation.getName() });
+			throw new CoreException(new DBStatus(msg));
+		}
+		final long length = fFile.length();
+		final int chunkCount = buf.getInt(COMPRESSED_CHUNK_COUNT_OFFSET);
+		final long dataOffset = COMPRESSED_OFFSETS_OFFSET + (chunkCount + 1L) * 8;
+		if (chunkCount < 0 || chunkCount >= Integer.MAX_VALUE / 8 || dataOffset > length)
+			databaseCorruptionDetected();
+		buf = ByteBuffer.allocate((int) (dataOffset - COMPRESSED_OFFSETS_OFFSET));
+		readFully(buf, COMPRESSED_OFFSETS_OFFSET);
+		final long[] offsets = new long[chunkCount + 1];
+		buf.flip().asLongBuffer().get(offsets);
+		// Each chunk has to lie within the file, behind the previous one. Compressing a chunk at most
+		// doubles its size, see compress(File, File).
+		long previous = dataOffset;
+		for (int i = 0; i < offsets.length; i++) {
+			if (offsets[i] < previous || offsets[i] > length || (i > 0 && offsets[i] - previous > 2 * CHUNK_SIZE))
+				databaseCorruptionDetected();
+			previous = offsets[i];
+		}
+		return offsets;
+	}
+
+	/**
+	 * Returns whether the file of this database is compressed, see {@link #compress(File, File)}.
+	 */
+	public boolean isCompressed() {
+		return fCompressedChunkOffsets != null;
+	}
+
+	/**
+	 * Reads and decompresses a chunk of a compressed file.
+	 */
+	void readCompressed(ByteBuffer buf, int index) throws IOException {
+		final long start = fCompressedChunkOffsets[index];
+		final byte[] compressed = new byte[(int) (fCompressedChunkOffsets[index + 1] - start)];
+		readFully(ByteBuffer.wrap(compressed), start);
+		final Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			while (buf.hasRemaining() && !inflater.finished()) {
+				if (inflater.inflate(buf) == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			inflater.end();
+		}
+		if (buf.hasRemaining()) {
+			throw new IOException("Truncated chunk " + index + " in " + fLocation); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private void readFully(ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			final int pos = buf.position();
+			read(buf, position + pos);
+			if (buf.position() == pos) {
+				throw new EOFException(fLocation.toString());
+			}
+		}
+	}
+
+	/**
+	 * Writes a compressed copy of the database file <code>source</code> to <code>target</code>. The
+	 * chunks are compressed one by one, such that the copy can be opened read-only and its chunks
+	 * are read individually, just like the chunks of an uncompressed file.
+	 */
+	public static void compress(File source, File target) throws CoreException {
+		try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final int chunkCount = (int) (in.size() / CHUNK_SIZE);
+			final long[] offsets = new long[chunkCount + 1];
+			final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+			// Deflate may slightly increase the size of incompressible data.
+			final ByteBuffer compressed = ByteBuffer.allocate(2 * CHUNK_SIZE);
+			final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+			try {
+				long position = COMPRESSED_OFFSETS_OFFSET + (long) offsets.length * 8;
+				for (int i = 0; i < chunkCount; i++) {
+					chunk.clear();
+					while (chunk.hasRemaining()) {
+						if (in.read(chunk, (long) i * CHUNK_SIZE + chunk.position()) < 0)
+							throw new EOFException(source.toString());
+					}
+					deflater.reset();
+					deflater.setInput(chunk.array());
+					deflater.finish();
+					compressed.clear();
+					while (!deflater.finished()) {
+						deflater.deflate(compressed);
+					}
+					compressed.flip();
+					offsets[i] = position;
+					while (compressed.hasRemaining()) {
+						position += out.write(compressed, position);
+					}
+				}
+				offsets[chunkCount] = position;
+			} finally {
+				deflater.end();
+			}
+
+			final ByteBuffer header = ByteBuffer.allocate(COMPRESSED_OFFSETS_OFFSET + offsets.length * 8);
+			header.putInt(COMPRESSED_MAGIC);
+			header.putInt(chunkCount);
+			header.asLongBuffer().put(offsets);
+			header.clear();
+			while (header.hasRemaining()) {
+				out.write(header, header.position());
+			}
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
 	void read(ByteBuffer buf, long position) throws IOException {
 		int retries = 0;
 		do {
@@ -199,6 +461,29 @@ public class Database {
 		}
 	}
 
+	/**
+	 * Writes the first <code>length</code> buffers to the file as one contiguous range starting at
+	 * <code>position</code>. Must only be called while holding the lock on {@link #fHeaderChunk},
+	 * because the position of the file channel is changed.
+	 */
+	void write(ByteBuffer[] bufs, int length, long position) throws IOException {
+		int retries = 0;
+		int first = 0;
+		while (first < length) {
+			try {
+				final FileChannel channel = fFile.getChannel();
+				channel.position(position);
+				position += channel.write(bufs, first, length - first);
+				while (first < length && !bufs[first].hasRemaining()) {
+					first++;
+				}
+			} catch (ClosedChannelException e) {
+				// Bug 219834 file may have be closed by interrupting a thread during an I/O operation.
+				reopen(e, ++retries);
+			}
+		}
+	}
+
 	private void reopen(ClosedChannelException e, int attempt) throws ClosedChannelException, FileNotFoundException {
 		// Only if the current thread was not interrupted we try to reopen the file.
 		if (e instanceof ClosedByInterruptException || attempt >= 20) {
@@ -227,6 +512,27 @@ public class Database {
 		return fVersion;
 	}
 
+	private void setBlockSizeDeltaBits(int bits) {
+		fBlockSizeDeltaBits = bits;
+		fBlockSizeDelta = 1 << bits;
+		fMinBlockDeltas = Math.max(1, MIN_BLOCK_SIZE >> bits);
+		fMaxBlockDeltas = CHUNK_SIZE >> bits;
+	}
+
+	/**
+	 * Returns the log2 of the block size delta of this database, see {@link #clear(int, int)}.
+	 */
+	public int getBlockSizeDeltaBits() {
+		return fBlockSizeDeltaBits;
+	}
+
+	/**
+	 * Returns the maximum size of this database in bytes, which depends on its block size delta.
+	 */
+	public long getMaxSize() {
+		return 1L << (Integer.SIZE + fBlockSizeDeltaBits);
+	}
+
 	public void setVersion(int version) throws CoreException {
 		assert fExclusiveLock;
 		fHeaderChunk.putInt(VERSION_OFFSET, version);
@@ -238,22 +544,40 @@ public class Database {
 	 * @throws CoreException
 	 */
 	public void clear(int version) throws CoreException {
+		clear(version, fBlockSizeDeltaBits);
+	}
+
+	/**
+	 * Empty the contents of the Database and change its block size delta. Records are aligned to
+	 * <code>2^blockSizeDeltaBits</code> bytes, which limits the size of the database to
+	 * <code>2^(32 + blockSizeDeltaBits)</code> bytes.
+	 *
+	 * @param version the version number to store in the database
+	 * @param blockSizeDeltaBits log2 of the block size delta, between {@link #BLOCK_SIZE_DELTA_BITS}
+	 *     and {@link #MAX_BLOCK_SIZE_DELTA_BITS}.
+	 * @throws CoreException
+	 */
+	public void clear(int version, int blockSizeDeltaBits) throws CoreException {
 		assert fExclusiveLock;
+		assert blockSizeDeltaBits >= BLOCK_SIZE_DELTA_BITS && blockSizeDeltaBits <= MAX_BLOCK_SIZE_DELTA_BITS;
 		removeChunksFromCache();
 
 		fVersion = version;
+		setBlockSizeDeltaBits(blockSizeDeltaBits);
 		// Clear the first chunk.
 		fHeaderChunk.clear(0, CHUNK_SIZE);
+		fHeaderChunk.putInt(BLOCK_SIZE_DELTA_BITS_OFFSET, fBlockSizeDeltaBits);
 		// Chunks have been removed from the cache, so we may just reset the array of chunks.
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
+		unmapRegions();
 		try {
 			fHeaderChunk.flush(); // Zero out header chunk.
 			fFile.getChannel().truncate(CHUNK_SIZE); // Truncate database.
 		} catch (IOException e) {
 			CCorePlugin.log(e);
 		}
-		malloced = freed = 0;
+		malloced = freed = fFreedSinceDefragmentation = 0;
 		/*
 		 * This is for debugging purposes in order to simulate having a very large PDOM database.
 		 * This will set aside the specified number of chunks.
@@ -274,7 +598,7 @@ public class Database {
 	}
 
 	private void removeChunksFromCache() {
-		synchronized (fCache) {
+		synchronized (fChunksLock) {
 			for (int i = 1; i < fChunks.length; i++) {
 				Chunk chunk = fChunks[i];
 				if (chunk != null) {
@@ -295,28 +619,137 @@ public class Database {
 		}
 		long long_index = offset / CHUNK_SIZE;
 		assert long_index < Integer.MAX_VALUE;
+		final int index = (int) long_index;
+
+		if (!fExclusiveLock) {
+			// Fast path for readers, a chunk that is still cached can be used without locking.
+			final Chunk[] chunks = fChunks;
+			if (index >= 0 && index < chunks.length) {
+				final Chunk chunk = (Chunk) CHUNKS.getAcquire(chunks, index);
+				if (chunk != null && chunk.fCacheIndex >= 0) {
+					cacheHits.increment();
+					chunk.fCacheHitFlag = true;
+					return chunk;
+				}
+			}
+		}
 
-		synchronized (fCache) {
+		synchronized (fChunksLock) {
 			assert fLocked;
-			final int index = (int) long_index;
 			if (index < 0 || index >= fChunks.length) {
 				databaseCorruptionDetected();
 			}
 			Chunk chunk = fChunks[index];
 			if (chunk == null) {
-				cacheMisses++;
-				chunk = new Chunk(this, index);
-				chunk.read();
-				// Put the chunk in fChunks after it was read successfully.
-				fChunks[index] = chunk;
+				cacheMisses.increment();
+				chunk = readChunk(index);
 			} else {
-				cacheHits++;
+				cacheHits.increment();
 			}
 			fCache.add(chunk, fExclusiveLock);
+			// Put the chunk in fChunks after it was read successfully. This is also necessary for a chunk
+			// that was evicted by another thread after we have looked it up, but before it has been added
+			// to the cache again.
+			CHUNKS.setRelease(fChunks, index, chunk);
 			return chunk;
 		}
 	}
 
+	private Chunk readChunk(int index) throws CoreException {
+		if (fMapped) {
+			try {
+				ByteBuffer buffer = getMappedChunkBuffer(index);
+				if (buffer != null) {
+					return new Chunk(this, index, buffer);
+				}
+			} catch (IOException e) {
+				throw new CoreException(new DBStatus(e));
+			}
+		}
+		Chunk chunk = new Chunk(this, index);
+		chunk.read();
+		return chunk;
+	}
+
+	/**
+	 * Returns a read-only buffer for the given chunk backed by a mapped region of the file,
+	 * or <code>null</code> if the chunk is not (yet) stored in the file. Protected by {@link #fChunksLock}.
+	 */
+	private ByteBuffer getMappedChunkBuffer(int index) throws IOException {
+		final long position = (long) index * CHUNK_SIZE;
+		final int region = (int) (position / MAPPED_REGION_SIZE);
+		final int offsetInRegion = (int) (position % MAPPED_REGION_SIZE);
+		MappedByteBuffer mapped = region < fMappedRegions.length ? fMappedRegions[region] : null;
+		if (mapped == null || mapped.capacity() < offsetInRegion + CHUNK_SIZE) {
+			// Map the region or, in case the file has grown, remap it with its new size.
+			final long regionStart = (long) region * MAPPED_REGION_SIZE;
+			final long size = Math.min(MAPPED_REGION_SIZE, fFile.length() - regionStart);
+			if (size < offsetInRegion + CHUNK_SIZE) {
+				return null;
+			}
+			mapped = fFile.getChannel().map(MapMode.READ_ONLY, regionStart, size);
+			if (region >= fMappedRegions.length) {
+				MappedByteBuffer[] newRegions = new MappedByteBuffer[region + 1];
+				System.arraycopy(fMappedRegions, 0, newRegions, 0, fMappedRegions.length);
+				fMappedRegions = newRegions;
+			}
+			fMappedRegions[region] = mapped;
+		}
+		return mapped.slice(offsetInRegion, CHUNK_SIZE);
+	}
+
+	/**
+	 * Releases the mapped regions of the file, such that it can be truncated. The chunks served from
+	 * the regions are removed first, they are read again when needed. Must be called with the
+	 * exclusive lock, such that no reader accesses a region while it is released.
+	 */
+	private void unmapRegions() {
+		synchronized (fChunksLock) {
+			if (fMappedRegions.length == 0)
+				return;
+			for (int i = 1; i < fChunks.length; i++) {
+				Chunk chunk = fChunks[i];
+				if (chunk != null && chunk.isMapped()) {
+					fCache.remove(chunk);
+					fChunks[i] = null;
+				}
+			}
+			final MappedByteBuffer[] regions = fMappedRegions;
+			fMappedRegions = new MappedByteBuffer[0];
+			if (UNMAP != null) {
+				for (MappedByteBuffer region : regions) {
+					if (region != null) {
+						try {
+							UNMAP.invokeExact((ByteBuffer) region);
+						} catch (Throwable e) {
+							CCorePlugin.log(e);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static MethodHandle findUnmap() {
+		try {
+			// Available with the jdk.unsupported module, there is no supported API to unmap a buffer.
+			Class<?> unsafeClass = ClassLoader.getPlatformClassLoader().loadClass("sun.misc.Unsafe"); //$NON-NLS-1$
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+			theUnsafe.setAccessible(true);
+			return MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", //$NON-NLS-1$
+					MethodType.methodType(void.class, ByteBuffer.class)).bindTo(theUnsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether chunks are served from memory-mapped regions of the file.
+	 */
+	public boolean isMapped() {
+		return fMapped;
+	}
+
 	private void databaseCorruptionDetected() throws CoreException {
 		String msg = MessageFormat.format(Messages.getString("Database.CorruptedDatabase"), //$NON-NLS-1$
 				new Object[] { fLocation.getName() });
@@ -330,16 +763,17 @@ public class Database {
 		assert fExclusiveLock;
 		assert datasize >= 0 && datasize <= MAX_MALLOC_SIZE;
 
-		int needDeltas = (datasize + BLOCK_HEADER_SIZE + BLOCK_SIZE_DELTA - 1) / BLOCK_SIZE_DELTA;
-		if (needDeltas < MIN_BLOCK_DELTAS) {
-			needDeltas = MIN_BLOCK_DELTAS;
+		final int blockSizeDelta = fBlockSizeDelta;
+		int needDeltas = (datasize + BLOCK_HEADER_SIZE + blockSizeDelta - 1) >> fBlockSizeDeltaBits;
+		if (needDeltas < fMinBlockDeltas) {
+			needDeltas = fMinBlockDeltas;
 		}
 
 		// Which block size.
 		long freeblock = 0;
 		int useDeltas;
-		for (useDeltas = needDeltas; useDeltas <= MAX_BLOCK_DELTAS; useDeltas++) {
-			freeblock = getFirstBlock(useDeltas * BLOCK_SIZE_DELTA);
+		for (useDeltas = needDeltas; useDeltas <= fMaxBlockDeltas; useDeltas++) {
+			freeblock = getFirstBlock(useDeltas * blockSizeDelta);
 			if (freeblock != 0)
 				break;
 		}
@@ -349,22 +783,22 @@ public class Database {
 		if (freeblock == 0) {
 			// Allocate a new chunk.
 			freeblock = createNewChunk();
-			useDeltas = MAX_BLOCK_DELTAS;
+			useDeltas = fMaxBlockDeltas;
 			chunk = getChunk(freeblock);
 		} else {
 			chunk = getChunk(freeblock);
-			removeBlock(chunk, useDeltas * BLOCK_SIZE_DELTA, freeblock);
+			removeBlock(chunk, useDeltas * blockSizeDelta, freeblock);
 		}
 
 		final int unusedDeltas = useDeltas - needDeltas;
-		if (unusedDeltas >= MIN_BLOCK_DELTAS) {
+		if (unusedDeltas >= fMinBlockDeltas) {
 			// Add in the unused part of our block.
-			addBlock(chunk, unusedDeltas * BLOCK_SIZE_DELTA, freeblock + needDeltas * BLOCK_SIZE_DELTA);
+			addBlock(chunk, unusedDeltas * blockSizeDelta, freeblock + needDeltas * blockSizeDelta);
 			useDeltas = needDeltas;
 		}
 
 		// Make our size negative to show in use.
-		final int usedSize = useDeltas * BLOCK_SIZE_DELTA;
+		final int usedSize = useDeltas * blockSizeDelta;
 		chunk.putShort(freeblock, (short) -usedSize);
 
 		// Clear out the block, lots of people are expecting this.
@@ -376,7 +810,7 @@ public class Database {
 
 	private long createNewChunk() throws CoreException {
 		assert fExclusiveLock;
-		synchronized (fCache) {
+		synchronized (fChunksLock) {
 			final int newChunkIndex = fChunksUsed; // fChunks.length;
 
 			final Chunk chunk = new Chunk(this, newChunkIndex);
@@ -391,7 +825,7 @@ public class Database {
 				fChunksAllocated += increment;
 			}
 			fChunksUsed += 1;
-			fChunks[newChunkIndex] = chunk;
+			CHUNKS.setRelease(fChunks, newChunkIndex, chunk);
 
 			fCache.add(chunk, true);
 			long address = (long) newChunkIndex * CHUNK_SIZE;
@@ -402,8 +836,8 @@ public class Database {
 			 * special status, the indexing operation should be stopped. This is desired since generally, once
 			 * the max size is exceeded, there are lots of errors.
 			 */
-			if (address >= MAX_DB_SIZE) {
-				Object bindings[] = { this.getLocation().getAbsolutePath(), MAX_DB_SIZE };
+			if (address >= getMaxSize()) {
+				Object bindings[] = { this.getLocation().getAbsolutePath(), getMaxSize() };
 				throw new CoreException(
 						new Status(IStatus.ERROR, CCorePlugin.PLUGIN_ID, CCorePlugin.STATUS_PDOM_TOO_LARGE,
 								NLS.bind(CCorePlugin.getResourceString("pdom.DatabaseTooLarge"), bindings), null)); //$NON-NLS-1$
@@ -417,7 +851,7 @@ public class Database {
 	 */
 	private long createNewChunks(int numChunks) throws CoreException {
 		assert fExclusiveLock;
-		synchronized (fCache) {
+		synchronized (fChunksLock) {
 			final int oldLen = fChunks.length;
 			Chunk[] newchunks = new Chunk[oldLen + numChunks];
 			System.arraycopy(fChunks, 0, newchunks, 0, oldLen);
@@ -437,12 +871,16 @@ public class Database {
 
 	private long getFirstBlock(int blocksize) throws CoreException {
 		assert fLocked;
-		return fHeaderChunk.getFreeRecPtr((blocksize / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1) * INT_SIZE);
+		return fHeaderChunk.getFreeRecPtr(getFreeListOffset(blocksize));
 	}
 
 	private void setFirstBlock(int blocksize, long block) throws CoreException {
 		assert fExclusiveLock;
-		fHeaderChunk.putFreeRecPtr((blocksize / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1) * INT_SIZE, block);
+		fHeaderChunk.putFreeRecPtr(getFreeListOffset(blocksize), block);
+	}
+
+	private int getFreeListOffset(int blocksize) {
+		return ((blocksize >> fBlockSizeDeltaBits) - fMinBlockDeltas + 2) * INT_SIZE;
 	}
 
 	private void removeBlock(Chunk chunk, int blocksize, long block) throws CoreException {
@@ -491,9 +929,135 @@ public class Database {
 		}
 		addBlock(chunk, blocksize, block);
 		freed += blocksize;
+		fFreedSinceDefragmentation += blocksize;
 		stringCache.remove(offset); // also remove record from string cache (if it exists)
 	}
 
+	/**
+	 * Returns the number of bytes that have been freed since the last complete pass of
+	 * {@link #defragment(int, int)}.
+	 */
+	public long getFreedSinceDefragmentation() {
+		return fFreedSinceDefragmentation;
+	}
+
+	/**
+	 * Merges adjacent free blocks of at most <code>maxChunks</code> chunks, starting with the chunk
+	 * with the given index. Allocated blocks are not moved, since the records pointing to them are
+	 * unknown to the database. The work can be split into short slices by passing the returned
+	 * index to the next call.
+	 *
+	 * @param firstChunk index of the first chunk to process, <code>1</code> to start with the first
+	 *     chunk following the header.
+	 * @param maxChunks maximum number of chunks to process.
+	 * @return the index of the next chunk to process, or <code>0</code> if the end of the database
+	 *     has been reached.
+	 */
+	public int defragment(int firstChunk, int maxChunks) throws CoreException {
+		assert fExclusiveLock;
+		int index = Math.max(firstChunk, 1);
+		final int end = (int) Math.min((long) index + maxChunks, fChunksUsed);
+		for (; index < end; index++) {
+			defragmentChunk(index);
+		}
+		if (index < fChunksUsed)
+			return index;
+		fFreedSinceDefragmentation = 0;
+		return 0;
+	}
+
+	private void defragmentChunk(int index) throws CoreException {
+		final long chunkOffset = (long) index * CHUNK_SIZE;
+		final Chunk chunk = getChunk(chunkOffset);
+		// Verify that the chunk is divided into blocks, chunks created for testing purposes may not be.
+		for (int offset = 0; offset < CHUNK_SIZE;) {
+			final int blocksize = Math.abs(chunk.getShort(chunkOffset + offset));
+			if (blocksize < fMinBlockDeltas * fBlockSizeDelta || (blocksize & (fBlockSizeDelta - 1)) != 0
+					|| offset + blocksize > CHUNK_SIZE) {
+				return;
+			}
+			offset += blocksize;
+		}
+
+		long runStart = 0;
+		int runSize = 0;
+		int runBlocks = 0;
+		for (int offset = 0; offset < CHUNK_SIZE;) {
+			final int blocksize = chunk.getShort(chunkOffset + offset);
+			if (blocksize > 0) {
+				if (runBlocks++ == 0) {
+					runStart = chunkOffset + offset;
+				}
+				runSize += blocksize;
+			} else {
+				mergeFreeBlocks(chunk, runStart, runSize, runBlocks);
+				runSize = runBlocks = 0;
+			}
+			offset += Math.abs(blocksize);
+		}
+		mergeFreeBlocks(chunk, runStart, runSize, runBlocks);
+	}
+
+	/**
+	 * Replaces the adjacent free blocks within the given range by a single free block.
+	 */
+	private void mergeFreeBlocks(Chunk chunk, long start, int size, int blockCount) throws CoreException {
+		if (blockCount < 2)
+			return;
+		for (long block = start; block < start + size;) {
+			final int blocksize = chunk.getShort(block);
+			removeBlock(chunk, blocksize, block);
+			block += blocksize;
+		}
+		addBlock(chunk, size, start);
+	}
+
+	/**
+	 * Releases the chunks at the end of the database that do not contain any allocated blocks. The
+	 * file is truncated with the next flush. Free blocks need to be merged with
+	 * {@link #defragment(int, int)} beforehand for chunks to be recognized as unused.
+	 *
+	 * @return the number of chunks released.
+	 */
+	public int releaseFreeChunks() throws CoreException {
+		assert fExclusiveLock;
+		int released = 0;
+		while (fChunksUsed > 1) {
+			final int index = fChunksUsed - 1;
+			final long chunkOffset = (long) index * CHUNK_SIZE;
+			final Chunk chunk = getChunk(chunkOffset);
+			if (chunk.getShort(chunkOffset) != CHUNK_SIZE)
+				break;
+			removeBlock(chunk, CHUNK_SIZE, chunkOffset);
+			synchronized (fChunksLock) {
+				fCache.remove(chunk);
+				chunk.fDirty = false;
+				chunk.fLocked = false;
+				fChunks[index] = null;
+				fChunksUsed--;
+			}
+			released++;
+		}
+		return released;
+	}
+
+	/**
+	 * Truncates the file after chunks have been released by {@link #releaseFreeChunks()}.
+	 */
+	private void truncateFile() throws CoreException {
+		final long length = (long) fChunksUsed * CHUNK_SIZE;
+		try {
+			if (fFile.length() > length) {
+				markFileIncomplete();
+				// Chunks must not be mapped from beyond the end of the file.
+				unmapRegions();
+				fFile.getChannel().truncate(length);
+			}
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
 	public void putByte(long offset, byte value) throws CoreException {
 		getChunk(offset).putByte(offset, value);
 	}
@@ -646,7 +1210,7 @@ public class Database {
 		System.out.println("free'd: " + freed); //$NON-NLS-1$
 		System.out.println("wasted: " + (fChunksUsed * CHUNK_SIZE - (malloced - freed))); //$NON-NLS-1$
 		System.out.println("Free blocks"); //$NON-NLS-1$
-		for (int bs = MIN_BLOCK_DELTAS * BLOCK_SIZE_DELTA; bs <= CHUNK_SIZE; bs += BLOCK_SIZE_DELTA) {
+		for (int bs = fMinBlockDeltas * fBlockSizeDelta; bs <= CHUNK_SIZE; bs += fBlockSizeDelta) {
 			int count = 0;
 			long block = getFirstBlock(bs);
 			while (block != 0) {
@@ -674,6 +1238,7 @@ public class Database {
 		fHeaderChunk.fDirty = false;
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
+		unmapRegions();
 		try {
 			fFile.close();
 		} catch (IOException e) {
@@ -690,11 +1255,20 @@ public class Database {
 	}
 
 	/**
-	 * Called from any thread via the cache, protected by {@link #fCache}.
+	 * Called from any thread via the cache, while holding the lock of the segment of the cache the
+	 * chunk belongs to. Must not acquire {@link #fChunksLock}, because {@link #getChunk(long)} adds
+	 * chunks to the cache while holding that lock.
 	 */
 	void releaseChunk(final Chunk chunk) {
+		cacheEvictions.increment();
 		if (!chunk.fLocked) {
-			fChunks[chunk.fSequenceNumber] = null;
+			// In case the chunk table is replaced concurrently the chunk may remain in the new table,
+			// it is then added to the cache again on its next use.
+			final Chunk[] chunks = fChunks;
+			final int index = chunk.fSequenceNumber;
+			if (index < chunks.length) {
+				CHUNKS.compareAndSet(chunks, index, chunk, null);
+			}
 		}
 	}
 
@@ -723,7 +1297,7 @@ public class Database {
 		if (fExclusiveLock) {
 			try {
 				ArrayList<Chunk> dirtyChunks = new ArrayList<>();
-				synchronized (fCache) {
+				synchronized (fChunksLock) {
 					for (int i = 1; i < fChunksUsed; i++) {
 						Chunk chunk = fChunks[i];
 						if (chunk != null) {
@@ -771,7 +1345,7 @@ public class Database {
 
 		// Be careful as other readers may access chunks concurrently.
 		ArrayList<Chunk> dirtyChunks = new ArrayList<>();
-		synchronized (fCache) {
+		synchronized (fChunksLock) {
 			for (int i = 1; i < fChunksUsed; i++) {
 				Chunk chunk = fChunks[i];
 				if (chunk != null && chunk.fDirty) {
@@ -794,21 +1368,17 @@ public class Database {
 	}
 
 	private void flushAndUnlockChunks(final ArrayList<Chunk> dirtyChunks, boolean isComplete) throws CoreException {
-		assert !Thread.holdsLock(fCache);
+		assert !Thread.holdsLock(fChunksLock);
 		synchronized (fHeaderChunk) {
 			final boolean haveDirtyChunks = !dirtyChunks.isEmpty();
 			if (haveDirtyChunks || fHeaderChunk.fDirty) {
 				markFileIncomplete();
 			}
 			if (haveDirtyChunks) {
-				for (Chunk chunk : dirtyChunks) {
-					if (chunk.fDirty) {
-						chunk.flush();
-					}
-				}
+				writeChunks(dirtyChunks);
 
 				// Only after the chunks are flushed we may unlock and release them.
-				synchronized (fCache) {
+				synchronized (fChunksLock) {
 					for (Chunk chunk : dirtyChunks) {
 						chunk.fLocked = false;
 						if (chunk.fCacheIndex < 0) {
@@ -819,8 +1389,10 @@ public class Database {
 			}
 
 			if (isComplete) {
+				truncateFile();
 				if (fHeaderChunk.fDirty || fIsMarkedIncomplete) {
 					fHeaderChunk.putInt(VERSION_OFFSET, fVersion);
+					fHeaderChunk.putInt(BLOCK_SIZE_DELTA_BITS_OFFSET, fBlockSizeDeltaBits);
 					fHeaderChunk.flush();
 					fIsMarkedIncomplete = false;
 				}
@@ -828,6 +1400,41 @@ public class Database {
 		}
 	}
 
+	/**
+	 * Writes the dirty chunks in the order of their offsets in the file. Chunks that are adjacent
+	 * in the file are written with a single call, such that the number of I/O operations is small
+	 * even when many chunks are modified.
+	 */
+	private void writeChunks(ArrayList<Chunk> chunks) throws CoreException {
+		chunks.sort((c1, c2) -> Integer.compare(c1.fSequenceNumber, c2.fSequenceNumber));
+		final ByteBuffer[] buffers = new ByteBuffer[MAX_CHUNKS_PER_WRITE];
+		int count = 0;
+		int firstSequenceNumber = 0;
+		try {
+			for (Chunk chunk : chunks) {
+				if (!chunk.fDirty)
+					continue;
+				if (count == MAX_CHUNKS_PER_WRITE
+						|| (count > 0 && chunk.fSequenceNumber != firstSequenceNumber + count)) {
+					write(buffers, count, (long) firstSequenceNumber * CHUNK_SIZE);
+					count = 0;
+				}
+				if (count == 0) {
+					firstSequenceNumber = chunk.fSequenceNumber;
+				}
+				buffers[count++] = chunk.getBufferForWrite();
+			}
+			if (count > 0) {
+				write(buffers, count, (long) firstSequenceNumber * CHUNK_SIZE);
+			}
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+		for (Chunk chunk : chunks) {
+			chunk.fDirty = false;
+		}
+	}
+
 	private void markFileIncomplete() throws CoreException {
 		if (!fIsMarkedIncomplete) {
 			fIsMarkedIncomplete = true;
@@ -841,15 +1448,25 @@ public class Database {
 	}
 
 	public void resetCacheCounters() {
-		cacheHits = cacheMisses = 0;
+		cacheHits.reset();
+		cacheMisses.reset();
+		cacheEvictions.reset();
 	}
 
 	public long getCacheHits() {
-		return cacheHits;
+		return cacheHits.sum();
 	}
 
 	public long getCacheMisses() {
-		return cacheMisses;
+		return cacheMisses.sum();
+	}
+
+	/**
+	 * Returns the number of chunks of this database that have been evicted from the cache since
+	 * the last reset of the counters.
+	 */
+	public long getCacheEvictions() {
+		return cacheEvictions.sum();
 	}
 
 	public long getSizeBytes() {
@@ -864,8 +1481,8 @@ public class Database {
 	 * A Record Pointer is a pointer as returned by Database.malloc().
 	 * This is a pointer to a block + BLOCK_HEADER_SIZE.
 	 */
-	public static void putRecPtr(final long value, byte[] buffer, int idx) {
-		final int denseValue = value == 0 ? 0 : Chunk.compressFreeRecPtr(value - BLOCK_HEADER_SIZE);
+	public void putRecPtr(final long value, byte[] buffer, int idx) {
+		final int denseValue = value == 0 ? 0 : compressFreeRecPtr(value - BLOCK_HEADER_SIZE);
 		Chunk.putInt(denseValue, buffer, idx);
 	}
 
@@ -873,9 +1490,35 @@ public class Database {
 	 * A Record Pointer is a pointer as returned by Database.malloc().
 	 * This is a pointer to a block + BLOCK_HEADER_SIZE.
 	 */
-	public static long getRecPtr(byte[] buffer, final int idx) {
+	public long getRecPtr(byte[] buffer, final int idx) {
 		int value = Chunk.getInt(buffer, idx);
-		long address = Chunk.expandToFreeRecPtr(value);
+		long address = expandToFreeRecPtr(value);
 		return address != 0 ? (address + BLOCK_HEADER_SIZE) : address;
 	}
+
+	/**
+	 * A free Record Pointer is a pointer to a raw block, i.e. the
+	 * pointer is not moved past the BLOCK_HEADER_SIZE.
+	 */
+	int compressFreeRecPtr(final long value) {
+		// This assert verifies the alignment. We expect the low bits to be clear.
+		assert (value & (fBlockSizeDelta - 1)) == 0;
+		return (int) (value >> fBlockSizeDeltaBits);
+	}
+
+	/**
+	 * A free Record Pointer is a pointer to a raw block,
+	 * i.e. the pointer is not moved past the BLOCK_HEADER_SIZE.
+	 */
+	long expandToFreeRecPtr(int value) {
+		/*
+		 * We need to properly manage the integer that was read. The value will be sign-extended
+		 * so if the most significant bit is set, the resulting long will look negative. By
+		 * masking it with ((long)1 << 32) - 1 we remove all the sign-extended bits and just
+		 * have an unsigned 32-bit value as a long. This gives us one more useful bit in the
+		 * stored record pointers.
+		 */
+		long address = value & 0xFFFFFFFFL;
+		return address << fBlockSizeDeltaBits;
+	}
 }
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A hash index stored in the database, mapping names to records. Looking up a record by its name
+ * probes a single bucket and compares the names directly with the strings stored in the database,
+ * without creating any objects.
+ * <p>
+ * The names are not stored in the index, they are obtained from the records that are inserted. The
+ * index does not support multiple records with the same name, which one of them is found is
+ * undefined.
+ * <p>
+ * The buckets are organized in two levels: a directory of pointers to blocks of at most
+ * {@link #BLOCK_SIZE} buckets each. The number of buckets starts at {@link #MIN_BUCKET_BITS 64}
+ * and doubles whenever the number of records exceeds {@link #LOAD_FACTOR} times the number of
+ * buckets, up to {@link #MAX_BUCKET_BITS 2^18} buckets. Growing relinks the existing entries by
+ * their stored hash codes, without reading the names. The table does not shrink when records are
+ * deleted.
+ */
+public class StringHashIndex {
+	/**
+	 * Provides the record of the name of a record stored in the index.
+	 */
+	public interface INameAccessor {
+		long getNameRecord(long record) throws CoreException;
+	}
+
+	private static final int BLOCK_BITS = 9;
+	private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+	private static final int MIN_BUCKET_BITS = 6;
+	// Both the directory and the blocks must fit into a single malloc.
+	private static final int MAX_BUCKET_BITS = 2 * BLOCK_BITS;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	// Layout of the header of the index.
+	private static final int HEADER_COUNT = 0;
+	private static final int HEADER_BUCKET_BITS = Database.INT_SIZE;
+	private static final int HEADER_DIRECTORY = HEADER_BUCKET_BITS + Database.INT_SIZE;
+	private static final int HEADER_SIZE = HEADER_DIRECTORY + Database.PTR_SIZE;
+
+	// Layout of an entry of a bucket.
+	private static final int ENTRY_NEXT = 0;
+	private static final int ENTRY_HASH = Database.PTR_SIZE;
+	private static final int ENTRY_RECORD = ENTRY_HASH + Database.INT_SIZE;
+	private static final int ENTRY_SIZE = ENTRY_RECORD + Database.PTR_SIZE;
+
+	private final Database db;
+	private final long headerPointer;
+	private final INameAccessor nameAccessor;
+
+	/**
+	 * @param db the database containing the index
+	 * @param headerPointer offset into database of the pointer to the header of the index
+	 * @param nameAccessor provides the names of the records
+	 */
+	public StringHashIndex(Database db, long headerPointer, INameAccessor nameAccessor) {
+		this.db = db;
+		this.headerPointer = headerPointer;
+		this.nameAccessor = nameAccessor;
+	}
+
+	/**
+	 * Computes the hash code of a name, compatible with {@link String#hashCode()}.
+	 */
+	public static int hash(char[] name) {
+		int h = 0;
+		for (char c : name) {
+			h = 31 * h + c;
+		}
+		return h;
+	}
+
+	/**
+	 * Returns the record with the given name, or <code>0</code> if there is no such record.
+	 */
+	public long find(char[] name) throws CoreException {
+		final long header = db.getRecPtr(headerPointer);
+		if (header == 0)
+			return 0;
+		final int hash = hash(name);
+		long entry = db.getRecPtr(getBucket(header, hash));
+		while (entry != 0) {
+			if (db.getInt(entry + ENTRY_HASH) == hash) {
+				final long record = db.getRecPtr(entry + ENTRY_RECORD);
+				if (nameEquals(nameAccessor.getNameRecord(record), name)) {
+					return record;
+				}
+			}
+			entry = db.getRecPtr(entry + ENTRY_NEXT);
+		}
+		return 0;
+	}
+
+	/**
+	 * Inserts a record with the given name into the index.
+	 */
+	public void insert(long record, char[] name) throws CoreException {
+		long header = db.getRecPtr(headerPointer);
+		if (header == 0) {
+			header = db.malloc(HEADER_SIZE);
+			db.putInt(header + HEADER_BUCKET_BITS, MIN_BUCKET_BITS);
+			db.putRecPtr(header + HEADER_DIRECTORY, allocateTable(MIN_BUCKET_BITS));
+			db.putRecPtr(headerPointer, header);
+		}
+		final int count = db.getInt(header + HEADER_COUNT) + 1;
+		db.putInt(header + HEADER_COUNT, count);
+		final int bucketBits = db.getInt(header + HEADER_BUCKET_BITS);
+		if (bucketBits < MAX_BUCKET_BITS && count > LOAD_FACTOR * (1 << bucketBits)) {
+			grow(header, bucketBits);
+		}
+
+		final int hash = hash(name);
+		final long bucket = getBucket(header, hash);
+		final long entry = db.malloc(ENTRY_SIZE);
+		db.putRecPtr(entry + ENTRY_NEXT, db.getRecPtr(bucket));
+		db.putInt(entry + ENTRY_HASH, hash);
+		db.putRecPtr(entry + ENTRY_RECORD, record);
+		db.putRecPtr(bucket, entry);
+	}
+
+	/**
+	 * Removes a record with the given name from the index, has no effect if the record is not
+	 * contained in the index.
+	 */
+	public void delete(long record, char[] name) throws CoreException {
+		final long header = db.getRecPtr(headerPointer);
+		if (header == 0)
+			return;
+		long prev = getBucket(header, hash(name));
+		long entry = db.getRecPtr(prev);
+		while (entry != 0) {
+			final long next = db.getRecPtr(entry + ENTRY_NEXT);
+			if (db.getRecPtr(entry + ENTRY_RECORD) == record) {
+				db.putRecPtr(prev, next);
+				db.free(entry);
+				db.putInt(header + HEADER_COUNT, db.getInt(header + HEADER_COUNT) - 1);
+				return;
+			}
+			prev = entry + ENTRY_NEXT;
+			entry = next;
+		}
+	}
+
+	/**
+	 * Allocates the directory and the blocks for the given number of buckets, all buckets are
+	 * empty.
+	 */
+	private long allocateTable(int bucketBits) throws CoreException {
+		final int blockCount = getBlockCount(bucketBits);
+		final int blockSize = Math.min(1 << bucketBits, BLOCK_SIZE);
+		final long directory = db.malloc(blockCount * Database.PTR_SIZE);
+		for (int i = 0; i < blockCount; i++) {
+			db.putRecPtr(directory + i * Database.PTR_SIZE, db.malloc(blockSize * Database.PTR_SIZE));
+		}
+		return directory;
+	}
+
+	private static int getBlockCount(int bucketBits) {
+		return bucketBits > BLOCK_BITS ? 1 << (bucketBits - BLOCK_BITS) : 1;
+	}
+
+	/**
+	 * Doubles the number of buckets and moves the entries to their new buckets.
+	 */
+	private void grow(long header, int bucketBits) throws CoreException {
+		final long oldDirectory = db.getRecPtr(header + HEADER_DIRECTORY);
+		final int oldBlockCount = getBlockCount(bucketBits);
+		final int oldBlockSize = Math.min(1 << bucketBits, BLOCK_SIZE);
+		db.putInt(header + HEADER_BUCKET_BITS, bucketBits + 1);
+		db.putRecPtr(header + HEADER_DIRECTORY, allocateTable(bucketBits + 1));
+
+		for (int i = 0; i < oldBlockCount; i++) {
+			final long block = db.getRecPtr(oldDirectory + i * Database.PTR_SIZE);
+			for (int j = 0; j < oldBlockSize; j++) {
+				long entry = db.getRecPtr(block + j * Database.PTR_SIZE);
+				while (entry != 0) {
+					final long next = db.getRecPtr(entry + ENTRY_NEXT);
+					final long bucket = getBucket(header, db.getInt(entry + ENTRY_HASH));
+					db.putRecPtr(entry + ENTRY_NEXT, db.getRecPtr(bucket));
+					db.putRecPtr(bucket, entry);
+					entry = next;
+				}
+			}
+			db.free(block);
+		}
+		db.free(oldDirectory);
+	}
+
+	/**
+	 * Returns the offset of the pointer to the first entry of the bucket for the given hash code.
+	 */
+	private long getBucket(long header, int hash) throws CoreException {
+		// Spread the higher bits of the hash code, the index uses the lower ones, only.
+		final int h = (hash ^ (hash >>> 16)) & ((1 << db.getInt(header + HEADER_BUCKET_BITS)) - 1);
+		final long directory = db.getRecPtr(header + HEADER_DIRECTORY);
+		final long block = db.getRecPtr(directory + (h >>> BLOCK_BITS) * Database.PTR_SIZE);
+		return block + (h & (BLOCK_SIZE - 1)) * Database.PTR_SIZE;
+	}
+
+	/**
+	 * Compares a string stored in the database with a name, without creating any objects for
+	 * strings that fit into a single chunk.
+	 */
+	private boolean nameEquals(long nameRecord, char[] name) throws CoreException {
+		if (nameRecord == 0)
+			return false;
+		final Chunk chunk = db.getChunk(nameRecord);
+		final int l = chunk.getInt(nameRecord);
+		final boolean useBytes = l < 0;
+		final int length = useBytes ? -l : l;
+		if (length != name.length)
+			return false;
+		if ((useBytes ? length : 2 * length) > ShortString.MAX_BYTE_LENGTH) {
+			return db.getString(nameRecord).compare(name, true) == 0;
+		}
+		final long chars = nameRecord + Database.INT_SIZE;
+		for (int i = 0; i < length; i++) {
+			final char c = useBytes ? (char) (chunk.getByte(chars + i) & 0xff) : chunk.getChar(chars + 2 * i);
+			if (c != name[i])
+				return false;
+		}
+		return true;
+	}
+}
@@ -58,6 +58,7 @@ import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
 import org.eclipse.cdt.internal.core.pdom.db.IString;
+import org.eclipse.cdt.internal.core.pdom.db.StringHashIndex;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -74,12 +75,14 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 	private static final int INDEX_OFFSET = PDOMNamedNode.RECORD_SIZE + 8;
 	private static final int NESTED_BINDINGS_INDEX = PDOMNamedNode.RECORD_SIZE + 12;
 	private static final int MACRO_BTREE = PDOMNamedNode.RECORD_SIZE + 16;
+	private static final int MACRO_HASH_INDEX = PDOMNamedNode.RECORD_SIZE + 20;
 
 	@SuppressWarnings("hiding")
-	protected static final int RECORD_SIZE = PDOMNamedNode.RECORD_SIZE + 20;
+	protected static final int RECORD_SIZE = PDOMNamedNode.RECORD_SIZE + 24;
 	protected static final long[] FILE_LOCAL_REC_DUMMY = new long[] { 0 };
 
 	private BTree fMacroIndex = null; // No need for volatile, all fields of BTree are final.
+	private StringHashIndex fMacroHashIndex = null; // No need for volatile, all fields are final.
 	private final PDOM fPDOM;
 	private final Database fDatabase;
 
@@ -365,40 +368,35 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 		return fMacroIndex;
 	}
 
-	public PDOMMacroContainer findMacroContainer(final char[] name) throws CoreException {
-		return findMacroContainer(name, fPDOM.createKeyForCache(record, name));
-	}
-
-	private PDOMMacroContainer findMacroContainer(final char[] name, final String key) throws CoreException {
-		Object result = fPDOM.getCachedResult(key);
-		if (result instanceof PDOMMacroContainer) {
-			return ((PDOMMacroContainer) result);
+	/**
+	 * Returns the hash index of the macro containers, used for looking them up by name. The
+	 * {@link #getMacroIndex() b-tree} is still needed for visiting the containers in order.
+	 */
+	private StringHashIndex getMacroHashIndex() {
+		if (fMacroHashIndex == null) {
+			fMacroHashIndex = new StringHashIndex(getDB(), record + MACRO_HASH_INDEX,
+					rec -> PDOMNamedNode.getNameRecord(fDatabase, rec));
 		}
-		assert result == null;
+		return fMacroHashIndex;
+	}
 
-		MacroContainerFinder visitor = new MacroContainerFinder(this, name);
-		getMacroIndex().accept(visitor);
-		PDOMMacroContainer container = visitor.getMacroContainer();
-		if (container != null) {
-			fPDOM.putCachedResult(key, container);
-		}
-		return container;
+	public PDOMMacroContainer findMacroContainer(final char[] name) throws CoreException {
+		final long container = getMacroHashIndex().find(name);
+		return container == 0 ? null : new PDOMMacroContainer(this, container);
 	}
 
 	public PDOMMacroContainer getMacroContainer(char[] name) throws CoreException {
-		String key = fPDOM.createKeyForCache(record, name);
-		PDOMMacroContainer result = findMacroContainer(name, key);
+		PDOMMacroContainer result = findMacroContainer(name);
 		if (result == null) {
 			result = new PDOMMacroContainer(this, name);
 			getMacroIndex().insert(result.getRecord());
-			fPDOM.putCachedResult(key, result);
+			getMacroHashIndex().insert(result.getRecord(), name);
 		}
 		return result;
 	}
 
 	public void removeMacroContainer(PDOMMacroContainer container) throws CoreException {
-		String key = fPDOM.createKeyForCache(record, container.getNameCharArray());
-		fPDOM.putCachedResult(key, null);
+		getMacroHashIndex().delete(container.getRecord(), container.getNameCharArray());
 		getMacroIndex().delete(container.getRecord());
 	}
 
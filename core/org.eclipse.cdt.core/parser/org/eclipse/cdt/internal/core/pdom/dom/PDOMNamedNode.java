@@ -75,6 +75,13 @@ public abstract class PDOMNamedNode extends PDOMNode {
 		return db.getString(namerec);
 	}
 
+	/**
+	 * Returns the record of the string holding the name of the node.
+	 */
+	public static long getNameRecord(Database db, long record) throws CoreException {
+		return db.getRecPtr(record + NAME);
+	}
+
 	public char[] getNameCharArray() throws CoreException {
 		if (fName != null)
 			return fName;
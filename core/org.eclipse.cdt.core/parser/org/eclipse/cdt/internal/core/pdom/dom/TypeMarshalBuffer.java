@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2009, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -380,7 +380,7 @@ public final class TypeMarshalBuffer implements ITypeMarshalBuffer {
 
 	private void putRecordPointer(long record) {
 		request(Database.PTR_SIZE);
-		Database.putRecPtr(record, fBuffer, fPos);
+		fLinkage.getDB().putRecPtr(record, fBuffer, fPos);
 		fPos += Database.PTR_SIZE;
 	}
 
@@ -391,7 +391,7 @@ public final class TypeMarshalBuffer implements ITypeMarshalBuffer {
 			fPos = fBuffer.length;
 			throw unmarshallingError();
 		}
-		return Database.getRecPtr(fBuffer, pos);
+		return fLinkage.getDB().getRecPtr(fBuffer, pos);
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 Symbian Software Systems and others.
+ * Copyright (c) 2007, 2026 Symbian Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,7 @@ import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.LanguageManager;
 import org.eclipse.cdt.internal.core.CCoreInternals;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -50,6 +51,7 @@ public class GeneratePDOM {
 	protected String indexerID;
 	protected boolean deleteOnExit;
 	protected boolean checkIndexStatus;
+	protected boolean compress;
 
 	/**
 	 * Runnable to export a PDOM.
@@ -80,6 +82,15 @@ public class GeneratePDOM {
 		this.deleteOnExit = deleteOnExit;
 	}
 
+	/**
+	 * When set, the PDOM is written in the compressed format of {@link Database#compress(File, File)},
+	 * which can be used for read-only indexes only. By default this is not set.
+	 * @param compress
+	 */
+	public void setCompress(boolean compress) {
+		this.compress = compress;
+	}
+
 	/**
 	 * Executes the PDOM generation
 	 * @return {@link IStatus#OK} if the generated content is complete, {@link IStatus#ERROR} otherwise.
@@ -148,6 +159,19 @@ public class GeneratePDOM {
 			} finally {
 				exportedPDOM.releaseWriteLock();
 			}
+
+			if (compress) {
+				File uncompressed = new File(targetLocation.getPath() + ".uncompressed"); //$NON-NLS-1$
+				if (uncompressed.exists() && !uncompressed.delete() || !targetLocation.renameTo(uncompressed)) {
+					fail(MessageFormat.format(Messages.GeneratePDOM_GenericGenerationFailed,
+							new Object[] { uncompressed }));
+				}
+				try {
+					Database.compress(uncompressed, targetLocation);
+				} finally {
+					uncompressed.delete();
+				}
+			}
 		} catch (InterruptedException ie) {
 			String msg = MessageFormat.format(Messages.GeneratePDOM_GenericGenerationFailed,
 					new Object[] { ie.getMessage() });
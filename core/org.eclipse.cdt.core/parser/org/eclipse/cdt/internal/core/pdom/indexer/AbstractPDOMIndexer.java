@@ -43,6 +43,8 @@ public abstract class AbstractPDOMIndexer implements IPDOMIndexer {
 		fProperties.put(IndexerPreferences.KEY_SKIP_MACRO_REFERENCES, String.valueOf(false));
 		fProperties.put(IndexerPreferences.KEY_INDEX_ALL_HEADER_VERSIONS, String.valueOf(false));
 		fProperties.put(IndexerPreferences.KEY_INDEX_ALL_VERSIONS_SPECIFIC_HEADERS, ""); //$NON-NLS-1$
+		fProperties.put(IndexerPreferences.KEY_INDEXER_WORKER_THREADS,
+				String.valueOf(IndexerPreferences.DEFAULT_INDEXER_WORKER_THREADS));
 	}
 
 	@Override
@@ -66,7 +68,8 @@ public abstract class AbstractPDOMIndexer implements IPDOMIndexer {
 			String key = (String) entry.getKey();
 			String val = (String) entry.getValue();
 
-			if (val != null) { // relevant property
+			// The number of worker threads does not affect the content of the index.
+			if (val != null && !IndexerPreferences.KEY_INDEXER_WORKER_THREADS.equals(key)) { // relevant property
 				String v2 = (String) props.get(key);
 				if (v2 != null && !val.equals(v2)) {
 					return true;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,8 +20,8 @@ import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.cdt.utils.UNCPathConverter;
 import org.eclipse.core.filesystem.EFS;
@@ -31,7 +31,8 @@ import org.eclipse.core.runtime.CoreException;
 /**
  * A cache for checking whether a file exists. The cache shall be used for a limited amount of time,
  * only (e.g. one indexer task). It uses as much memory as it needs. To protect against OutOfMemory
- * situations, a soft reference is used.
+ * situations, a soft reference is used. The cache may be used by multiple threads. The file system
+ * is accessed without holding a lock, two threads may therefore compute the same entry.
  * @since 5.0
  */
 public final class FileExistsCache {
@@ -45,17 +46,18 @@ public final class FileExistsCache {
 		}
 
 		public String[] fNames;
+		// Guarded by itself.
 		public BitSet fIsFile;
 	}
 
-	private Reference<Map<String, Content>> fCache;
+	private volatile Reference<Map<String, Content>> fCache;
 	// Cache for recent results of isFile calls (bug 471103).
-	private final Map<String, Boolean> fCacheIsFile = new HashMap<>();
+	private final Map<String, Boolean> fCacheIsFile = new ConcurrentHashMap<>();
 	private final boolean fCaseInSensitive;
 
 	public FileExistsCache(boolean caseInsensitive) {
 		fCaseInSensitive = caseInsensitive;
-		Map<String, Content> cache = new HashMap<>();
+		Map<String, Content> cache = new ConcurrentHashMap<>();
 		// Before running out of memory the entire map will be thrown away.
 		fCache = new SoftReference<>(cache);
 	}
@@ -69,7 +71,7 @@ public final class FileExistsCache {
 		}
 
 		boolean result = isFileInternal(path);
-		fCacheIsFile.put(path, result);
+		fCacheIsFile.putIfAbsent(path, result);
 		return result;
 	}
 
@@ -111,7 +113,8 @@ public final class FileExistsCache {
 		if (fCaseInSensitive)
 			name = name.toUpperCase();
 
-		Content avail = getExistsCache().get(parent);
+		final Map<String, Content> existsCache = getExistsCache();
+		Content avail = existsCache.get(parent);
 		if (avail == null) {
 			String[] files = null;
 			try {
@@ -130,7 +133,9 @@ public final class FileExistsCache {
 				Arrays.sort(files);
 				avail = new Content(files);
 			}
-			getExistsCache().put(parent, avail);
+			Content other = existsCache.putIfAbsent(parent, avail);
+			if (other != null)
+				avail = other;
 		}
 		int idx = Arrays.binarySearch(avail.fNames, name);
 		if (idx < 0)
@@ -138,23 +143,26 @@ public final class FileExistsCache {
 		idx *= 2;
 
 		final BitSet isFileBitset = avail.fIsFile;
-		if (isFileBitset.get(idx))
-			return true;
-		if (isFileBitset.get(idx + 1))
-			return false;
+		synchronized (isFileBitset) {
+			if (isFileBitset.get(idx))
+				return true;
+			if (isFileBitset.get(idx + 1))
+				return false;
+		}
 
-		if ((file != null && file.isFile()) || (fileStore != null && !fileStore.fetchInfo().isDirectory())) {
-			isFileBitset.set(idx);
-			return true;
+		boolean isFile = (file != null && file.isFile())
+				|| (fileStore != null && !fileStore.fetchInfo().isDirectory());
+		synchronized (isFileBitset) {
+			isFileBitset.set(isFile ? idx : idx + 1);
 		}
-		isFileBitset.set(idx + 1);
-		return false;
+		return isFile;
 	}
 
 	private Map<String, Content> getExistsCache() {
 		Map<String, Content> cache = fCache.get();
 		if (cache == null) {
-			cache = new HashMap<>();
+			// Threads racing here may each create a map, only one of them is kept.
+			cache = new ConcurrentHashMap<>();
 			// Before running out of memory the entire map will be thrown away.
 			fCache = new SoftReference<>(cache);
 		}
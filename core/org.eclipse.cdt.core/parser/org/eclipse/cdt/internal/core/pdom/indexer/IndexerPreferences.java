@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,6 +25,7 @@ import org.eclipse.cdt.core.dom.IPDOMManager;
 import org.eclipse.cdt.internal.core.CCoreInternals;
 import org.eclipse.cdt.internal.core.LocalProjectScope;
 import org.eclipse.cdt.internal.core.pdom.IndexUpdatePolicy;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.runtime.Platform;
@@ -71,11 +72,14 @@ public class IndexerPreferences {
 	public static final String KEY_REINDEX_ON_INDEXER_CHANGE = "reindexOnIndexerChange"; //$NON-NLS-1$
 	public static final String KEY_INDEX_ALL_HEADER_VERSIONS = "indexAllHeaderVersions"; //$NON-NLS-1$
 	public static final String KEY_INDEX_ALL_VERSIONS_SPECIFIC_HEADERS = "indexAllVersionsSpecificHeaders"; //$NON-NLS-1$
+	public static final String KEY_INDEXER_WORKER_THREADS = "indexerWorkerThreads"; //$NON-NLS-1$
+	public static final String KEY_MEMORY_MAPPED_INDEX = "memoryMappedIndex"; //$NON-NLS-1$
 
 	private static final String DEFAULT_INDEX_IMPORT_LOCATION = ".settings/cdt-index.zip"; //$NON-NLS-1$
 	private static final int DEFAULT_UPDATE_POLICY = 0;
 	public static final int DEFAULT_FILE_SIZE_LIMIT_MB = 8;
 	public static final int DEFAULT_INCLUDED_FILE_SIZE_LIMIT_MB = 16;
+	public static final int DEFAULT_INDEXER_WORKER_THREADS = 1;
 
 	private static final String QUALIFIER = CCorePlugin.PLUGIN_ID;
 	private static final String INDEXER_NODE = "indexer"; //$NON-NLS-1$
@@ -335,6 +339,8 @@ public class IndexerPreferences {
 		prefs.putBoolean(KEY_SKIP_MACRO_REFERENCES, false);
 		prefs.put(KEY_INDEX_IMPORT_LOCATION, DEFAULT_INDEX_IMPORT_LOCATION);
 		prefs.putBoolean(KEY_INDEX_ALL_HEADER_VERSIONS, false);
+		prefs.putInt(KEY_INDEXER_WORKER_THREADS, DEFAULT_INDEXER_WORKER_THREADS);
+		prefs.putBoolean(KEY_MEMORY_MAPPED_INDEX, Boolean.getBoolean(PDOM.MEMORY_MAPPED_DATABASE_PROPERTY));
 	}
 
 	public static void setDefaultIndexerId(String defaultId) {
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.indexer;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.IPDOMIndexer;
+import org.eclipse.cdt.core.dom.IPDOMIndexerTask;
+import org.eclipse.cdt.internal.core.index.WritableCIndex;
+import org.eclipse.cdt.internal.core.pdom.FailedToReAcquireLockException;
+import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.YieldableIndexLock;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Compacts the index of a project after it has been updated, see
+ * {@link WritablePDOM#compact(YieldableIndexLock, IProgressMonitor)}. The task is queued behind
+ * the indexing tasks and stops as soon as another task is enqueued, such that it runs in idle
+ * time only. An interrupted compaction is resumed by the next compaction task for the index.
+ */
+public class PDOMCompactionTask implements IPDOMIndexerTask {
+	private final IPDOMIndexer fIndexer;
+	private final WritablePDOM fPDOM;
+	private volatile boolean fRunning;
+	private volatile boolean fInterrupted;
+
+	public PDOMCompactionTask(IPDOMIndexer indexer, WritablePDOM pdom) {
+		fIndexer = indexer;
+		fPDOM = pdom;
+	}
+
+	@Override
+	public IPDOMIndexer getIndexer() {
+		return fIndexer;
+	}
+
+	@Override
+	public IndexerProgress getProgressInformation() {
+		return new IndexerProgress();
+	}
+
+	@Override
+	public void run(final IProgressMonitor monitor) throws InterruptedException {
+		IProgressMonitor interruptibleMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return fInterrupted || monitor.isCanceled();
+			}
+		};
+		YieldableIndexLock lock = new YieldableIndexLock(new WritableCIndex(fPDOM), true, monitor);
+		lock.acquire();
+		fRunning = true;
+		try {
+			fPDOM.compact(lock, interruptibleMonitor);
+		} catch (CoreException e) {
+			CCorePlugin.log(e);
+		} catch (FailedToReAcquireLockException e) {
+			e.reThrow();
+		} finally {
+			fRunning = false;
+			lock.release();
+		}
+	}
+
+	@Override
+	public boolean acceptUrgentTask(IPDOMIndexerTask task) {
+		if (task instanceof PDOMCompactionTask other && other.fPDOM == fPDOM) {
+			return true;
+		}
+		if (fRunning) {
+			// Make room for the new task, compaction is resumed later.
+			fInterrupted = true;
+		}
+		return false;
+	}
+}
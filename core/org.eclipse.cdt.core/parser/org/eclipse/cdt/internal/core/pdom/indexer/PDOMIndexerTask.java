@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2020 Wind River Systems, Inc. and others.
+ * Copyright (c) 2006, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -34,12 +34,14 @@ import org.eclipse.cdt.core.index.IIndexManager;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
+import org.eclipse.cdt.internal.core.CCoreInternals;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
 import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.model.CProject;
 import org.eclipse.cdt.internal.core.pdom.AbstractIndexerTask;
 import org.eclipse.cdt.internal.core.pdom.ITodoTaskUpdater;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -163,6 +165,10 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 		long start = System.currentTimeMillis();
 		runTask(monitor);
 		traceEnd(start, fIndex, monitor.isCanceled());
+		if (!monitor.isCanceled() && fIndex != null && fIndex.getWritableFragment() instanceof WritablePDOM pdom
+				&& pdom.needsCompaction()) {
+			CCoreInternals.getPDOMManager().enqueue(new PDOMCompactionTask(getIndexer(), pdom));
+		}
 	}
 
 	/**
@@ -308,15 +314,24 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 					+ fStatistics.fDeclarationCount + " declarations, " //$NON-NLS-1$
 					+ fStatistics.fReferenceCount + " references, " //$NON-NLS-1$
 					+ fStatistics.fProblemBindingCount + "(" + nfPercent.format(problemPct) + ") unresolved."); //$NON-NLS-1$ //$NON-NLS-2$
+			System.out.println(indent + " Memoization: " //$NON-NLS-1$
+					+ fStatistics.fInstantiationCacheHits + " of " //$NON-NLS-1$
+					+ (fStatistics.fInstantiationCacheHits + fStatistics.fInstantiationCacheMisses)
+					+ " instantiations, " //$NON-NLS-1$
+					+ fStatistics.fConstexprCallCacheHits + " of " //$NON-NLS-1$
+					+ (fStatistics.fConstexprCallCacheHits + fStatistics.fConstexprCallCacheMisses)
+					+ " constexpr calls reused."); //$NON-NLS-1$
 
 			long misses = index.getCacheMisses();
 			long hits = index.getCacheHits();
+			long evictions = index.getCacheEvictions();
 			long tries = misses + hits;
 			double missPct = tries == 0 ? 0.0 : (double) misses / (double) tries;
 			System.out.println(indent + " Cache[" //$NON-NLS-1$
 					+ ChunkCache.getSharedInstance().getMaxSize() / 1024 / 1024 + "MB]: " + //$NON-NLS-1$
 					+hits + " hits, " //$NON-NLS-1$
-					+ misses + "(" + nfPercent.format(missPct) + ") misses."); //$NON-NLS-1$ //$NON-NLS-2$
+					+ misses + "(" + nfPercent.format(missPct) + ") misses, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ evictions + " evictions."); //$NON-NLS-1$
 
 			if (Boolean.parseBoolean(System.getProperty("SHOW_COMPRESSED_INDEXER_INFO"))) { //$NON-NLS-1$
 				Calendar cal = Calendar.getInstance();
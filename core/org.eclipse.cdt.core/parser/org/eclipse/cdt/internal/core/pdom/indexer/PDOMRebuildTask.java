@@ -112,6 +112,16 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 		}
 	}
 
+	private int getWorkerThreadCount() {
+		try {
+			String count = fIndexer.getProperty(IndexerPreferences.KEY_INDEXER_WORKER_THREADS);
+			if (count != null)
+				return Integer.parseInt(count);
+		} catch (NumberFormatException e) {
+		}
+		return IndexerPreferences.DEFAULT_INDEXER_WORKER_THREADS;
+	}
+
 	private void createDelegate(ICProject project, IProgressMonitor monitor) throws CoreException {
 		boolean allFiles = TRUE
 				.equals(fIndexer.getProperty(IndexerPreferences.KEY_INDEX_UNUSED_HEADERS_WITH_DEFAULT_LANG))
@@ -126,6 +136,8 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 			final PDOMIndexerTask pdomIndexerTask = (PDOMIndexerTask) delegate;
 			pdomIndexerTask.setUpdateFlags(IIndexManager.UPDATE_ALL);
 			pdomIndexerTask.setWriteInfoToLog();
+			// The index has been cleared, so the sources can be parsed in parallel.
+			pdomIndexerTask.setParallelWorkerCount(getWorkerThreadCount());
 		}
 		synchronized (this) {
 			fDelegate = delegate;
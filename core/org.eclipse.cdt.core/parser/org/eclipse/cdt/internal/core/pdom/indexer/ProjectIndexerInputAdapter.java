@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2026 Wind River Systems, Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,8 @@
 package org.eclipse.cdt.internal.core.pdom.indexer;
 
 import java.io.File;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.index.IIndexFileLocation;
@@ -55,7 +56,8 @@ public class ProjectIndexerInputAdapter extends IndexerInputAdapter {
 	private static final AbstractLanguage[] NO_LANGUAGE = new AbstractLanguage[0];
 
 	private final ICProject fCProject;
-	private final HashMap<String, IIndexFileLocation> fIflCache;
+	// Shared by the parsing workers, locations are resolved without holding a lock.
+	private final Map<String, IIndexFileLocation> fIflCache;
 	private final FileExistsCache fExistsCache;
 	private AbstractLanguage fLangC;
 	private AbstractLanguage fLangCpp;
@@ -69,7 +71,7 @@ public class ProjectIndexerInputAdapter extends IndexerInputAdapter {
 		fCProject = cproject;
 		fProjectPrefix = cproject.getProject().getFullPath().toString() + IPath.SEPARATOR;
 		if (useCache) {
-			fIflCache = new HashMap<>();
+			fIflCache = new ConcurrentHashMap<>();
 			fExistsCache = new FileExistsCache(isCaseInsensitiveFileSystem());
 		} else {
 			fIflCache = null;
@@ -100,7 +102,7 @@ public class ProjectIndexerInputAdapter extends IndexerInputAdapter {
 		IIndexFileLocation result = fIflCache.get(astPath);
 		if (result == null) {
 			result = doResolveASTPath(astPath);
-			fIflCache.put(astPath, result);
+			fIflCache.putIfAbsent(astPath, result);
 		}
 		return result;
 	}
@@ -125,10 +127,10 @@ public class ProjectIndexerInputAdapter extends IndexerInputAdapter {
 				String canonicalPath = PathCanonicalizationStrategy.getCanonicalPath(location);
 				if (!includePath.equals(canonicalPath)) {
 					result = IndexLocationFactory.getExternalIFL(canonicalPath);
-					fIflCache.put(canonicalPath, result);
+					fIflCache.putIfAbsent(canonicalPath, result);
 				}
 			}
-			fIflCache.put(includePath, result);
+			fIflCache.putIfAbsent(includePath, result);
 		}
 		return result;
 	}
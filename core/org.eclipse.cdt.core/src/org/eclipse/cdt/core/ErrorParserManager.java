@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2017 IBM Corporation and others.
+ *  Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -22,11 +22,15 @@ package org.eclipse.cdt.core;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.errorparsers.ErrorParserNamedWrapper;
@@ -79,6 +83,17 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	public static final String BUILD_CONTEXT = "build"; //$NON-NLS-1$
 
 	private static final Pattern ANSI_ESCAPE_RE = Pattern.compile("\\e\\[[\\d;]*[^\\d;]"); //$NON-NLS-1$
+	private static final char ESCAPE = '\u001b';
+
+	/**
+	 * System property enabling pipelined error parsing. In that mode the lines of build output are
+	 * handed over to a worker thread, so that the build output is read without waiting for the
+	 * error parsers.
+	 */
+	private static final String PIPELINED_PROPERTY = "org.eclipse.cdt.core.errorParserManager.pipelined"; //$NON-NLS-1$
+	/** Maximum number of lines waiting to be parsed before the reader of the build output is blocked. */
+	private static final int MAX_PENDING_LINES = 10000;
+	private static ThreadPoolExecutor parserExecutor;
 
 	private int nOpens;
 	private int lineCounter = 0;
@@ -111,6 +126,9 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 
 	private static boolean isCygwin = true;
 
+	/** Parses the lines on a worker thread, {@code null} unless pipelined error parsing is enabled. */
+	private final LinePipeline fPipeline;
+
 	/**
 	 * Constructor.
 	 *
@@ -172,6 +190,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 		fMarkerGenerator = markerGenerator;
 		fDirectoryStack = new Vector<>();
 		fErrors = new ArrayList<>();
+		fPipeline = Boolean.getBoolean(PIPELINED_PROPERTY) ? new LinePipeline() : null;
 		enableErrorParsers(parsersIDs);
 
 		if (baseDirectoryURI != null) {
@@ -325,15 +344,28 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 
 	/**
 	 * Parses one line of output and generates error or warning markers.
+	 * <p>
+	 * With pipelined error parsing the line is only queued and parsed later on a worker thread,
+	 * in that case {@code false} is returned, i.e. the line is never reported as consumed.
 	 * @since 5.4
 	 */
 	@Override
 	public boolean processLine(String line) {
+		if (fPipeline != null && !fPipeline.isWorkerThread()) {
+			fPipeline.submit(() -> parseLine(line));
+			return false;
+		}
+		return parseLine(line);
+	}
+
+	private boolean parseLine(String line) {
 		/*
 		 * If the tool outputs colored text, it will contain ANSI escape
 		 * sequences. Remove them, since they can confuse the error parsers.
+		 * Most lines have none, so the regular expression is not run for them.
 		 */
-		String lineTrimmed = ANSI_ESCAPE_RE.matcher(line).replaceAll("").trim(); //$NON-NLS-1$
+		String lineTrimmed = line.indexOf(ESCAPE) >= 0 ? ANSI_ESCAPE_RE.matcher(line).replaceAll("") : line; //$NON-NLS-1$
+		lineTrimmed = lineTrimmed.trim();
 		lineCounter++;
 
 		ProblemMarkerInfo marker = null;
@@ -421,6 +453,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 * @since 5.2
 	 */
 	public int getLineCounter() {
+		drainPipeline();
 		return lineCounter;
 	}
 
@@ -606,6 +639,8 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 * @since 5.4
 	 */
 	public void addProblemMarker(ProblemMarkerInfo problemMarkerInfo) {
+		// markers added by the build itself follow the markers of the output printed before
+		drainPipeline();
 		if (!ProblemMarkerFilterManager.getInstance().acceptMarker(problemMarkerInfo))
 			return;
 		fErrors.add(problemMarkerInfo);
@@ -658,6 +693,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	public synchronized void close() throws IOException {
 		if (nOpens > 0 && --nOpens == 0) {
 			checkLine(true);
+			drainPipeline();
 			fDirectoryStack.removeAllElements();
 		}
 	}
@@ -667,6 +703,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 */
 	@Override
 	public void flush() throws IOException {
+		drainPipeline();
 		if (outputStream != null) {
 			outputStream.flush();
 		}
@@ -699,26 +736,36 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	// parsers (processLine method).
 	// If flush is true rest of line is checked by error parsers.
 	private void checkLine(boolean flush) {
-		String buffer = currentLine.toString();
-		int i = 0;
-		while ((i = buffer.indexOf('\n')) != -1) {
-			String line = buffer.substring(0, i);
+		int start = 0;
+		int i;
+		while ((i = currentLine.indexOf("\n", start)) != -1) { //$NON-NLS-1$
+			int end = i;
 			// get rid of any trailing '\r'
-			if (line.endsWith("\r")) { //$NON-NLS-1$
-				line = line.substring(0, line.length() - 1);
+			if (end > start && currentLine.charAt(end - 1) == '\r') {
+				end--;
 			}
-			processLine(line);
-			previousLine = line;
-			buffer = buffer.substring(i + 1); // skip the \n and advance
+			processOutputLine(currentLine.substring(start, end));
+			start = i + 1; // skip the \n and advance
 		}
-		currentLine.setLength(0);
 		if (flush) {
-			if (buffer.length() > 0) {
-				processLine(buffer);
-				previousLine = buffer;
+			if (start < currentLine.length()) {
+				processOutputLine(currentLine.substring(start));
 			}
+			currentLine.setLength(0);
 		} else {
-			currentLine.append(buffer);
+			currentLine.delete(0, start);
+		}
+	}
+
+	private void processOutputLine(String line) {
+		if (fPipeline != null) {
+			fPipeline.submit(() -> {
+				parseLine(line);
+				previousLine = line;
+			});
+		} else {
+			processLine(line);
+			previousLine = line;
 		}
 	}
 
@@ -794,6 +841,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 */
 	@Deprecated
 	public boolean hasErrors() {
+		drainPipeline();
 		return hasErrors;
 	}
 
@@ -904,6 +952,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 */
 	@Override
 	public void shutdown() {
+		drainPipeline();
 		for (IErrorParser[] parsers : fErrorParsers.values()) {
 			for (IErrorParser parser : parsers) {
 				if (parser instanceof IErrorParser3) {
@@ -917,6 +966,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 * @since 6.5
 	 */
 	public int getErrorCount() {
+		drainPipeline();
 		return errorCounter;
 	}
 
@@ -924,6 +974,7 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 * @since 6.5
 	 */
 	public int getWarningCount() {
+		drainPipeline();
 		return warningCounter;
 	}
 
@@ -946,9 +997,116 @@ public class ErrorParserManager extends OutputStream implements IConsoleParser,
 	 * @since 6.3
 	 */
 	public void deDuplicate() {
+		drainPipeline();
 		if (deferDeDuplication) {
 			deferDeDuplication = false;
 			((ACBuilder) fMarkerGenerator).deDuplicate();
 		}
 	}
+
+	/**
+	 * Waits until the lines handed over to the worker thread are parsed.
+	 */
+	private void drainPipeline() {
+		if (fPipeline != null) {
+			fPipeline.drain();
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getParserExecutor() {
+		if (parserExecutor == null) {
+			int threads = Runtime.getRuntime().availableProcessors();
+			parserExecutor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					r -> {
+						Thread thread = new Thread(r, "Error Parser"); //$NON-NLS-1$
+						thread.setDaemon(true);
+						return thread;
+					});
+			parserExecutor.allowCoreThreadTimeOut(true);
+		}
+		return parserExecutor;
+	}
+
+	/**
+	 * Queue of the lines of one {@link ErrorParserManager} waiting to be parsed. The error parsers
+	 * keep state from one line to the next, so the lines are parsed one at a time in the order they
+	 * were received, and the markers are generated in the same order as without the pipeline.
+	 * Several build outputs are parsed concurrently on the shared pool of worker threads.
+	 */
+	private static class LinePipeline implements Runnable {
+		private final ArrayDeque<Runnable> pendingLines = new ArrayDeque<>();
+		private boolean scheduled = false;
+		private Thread worker;
+
+		synchronized boolean isWorkerThread() {
+			return worker == Thread.currentThread();
+		}
+
+		void submit(Runnable line) {
+			synchronized (this) {
+				boolean interrupted = false;
+				while (scheduled && pendingLines.size() >= MAX_PENDING_LINES) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				pendingLines.add(line);
+				if (scheduled) {
+					return;
+				}
+				scheduled = true;
+			}
+			getParserExecutor().execute(this);
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				worker = Thread.currentThread();
+			}
+			while (true) {
+				Runnable line;
+				synchronized (this) {
+					line = pendingLines.poll();
+					if (line == null) {
+						scheduled = false;
+						worker = null;
+						notifyAll();
+						return;
+					}
+					if (pendingLines.size() == MAX_PENDING_LINES - 1) {
+						notifyAll();
+					}
+				}
+				try {
+					line.run();
+				} catch (Exception e) {
+					CCorePlugin.log(e);
+				}
+			}
+		}
+
+		synchronized void drain() {
+			if (worker == Thread.currentThread()) {
+				return;
+			}
+			boolean interrupted = false;
+			while (scheduled) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// all lines must be parsed to report the correct result
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
 }
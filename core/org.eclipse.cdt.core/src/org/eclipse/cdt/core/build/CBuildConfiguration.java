@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2023 QNX Software Systems and others.
+ * Copyright (c) 2015, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -10,9 +10,14 @@
  *******************************************************************************/
 package org.eclipse.cdt.core.build;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
@@ -614,6 +619,14 @@ public abstract class CBuildConfiguration extends PlatformObject implements ICBu
 	}
 
 	private File getScannerInfoCacheFile() {
+		return CCorePlugin.getDefault().getStateLocation().append("infoCache") //$NON-NLS-1$
+				.append(getProject().getName()).append(name + ".bin").toFile(); //$NON-NLS-1$
+	}
+
+	/**
+	 * The file of the scanner info cache in JSON format, as written by previous versions.
+	 */
+	private File getLegacyScannerInfoCacheFile() {
 		return CCorePlugin.getDefault().getStateLocation().append("infoCache") //$NON-NLS-1$
 				.append(getProject().getName()).append(name + ".json").toFile(); //$NON-NLS-1$
 	}
@@ -625,8 +638,16 @@ public abstract class CBuildConfiguration extends PlatformObject implements ICBu
 		synchronized (scannerInfoLock) {
 			if (scannerInfoCache == null) {
 				File cacheFile = getScannerInfoCacheFile();
+				File legacyCacheFile = getLegacyScannerInfoCacheFile();
 				if (cacheFile.exists()) {
-					try (FileReader reader = new FileReader(cacheFile)) {
+					try (DataInputStream in = new DataInputStream(
+							new BufferedInputStream(new FileInputStream(cacheFile)))) {
+						scannerInfoCache = ScannerInfoCache.read(in);
+					} catch (IOException e) {
+						CCorePlugin.log(e);
+					}
+				} else if (legacyCacheFile.exists()) {
+					try (FileReader reader = new FileReader(legacyCacheFile)) {
 						Gson gson = createGson();
 						scannerInfoCache = gson.fromJson(reader, ScannerInfoCache.class);
 					} catch (IOException e) {
@@ -664,14 +685,17 @@ public abstract class CBuildConfiguration extends PlatformObject implements ICBu
 			}
 		}
 
-		try (FileWriter writer = new FileWriter(getScannerInfoCacheFile())) {
-			Gson gson = createGson();
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
 			synchronized (scannerInfoLock) {
-				gson.toJson(scannerInfoCache, writer);
+				scannerInfoCache.write(out);
 			}
 		} catch (IOException e) {
 			CCorePlugin.log(e);
+			return;
 		}
+		// The cache has been converted to the binary format
+		getLegacyScannerInfoCacheFile().delete();
 	}
 
 	/**
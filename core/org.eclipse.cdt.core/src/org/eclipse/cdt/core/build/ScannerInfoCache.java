@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 QNX Software Systems and others.
+ * Copyright (c) 2016, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -10,12 +10,26 @@
  *******************************************************************************/
 package org.eclipse.cdt.core.build;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+import org.eclipse.cdt.core.parser.ExtendedScannerInfo;
 import org.eclipse.cdt.core.parser.IExtendedScannerInfo;
+import org.eclipse.cdt.core.parser.IncludeExportPatterns;
+import org.eclipse.cdt.internal.core.parser.ParserSettings2;
 import org.eclipse.core.resources.IResource;
 
 /**
@@ -24,17 +38,65 @@ import org.eclipse.core.resources.IResource;
  * @since 6.1
  */
 public class ScannerInfoCache {
+	/** "CSIC", identifies the binary format. */
+	private static final int MAGIC = 0x43534943;
+	private static final int VERSION = 1;
+	private static final int NULL_INDEX = -1;
 
 	private static class Command {
 		public List<String> command;
 		public IExtendedScannerInfo info;
-		public List<String> resourcePaths;
+		public Set<String> resourcePaths;
+	}
+
+	/**
+	 * The persisted content of a scanner info. Scanner infos with equal content are written
+	 * only once.
+	 */
+	private static class InfoRecord {
+		final Map<String, String> definedSymbols;
+		final String[] includePaths;
+		final String[] patterns;
+
+		InfoRecord(IExtendedScannerInfo info) {
+			definedSymbols = info.getDefinedSymbols();
+			includePaths = info.getIncludePaths();
+			patterns = new String[3];
+			if (info instanceof ExtendedScannerInfo) {
+				IncludeExportPatterns includeExportPatterns = ((ExtendedScannerInfo) info).getIncludeExportPatterns();
+				if (includeExportPatterns != null) {
+					patterns[0] = patternString(includeExportPatterns.getIncludeExportPattern());
+					patterns[1] = patternString(includeExportPatterns.getIncludeBeginExportsPattern());
+					patterns[2] = patternString(includeExportPatterns.getIncludeEndExportsPattern());
+				}
+			}
+		}
+
+		private static String patternString(Pattern pattern) {
+			return pattern != null ? pattern.pattern() : null;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(definedSymbols, Arrays.hashCode(includePaths), Arrays.hashCode(patterns));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof InfoRecord))
+				return false;
+			InfoRecord other = (InfoRecord) obj;
+			return Objects.equals(definedSymbols, other.definedSymbols)
+					&& Arrays.equals(includePaths, other.includePaths) && Arrays.equals(patterns, other.patterns);
+		}
 	}
 
 	private List<Command> commands;
 
 	private transient Map<List<String>, Command> commandMap = new HashMap<>();
 	private transient Map<String, Command> resourceMap = new HashMap<>();
+	/** Shared instances of the strings of the command lines and resource paths. */
+	private transient Map<String, String> strings = new HashMap<>();
 
 	/**
 	 * Initialize the cache of scanner info. Call this after loading this info
@@ -46,13 +108,40 @@ public class ScannerInfoCache {
 		}
 
 		for (Command command : commands) {
+			command.command = intern(command.command);
+			if (command.resourcePaths == null) {
+				command.resourcePaths = new LinkedHashSet<>();
+			}
 			commandMap.put(command.command, command);
 			for (String resourcePath : command.resourcePaths) {
-				resourceMap.put(resourcePath, command);
+				resourceMap.put(intern(resourcePath), command);
 			}
 		}
 	}
 
+	private String intern(String string) {
+		if (string == null)
+			return null;
+		String existing = strings.putIfAbsent(string, string);
+		return existing != null ? existing : string;
+	}
+
+	/**
+	 * Returns an immutable copy of the command line that shares its strings with the
+	 * other command lines in the cache.
+	 */
+	private List<String> intern(List<String> commandStrings) {
+		String[] result = new String[commandStrings.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = intern(commandStrings.get(i));
+		}
+		return Collections.unmodifiableList(Arrays.asList(result));
+	}
+
+	private static Set<String> newResourcePaths() {
+		return new LinkedHashSet<>();
+	}
+
 	public IExtendedScannerInfo getScannerInfo(IResource resource) {
 		String resourcePath = resource.getLocation().toOSString();
 		Command command = resourceMap.get(resourcePath);
@@ -70,7 +159,7 @@ public class ScannerInfoCache {
 
 	public void addScannerInfo(List<String> commandStrings, IExtendedScannerInfo info, IResource resource) {
 		// Do I need to remove the resource from an existing command?
-		String resourcePath = resource.getLocation().toOSString();
+		String resourcePath = intern(resource.getLocation().toOSString());
 		Command oldCommand = resourceMap.get(resourcePath);
 		if (oldCommand != null) {
 			if (oldCommand.command.equals(commandStrings)) {
@@ -94,12 +183,12 @@ public class ScannerInfoCache {
 			resourceMap.put(resourcePath, command);
 		} else {
 			command = new Command();
-			command.command = commandStrings;
+			command.command = intern(commandStrings);
 			command.info = info;
-			command.resourcePaths = new ArrayList<>();
+			command.resourcePaths = newResourcePaths();
 			command.resourcePaths.add(resourcePath);
 			commands.add(command);
-			commandMap.put(commandStrings, command);
+			commandMap.put(command.command, command);
 			resourceMap.put(resourcePath, command);
 		}
 	}
@@ -117,7 +206,7 @@ public class ScannerInfoCache {
 	}
 
 	public void addResource(List<String> commandStrings, IResource resource) {
-		String resourcePath = resource.getLocation().toOSString();
+		String resourcePath = intern(resource.getLocation().toOSString());
 		Command command = commandMap.get(commandStrings);
 		Command current = resourceMap.get(resourcePath);
 		if (current != null) {
@@ -133,7 +222,7 @@ public class ScannerInfoCache {
 				return;
 			}
 		}
-		command.resourcePaths.add(resource.getLocation().toOSString());
+		command.resourcePaths.add(resourcePath);
 		resourceMap.put(resourcePath, command);
 	}
 
@@ -169,4 +258,206 @@ public class ScannerInfoCache {
 		}
 	}
 
+	/**
+	 * Writes the cache in a compact binary format. Each distinct string is written once to
+	 * a shared table and referenced by its index, and scanner infos with equal content are
+	 * written once. Like the JSON format, the binary format stores the defined symbols, the
+	 * include paths and the include export patterns of the scanner infos.
+	 *
+	 * @see #read(DataInput)
+	 * @since 8.3
+	 */
+	public void write(DataOutput out) throws IOException {
+		Map<String, Integer> stringTable = new LinkedHashMap<>();
+		Map<InfoRecord, Integer> infoTable = new LinkedHashMap<>();
+		for (Command command : commands) {
+			for (String arg : command.command) {
+				addString(stringTable, arg);
+			}
+			for (String resourcePath : command.resourcePaths) {
+				addString(stringTable, resourcePath);
+			}
+			if (command.info != null) {
+				InfoRecord info = new InfoRecord(command.info);
+				if (!infoTable.containsKey(info)) {
+					infoTable.put(info, infoTable.size());
+					if (info.definedSymbols != null) {
+						for (Map.Entry<String, String> symbol : info.definedSymbols.entrySet()) {
+							addString(stringTable, symbol.getKey());
+							addString(stringTable, symbol.getValue());
+						}
+					}
+					if (info.includePaths != null) {
+						for (String includePath : info.includePaths) {
+							addString(stringTable, includePath);
+						}
+					}
+					for (String pattern : info.patterns) {
+						addString(stringTable, pattern);
+					}
+				}
+			}
+		}
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		out.writeInt(stringTable.size());
+		for (String string : stringTable.keySet()) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		out.writeInt(infoTable.size());
+		for (InfoRecord info : infoTable.keySet()) {
+			if (info.definedSymbols == null) {
+				out.writeInt(NULL_INDEX);
+			} else {
+				out.writeInt(info.definedSymbols.size());
+				for (Map.Entry<String, String> symbol : info.definedSymbols.entrySet()) {
+					out.writeInt(indexOf(stringTable, symbol.getKey()));
+					out.writeInt(indexOf(stringTable, symbol.getValue()));
+				}
+			}
+			writeStrings(out, stringTable, info.includePaths);
+			for (String pattern : info.patterns) {
+				out.writeInt(indexOf(stringTable, pattern));
+			}
+		}
+
+		out.writeInt(commands.size());
+		for (Command command : commands) {
+			writeStrings(out, stringTable, command.command.toArray(new String[command.command.size()]));
+			out.writeInt(command.info != null ? infoTable.get(new InfoRecord(command.info)) : NULL_INDEX);
+			writeStrings(out, stringTable, command.resourcePaths.toArray(new String[command.resourcePaths.size()]));
+		}
+	}
+
+	private static void addString(Map<String, Integer> stringTable, String string) {
+		if (string != null) {
+			stringTable.putIfAbsent(string, stringTable.size());
+		}
+	}
+
+	private static int indexOf(Map<String, Integer> stringTable, String string) {
+		return string != null ? stringTable.get(string) : NULL_INDEX;
+	}
+
+	private static void writeStrings(DataOutput out, Map<String, Integer> stringTable, String[] strings)
+			throws IOException {
+		if (strings == null) {
+			out.writeInt(NULL_INDEX);
+			return;
+		}
+		out.writeInt(strings.length);
+		for (String string : strings) {
+			out.writeInt(indexOf(stringTable, string));
+		}
+	}
+
+	/**
+	 * Reads a cache written by {@link #write(DataOutput)}. The returned cache is initialized,
+	 * strings and scanner infos with equal content are shared.
+	 *
+	 * @throws IOException if the input is not a cache in binary format, or cannot be read.
+	 * @since 8.3
+	 */
+	public static ScannerInfoCache read(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a scanner info cache"); //$NON-NLS-1$
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported scanner info cache version " + version); //$NON-NLS-1$
+		}
+
+		String[] stringTable = new String[readCount(in)];
+		for (int i = 0; i < stringTable.length; i++) {
+			byte[] bytes = new byte[readCount(in)];
+			in.readFully(bytes);
+			stringTable[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		IExtendedScannerInfo[] infoTable = new IExtendedScannerInfo[readCount(in)];
+		for (int i = 0; i < infoTable.length; i++) {
+			Map<String, String> definedSymbols = null;
+			int symbolCount = in.readInt();
+			if (symbolCount != NULL_INDEX) {
+				definedSymbols = new HashMap<>();
+				for (int j = 0; j < symbolCount; j++) {
+					definedSymbols.put(readString(in, stringTable), readString(in, stringTable));
+				}
+			}
+			String[] includePaths = readStrings(in, stringTable);
+			ExtendedScannerInfo info = new ExtendedScannerInfo(definedSymbols, includePaths);
+			String exportPattern = readString(in, stringTable);
+			String beginExportsPattern = readString(in, stringTable);
+			String endExportsPattern = readString(in, stringTable);
+			if (exportPattern != null || beginExportsPattern != null || endExportsPattern != null) {
+				info.setIncludeExportPatterns(
+						new IncludeExportPatterns(exportPattern, beginExportsPattern, endExportsPattern));
+			}
+			info.setParserSettings(new ParserSettings2());
+			infoTable[i] = info;
+		}
+
+		ScannerInfoCache cache = new ScannerInfoCache();
+		int commandCount = readCount(in);
+		cache.commands = new ArrayList<>(commandCount);
+		for (int i = 0; i < commandCount; i++) {
+			Command command = new Command();
+			String[] commandStrings = readStrings(in, stringTable);
+			command.command = commandStrings != null ? Arrays.asList(commandStrings) : Collections.emptyList();
+			int infoIndex = in.readInt();
+			if (infoIndex != NULL_INDEX) {
+				if (infoIndex < 0 || infoIndex >= infoTable.length) {
+					throw new IOException("Invalid scanner info index " + infoIndex); //$NON-NLS-1$
+				}
+				command.info = infoTable[infoIndex];
+			}
+			command.resourcePaths = newResourcePaths();
+			String[] resourcePaths = readStrings(in, stringTable);
+			if (resourcePaths != null) {
+				Collections.addAll(command.resourcePaths, resourcePaths);
+			}
+			cache.commands.add(command);
+		}
+		cache.initCache();
+		return cache;
+	}
+
+	private static int readCount(DataInput in) throws IOException {
+		int count = in.readInt();
+		if (count < 0) {
+			throw new IOException("Invalid count " + count); //$NON-NLS-1$
+		}
+		return count;
+	}
+
+	private static String readString(DataInput in, String[] stringTable) throws IOException {
+		int index = in.readInt();
+		if (index == NULL_INDEX) {
+			return null;
+		}
+		if (index < 0 || index >= stringTable.length) {
+			throw new IOException("Invalid string index " + index); //$NON-NLS-1$
+		}
+		return stringTable[index];
+	}
+
+	private static String[] readStrings(DataInput in, String[] stringTable) throws IOException {
+		int count = in.readInt();
+		if (count == NULL_INDEX) {
+			return null;
+		}
+		if (count < 0) {
+			throw new IOException("Invalid count " + count); //$NON-NLS-1$
+		}
+		String[] strings = new String[count];
+		for (int i = 0; i < count; i++) {
+			strings[i] = readString(in, stringTable);
+		}
+		return strings;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2012 QNX Software Systems and others.
+ * Copyright (c) 2006, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import java.util.regex.Pattern;
 import org.eclipse.cdt.core.ErrorParserManager;
 import org.eclipse.cdt.core.IMarkerGenerator;
 import org.eclipse.cdt.internal.core.Cygwin;
+import org.eclipse.cdt.internal.errorparsers.RegexPrefilter;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -34,6 +35,8 @@ import org.eclipse.core.runtime.Path;
  */
 public class ErrorPattern {
 	private final Pattern pattern;
+	/** {@code null} if a subclass provides its own matcher. */
+	private final RegexPrefilter prefilter;
 	private final int groupFileName;
 	private final int groupLineNum;
 	private final int groupDesc;
@@ -60,6 +63,7 @@ public class ErrorPattern {
 	public ErrorPattern(String pattern, int groupFileName, int groupLineNum, int groupDesc, int groupVarName,
 			int severity) {
 		this.pattern = Pattern.compile(pattern);
+		this.prefilter = overridesGetMatcher() ? null : new RegexPrefilter(pattern);
 		this.groupFileName = groupFileName;
 		this.groupLineNum = groupLineNum;
 		this.groupDesc = groupDesc;
@@ -92,6 +96,15 @@ public class ErrorPattern {
 		this(pattern, 0, 0, 0, 0, -1);
 	}
 
+	private boolean overridesGetMatcher() {
+		try {
+			Class<?> declaringClass = getClass().getMethod("getMatcher", CharSequence.class).getDeclaringClass(); //$NON-NLS-1$
+			return declaringClass != ErrorPattern.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
 	/**
 	 * @param input - input line.
 	 * @return matcher to interpret the input line.
@@ -153,6 +166,8 @@ public class ErrorPattern {
 	 * @return {@code true} if error/warning/info problem was found.
 	 */
 	public boolean processLine(String line, ErrorParserManager eoParser) {
+		if (prefilter != null && !prefilter.mayMatch(line))
+			return false;
 		Matcher matcher = getMatcher(line);
 		if (!matcher.find())
 			return false;
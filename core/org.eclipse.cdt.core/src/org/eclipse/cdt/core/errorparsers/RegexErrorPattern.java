@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Andrew Gvozdev (Quoin Inc.) and others.
+ * Copyright (c) 2009, 2026 Andrew Gvozdev (Quoin Inc.) and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import java.util.regex.Pattern;
 import org.eclipse.cdt.core.ErrorParserManager;
 import org.eclipse.cdt.core.IMarkerGenerator;
 import org.eclipse.cdt.internal.core.Cygwin;
+import org.eclipse.cdt.internal.errorparsers.RegexPrefilter;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -62,6 +63,7 @@ public class RegexErrorPattern implements Cloneable {
 	private static final String EMPTY_STR = ""; //$NON-NLS-1$
 
 	private Pattern pattern;
+	private RegexPrefilter prefilter;
 	private String fileExpression;
 	private String lineExpression;
 	private String descriptionExpression;
@@ -92,6 +94,7 @@ public class RegexErrorPattern implements Cloneable {
 	public RegexErrorPattern(String pattern, String fileExpression, String lineExpression, String descriptionExpression,
 			String varNameExpression, int severity, boolean eat) {
 		this.pattern = Pattern.compile(pattern != null ? pattern : EMPTY_STR);
+		this.prefilter = new RegexPrefilter(this.pattern.pattern());
 		this.fileExpression = fileExpression != null ? fileExpression : EMPTY_STR;
 		this.lineExpression = lineExpression != null ? lineExpression : EMPTY_STR;
 		this.descriptionExpression = descriptionExpression != null ? descriptionExpression : EMPTY_STR;
@@ -158,6 +161,7 @@ public class RegexErrorPattern implements Cloneable {
 	 */
 	public void setPattern(String pattern) {
 		this.pattern = Pattern.compile(pattern);
+		this.prefilter = new RegexPrefilter(pattern);
 	}
 
 	/**
@@ -275,6 +279,9 @@ public class RegexErrorPattern implements Cloneable {
 	 * @return {@code true} if error/warning/info problem was found.
 	 */
 	public boolean processLine(String line, ErrorParserManager eoParser) {
+		if (!prefilter.mayMatch(line)) {
+			return false;
+		}
 		Matcher matcher = getMatcher(line);
 		if (!matcher.matches()) {
 			return false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -213,6 +213,26 @@ public class ProcessClosure {
 		return false;
 	}
 
+	/**
+	 * Waits until the reader threads have forwarded all output of the process
+	 * to the streams and have terminated, such that {@link #isRunning()}
+	 * returns <code>false</code> once the process has exited.
+	 */
+	public void waitForOutput() {
+		ReaderThread outputReader = fOutputReader;
+		ReaderThread errorReader = fErrorReader;
+		try {
+			if (outputReader != null) {
+				outputReader.join();
+			}
+			if (errorReader != null) {
+				errorReader.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	/**
 	 * Forces the termination the launched process
 	 */
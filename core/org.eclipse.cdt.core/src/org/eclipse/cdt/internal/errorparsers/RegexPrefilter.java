@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.errorparsers;
+
+/**
+ * Cheap test run on a line of build output before a regular expression of an error pattern.
+ * Every match of the regular expression contains a literal derived from the expression, lines
+ * that do not contain it are rejected with a plain {@link String#indexOf(String)}. Most lines of
+ * build output are echoed commands that no pattern matches.
+ */
+public final class RegexPrefilter {
+	private static final String NONE = ""; //$NON-NLS-1$
+
+	private final String fLiteral;
+
+	public RegexPrefilter(String regex) {
+		fLiteral = requiredLiteral(regex);
+	}
+
+	/**
+	 * @return {@code false} if the regular expression cannot match the line or a part of it.
+	 */
+	public boolean mayMatch(String line) {
+		return fLiteral.isEmpty() || line.contains(fLiteral);
+	}
+
+	/**
+	 * Returns the longest literal contained in every match of the regular expression, or an empty
+	 * string if there is no such literal or the expression uses constructs that are not analyzed.
+	 * Only the top level of the expression is analyzed, groups and character classes end a literal.
+	 */
+	static String requiredLiteral(String regex) {
+		final int length = regex.length();
+		String best = NONE;
+		StringBuilder run = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			char c = regex.charAt(i);
+			switch (c) {
+			case '|':
+				// Alternatives at the top level have nothing in common.
+				return NONE;
+			case '(':
+				if (i + 2 < length && regex.charAt(i + 1) == '?'
+						&& (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-')) {
+					// Flags like (?i) change how the literals are matched.
+					return NONE;
+				}
+				best = longer(best, run);
+				i = skipGroup(regex, i);
+				if (i < 0)
+					return NONE;
+				break;
+			case '[':
+				best = longer(best, run);
+				i = skipCharacterClass(regex, i);
+				if (i < 0)
+					return NONE;
+				break;
+			case '?':
+			case '*':
+			case '{':
+				// The preceding character is optional, or repeated a number of times not analyzed.
+				if (run.length() > 0) {
+					run.setLength(run.length() - 1);
+				}
+				best = longer(best, run);
+				if (c == '{') {
+					i = regex.indexOf('}', i);
+					if (i < 0)
+						return NONE;
+				}
+				break;
+			case '+':
+				// The preceding character occurs at least once, but not necessarily followed by the next one.
+				best = longer(best, run);
+				break;
+			case '.':
+			case '^':
+			case '$':
+				best = longer(best, run);
+				break;
+			case '\\':
+				if (++i == length)
+					return NONE;
+				char escaped = regex.charAt(i);
+				if (Character.isDigit(escaped) || "QxuckpPN".indexOf(escaped) >= 0) //$NON-NLS-1$
+					// Back references, quotes and escapes spanning several characters.
+					return NONE;
+				if (Character.isLetter(escaped)) {
+					// Predefined character classes, boundaries and control characters.
+					best = longer(best, run);
+				} else {
+					run.append(escaped);
+				}
+				break;
+			default:
+				run.append(c);
+			}
+		}
+		return longer(best, run);
+	}
+
+	/**
+	 * Returns the longer of the two literals and clears the run.
+	 */
+	private static String longer(String best, StringBuilder run) {
+		if (run.length() > best.length()) {
+			best = run.toString();
+		}
+		run.setLength(0);
+		return best;
+	}
+
+	/**
+	 * @return the index of the closing parenthesis, or -1.
+	 */
+	private static int skipGroup(String regex, int start) {
+		int depth = 0;
+		for (int i = start; i < regex.length(); i++) {
+			switch (regex.charAt(i)) {
+			case '\\':
+				i++;
+				break;
+			case '[':
+				i = skipCharacterClass(regex, i);
+				if (i < 0)
+					return -1;
+				break;
+			case '(':
+				depth++;
+				break;
+			case ')':
+				if (--depth == 0)
+					return i;
+				break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the index of the closing bracket, or -1.
+	 */
+	private static int skipCharacterClass(String regex, int start) {
+		int depth = 0;
+		for (int i = start; i < regex.length(); i++) {
+			switch (regex.charAt(i)) {
+			case '\\':
+				i++;
+				break;
+			case '[':
+				depth++;
+				// Brackets right after the opening one are not analyzed.
+				if (regex.startsWith("]", i + 1) || regex.startsWith("^]", i + 1)) //$NON-NLS-1$ //$NON-NLS-2$
+					return -1;
+				break;
+			case ']':
+				if (--depth == 0)
+					return i;
+				break;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.dsf.mi.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.dsf.mi.service.command.output.MIParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link MIParser} with the previous implementation of the parser on the MI output of a
+ * GDB session. The transcript is either one of the synthetic transcripts {@code stack} (output of
+ * {@code -stack-list-frames}), {@code memory} (output of {@code -data-read-memory-bytes}) and
+ * {@code variables} (output of {@code -var-list-children}, with escaped strings), or the path of a
+ * file with the content of a "gdb traces" console. Run with {@code -prof gc} to compare the
+ * allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MIParserBenchmark {
+	@Param({ "stack", "memory", "variables" })
+	public String transcript;
+
+	/** Number of frames, children, or KiB of memory of each synthetic result. */
+	@Param({ "1000" })
+	public int size;
+
+	private List<String> lines;
+	private MIParser parser;
+	private LegacyMIParser legacyParser;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		switch (transcript) {
+		case "stack": //$NON-NLS-1$
+			lines = stackTranscript(size);
+			break;
+		case "memory": //$NON-NLS-1$
+			lines = memoryTranscript(size);
+			break;
+		case "variables": //$NON-NLS-1$
+			lines = variablesTranscript(size);
+			break;
+		default:
+			lines = readTranscript(Path.of(transcript));
+		}
+		parser = new MIParser();
+		legacyParser = new LegacyMIParser();
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (String line : lines) {
+			switch (parser.getRecordType(line)) {
+			case ResultRecord:
+				blackhole.consume(parser.parseMIResultRecord(line));
+				break;
+			case OOBRecord:
+				blackhole.consume(parser.parseMIOOBRecord(line));
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseLegacy(Blackhole blackhole) {
+		for (String line : lines) {
+			switch (parser.getRecordType(line)) {
+			case ResultRecord:
+				blackhole.consume(legacyParser.parseMIResultRecord(line));
+				break;
+			case OOBRecord:
+				blackhole.consume(legacyParser.parseMIOOBRecord(line));
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Reads the MI output from a "gdb traces" console. The commands sent to GDB are prefixed with
+	 * a timestamp and skipped.
+	 */
+	private static List<String> readTranscript(Path file) throws Exception {
+		List<String> result = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			if (!line.isEmpty() && !line.startsWith("[")) { //$NON-NLS-1$
+				result.add(line);
+			}
+		}
+		return result;
+	}
+
+	@SuppressWarnings("nls")
+	private static List<String> stackTranscript(int frames) {
+		List<String> result = new ArrayList<>();
+		result.add("*stopped,reason=\"breakpoint-hit\",disp=\"keep\",bkptno=\"1\",frame={addr=\"0x401136\","
+				+ "func=\"recurse\",args=[{name=\"n\",value=\"0\"}],file=\"recurse.c\",fullname=\"/home/user/recurse.c\","
+				+ "line=\"5\",arch=\"i386:x86-64\"},thread-id=\"1\",stopped-threads=\"all\",core=\"3\"");
+		result.add("(gdb) ");
+		StringBuilder line = new StringBuilder("12^done,stack=[");
+		for (int i = 0; i < frames; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append("frame={level=\"").append(i).append("\",addr=\"0x").append(Integer.toHexString(0x401136 + i))
+					.append("\",func=\"recurse\",file=\"recurse.c\",fullname=\"/home/user/recurse.c\",line=\"")
+					.append(5 + i % 10).append("\",arch=\"i386:x86-64\"}");
+		}
+		result.add(line.append(']').toString());
+		result.add("(gdb) ");
+		return result;
+	}
+
+	@SuppressWarnings("nls")
+	private static List<String> memoryTranscript(int kib) {
+		List<String> result = new ArrayList<>();
+		StringBuilder contents = new StringBuilder();
+		for (int i = 0; i < kib * 1024; i++) {
+			contents.append(Character.forDigit((i >> 4) & 0xf, 16)).append(Character.forDigit(i & 0xf, 16));
+		}
+		result.add("13^done,memory=[{begin=\"0x7fffffffd000\",offset=\"0x0000000000000000\",end=\"0x"
+				+ Long.toHexString(0x7fffffffd000L + kib * 1024L) + "\",contents=\"" + contents + "\"}]");
+		result.add("(gdb) ");
+		return result;
+	}
+
+	@SuppressWarnings("nls")
+	private static List<String> variablesTranscript(int children) {
+		List<String> result = new ArrayList<>();
+		StringBuilder line = new StringBuilder("14^done,numchild=\"").append(children).append("\",children=[");
+		for (int i = 0; i < children; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append("child={name=\"var1.[").append(i).append("]\",exp=\"[").append(i)
+					.append("]\",numchild=\"0\",value=\"0x4020").append(Integer.toHexString(i))
+					.append(" \\\"text with \\\\\\\"quotes\\\\\\\" and a tab\\\\t\\\"\",type=\"const char *\","
+							+ "thread-id=\"1\"}");
+		}
+		result.add(line.append("],has_more=\"0\"").toString());
+		result.add("(gdb) ");
+		result.add("~\"[Inferior 1 (process 4242) exited normally]\\n\"");
+		result.add("=thread-group-exited,id=\"i1\",exit-code=\"0\"");
+		return result;
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.dsf.mi.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.cdt.dsf.mi.service.command.output.MIFrame;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIOOBRecord;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIOutput;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIParser;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIStackListFramesInfo;
+import org.junit.Test;
+
+/**
+ * Tests the re-use of the deeper frames of a stack after a step.
+ */
+public class MIStackTest {
+	// The depth of the stack before the step
+	private static final int DEPTH = 13;
+	// The number of frames fetched after the step
+	private static final int TOP_FRAMES = 8;
+
+	/**
+	 * Returns the frames of a stack, given as function and address pairs from the top of the stack
+	 */
+	private static MIFrame[] createFrames(String... frames) {
+		StringBuilder line = new StringBuilder("^done,stack=[");
+		for (int i = 0; i < frames.length; i += 2) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append("frame={level=\"").append(i / 2).append("\",addr=\"").append(frames[i + 1])
+					.append("\",func=\"").append(frames[i]).append("\"}");
+		}
+		line.append(']');
+		MIOutput output = new MIOutput(new MIParser().parseMIResultRecord(line.toString()), new MIOOBRecord[0]);
+		return new MIStackListFramesInfo(output).getMIFrames();
+	}
+
+	/**
+	 * Returns the frames of the stack before the step: the top frame is stopped in f0 and each frame
+	 * fn is called by the function of the frame below it.
+	 */
+	private static MIFrame[] createPreviousFrames() {
+		String[] frames = new String[DEPTH * 2];
+		frames[0] = "f0";
+		frames[1] = "0x1000";
+		for (int level = 1; level < DEPTH; level++) {
+			frames[level * 2] = "f" + level;
+			frames[level * 2 + 1] = "0x" + level + "0";
+		}
+		return createFrames(frames);
+	}
+
+	private static MIFrame[] getTopFrames(MIFrame[] frames) {
+		return Arrays.copyOf(frames, TOP_FRAMES);
+	}
+
+	@Test
+	public void testStepOver() {
+		MIFrame[] previous = createPreviousFrames();
+		MIFrame[] frames = createPreviousFrames();
+		frames[0] = createFrames("f0", "0x1008")[0];
+		assertTrue(MIStack.isSameStackBottom(getTopFrames(frames), DEPTH, previous));
+	}
+
+	@Test
+	public void testStepIn() {
+		MIFrame[] previous = createPreviousFrames();
+		// The depth increases and f0 is now called at the step location
+		String[] frames = new String[(DEPTH + 1) * 2];
+		frames[0] = "g";
+		frames[1] = "0x2000";
+		frames[2] = "f0";
+		frames[3] = "0x1004";
+		for (int level = 2; level <= DEPTH; level++) {
+			frames[level * 2] = "f" + (level - 1);
+			frames[level * 2 + 1] = "0x" + (level - 1) + "0";
+		}
+		assertTrue(MIStack.isSameStackBottom(getTopFrames(createFrames(frames)), DEPTH + 1, previous));
+	}
+
+	@Test
+	public void testStepReturn() {
+		MIFrame[] previous = createPreviousFrames();
+		// The depth decreases and f1 is now stopped after the call of f0
+		String[] frames = new String[(DEPTH - 1) * 2];
+		frames[0] = "f1";
+		frames[1] = "0x10";
+		for (int level = 1; level < DEPTH - 1; level++) {
+			frames[level * 2] = "f" + (level + 1);
+			frames[level * 2 + 1] = "0x" + (level + 1) + "0";
+		}
+		assertTrue(MIStack.isSameStackBottom(getTopFrames(createFrames(frames)), DEPTH - 1, previous));
+	}
+
+	@Test
+	public void testMismatchedFunction() {
+		MIFrame[] previous = createPreviousFrames();
+		MIFrame[] frames = createPreviousFrames();
+		frames[TOP_FRAMES - 1] = createFrames("h", frames[TOP_FRAMES - 1].getAddress())[0];
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(frames), DEPTH, previous));
+	}
+
+	@Test
+	public void testMismatchedAddress() {
+		MIFrame[] previous = createPreviousFrames();
+		MIFrame[] frames = createPreviousFrames();
+		frames[TOP_FRAMES - 2] = createFrames(frames[TOP_FRAMES - 2].getFunction(), "0x4242")[0];
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(frames), DEPTH, previous));
+	}
+
+	@Test
+	public void testMismatchAfterDepthChange() {
+		// Same frames but the depth changed: the frames are not at the same distance from the bottom
+		MIFrame[] previous = createPreviousFrames();
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(previous), DEPTH + 1, previous));
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(previous), DEPTH - 1, previous));
+	}
+
+	@Test
+	public void testDeeperThanTopFrames() {
+		// The stack grew more than the top frames, they cannot be compared with the previous stack
+		MIFrame[] previous = createPreviousFrames();
+		MIFrame[] frames = createPreviousFrames();
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(frames), DEPTH + TOP_FRAMES - 1, previous));
+	}
+
+	@Test
+	public void testUnknownPreviousFrame() {
+		MIFrame[] previous = createPreviousFrames();
+		MIFrame[] frames = createPreviousFrames();
+		previous[DEPTH - 1] = null;
+		assertFalse(MIStack.isSameStackBottom(getTopFrames(frames), DEPTH, previous));
+	}
+}
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.dsf.mi.service.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.dsf.concurrent.DataRequestMonitor;
+import org.eclipse.cdt.dsf.debug.service.command.ICommandToken;
+import org.eclipse.cdt.dsf.gdb.internal.GdbPlugin;
+import org.eclipse.cdt.dsf.gdb.service.CommonDsfTest;
+import org.eclipse.cdt.dsf.mi.service.command.commands.MIDataReadMemoryBytes;
+import org.eclipse.cdt.dsf.mi.service.command.commands.MIDataWriteMemoryBytes;
+import org.eclipse.cdt.dsf.mi.service.command.commands.MIListFeatures;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIDataReadMemoryBytesInfo;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIInfo;
+import org.eclipse.cdt.dsf.mi.service.command.output.MIListFeaturesInfo;
+import org.eclipse.cdt.dsf.service.DsfSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Tests the coalescing of identical queries waiting to be sent to the backend and the adaptation of
+ * the number of commands on the wire. The fake backend answers memory reads with the byte last
+ * written and every other command with a feature named after the number of commands it has
+ * received.
+ */
+public class AbstractMIControlTest extends CommonDsfTest {
+	private static final long TIMEOUT = 10;
+
+	/** The commands received by the backend, in the order they were received */
+	private final List<String> fReceived = Collections.synchronizedList(new ArrayList<>());
+	private TestControl fControl;
+	private Thread fBackend;
+	/** The contents of the memory of the fake backend, as hex digits */
+	private volatile String fMemory = "00";
+
+	private static class TestControl extends AbstractMIControl {
+		private final MIControlDMContext fContext;
+
+		TestControl(DsfSession session) {
+			super(session, false, true, new CommandFactory());
+			fContext = new MIControlDMContext(session.getId(), "TestControl");
+		}
+
+		@Override
+		protected BundleContext getBundleContext() {
+			return GdbPlugin.getBundleContext();
+		}
+
+		@Override
+		public String getId() {
+			return fContext.getCommandControlId();
+		}
+
+		@Override
+		public MIControlDMContext getContext() {
+			return fContext;
+		}
+
+		@Override
+		public MIControlDMContext getControlDMContext() {
+			return fContext;
+		}
+
+		void start(OutputStream toBackend, InputStream fromBackend) {
+			startCommandProcessing(fromBackend, toBackend);
+		}
+
+		void stop() {
+			stopCommandProcessing();
+		}
+	}
+
+	@Before
+	public void setUpBackend() throws IOException {
+		PipedInputStream commands = new PipedInputStream();
+		PipedOutputStream toBackend = new PipedOutputStream(commands);
+		PipedInputStream results = new PipedInputStream();
+		PipedOutputStream fromBackend = new PipedOutputStream(results);
+
+		fBackend = new Thread(() -> {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(commands, StandardCharsets.UTF_8));
+					OutputStream out = fromBackend) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					fReceived.add(line);
+					out.write(answer(line).getBytes(StandardCharsets.UTF_8));
+					out.flush();
+				}
+			} catch (IOException e) {
+				// The control has shut down
+			}
+		}, "AbstractMIControlTest backend");
+		fBackend.start();
+
+		fControl = new TestControl(fSession);
+		fControl.start(toBackend, results);
+	}
+
+	private String answer(String line) {
+		int i = 0;
+		while (i < line.length() && Character.isDigit(line.charAt(i))) {
+			i++;
+		}
+		final String token = line.substring(0, i);
+		final String[] args = line.substring(i).split(" ");
+		if (args[0].equals("-data-write-memory-bytes")) {
+			fMemory = args[2];
+			return token + "^done\n(gdb)\n";
+		}
+		if (args[0].equals("-data-read-memory-bytes")) {
+			return token + "^done,memory=[{begin=\"" + args[1] + "\",offset=\"0x0\",end=\"" + args[1]
+					+ "\",contents=\"" + fMemory + "\"}]\n(gdb)\n";
+		}
+		return token + "^done,features=[\"feature" + fReceived.size() + "\"]\n(gdb)\n";
+	}
+
+	@After
+	public void tearDownBackend() throws Exception {
+		fSession.getExecutor().submit(() -> fControl.stop()).get(TIMEOUT, TimeUnit.SECONDS);
+		fBackend.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+	}
+
+	private class ResultMonitor extends DataRequestMonitor<MIListFeaturesInfo> {
+		final CompletableFuture<MIListFeaturesInfo> fResult = new CompletableFuture<>();
+
+		ResultMonitor() {
+			super(fSession.getExecutor(), null);
+		}
+
+		@Override
+		protected void handleCompleted() {
+			if (isSuccess()) {
+				fResult.complete(getData());
+			} else {
+				fResult.completeExceptionally(new AssertionError(getStatus().toString()));
+			}
+		}
+
+		List<String> getFeatures() throws Exception {
+			return fResult.get(TIMEOUT, TimeUnit.SECONDS).getFeatures();
+		}
+	}
+
+	private MIListFeatures createCommand() {
+		return new MIListFeatures(fControl.getContext());
+	}
+
+	@Test
+	public void testIdenticalQueriesCoalesced() throws Exception {
+		ResultMonitor first = new ResultMonitor();
+		ResultMonitor second = new ResultMonitor();
+		// Both commands are queued before the queue is processed
+		fSession.getExecutor().submit(() -> {
+			fControl.queueCommand(createCommand(), first);
+			fControl.queueCommand(createCommand(), second);
+		}).get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertEquals(List.of("feature1"), first.getFeatures());
+		assertEquals(List.of("feature1"), second.getFeatures());
+		assertEquals(1, fReceived.size());
+		assertTrue(fReceived.get(0), fReceived.get(0).endsWith("-list-features"));
+
+		// Once the first command is sent, an identical one is sent again
+		ResultMonitor third = new ResultMonitor();
+		fSession.getExecutor().submit(() -> fControl.queueCommand(createCommand(), third)).get(TIMEOUT,
+				TimeUnit.SECONDS);
+		assertEquals(List.of("feature2"), third.getFeatures());
+		assertEquals(2, fReceived.size());
+	}
+
+	@Test
+	public void testRemoveCoalescedQuery() throws Exception {
+		ResultMonitor first = new ResultMonitor();
+		ResultMonitor second = new ResultMonitor();
+		ResultMonitor third = new ResultMonitor();
+		fSession.getExecutor().submit(() -> {
+			ICommandToken token = fControl.queueCommand(createCommand(), first);
+			fControl.queueCommand(createCommand(), second);
+			fControl.queueCommand(createCommand(), third);
+			// The commands coalesced with the removed one are still sent
+			fControl.removeCommand(token);
+		}).get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertEquals(List.of("feature1"), second.getFeatures());
+		assertEquals(List.of("feature1"), third.getFeatures());
+		assertFalse(first.fResult.isDone());
+		assertEquals(1, fReceived.size());
+	}
+
+	private class MemoryMonitor extends DataRequestMonitor<MIDataReadMemoryBytesInfo> {
+		final CompletableFuture<MIDataReadMemoryBytesInfo> fResult = new CompletableFuture<>();
+
+		MemoryMonitor() {
+			super(fSession.getExecutor(), null);
+		}
+
+		@Override
+		protected void handleCompleted() {
+			fResult.complete(getData());
+		}
+
+		byte getByte() throws Exception {
+			return fResult.get(TIMEOUT, TimeUnit.SECONDS).getMIMemoryBlock()[0].getValue();
+		}
+	}
+
+	@Test
+	public void testQueriesNotCoalescedAcrossWrite() throws Exception {
+		MemoryMonitor before = new MemoryMonitor();
+		MemoryMonitor after = new MemoryMonitor();
+		fSession.getExecutor().submit(() -> {
+			fControl.queueCommand(new MIDataReadMemoryBytes(fControl.getContext(), "0x1000", 0, 1), before);
+			fControl.queueCommand(
+					new MIDataWriteMemoryBytes(fControl.getContext(), "0x1000", new byte[] { 0x2a }),
+					new DataRequestMonitor<MIInfo>(fSession.getExecutor(), null));
+			// The read after the write must not get the result of the read before it
+			fControl.queueCommand(new MIDataReadMemoryBytes(fControl.getContext(), "0x1000", 0, 1), after);
+		}).get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertEquals(0, before.getByte());
+		assertEquals(0x2a, after.getByte());
+		assertEquals(3, fReceived.size());
+	}
+
+	@Test
+	public void testQueriesCoalescedAfterWrite() throws Exception {
+		MemoryMonitor first = new MemoryMonitor();
+		MemoryMonitor second = new MemoryMonitor();
+		fSession.getExecutor().submit(() -> {
+			fControl.queueCommand(
+					new MIDataWriteMemoryBytes(fControl.getContext(), "0x1000", new byte[] { 0x2a }),
+					new DataRequestMonitor<MIInfo>(fSession.getExecutor(), null));
+			fControl.queueCommand(new MIDataReadMemoryBytes(fControl.getContext(), "0x1000", 0, 1), first);
+			fControl.queueCommand(createCommand(), new ResultMonitor());
+			fControl.queueCommand(new MIDataReadMemoryBytes(fControl.getContext(), "0x1000", 0, 1), second);
+		}).get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertEquals(0x2a, first.getByte());
+		assertEquals(0x2a, second.getByte());
+		assertEquals(3, fReceived.size());
+	}
+
+	@Test
+	public void testCommandWindow() {
+		final long latency = 1_000_000;
+		AbstractMIControl.CommandWindow window = new AbstractMIControl.CommandWindow(3, 8);
+		assertEquals(3, window.getSize());
+
+		// Round trips dominated by the latency, but no commands waiting
+		window.update(latency, false);
+		assertEquals(3, window.getSize());
+
+		// The window grows while commands are waiting, up to its maximum
+		for (int i = 0; i < 10; i++) {
+			window.update(latency, true);
+		}
+		assertEquals(8, window.getSize());
+
+		// Much longer round trips shrink it back, but not below its initial size
+		for (int i = 0; i < 100; i++) {
+			window.update(20 * latency, true);
+		}
+		assertEquals(3, window.getSize());
+
+		// Without a larger maximum, the window does not adapt
+		AbstractMIControl.CommandWindow fixed = new AbstractMIControl.CommandWindow(3, 3);
+		for (int i = 0; i < 10; i++) {
+			fixed.update(latency, true);
+		}
+		assertEquals(3, fixed.getSize());
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.dsf.mi.service.command.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MIParserTests {
+	private final MIParser parser = new MIParser();
+
+	@Test
+	public void testRecordType() {
+		assertEquals(MIParser.RecordType.ResultRecord, parser.getRecordType("12^done"));
+		assertEquals(MIParser.RecordType.PrimaryPrompt, parser.getRecordType("(gdb) "));
+		assertEquals(MIParser.RecordType.OOBRecord, parser.getRecordType("*stopped"));
+	}
+
+	@Test
+	public void testResultRecord() {
+		String line = "12^done,stack=[frame={level=\"0\",addr=\"0x1\",func=\"main\"},"
+				+ "frame={level=\"1\",addr=\"0x2\",func=\"foo\"}]";
+		MIResultRecord rr = parser.parseMIResultRecord(line);
+		assertEquals(12, rr.getToken());
+		assertEquals(MIResultRecord.DONE, rr.getResultClass());
+		assertEquals(line, rr.toString());
+
+		MIList stack = (MIList) rr.getField("stack");
+		MIResult[] frames = stack.getMIResults();
+		assertEquals(2, frames.length);
+		assertEquals("frame", frames[0].getVariable());
+		// names repeated in a result are shared
+		assertSame(frames[0].getVariable(), frames[1].getVariable());
+		MITuple frame = (MITuple) frames[1].getMIValue();
+		assertEquals("foo", ((MIConst) frame.getField("func")).getCString());
+		assertEquals("0x2", ((MIConst) frame.getField("addr")).getCString());
+	}
+
+	@Test
+	public void testResultClasses() {
+		assertEquals(MIResultRecord.ERROR, parser.parseMIResultRecord("^error,msg=\"x\"").getResultClass());
+		assertEquals(MIResultRecord.RUNNING, parser.parseMIResultRecord("^running").getResultClass());
+		assertEquals(MIResultRecord.CONNECTED, parser.parseMIResultRecord("^connected").getResultClass());
+		assertEquals(MIResultRecord.EXIT, parser.parseMIResultRecord("^exit").getResultClass());
+		// a token that does not fit an int is ignored
+		MIResultRecord rr = parser.parseMIResultRecord("99999999999^done");
+		assertEquals(-1, rr.getToken());
+		assertEquals(MIResultRecord.DONE, rr.getResultClass());
+	}
+
+	@Test
+	public void testEscapedCString() {
+		MIResultRecord rr = parser.parseMIResultRecord("^done,value=\"a \\\"quoted\\\" \\\\ backslash \\n\",next=\"b\"");
+		assertEquals("a \"quoted\" \\ backslash \\n", ((MIConst) rr.getField("value")).getCString());
+		assertEquals("b", ((MIConst) rr.getField("next")).getCString());
+	}
+
+	@Test
+	public void testEmptyValues() {
+		MIResultRecord rr = parser.parseMIResultRecord("^done,tuple={},list=[],str=\"\"");
+		MITuple tuple = (MITuple) rr.getField("tuple");
+		assertEquals(0, tuple.getMIResults().length);
+		assertEquals(0, tuple.getMIValues().length);
+		MIList list = (MIList) rr.getField("list");
+		assertEquals(0, list.getMIResults().length);
+		assertEquals(0, list.getMIValues().length);
+		assertEquals("", ((MIConst) rr.getField("str")).getCString());
+	}
+
+	@Test
+	public void testListOfValues() {
+		MIResultRecord rr = parser.parseMIResultRecord("^done,memory=[{begin=\"0x10\",contents=\"0102\"}],ids=[\"1\",\"2\"]");
+		MIValue[] memory = ((MIList) rr.getField("memory")).getMIValues();
+		assertEquals(1, memory.length);
+		assertEquals("0102", ((MIConst) ((MITuple) memory[0]).getField("contents")).getCString());
+		MIValue[] ids = ((MIList) rr.getField("ids")).getMIValues();
+		assertEquals(2, ids.length);
+		assertEquals("2", ((MIConst) ids[1]).getCString());
+	}
+
+	@Test
+	public void testAsyncRecord() {
+		MIOOBRecord oob = parser.parseMIOOBRecord("5*stopped,reason=\"breakpoint-hit\",bkptno=\"1\"");
+		assertTrue(oob instanceof MIExecAsyncOutput);
+		MIAsyncRecord async = (MIAsyncRecord) oob;
+		assertEquals(5, async.getToken());
+		assertEquals("stopped", async.getAsyncClass());
+		MIResult[] results = async.getMIResults();
+		assertEquals(2, results.length);
+		assertEquals("bkptno", results[1].getVariable());
+		assertEquals("1", results[1].getMIValue().toString());
+
+		async = (MIAsyncRecord) parser.parseMIOOBRecord("=thread-group-added ");
+		assertTrue(async instanceof MINotifyAsyncOutput);
+		assertEquals("thread-group-added", async.getAsyncClass());
+
+		async = (MIAsyncRecord) parser.parseMIOOBRecord("+download,\"value only\"");
+		assertTrue(async instanceof MIStatusAsyncOutput);
+		assertEquals("", async.getMIResults()[0].getVariable());
+		assertEquals("value only", async.getMIResults()[0].getMIValue().toString());
+	}
+
+	@Test
+	public void testStreamRecord() {
+		// backslashes are not parsed in stream records
+		MIOOBRecord oob = parser.parseMIOOBRecord("~\"C:\\\\dir \\\"x\\\"\\n\"");
+		assertTrue(oob instanceof MIConsoleStreamOutput);
+		assertEquals("C:\\\\dir \"x\"\\n", ((MIStreamRecord) oob).getCString());
+
+		assertTrue(parser.parseMIOOBRecord("@\"target\"") instanceof MITargetStreamOutput);
+		assertTrue(parser.parseMIOOBRecord("&\"log\"") instanceof MILogStreamOutput);
+	}
+
+	@Test
+	public void testBadlyFormattedLine() {
+		MIOOBRecord oob = parser.parseMIOOBRecord("not an MI record");
+		assertTrue(oob instanceof MITargetStreamOutput);
+		assertEquals("not an MI record\n", ((MIStreamRecord) oob).getCString());
+	}
+}
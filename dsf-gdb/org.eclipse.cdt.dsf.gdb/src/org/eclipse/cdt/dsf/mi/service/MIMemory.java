@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Wind River Systems and others.
+ * Copyright (c) 2007, 2026 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,9 +24,7 @@ package org.eclipse.cdt.dsf.mi.service;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Hashtable;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.cdt.core.IAddress;
@@ -77,6 +75,21 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 	//data-read-memory write is deprecated, its description could be ambiguous for e.g. 16 bit addressable systems
 	private static final String DATA_WRITE_MEMORY_16_NOT_SUPPORTED = "data-write-memory with word-size != 1 not supported"; //$NON-NLS-1$
 
+	/*
+	 * The memory cache holds the memory read so far in pages of CACHE_PAGE_SIZE addressable units,
+	 * up to CACHE_MAX_PAGES pages, and evicts the least recently used ones. Only the requested
+	 * memory is read from the target by default, as reading other memory can have side effects,
+	 * e.g. on memory-mapped I/O. Reading ahead is enabled by setting CACHE_PREFETCH_PAGES: the
+	 * missing memory is then read in whole pages, and the CACHE_PREFETCH_PAGES pages following the
+	 * requested memory, or preceding it when the memory is scrolled backwards, are read ahead.
+	 */
+	private static final int CACHE_PAGE_SIZE = Math.max(1,
+			Integer.getInteger("org.eclipse.cdt.dsf.gdb.memoryCache.pageSize", 512)); //$NON-NLS-1$
+	private static final int CACHE_MAX_PAGES = Math.max(1,
+			Integer.getInteger("org.eclipse.cdt.dsf.gdb.memoryCache.maxPages", 1024)); //$NON-NLS-1$
+	private static final int CACHE_PREFETCH_PAGES = Math.max(0,
+			Integer.getInteger("org.eclipse.cdt.dsf.gdb.memoryCache.prefetchPages", 0)); //$NON-NLS-1$
+
 	public class MemoryChangedEvent extends AbstractDMEvent<IMemoryDMContext> implements IMemoryChangedEvent {
 		private IAddress[] fAddresses;
 
@@ -532,308 +545,251 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 	}
 
 	///////////////////////////////////////////////////////////////////////////
-	// SortedLinkedlist
+	// MIMemoryCache
 	///////////////////////////////////////////////////////////////////////////
 
-	// This class is really the equivalent of a C struct (old habits die hard...)
-	// For simplicity, everything is public.
-	private static class MemoryBlock {
-		public IAddress fAddress;
-		public long fLengthInAddressableUnits;
-		public long fLengthInOctets;
-		public MemoryByte[] fBlock;
-
-		public MemoryBlock(IAddress address, long lengthInOctets, long lengthInAddressableUnits, MemoryByte[] block) {
-			// A memory block is expected to be populated with the contents of a defined range of addresses
-			// therefore the number of octets shall be divisible by the number of addresses
-			assert (lengthInOctets % lengthInAddressableUnits == 0);
-			fAddress = address;
-			fLengthInAddressableUnits = lengthInAddressableUnits;
-			fLengthInOctets = lengthInOctets;
-			fBlock = block;
-		}
-	}
-
-	// Address-ordered data structure to cache the memory blocks.
-	// Contiguous blocks are merged if possible.
-	@SuppressWarnings("serial")
-	private static class SortedMemoryBlockList extends LinkedList<MemoryBlock> {
+	/** @since 4.2 */
+	protected class MIMemoryCache {
+		// The cached pages by page index, from the least to the most recently used.
+		// The memory of a page that was not read yet is null.
+		@SuppressWarnings("serial")
+		private final LinkedHashMap<Long, MemoryByte[]> fPages = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, MemoryByte[]> eldest) {
+				return size() > CACHE_MAX_PAGES;
+			}
+		};
 
-		public SortedMemoryBlockList() {
-			super();
-		}
+		// The number of octets per addressable unit of the cached pages
+		private int fWordSize = 1;
 
-		// Insert the block in the sorted linked list and merge contiguous
-		// blocks if necessary
-		@Override
-		public boolean add(MemoryBlock block) {
+		// Incremented on reset, so that the memory read before is not cached
+		private int fGeneration;
 
-			// If the list is empty, just store the block
-			if (isEmpty()) {
-				addFirst(block);
-				return true;
-			}
+		// The first page of the last request and the direction in which the memory is read
+		private long fLastPage;
+		private boolean fHasLastPage;
+		private boolean fForward = true;
 
-			// Insert the block at the correct location and then
-			// merge the blocks if possible
-			ListIterator<MemoryBlock> it = listIterator();
-			while (it.hasNext()) {
-				int index = it.nextIndex();
-				MemoryBlock item = it.next();
-				if (block.fAddress.compareTo(item.fAddress) < 0) {
-					add(index, block);
-					compact(index);
-					return true;
-				}
-			}
+		public MIMemoryCache() {
+		}
 
-			// Put at the end of the list and merge if necessary
-			addLast(block);
-			compact(size() - 1);
-			return true;
+		public void reset() {
+			// Clear the memory cache
+			fPages.clear();
+			fGeneration++;
 		}
 
-		// Merge this block with its contiguous neighbors (if any)
-		// Note: Merge is not performed if resulting block size would exceed MAXINT
-		private void compact(int index) {
-
-			MemoryBlock newBlock = get(index);
-
-			// Case where the block is to be merged with the previous block
-			if (index > 0) {
-				MemoryBlock prevBlock = get(index - 1);
-				IAddress endOfPreviousBlock = prevBlock.fAddress.add(prevBlock.fLengthInAddressableUnits);
-				if (endOfPreviousBlock.distanceTo(newBlock.fAddress).longValue() == 0) {
-					long newLengthInOctets = prevBlock.fLengthInOctets + newBlock.fLengthInOctets;
-					long newLengthInAddressableUnits = prevBlock.fLengthInAddressableUnits
-							+ newBlock.fLengthInAddressableUnits;
-					if (newLengthInOctets <= Integer.MAX_VALUE) {
-						MemoryByte[] block = new MemoryByte[(int) newLengthInOctets];
-						System.arraycopy(prevBlock.fBlock, 0, block, 0, (int) prevBlock.fLengthInOctets);
-						System.arraycopy(newBlock.fBlock, 0, block, (int) prevBlock.fLengthInOctets,
-								(int) newBlock.fLengthInOctets);
-						newBlock = new MemoryBlock(prevBlock.fAddress, newLengthInOctets, newLengthInAddressableUnits,
-								block);
-						remove(index);
-						index -= 1;
-						set(index, newBlock);
-					}
-				}
-			}
+		private long getPage(IAddress address) {
+			return Long.divideUnsigned(address.getValue().longValue(), CACHE_PAGE_SIZE);
+		}
 
-			// Case where the block is to be merged with the following block
-			int lastIndex = size() - 1;
-			if (index < lastIndex) {
-				MemoryBlock nextBlock = get(index + 1);
-				IAddress endOfNewBlock = newBlock.fAddress.add(newBlock.fLengthInAddressableUnits);
-				if (endOfNewBlock.distanceTo(nextBlock.fAddress).longValue() == 0) {
-					long newLength = newBlock.fLengthInOctets + nextBlock.fLengthInOctets;
-					long newAddressesLength = newBlock.fLengthInAddressableUnits + nextBlock.fLengthInAddressableUnits;
-					if (newLength <= Integer.MAX_VALUE) {
-						MemoryByte[] block = new MemoryByte[(int) newLength];
-						System.arraycopy(newBlock.fBlock, 0, block, 0, (int) newBlock.fLengthInOctets);
-						System.arraycopy(nextBlock.fBlock, 0, block, (int) newBlock.fLengthInOctets,
-								(int) nextBlock.fLengthInOctets);
-						newBlock = new MemoryBlock(newBlock.fAddress, newLength, newAddressesLength, block);
-						set(index, newBlock);
-						remove(index + 1);
-					}
-				}
-			}
+		private IAddress getPageAddress(IAddress reference, long page) {
+			return reference.add(page * CACHE_PAGE_SIZE - reference.getValue().longValue());
 		}
-	}
 
-	///////////////////////////////////////////////////////////////////////////
-	// MIMemoryCache
-	///////////////////////////////////////////////////////////////////////////
+		/**
+		 *  Reads memory that is not cached and caches it. Unless the memory is read ahead,
+		 *  only the requested range is read. Otherwise the whole pages of the range are read
+		 *  and, if part of them can't be read, the requested range is read again on its own.
+		 *
+		 * @param start The address of the memory to read
+		 * @param wordCount The number of addressable units to read
+		 * @param rm Returns the memory of the requested range
+		 */
+		private void readMissingMemory(final IMemoryDMContext memoryDMC, final IAddress start, final int wordCount,
+				final int wordSize, final DataRequestMonitor<MemoryByte[]> rm) {
+			if (CACHE_PREFETCH_PAGES == 0) {
+				readExactMemory(memoryDMC, start, wordCount, wordSize, rm);
+				return;
+			}
 
-	/** @since 4.2 */
-	protected class MIMemoryCache {
-		// The memory cache data structure
-		private SortedMemoryBlockList fMemoryBlockList;
+			final int generation = fGeneration;
+			final long firstPage = getPage(start);
+			final int pageCount = (int) (getPage(start.add(wordCount - 1)) - firstPage + 1);
+			final IAddress pageStart = getPageAddress(start, firstPage);
+			final int offset = (int) Long.remainderUnsigned(start.getValue().longValue(), CACHE_PAGE_SIZE) * wordSize;
+			readMemoryBlock(memoryDMC, pageStart, 0, wordSize, pageCount * CACHE_PAGE_SIZE,
+					new DataRequestMonitor<MemoryByte[]>(getExecutor(), rm) {
+						@Override
+						protected void handleSuccess() {
+							MemoryByte[] block = getData();
+							if (block.length != pageCount * CACHE_PAGE_SIZE * wordSize || !isReadable(block)) {
+								// A single unreadable byte can fail the whole read, read the requested range only
+								readExactMemory(memoryDMC, start, wordCount, wordSize, rm);
+								return;
+							}
+							if (generation == fGeneration) {
+								storeInCache(pageStart, block, wordSize, true);
+							}
+							rm.setData(Arrays.copyOfRange(block, offset, offset + wordCount * wordSize));
+							rm.done();
+						}
 
-		public MIMemoryCache() {
-			// Create the memory block cache
-			fMemoryBlockList = new SortedMemoryBlockList();
+						@Override
+						protected void handleFailure() {
+							readExactMemory(memoryDMC, start, wordCount, wordSize, rm);
+						}
+					});
 		}
 
-		public void reset() {
-			// Clear the memory cache
-			fMemoryBlockList.clear();
+		/**
+		 *  Reads exactly the requested memory and caches it.
+		 */
+		private void readExactMemory(IMemoryDMContext memoryDMC, final IAddress start, final int wordCount,
+				final int wordSize, final DataRequestMonitor<MemoryByte[]> rm) {
+			final int generation = fGeneration;
+			readMemoryBlock(memoryDMC, start, 0, wordSize, wordCount,
+					new DataRequestMonitor<MemoryByte[]>(getExecutor(), rm) {
+						@Override
+						protected void handleSuccess() {
+							MemoryByte[] block = getData();
+							if (block.length != wordCount * wordSize) {
+								// The missing memory is reported as invalid
+								MemoryByte[] fullBlock = Arrays.copyOf(block, wordCount * wordSize);
+								Arrays.fill(fullBlock, block.length, fullBlock.length,
+										new MemoryByte((byte) 0, (byte) 0));
+								block = fullBlock;
+							}
+							// Don't cache memory read before the cache was reset
+							if (generation == fGeneration) {
+								storeInCache(start, block, wordSize, true);
+							}
+							rm.setData(block);
+							rm.done();
+						}
+					});
 		}
 
 		/**
-		 *  This function walks the address-sorted memory block list to identify
-		 *  the 'missing' blocks (i.e. the holes) that need to be fetched on the target.
-		 *
-		 *  The idea is fairly simple but an illustration could perhaps help.
-		 *  Assume the cache holds a number of cached memory blocks with gaps i.e.
-		 *  there is un-cached memory areas between blocks A, B and C:
-		 *
-		 *        +---------+      +---------+      +---------+
-		 *        +    A    +      +    B    +      +    C    +
-		 *        +---------+      +---------+      +---------+
-		 *        :         :      :         :      :         :
-		 *   [a]  :         :  [b] :         :  [c] :         :  [d]
-		 *        :         :      :         :      :         :
-		 *   [e---+--]      :  [f--+---------+--]   :         :
-		 *   [g---+---------+------+---------+------+---------+----]
-		 *        :         :      :         :      :         :
-		 *        :   [h]   :      :   [i----+--]   :         :
-		 *
-		 *
-		 *  We have the following cases to consider.The requested block [a-i] either:
-		 *
-		 *  [1] Fits entirely before A, in one of the gaps, or after C
-		 *      with no overlap and no contiguousness (e.g. [a], [b], [c] and [d])
-		 *      -> Add the requested block to the list of blocks to fetch
-		 *
-		 *  [2] Starts before an existing block but overlaps part of it, possibly
-		 *      spilling in the gap following the cached block (e.g. [e], [f] and [g])
-		 *      -> Determine the length of the missing part (< count)
-		 *      -> Add a request to fill the gap before the existing block
-		 *      -> Update the requested block for the next iteration:
-		 *         - Start address to point just after the end of the cached block
-		 *         - Count reduced by cached block length (possibly becoming negative, e.g. [e])
-		 *      At this point, the updated requested block starts just beyond the cached block
-		 *      for the next iteration.
-		 *
-		 *  [3] Starts at or into an existing block and overlaps part of it ([h] and [i])
-		 *      -> Update the requested block for the next iteration:
-		 *         - Start address to point just after the end of the cached block
-		 *         - Count reduced by length to end of cached block (possibly becoming negative, e.g. [h])
-		 *      At this point, the updated requested block starts just beyond the cached block
-		 *      for the next iteration.
-		 *
-		 *  We iterate over the cached blocks list until there is no entry left or until
-		 *  the remaining requested block count is <= 0, meaning the result list contains
-		 *  only the sub-blocks needed to fill the gap(s), if any.
-		 *
-		 *  (As is often the case, it takes much more typing to explain it than to just do it :-)
-		 *
-		 *  What is missing is a parameter that indicates the minimal block size that is worth fetching.
-		 *  This is target-specific and straight in the realm of the coalescing function...
-		 *
-		 * @param reqBlockStart The address of the requested block
-		 * @param count Its length
-		 * @return A list of the sub-blocks to fetch in order to fill enough gaps in the memory cache
-		 * to service the request
+		 *  Reads whole pages ahead of the requests and caches the pages that are
+		 *  readable, so that reading past the end of a memory region does not hide it later.
 		 */
-		private List<MemoryBlock> getListOfMissingBlocks(IAddress reqBlockStart, int wordCount, int wordSize) {
-			int octetCount = wordCount * wordSize;
-
-			LinkedList<MemoryBlock> list = new LinkedList<>();
-			ListIterator<MemoryBlock> it = fMemoryBlockList.listIterator();
-
-			// Look for holes in the list of memory blocks
-			while (it.hasNext() && octetCount > 0) {
-				MemoryBlock cachedBlock = it.next();
-				IAddress cachedBlockStart = cachedBlock.fAddress;
-				IAddress cachedBlockEnd = cachedBlock.fAddress.add(cachedBlock.fLengthInAddressableUnits);
-
-				// Case where we miss a block before the cached block
-				if (reqBlockStart.distanceTo(cachedBlockStart).longValue() >= 0) {
-					int lengthInOctets = (int) Math
-							.min(reqBlockStart.distanceTo(cachedBlockStart).longValue() * wordSize, octetCount);
-					// If both blocks start at the same location, no need to create a new cached block
-					if (lengthInOctets > 0) {
-						int lengthInAddressableUnits = lengthInOctets / wordSize;
-						MemoryBlock newBlock = new MemoryBlock(reqBlockStart, lengthInOctets, lengthInAddressableUnits,
-								new MemoryByte[0]);
-						list.add(newBlock);
-					}
-					// Adjust request block start and length for the next iteration
-					reqBlockStart = cachedBlockEnd;
-					octetCount -= lengthInOctets + cachedBlock.fLengthInOctets;
-				}
+		private void readPages(IMemoryDMContext memoryDMC, IAddress reference, final long firstPage,
+				final int pageCount, final int wordSize) {
+			final int generation = fGeneration;
+			final IAddress start = getPageAddress(reference, firstPage);
+			readMemoryBlock(memoryDMC, start, 0, wordSize, pageCount * CACHE_PAGE_SIZE,
+					new DataRequestMonitor<MemoryByte[]>(getExecutor(), null) {
+						@Override
+						protected void handleSuccess() {
+							MemoryByte[] block = getData();
+							int pageLength = CACHE_PAGE_SIZE * wordSize;
+							if (generation != fGeneration || wordSize != fWordSize
+									|| block.length != pageCount * pageLength) {
+								return;
+							}
+							for (int i = 0; i < pageCount; i++) {
+								MemoryByte[] page = Arrays.copyOfRange(block, i * pageLength, (i + 1) * pageLength);
+								if (isReadable(page)) {
+									fPages.put(firstPage + i, page);
+								}
+							}
+						}
+					});
+		}
 
-				// Case where the requested block starts somewhere in the cached block
-				else if (cachedBlockStart.distanceTo(reqBlockStart).longValue() > 0
-						&& reqBlockStart.distanceTo(cachedBlockEnd).longValue() >= 0) {
-					// Start of the requested block already in cache
-					// Adjust request block start and length for the next iteration
-					octetCount -= reqBlockStart.distanceTo(cachedBlockEnd).longValue() * wordSize;
-					reqBlockStart = cachedBlockEnd;
+		private boolean isReadable(MemoryByte[] block) {
+			for (MemoryByte b : block) {
+				if (!b.isReadable()) {
+					return false;
 				}
 			}
+			return true;
+		}
 
-			// Case where we miss a block at the end of the cache
-			if (octetCount > 0) {
-				int addressesLength = octetCount / wordSize;
-				MemoryBlock newBlock = new MemoryBlock(reqBlockStart, octetCount, addressesLength, new MemoryByte[0]);
-				list.add(newBlock);
+		/**
+		 *  Reads the pages following the requested ones, or the pages preceding them
+		 *  when the memory is scrolled backwards, unless they are already cached.
+		 */
+		private void prefetchPages(IMemoryDMContext memoryDMC, IAddress reference, long firstPage, long lastPage,
+				int wordSize) {
+			if (fHasLastPage && firstPage != fLastPage) {
+				fForward = Long.compareUnsigned(firstPage, fLastPage) > 0;
+			}
+			fLastPage = firstPage;
+			fHasLastPage = true;
+
+			long start;
+			long count;
+			if (fForward) {
+				long maxPage = Long.divideUnsigned(reference.getMaxOffset().longValue(), CACHE_PAGE_SIZE);
+				start = lastPage + 1;
+				count = Long.compareUnsigned(maxPage - lastPage, CACHE_PREFETCH_PAGES) < 0 ? maxPage - lastPage
+						: CACHE_PREFETCH_PAGES;
+			} else {
+				count = Long.compareUnsigned(firstPage, CACHE_PREFETCH_PAGES) < 0 ? firstPage : CACHE_PREFETCH_PAGES;
+				start = firstPage - count;
 			}
 
-			return list;
+			// Read the missing pages, consecutive ones in a single request
+			int missing = 0;
+			for (long i = 0; i <= count; i++) {
+				if (i < count && !fPages.containsKey(start + i)) {
+					missing++;
+				} else if (missing > 0) {
+					readPages(memoryDMC, reference, start + i - missing, missing, wordSize);
+					missing = 0;
+				}
+			}
 		}
 
 		/**
-		 *  This function walks the address-sorted memory block list to get the
-		 *  cached memory bytes (possibly from multiple contiguous blocks).
-		 *  This function is called *after* the missing blocks have been read from
-		 *  the back end i.e. the requested memory is all cached.
-		 *
-		 *  Again, this is fairly simple. As we loop over the address-ordered list,
-		 *  There are really only 2 cases:
-		 *
-		 *  [1] The requested block fits entirely in the cached block ([a] or [b])
-		 *  [2] The requested block starts in a cached block and ends in the
-		 *      following (contiguous) one ([c]) in which case it is treated
-		 *      as 2 contiguous requests ([c'] and [c"])
-		 *
-		 *       +--------------+--------------+
-		 *       +       A      +      B       +
-		 *       +--------------+--------------+
-		 *       :  [a----]     :   [b-----]   :
-		 *       :              :              :
-		 *       :       [c-----+------]       :
-		 *       :       [c'---]+[c"---]       :
-		 *
-		 * @param reqBlockStart The address of the requested block
-		 * @param count Its length
-		 * @return The cached memory content
+		 * @return The cached memory content, with <code>null</code> for the memory that is not cached
 		 */
 		private MemoryByte[] getMemoryBlockFromCache(IAddress reqBlockStart, int wordCount, int wordSize) {
-			int count = wordCount * wordSize;
-
-			IAddress reqBlockEnd = reqBlockStart.add(wordCount);
-			MemoryByte[] resultBlock = new MemoryByte[count];
-			ListIterator<MemoryBlock> iter = fMemoryBlockList.listIterator();
-
-			while (iter.hasNext()) {
-				MemoryBlock cachedBlock = iter.next();
-				IAddress cachedBlockStart = cachedBlock.fAddress;
-				IAddress cachedBlockEnd = cachedBlock.fAddress.add(cachedBlock.fLengthInAddressableUnits);
-
-				// Case where the cached block overlaps completely the requested memory block
-				if (cachedBlockStart.distanceTo(reqBlockStart).longValue() >= 0
-						&& reqBlockEnd.distanceTo(cachedBlockEnd).longValue() >= 0) {
-					int pos = (int) cachedBlockStart.distanceTo(reqBlockStart).longValue() * wordSize;
-					System.arraycopy(cachedBlock.fBlock, pos, resultBlock, 0, count);
+			MemoryByte[] resultBlock = new MemoryByte[wordCount * wordSize];
+			if (wordCount == 0 || wordSize != fWordSize) {
+				return resultBlock;
+			}
+			int pageLength = CACHE_PAGE_SIZE * wordSize;
+			int offset = (int) Long.remainderUnsigned(reqBlockStart.getValue().longValue(), CACHE_PAGE_SIZE)
+					* wordSize;
+			int pos = 0;
+			for (long page = getPage(reqBlockStart); pos < resultBlock.length; page++) {
+				int length = Math.min(pageLength - offset, resultBlock.length - pos);
+				MemoryByte[] cachedPage = fPages.get(page);
+				if (cachedPage != null) {
+					System.arraycopy(cachedPage, offset, resultBlock, pos, length);
 				}
+				pos += length;
+				offset = 0;
+			}
+			return resultBlock;
+		}
 
-				// Case where the beginning of the cached block is within the requested memory block
-				else if (reqBlockStart.distanceTo(cachedBlockStart).longValue() >= 0
-						&& cachedBlockStart.distanceTo(reqBlockEnd).longValue() > 0) {
-					int pos = (int) reqBlockStart.distanceTo(cachedBlockStart).longValue() * wordSize;
-					int length = (int) Math.min(cachedBlock.fLengthInOctets, count - pos);
-					System.arraycopy(cachedBlock.fBlock, 0, resultBlock, pos, length);
+		/**
+		 *  Copies memory read from the target to the cached pages.
+		 *
+		 * @param start The address of the memory
+		 * @param block The memory content
+		 * @param wordSize Number of octets per addressable unit
+		 * @param addPages Whether the pages that are not cached are added, or only the cached ones are updated
+		 */
+		private void storeInCache(IAddress start, MemoryByte[] block, int wordSize, boolean addPages) {
+			if (block.length == 0 || wordSize != fWordSize) {
+				return;
+			}
+			int pageLength = CACHE_PAGE_SIZE * wordSize;
+			int offset = (int) Long.remainderUnsigned(start.getValue().longValue(), CACHE_PAGE_SIZE) * wordSize;
+			int pos = 0;
+			for (long page = getPage(start); pos < block.length; page++) {
+				int length = Math.min(pageLength - offset, block.length - pos);
+				MemoryByte[] cachedPage = fPages.get(page);
+				if (cachedPage == null && addPages) {
+					cachedPage = new MemoryByte[pageLength];
+					fPages.put(page, cachedPage);
 				}
-
-				// Case where the end of the cached block is within the requested memory block
-				else if (cachedBlockStart.distanceTo(reqBlockStart).longValue() >= 0
-						&& reqBlockStart.distanceTo(cachedBlockEnd).longValue() > 0) {
-					int pos = (int) cachedBlockStart.distanceTo(reqBlockStart).longValue() * wordSize;
-					int length = (int) Math.min(cachedBlock.fLengthInOctets - pos, count);
-					System.arraycopy(cachedBlock.fBlock, pos, resultBlock, 0, length);
+				if (cachedPage != null) {
+					System.arraycopy(block, pos, cachedPage, offset, length);
 				}
+				pos += length;
+				offset = 0;
 			}
-			return resultBlock;
 		}
 
 		/**
-		 *  This function walks the address-sorted memory block list and updates
-		 *  the content with the actual memory just read from the target.
+		 *  Updates the cached pages with the actual memory just read from the target.
 		 *
 		 * @param modBlockStart
 		 * @param wordCount - Number of addressable units
@@ -841,52 +797,7 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 		 * @param wordSize - Number of octets per addressable unit
 		 */
 		private void updateMemoryCache(IAddress modBlockStart, int wordCount, MemoryByte[] modBlock, int wordSize) {
-			IAddress modBlockEnd = modBlockStart.add(wordCount);
-			ListIterator<MemoryBlock> iter = fMemoryBlockList.listIterator();
-			int count = wordCount * wordSize;
-
-			while (iter.hasNext()) {
-				MemoryBlock cachedBlock = iter.next();
-				IAddress cachedBlockStart = cachedBlock.fAddress;
-				IAddress cachedBlockEnd = cachedBlock.fAddress.add(cachedBlock.fLengthInAddressableUnits);
-
-				// For now, we only bother to update bytes already cached.
-				// Note: In a better implementation (v1.1), we would augment
-				// the cache with the missing memory blocks since we went
-				// through the pains of reading them in the first place.
-				// (this is left as an exercise to the reader :-)
-
-				// Case where the modified block is completely included in the cached block
-				if (cachedBlockStart.distanceTo(modBlockStart).longValue() >= 0
-						&& modBlockEnd.distanceTo(cachedBlockEnd).longValue() >= 0) {
-					int pos = (int) cachedBlockStart.distanceTo(modBlockStart).longValue() * wordSize;
-					System.arraycopy(modBlock, 0, cachedBlock.fBlock, pos, count);
-				}
-
-				// Case where the cached block is completely included in the modified block
-				else if (modBlockStart.distanceTo(cachedBlockStart).longValue() >= 0
-						&& cachedBlockEnd.distanceTo(modBlockEnd).longValue() >= 0) {
-					int pos = (int) modBlockStart.distanceTo(cachedBlockStart).longValue() * wordSize;
-					System.arraycopy(modBlock, pos, cachedBlock.fBlock, 0, (int) cachedBlock.fLengthInOctets);
-				}
-
-				// Case where the beginning of the modified block is within the cached block
-				else if (cachedBlockStart.distanceTo(modBlockStart).longValue() >= 0
-						&& modBlockStart.distanceTo(cachedBlockEnd).longValue() > 0) {
-					int pos = (int) cachedBlockStart.distanceTo(modBlockStart).longValue() * wordSize;
-					int length = (int) modBlockStart.distanceTo(cachedBlockEnd).longValue() * wordSize;
-					System.arraycopy(modBlock, 0, cachedBlock.fBlock, pos, length);
-				}
-
-				// Case where the end of the modified block is within the cached block
-				else if (cachedBlockStart.distanceTo(modBlockEnd).longValue() > 0
-						&& modBlockEnd.distanceTo(cachedBlockEnd).longValue() >= 0) {
-					int pos = (int) modBlockStart.distanceTo(cachedBlockStart).longValue() * wordSize;
-					int length = (int) cachedBlockStart.distanceTo(modBlockEnd).longValue() * wordSize;
-					System.arraycopy(modBlock, pos, cachedBlock.fBlock, 0, length);
-				}
-			}
-			return;
+			storeInCache(modBlockStart, Arrays.copyOf(modBlock, wordCount * wordSize), wordSize, false);
 		}
 
 		/**
@@ -896,42 +807,65 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 		 * @param wordCount the number of addressable units to read
 		 * @param drm		the asynchronous data request monitor
 		 */
-		public void getMemory(IMemoryDMContext memoryDMC, final IAddress address, final int wordSize,
+		public void getMemory(final IMemoryDMContext memoryDMC, final IAddress address, final int wordSize,
 				final int wordCount, final DataRequestMonitor<MemoryByte[]> drm) {
-			// Determine the number of read requests to issue
-			List<MemoryBlock> missingBlocks = getListOfMissingBlocks(address, wordCount, wordSize);
-			int numberOfRequests = missingBlocks.size();
+			if (wordCount == 0) {
+				drm.setData(new MemoryByte[0]);
+				drm.done();
+				return;
+			}
+
+			if (wordSize != fWordSize) {
+				// The pages are only cached for a single addressable size
+				reset();
+				fWordSize = wordSize;
+			}
+
+			final long firstPage = getPage(address);
+			final long lastPage = getPage(address.add(wordCount - 1));
+			if (lastPage - firstPage >= CACHE_MAX_PAGES) {
+				// The request does not fit in the cache
+				readMemoryBlock(memoryDMC, address, 0, wordSize, wordCount, drm);
+				return;
+			}
+
+			// Take the cached memory now, the pages could be evicted before the missing memory is read
+			final MemoryByte[] result = getMemoryBlockFromCache(address, wordCount, wordSize);
 
-			// A read request will be issued for each block needed
-			// so we need to keep track of the count
 			final CountingRequestMonitor countingRM = new CountingRequestMonitor(getExecutor(), drm) {
 				@Override
 				protected void handleSuccess() {
-					// We received everything so read the result from the memory cache
-					drm.setData(getMemoryBlockFromCache(address, wordCount, wordSize));
+					// We received everything so return the result
+					drm.setData(result);
 					drm.done();
+
+					if (CACHE_PREFETCH_PAGES > 0 && wordSize == fWordSize) {
+						prefetchPages(memoryDMC, address, firstPage, lastPage, wordSize);
+					}
 				}
 			};
-			countingRM.setDoneCount(numberOfRequests);
 
-			// Issue the read requests
-			for (int i = 0; i < numberOfRequests; i++) {
-				MemoryBlock block = missingBlocks.get(i);
-				final IAddress startAddress = block.fAddress;
-				final int length = (int) block.fLengthInAddressableUnits;
-				readMemoryBlock(memoryDMC, startAddress, 0, wordSize, length,
-						new DataRequestMonitor<MemoryByte[]>(getSession().getExecutor(), drm) {
-							@Override
-							protected void handleSuccess() {
-								MemoryByte[] block = getData();
-								int lenghtInaddressableUnits = block.length / wordSize;
-								MemoryBlock memoryBlock = new MemoryBlock(startAddress, block.length,
-										lenghtInaddressableUnits, block);
-								fMemoryBlockList.add(memoryBlock);
-								countingRM.done();
-							}
-						});
+			// Issue a single read request for each run of missing memory
+			int numberOfRequests = 0;
+			int missing = 0;
+			for (int i = 0; i <= wordCount; i++) {
+				if (i < wordCount && result[i * wordSize] == null) {
+					missing++;
+				} else if (missing > 0) {
+					final int pos = (i - missing) * wordSize;
+					readMissingMemory(memoryDMC, address.add(i - missing), missing, wordSize,
+							new DataRequestMonitor<MemoryByte[]>(getExecutor(), countingRM) {
+								@Override
+								protected void handleSuccess() {
+									System.arraycopy(getData(), 0, result, pos, getData().length);
+									countingRM.done();
+								}
+							});
+					numberOfRequests++;
+					missing = 0;
+				}
 			}
+			countingRM.setDoneCount(numberOfRequests);
 		}
 
 		/**
@@ -986,14 +920,16 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 				final int wordSize, final int wordCount, final boolean sendMemoryEvent, final RequestMonitor rm) {
 			// Check if we already cache part of this memory area (which means it
 			// is used by a memory service client that will have to be updated)
-			List<MemoryBlock> list = getListOfMissingBlocks(address, wordCount, wordSize);
-			int sizeToRead = 0;
-			for (MemoryBlock block : list) {
-				sizeToRead += block.fLengthInAddressableUnits;
+			boolean cached = false;
+			for (MemoryByte b : getMemoryBlockFromCache(address, wordCount, wordSize)) {
+				if (b != null) {
+					cached = true;
+					break;
+				}
 			}
 
 			// If none of the requested memory is in cache, just get out
-			if (sizeToRead == wordCount) {
+			if (!cached) {
 				rm.done();
 				return;
 			}
@@ -1008,7 +944,8 @@ public class MIMemory extends AbstractDsfService implements IMemory, ICachingSer
 							MemoryByte[] newBlock = getData();
 							boolean blocksDiffer = false;
 							for (int i = 0; i < oldBlock.length; i++) {
-								if (oldBlock[i].getValue() != newBlock[i].getValue()) {
+								// Only the cached memory is compared
+								if (oldBlock[i] != null && oldBlock[i].getValue() != newBlock[i].getValue()) {
 									blocksDiffer = true;
 									break;
 								}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 Wind River Systems and others.
+ * Copyright (c) 2006, 2026 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.dsf.concurrent.CountingRequestMonitor;
@@ -183,6 +184,16 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 		}
 	}
 
+	/**
+	 * Whether the frames of a thread are re-used after a step: only the top frames are fetched,
+	 * and the deeper frames are taken from the stack before the step if the deepest of the top
+	 * frames are the same.
+	 */
+	private static final boolean DELTA_REFRESH = Boolean
+			.getBoolean("org.eclipse.cdt.dsf.gdb.deltaStackRefresh"); //$NON-NLS-1$
+	// The number of frames fetched after a step, when the deeper frames can be re-used
+	private static final int DELTA_REFRESH_TOP_FRAMES = 8;
+
 	private CommandCache fMICommandCache;
 	private CommandFactory fCommandFactory;
 
@@ -195,6 +206,9 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 		private boolean limited = true;
 		// The actual depth we received
 		private int stackDepth = -1;
+		// Whether all the frames of the stack were listed. This is independent from the limit of the
+		// depth requests: clients ask for a limited depth but still get all the frames listed.
+		private boolean allFramesListed;
 		private final List<FrameData> frames = new ArrayList<>();
 
 		/**
@@ -246,7 +260,15 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 
 		public void updateFrameData(FrameData frame) {
 			try {
-				int level = frame.getMIFrame().getLevel();
+				updateFrameData(frame.getMIFrame().getLevel(), frame);
+			} catch (Exception e) {
+				// cannot afford throwing runtime exceptions
+				GdbPlugin.log(e);
+			}
+		}
+
+		public void updateFrameData(int level, FrameData frame) {
+			try {
 				if (stackDepth < level + 1) {
 					stackDepth = level + 1;
 				}
@@ -272,6 +294,25 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 			}
 			return null;
 		}
+
+		public void setAllFramesListed() {
+			allFramesListed = true;
+		}
+
+		/**
+		 * Return whether the depth and all the frames of the stack are known
+		 */
+		public boolean isComplete() {
+			if ((limited && !allFramesListed) || stackDepth <= 0 || frames.size() < stackDepth) {
+				return false;
+			}
+			for (int i = 0; i < stackDepth; i++) {
+				if (frames.get(i) == null) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 
 	/**
@@ -334,6 +375,11 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 
 	private FramesCache fFramesCache = new FramesCache();
 
+	/**
+	 * The frames of each thread before its last step, by thread id, if all were known.
+	 */
+	private final Map<String, FramesCacheInfo> fPreviousFrames = new HashMap<>();
+
 	private MIStoppedEvent fCachedStoppedEvent;
 	private IRunControl fRunControl;
 
@@ -421,6 +467,22 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 		}
 	}
 
+	private class FrameDataFromPreviousStack extends FrameData {
+		// Only the frame is kept, such that the frames reused over many steps neither refer to each
+		// other nor keep the previous stacks alive.
+		private final MIFrame fFrame;
+
+		FrameDataFromPreviousStack(MIFrame frame) {
+			fFrame = frame;
+		}
+
+		@Override
+		protected MIFrame getMIFrame() {
+			// The level of the MI frame is the one before the step
+			return fFrame;
+		}
+	}
+
 	private class FrameDataFromMIStackFrameListInfo extends FrameData {
 		private MIStackListFramesInfo fFrameDataCacheInfo;
 		private int fFrameIndex;
@@ -667,12 +729,127 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 			}
 		}
 
+		// After a step, try to re-use the deeper frames of the previous stack
+		final FramesCacheInfo previous = fPreviousFrames.get(threadId);
+		if (previous != null) {
+			getFrameDataFromPreviousStack(execDmc, miFrameDmc, previous, rm);
+			return;
+		}
+
+		getFrameDataFromFullList(execDmc, miFrameDmc, rm);
+	}
+
+	/**
+	 * Fetches the top frames of the stack, and if the deepest of them are the same as in the
+	 * previous stack, at the same distance from the bottom of the stack, takes the deeper frames
+	 * from the previous stack.  Otherwise retrieves the full list of frame data.
+	 */
+	private void getFrameDataFromPreviousStack(final IMIExecutionDMContext execDmc, final MIFrameDMC frameDmc,
+			final FramesCacheInfo previous, final DataRequestMonitor<IFrameDMData> rm) {
+		final String threadId = execDmc.getThreadId();
+		getStackDepth(execDmc, -1, new DataRequestMonitor<Integer>(getExecutor(), rm) {
+			@Override
+			protected void handleCompleted() {
+				final int depth = isSuccess() ? getData() : 0;
+				if (depth <= 0) {
+					getFrameDataFromFullList(execDmc, frameDmc, rm);
+					return;
+				}
+
+				fMICommandCache.execute(
+						createMIStackListFrames(execDmc, 0, Math.min(depth, DELTA_REFRESH_TOP_FRAMES) - 1),
+						new DataRequestMonitor<MIStackListFramesInfo>(getExecutor(), rm) {
+							@Override
+							protected void handleCompleted() {
+								if (isSuccess() && updateFromPreviousStack(threadId, getData(), depth, previous)) {
+									FrameData frameData = fFramesCache.getThreadFramesCache(threadId)
+											.getFrameData(frameDmc.fLevel);
+									if (frameData != null) {
+										rm.done(frameData);
+										return;
+									}
+								}
+
+								// The stack changed too much
+								fPreviousFrames.remove(threadId);
+								getFrameDataFromFullList(execDmc, frameDmc, rm);
+							}
+						});
+			}
+		});
+	}
+
+	/**
+	 * Stores the top frames in the cache, followed by the deeper frames of the previous stack.
+	 *
+	 * @return whether the cache now contains all the frames of the stack
+	 */
+	private boolean updateFromPreviousStack(String threadId, MIStackListFramesInfo topFrames, int depth,
+			FramesCacheInfo previous) {
+		FramesCacheInfo info = fFramesCache.update(threadId, topFrames);
+		MIFrame[] frames = topFrames.getMIFrames();
+		if (frames.length < depth) {
+			MIFrame[] previousFrames = new MIFrame[previous.getValidStackDepth()];
+			for (int level = 0; level < previousFrames.length; level++) {
+				FrameData previousFrame = previous.getFrameData(level);
+				previousFrames[level] = previousFrame != null ? previousFrame.getMIFrame() : null;
+			}
+			if (!isSameStackBottom(frames, depth, previousFrames)) {
+				return false;
+			}
+
+			int shift = depth - previousFrames.length;
+			for (int level = frames.length; level < depth; level++) {
+				info.updateFrameData(level, new FrameDataFromPreviousStack(previousFrames[level - shift]));
+			}
+		}
+		info.setAllFramesListed();
+		return true;
+	}
+
+	/**
+	 * Returns whether the frames below the given top frames of a stack are known from the previous stack
+	 * of the thread. The frames are matched by their distance from the bottom of the stack, and the two
+	 * deepest top frames must have the same address and function as the previous frames at the same
+	 * distance. The top frame of the previous stack cannot be compared since its address is not a return
+	 * address.
+	 *
+	 * @param topFrames the frames fetched from the top of the stack
+	 * @param depth the depth of the stack
+	 * @param previousFrames all the frames of the previous stack, with <code>null</code> for unknown frames
+	 */
+	static boolean isSameStackBottom(MIFrame[] topFrames, int depth, MIFrame[] previousFrames) {
+		int shift = depth - previousFrames.length;
+		if (topFrames.length < 2 || topFrames.length - 2 - shift < 1) {
+			return false;
+		}
+		for (int level = topFrames.length - 2; level < topFrames.length; level++) {
+			MIFrame previousFrame = previousFrames[level - shift];
+			if (previousFrame == null || !Objects.equals(topFrames[level].getAddress(), previousFrame.getAddress())
+					|| !Objects.equals(topFrames[level].getFunction(), previousFrame.getFunction())) {
+				return false;
+			}
+		}
+		for (int level = topFrames.length; level < depth; level++) {
+			if (previousFrames[level - shift] == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void getFrameDataFromFullList(final IMIExecutionDMContext execDmc, final MIFrameDMC frameDmc,
+			final DataRequestMonitor<IFrameDMData> rm) {
+		final String threadId = execDmc.getThreadId();
+		final int frameLevel = frameDmc.fLevel;
+
 		// If not, retrieve the full list of frame data.
 		fMICommandCache.execute(createMIStackListFrames(execDmc),
 				new DataRequestMonitor<MIStackListFramesInfo>(getExecutor(), rm) {
 					@Override
 					protected void handleSuccess() {
 						FramesCacheInfo info = fFramesCache.update(threadId, getData());
+						info.setAllFramesListed();
 						FrameData frameData = info.getFrameData(frameLevel);
 						if (frameData == null) {
 							rm.done(new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, INVALID_HANDLE,
@@ -1141,11 +1318,32 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 			fCachedStoppedEvent = null;
 			fMICommandCache.reset();
 			fFramesCache.clear();
+			fPreviousFrames.clear();
+		} else if (DELTA_REFRESH) {
+			savePreviousFrames(e.getDMContext());
 		}
 
 		handleReturnValues(e);
 	}
 
+	/**
+	 * Keeps the frames of the stepping threads, so that they can be re-used after the step.
+	 */
+	private void savePreviousFrames(IDMContext context) {
+		IMIExecutionDMContext execDmc = DMContexts.getAncestorOfType(context, IMIExecutionDMContext.class);
+		if (execDmc != null) {
+			fPreviousFrames.remove(execDmc.getThreadId());
+		} else {
+			// All the threads are resumed
+			fPreviousFrames.clear();
+		}
+		for (Map.Entry<String, FramesCacheInfo> entry : fFramesCache.entrySet()) {
+			if ((execDmc == null || execDmc.getThreadId().equals(entry.getKey())) && entry.getValue().isComplete()) {
+				fPreviousFrames.put(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
 	private void handleReturnValues(IResumedDMEvent e) {
 		// Whenever the execution resumes, we can clear any
 		// return values of previous methods for the resuming
@@ -1252,6 +1450,7 @@ public class MIStack extends AbstractDsfService implements IStack, ICachingServi
 	public void flushCache(IDMContext context) {
 		fMICommandCache.reset(context);
 		fFramesCache.clear(context);
+		fPreviousFrames.clear();
 		fCachedStoppedEvent = null;
 	}
 
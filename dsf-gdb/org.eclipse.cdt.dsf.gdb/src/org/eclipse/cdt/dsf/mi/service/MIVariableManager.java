@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Monta Vista and others.
+ * Copyright (c) 2008, 2026 Monta Vista and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,8 @@ package org.eclipse.cdt.dsf.mi.service;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -59,6 +61,7 @@ import org.eclipse.cdt.dsf.debug.service.command.ICommandToken;
 import org.eclipse.cdt.dsf.debug.service.command.IEventListener;
 import org.eclipse.cdt.dsf.gdb.GDBTypeParser;
 import org.eclipse.cdt.dsf.gdb.GDBTypeParser.GDBType;
+import org.eclipse.cdt.dsf.gdb.internal.GdbDebugOptions;
 import org.eclipse.cdt.dsf.gdb.internal.GdbPlugin;
 import org.eclipse.cdt.dsf.gdb.service.IGDBTraceControl.ITraceRecordSelectedChangedDMEvent;
 import org.eclipse.cdt.dsf.mi.service.MIExpressions.ExpressionInfo;
@@ -159,6 +162,9 @@ import org.eclipse.core.runtime.Status;
  * to get the new value (in the current format) for each modified descendant.  Using the list of modifiable
  * descendants of the root, we can quickly update the changed ones to invalidate their buffered
  * values and store the new current format value.
+ * When the system property org.eclipse.cdt.dsf.gdb.batchVariableUpdates is set, a single
+ * -var-update * updates all the roots at once instead, and its changes are dispatched to their
+ * roots using the gdb-given name of the root that prefixes the name of its descendants.
  *
  * - all values of non-modifiable varObjects (except arrays) will be set to {...}
  * without going to the back-end
@@ -1109,7 +1115,7 @@ public class MIVariableManager implements ICommandControl {
 				rm.setData(fEditable);
 				rm.done();
 			} else {
-				fCommandControl.queueCommand(
+				queueBackendCommand(
 						fCommandFactory.createMIVarShowAttributes(getRootToUpdate().getControlDMContext(),
 								getGdbName()),
 						new DataRequestMonitor<MIVarShowAttributesInfo>(fSession.getExecutor(), rm) {
@@ -1185,7 +1191,7 @@ public class MIVariableManager implements ICommandControl {
 					evaluate(rm);
 				} else {
 					// We must first set the new format and then evaluate the variable
-					fCommandControl.queueCommand(
+					queueBackendCommand(
 							fCommandFactory.createMIVarSetFormat(getRootToUpdate().getControlDMContext(), getGdbName(),
 									dmc.getFormatID()),
 							new DataRequestMonitor<MIVarSetFormatInfo>(fSession.getExecutor(), rm) {
@@ -1222,7 +1228,7 @@ public class MIVariableManager implements ICommandControl {
 		 * This method evaluates a variable object
 		 */
 		private void evaluate(final DataRequestMonitor<FormattedValueDMData> rm) {
-			fCommandControl.queueCommand(
+			queueBackendCommand(
 					fCommandFactory.createMIVarEvaluateExpression(getRootToUpdate().getControlDMContext(),
 							getGdbName()),
 					new DataRequestMonitor<MIVarEvaluateExpressionInfo>(fSession.getExecutor(), rm) {
@@ -1260,7 +1266,7 @@ public class MIVariableManager implements ICommandControl {
 		// var-set-format command.
 		private void resetFormatToNatural() {
 			if (!getCurrentFormat().equals(IFormattedValues.NATURAL_FORMAT)) {
-				fCommandControl.queueCommand(
+				queueBackendCommand(
 						fCommandFactory.createMIVarSetFormat(getRootToUpdate().getControlDMContext(), getGdbName(),
 								IFormattedValues.NATURAL_FORMAT),
 						new DataRequestMonitor<MIVarSetFormatInfo>(fSession.getExecutor(), null) {
@@ -1438,7 +1444,7 @@ public class MIVariableManager implements ICommandControl {
 					: fCommandFactory.createMIVarListChildren(getRootToUpdate().getControlDMContext(), getGdbName(),
 							from, to);
 
-			fCommandControl.queueCommand(varListChildren,
+			queueBackendCommand(varListChildren,
 					new DataRequestMonitor<MIVarListChildrenInfo>(fSession.getExecutor(), rm) {
 						@Override
 						protected void handleSuccess() {
@@ -1467,7 +1473,7 @@ public class MIVariableManager implements ICommandControl {
 										// Make sure the gdb will not hang, if later
 										// the varobj is updated, but the underlying
 										// data is still uninitialized.
-										fCommandControl.queueCommand(fCommandFactory.createMIVarSetUpdateRange(
+										queueBackendCommand(fCommandFactory.createMIVarSetUpdateRange(
 												getRootToUpdate().getControlDMContext(), getGdbName(), 0, updateLimit),
 												new DataRequestMonitor<MIInfo>(fSession.getExecutor(), rm));
 									} else {
@@ -1672,7 +1678,7 @@ public class MIVariableManager implements ICommandControl {
 								} else {
 									// To build the child id, we need the fully qualified expression which we
 									// can get from -var-info-path-expression starting from GDB 6.7
-									fCommandControl.queueCommand(
+									queueBackendCommand(
 											fCommandFactory.createMIVarInfoPathExpression(
 													getRootToUpdate().getControlDMContext(), child.getVarName()),
 											new DataRequestMonitor<MIVarInfoPathExpressionInfo>(fSession.getExecutor(),
@@ -1705,7 +1711,7 @@ public class MIVariableManager implements ICommandControl {
 															// of -var-info-path-expression
 															IExpressionDMContext exprDmcMIData = fExpressionService
 																	.createExpression(exprDmc, expression);
-															fCommandControl.queueCommand(
+															queueBackendCommand(
 																	fCommandFactory.createMIDataEvaluateExpression(
 																			exprDmcMIData),
 																	new DataRequestMonitor<MIDataEvaluateExpressionInfo>(
@@ -2021,7 +2027,7 @@ public class MIVariableManager implements ICommandControl {
 			}
 
 			// No need to be in ready state or to lock the object
-			fCommandControl.queueCommand(
+			queueBackendCommand(
 					fCommandFactory.createMIVarAssign(getRootToUpdate().getControlDMContext(), getGdbName(), value),
 					new DataRequestMonitor<MIVarAssignInfo>(fSession.getExecutor(), rm) {
 						@Override
@@ -2075,7 +2081,7 @@ public class MIVariableManager implements ICommandControl {
 				final MIExpressionDMC miExprCtx = (MIExpressionDMC) exprCtx;
 				final int indexInParent = miExprCtx.getExpressionInfo().getIndexInParentExpression();
 
-				fCommandControl.queueCommand(
+				queueBackendCommand(
 						fCommandFactory.createMIVarListChildren(getParent().getRootToUpdate().getControlDMContext(),
 								getParent().getGdbName(), indexInParent, indexInParent + 1),
 						new DataRequestMonitor<MIVarListChildrenInfo>(fSession.getExecutor(), rm) {
@@ -2094,7 +2100,7 @@ public class MIVariableManager implements ICommandControl {
 									if (fExprInfo.isDynamic() && (fExprInfo
 											.getChildCountLimit() != IMIExpressions.CHILD_COUNT_LIMIT_UNSPECIFIED)) {
 										// Restore the original update range.
-										fCommandControl.queueCommand(
+										queueBackendCommand(
 												fCommandFactory.createMIVarSetUpdateRange(
 														getRootToUpdate().getControlDMContext(), getGdbName(), 0,
 														fExprInfo.getChildCountLimit()),
@@ -2169,6 +2175,13 @@ public class MIVariableManager implements ICommandControl {
 
 		private boolean fOutOfDate = false;
 
+		/**
+		 * The changes reported by an update of all variable objects while this root
+		 * was not ready to process them, or <code>null</code>. They are processed
+		 * with the next update of this root, since GDB does not report them again.
+		 */
+		private List<MIVarChange> fDeferredChanges;
+
 		/**
 		 * A modifiable descendant is any variable object that is a descendant and
 		 * for which the value (leaf variable objects and dynamic variable objects)
@@ -2244,7 +2257,7 @@ public class MIVariableManager implements ICommandControl {
 				currentState = STATE_CREATING;
 				fControlContext = DMContexts.getAncestorOfType(exprCtx, ICommandControlDMContext.class);
 
-				fCommandControl.queueCommand(fCommandFactory.createMIVarCreate(exprCtx, exprCtx.getExpression()),
+				queueBackendCommand(fCommandFactory.createMIVarCreate(exprCtx, exprCtx.getExpression()),
 						new DataRequestMonitor<MIVarCreateInfo>(fSession.getExecutor(), rm) {
 							@Override
 							protected void handleCompleted() {
@@ -2281,7 +2294,7 @@ public class MIVariableManager implements ICommandControl {
 											.getChildCountLimit() != IMIExpressions.CHILD_COUNT_LIMIT_UNSPECIFIED)) {
 
 										// Restore the original update range.
-										fCommandControl.queueCommand(
+										queueBackendCommand(
 												fCommandFactory.createMIVarSetUpdateRange(
 														getRootToUpdate().getControlDMContext(), getGdbName(), 0,
 														localExprInfo.getChildCountLimit()),
@@ -2332,84 +2345,127 @@ public class MIVariableManager implements ICommandControl {
 				// The simplest way to do this is that whenever we change the format
 				// of a variable object, we immediately set it back to natural with a second
 				// var-set-format command.  This is done in the getValue() method
-				fCommandControl.queueCommand(
+				if (fBatchUpdates) {
+					// Update all the variable objects of GDB at once
+					updateAllRoots(this, rm);
+					return;
+				}
+
+				queueBackendCommand(
 						fCommandFactory.createMIVarUpdate(getRootToUpdate().getControlDMContext(), getGdbName()),
 						new DataRequestMonitor<MIVarUpdateInfo>(fSession.getExecutor(), rm) {
 							@Override
 							protected void handleCompleted() {
 								if (isSuccess()) {
-									setOutOfDate(false);
-
 									MIVarChange[] changes = getData().getMIVarChanges();
-									if (changes.length > 0 && !changes[0].isInScope()) {
-										// Object is out-of-scope
-										currentState = STATE_READY;
-
-										outOfScope = true;
-
-										// We can delete this root in GDB right away.  This is safe, even
-										// if the root has children, because they are also out-of-scope.
-										// We -must- also remove this entry from our LRU.  If we don't
-										// we can end-up with a race condition that create this object
-										// twice, or have an infinite loop while never re-creating the object.
-										// The can happen if we update a child first then we request
-										// the root later,
-										lruVariableList.remove(getInternalId());
-
-										rm.setData(true);
-										rm.done();
+									updateCompleted(changes, changes.length > 0 && !changes[0].isInScope(), rm);
+								} else {
+									updateFailed(getStatus(), rm);
+								}
+							}
+						});
+			}
+		}
 
-										while (!updatesPending.isEmpty()) {
-											DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
-											pendingRm.setData(false);
-											pendingRm.done();
-										}
-									} else {
-										// The root object is now up-to-date, we must parse the changes, if any.
-										processChanges(changes, new RequestMonitor(fSession.getExecutor(), rm) {
-											@Override
-											protected void handleCompleted() {
-												currentState = STATE_READY;
-
-												// We only mark this root as updated in our list if it is in-scope.
-												// For out-of-scope object, we don't ever need to re-update them so
-												// we don't need to add them to this list.
-												rootVariableUpdated(MIRootVariableObject.this);
-
-												if (isSuccess()) {
-													rm.setData(false);
-												} else {
-													rm.setStatus(getStatus());
-												}
-												rm.done();
+		/**
+		 * Processes the changes reported by GDB for this root and its descendants.
+		 *
+		 * @param rootOutOfScope Whether GDB reported this root as out-of-scope
+		 */
+		private void updateCompleted(MIVarChange[] changes, boolean rootOutOfScope,
+				final DataRequestMonitor<Boolean> rm) {
+			if (fDeferredChanges != null) {
+				for (MIVarChange change : fDeferredChanges) {
+					if (change.getVarName().equals(getGdbName()) && !change.isInScope()) {
+						rootOutOfScope = true;
+					}
+				}
+				fDeferredChanges.addAll(Arrays.asList(changes));
+				changes = fDeferredChanges.toArray(new MIVarChange[fDeferredChanges.size()]);
+				fDeferredChanges = null;
+			}
+			setOutOfDate(false);
+			fRootUpdateCount++;
 
-												while (!updatesPending.isEmpty()) {
-													DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
-													if (isSuccess()) {
-														pendingRm.setData(false);
-													} else {
-														pendingRm.setStatus(getStatus());
-													}
-													pendingRm.done();
-												}
-											}
-										});
-									}
-								} else {
-									// We were not able to update for some reason
-									currentState = STATE_READY;
+			if (rootOutOfScope) {
+				// Object is out-of-scope
+				currentState = STATE_READY;
 
-									rm.setData(false);
-									rm.done();
+				outOfScope = true;
 
-									while (!updatesPending.isEmpty()) {
-										DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
-										pendingRm.setStatus(getStatus());
-										pendingRm.done();
-									}
-								}
+				// We can delete this root in GDB right away.  This is safe, even
+				// if the root has children, because they are also out-of-scope.
+				// We -must- also remove this entry from our LRU.  If we don't
+				// we can end-up with a race condition that create this object
+				// twice, or have an infinite loop while never re-creating the object.
+				// The can happen if we update a child first then we request
+				// the root later,
+				lruVariableList.remove(getInternalId());
+
+				rm.setData(true);
+				rm.done();
+
+				while (!updatesPending.isEmpty()) {
+					DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
+					pendingRm.setData(false);
+					pendingRm.done();
+				}
+			} else {
+				// The root object is now up-to-date, we must parse the changes, if any.
+				processChanges(changes, new RequestMonitor(fSession.getExecutor(), rm) {
+					@Override
+					protected void handleCompleted() {
+						currentState = STATE_READY;
+
+						// We only mark this root as updated in our list if it is in-scope.
+						// For out-of-scope object, we don't ever need to re-update them so
+						// we don't need to add them to this list.
+						rootVariableUpdated(MIRootVariableObject.this);
+
+						if (isSuccess()) {
+							rm.setData(false);
+						} else {
+							rm.setStatus(getStatus());
+						}
+						rm.done();
+
+						while (!updatesPending.isEmpty()) {
+							DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
+							if (isSuccess()) {
+								pendingRm.setData(false);
+							} else {
+								pendingRm.setStatus(getStatus());
 							}
-						});
+							pendingRm.done();
+						}
+					}
+				});
+			}
+		}
+
+		/**
+		 * Keeps changes reported while this root is being created or updated for its
+		 * next update.
+		 */
+		private void deferChanges(List<MIVarChange> changes) {
+			if (fDeferredChanges == null) {
+				fDeferredChanges = new ArrayList<>();
+			}
+			fDeferredChanges.addAll(changes);
+			setOutOfDate(true);
+		}
+
+		private void updateFailed(IStatus status, DataRequestMonitor<Boolean> rm) {
+			// We were not able to update for some reason
+			currentState = STATE_READY;
+
+			rm.setData(false);
+			rm.done();
+
+			while (!updatesPending.isEmpty()) {
+				DataRequestMonitor<Boolean> pendingRm = updatesPending.poll();
+				pendingRm.setStatus(status);
+				pendingRm.done();
 			}
 		}
 
@@ -2423,7 +2479,7 @@ public class MIVariableManager implements ICommandControl {
 		@Override
 		public void deleteInGdb() {
 			if (getGdbName() != null) {
-				fCommandControl.queueCommand(
+				queueBackendCommand(
 						fCommandFactory.createMIVarDelete(getRootToUpdate().getControlDMContext(), getGdbName()),
 						new DataRequestMonitor<MIVarDeleteInfo>(fSession.getExecutor(), null));
 				// Nothing to do in the requestMonitor, since the object was already
@@ -2642,6 +2698,32 @@ public class MIVariableManager implements ICommandControl {
 	/** The list of root variable objects that have been updated */
 	private final LinkedList<MIRootVariableObject> updatedRootList = new LinkedList<>();
 
+	/**
+	 * Whether the roots are updated all at once with <code>-var-update *</code>, instead of
+	 * one <code>-var-update</code> per root. This reduces the number of commands when stepping
+	 * with many variables displayed, but GDB updates all the variable objects it has, even
+	 * those no longer displayed.
+	 */
+	private final boolean fBatchUpdates = Boolean
+			.getBoolean("org.eclipse.cdt.dsf.gdb.batchVariableUpdates"); //$NON-NLS-1$
+
+	/**
+	 * The roots waiting for the update of all variable objects in progress,
+	 * or <code>null</code> if there is no such update.
+	 */
+	private Map<MIRootVariableObject, DataRequestMonitor<Boolean>> fBatchUpdateRequests;
+
+	private final IRunControl fRunControl;
+
+	/**
+	 * The number of commands sent to GDB and of roots updated since the last resumed event.
+	 * Only the commands sent through {@link #queueBackendCommand} are counted, not those
+	 * other services send for expressions. The numbers are only written to the trace output
+	 * when the GDB debug tracing option is on.
+	 */
+	private int fCommandCount;
+	private int fRootUpdateCount;
+
 	/**
 	 * MIVariableManager constructor
 	 *
@@ -2655,6 +2737,7 @@ public class MIVariableManager implements ICommandControl {
 		lruVariableList = new LRUVariableCache();
 		fCommandControl = tracker.getService(ICommandControl.class);
 		fStackService = tracker.getService(IStack.class);
+		fRunControl = tracker.getService(IRunControl.class);
 		fExpressionService = tracker.getService(IExpressions.class);
 		fCommandFactory = tracker.getService(IMICommandControl.class).getCommandFactory();
 
@@ -3078,7 +3161,7 @@ public class MIVariableManager implements ICommandControl {
 
 		} else if (command instanceof MIDataEvaluateExpression<?>) {
 			// This does not use the variable objects but sends the command directly to the back-end
-			fCommandControl.queueCommand(command, rm);
+			queueBackendCommand(command, rm);
 		} else {
 			rm.setStatus(new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, IDsfStatusConstants.INTERNAL_ERROR,
 					"Unexpected Expression Meta command", null)); //$NON-NLS-1$
@@ -3142,6 +3225,98 @@ public class MIVariableManager implements ICommandControl {
 		}
 	}
 
+	/**
+	 * Sends a command to GDB, counting it for the statistics of the current suspension.
+	 * These statistics are only traced, see {@link #fCommandCount}.
+	 */
+	private <V extends ICommandResult> ICommandToken queueBackendCommand(ICommand<V> command,
+			DataRequestMonitor<V> rm) {
+		fCommandCount++;
+		return fCommandControl.queueCommand(command, rm);
+	}
+
+	/**
+	 * Updates all the variable objects of GDB with a single <code>-var-update *</code>
+	 * and dispatches the changes to their roots.
+	 */
+	private void updateAllRoots(MIRootVariableObject root, DataRequestMonitor<Boolean> rm) {
+		if (fBatchUpdateRequests != null) {
+			// The update in progress will update this root as well
+			fBatchUpdateRequests.put(root, rm);
+			return;
+		}
+
+		fBatchUpdateRequests = new LinkedHashMap<>();
+		fBatchUpdateRequests.put(root, rm);
+		queueBackendCommand(fCommandFactory.createMIVarUpdate(root.getControlDMContext(), "*"), //$NON-NLS-1$
+				new DataRequestMonitor<MIVarUpdateInfo>(fSession.getExecutor(), null) {
+					@Override
+					protected void handleCompleted() {
+						Map<MIRootVariableObject, DataRequestMonitor<Boolean>> requests = fBatchUpdateRequests;
+						fBatchUpdateRequests = null;
+
+						if (!isSuccess()) {
+							for (Map.Entry<MIRootVariableObject, DataRequestMonitor<Boolean>> entry : requests
+									.entrySet()) {
+								entry.getKey().updateFailed(getStatus(), entry.getValue());
+							}
+							return;
+						}
+
+						// The name of a child variable object starts with the name of its root
+						Map<String, List<MIVarChange>> changesByRoot = new HashMap<>();
+						for (MIVarChange change : getData().getMIVarChanges()) {
+							String name = change.getVarName();
+							int dot = name.indexOf('.');
+							changesByRoot.computeIfAbsent(dot < 0 ? name : name.substring(0, dot),
+									key -> new ArrayList<>()).add(change);
+						}
+
+						// GDB updated the roots of all suspended threads, those that did not ask
+						// must process their changes now, GDB will not report them again.
+						for (MIVariableObject varObj : new ArrayList<>(lruVariableList.values())) {
+							if (varObj instanceof MIRootVariableObject && !requests.containsKey(varObj)) {
+								MIRootVariableObject otherRoot = (MIRootVariableObject) varObj;
+								if (otherRoot.getGdbName() == null || otherRoot.isOutOfScope()) {
+									continue;
+								}
+								List<MIVarChange> otherChanges = changesByRoot.get(otherRoot.getGdbName());
+								if (otherRoot.currentState != MIVariableObject.STATE_READY) {
+									// The root is being created or updated, it processes the
+									// changes with its next update.
+									if (otherChanges != null) {
+										otherRoot.deferChanges(otherChanges);
+									}
+								} else if (otherChanges != null || otherRoot.getOutOfDate() && isSuspended(otherRoot)) {
+									otherRoot.currentState = MIVariableObject.STATE_UPDATING;
+									requests.put(otherRoot,
+											new DataRequestMonitor<Boolean>(fSession.getExecutor(), null));
+								}
+							}
+						}
+
+						for (Map.Entry<MIRootVariableObject, DataRequestMonitor<Boolean>> entry : requests.entrySet()) {
+							MIRootVariableObject updatedRoot = entry.getKey();
+							List<MIVarChange> changes = changesByRoot.getOrDefault(updatedRoot.getGdbName(),
+									Collections.emptyList());
+							boolean outOfScope = false;
+							for (MIVarChange change : changes) {
+								if (change.getVarName().equals(updatedRoot.getGdbName()) && !change.isInScope()) {
+									outOfScope = true;
+								}
+							}
+							updatedRoot.updateCompleted(changes.toArray(new MIVarChange[changes.size()]), outOfScope,
+									entry.getValue());
+						}
+					}
+				});
+	}
+
+	private boolean isSuspended(MIRootVariableObject root) {
+		IExecutionDMContext execCtx = root.getInternalId().fExecContext;
+		return execCtx == null || fRunControl == null || fRunControl.isSuspended(execCtx);
+	}
+
 	/**
 	 * @since 1.1
 	 */
@@ -3154,6 +3329,14 @@ public class MIVariableManager implements ICommandControl {
 
 	@DsfServiceEventHandler
 	public void eventDispatched(IRunControl.IResumedDMEvent e) {
+		if (GdbDebugOptions.DEBUG && fCommandCount > 0) {
+			GdbDebugOptions.trace(String.format(
+					"%s Variable objects: %d MI commands, %d roots updated while suspended", //$NON-NLS-1$
+					GdbPlugin.getDebugTime(), Integer.valueOf(fCommandCount), Integer.valueOf(fRootUpdateCount)));
+		}
+		fCommandCount = 0;
+		fRootUpdateCount = 0;
+
 		// Program has resumed, all variable objects need to be updated.
 		// Since only roots can actually be updated in GDB, we only need
 		// to deal with those.  Also, to optimize this operation, we have
@@ -3164,6 +3347,8 @@ public class MIVariableManager implements ICommandControl {
 
 	@DsfServiceEventHandler
 	public void eventDispatched(IRunControl.ISuspendedDMEvent e) {
+		fCommandCount = 0;
+		fRootUpdateCount = 0;
 	}
 
 	@DsfServiceEventHandler
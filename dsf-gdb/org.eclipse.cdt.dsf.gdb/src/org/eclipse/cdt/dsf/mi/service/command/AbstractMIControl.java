@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 Wind River Systems and others.
+ * Copyright (c) 2006, 2026 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -100,6 +100,31 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 	private static final int NUMBER_CONCURRENT_COMMANDS = 3;
 	private static final int DEVELOPMENT_TRACE_LIMIT_CHARS = 5000;
 
+	/**
+	 * System property with the maximum number of commands on the wire to the backend, defaults to
+	 * {@link #DEFAULT_MAX_CONCURRENT_COMMANDS}. Starting from {@link #NUMBER_CONCURRENT_COMMANDS},
+	 * the number of commands sent without waiting for their results grows up to that maximum while
+	 * the round trips are dominated by the latency of the connection, e.g. with a remote gdbserver.
+	 * A value of {@link #NUMBER_CONCURRENT_COMMANDS} or less turns the adaptation off.
+	 */
+	private static final String MAX_CONCURRENT_COMMANDS_PROPERTY = "org.eclipse.cdt.dsf.gdb.maxConcurrentCommands"; //$NON-NLS-1$
+	private static final int DEFAULT_MAX_CONCURRENT_COMMANDS = 8;
+	/**
+	 * System property to disable the coalescing of identical queries waiting to be sent.
+	 */
+	private static final String COALESCE_COMMANDS_PROPERTY = "org.eclipse.cdt.dsf.gdb.coalesceCommands"; //$NON-NLS-1$
+	/**
+	 * The operations without side effects, an identical command that is still queued can answer
+	 * them. Commands like -var-update or -data-evaluate-expression must not be coalesced, because
+	 * their result depends on how many times they are run.
+	 */
+	private static final Set<String> COALESCABLE_OPERATIONS = Set.of("-stack-info-depth", "-stack-info-frame", //$NON-NLS-1$ //$NON-NLS-2$
+			"-stack-list-frames", "-stack-list-arguments", "-stack-list-locals", "-data-list-register-names", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"-data-list-register-values", "-data-read-memory", "-data-read-memory-bytes", "-data-disassemble", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"-thread-info", "-thread-list-ids", "-list-thread-groups", "-var-info-path-expression", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"-var-show-attributes", "-var-info-num-children", "-var-info-type", "-var-evaluate-expression", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"-break-list", "-list-features"); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/*
 	 *  Thread control variables for the transmit and receive threads.
 	 */
@@ -107,7 +132,8 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 	private TxThread fTxThread;
 	private RxThread fRxThread;
 	private ErrorThread fErrorThread;
-	private final int fNumberOfConcurrentCommands;
+	private final CommandWindow fCommandWindow;
+	private final boolean fCoalesceCommands;
 
 	// MI did not always support the --thread/--frame options
 	// This boolean is used to know if we should use -thread-select and -stack-select-frame instead
@@ -199,10 +225,14 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		fCommandFactory = factory;
 
 		if (isConcurrentCommandsSupported()) {
-			fNumberOfConcurrentCommands = NUMBER_CONCURRENT_COMMANDS;
+			int maxConcurrentCommands = Math.max(1,
+					Integer.getInteger(MAX_CONCURRENT_COMMANDS_PROPERTY, DEFAULT_MAX_CONCURRENT_COMMANDS));
+			fCommandWindow = new CommandWindow(Math.min(NUMBER_CONCURRENT_COMMANDS, maxConcurrentCommands),
+					maxConcurrentCommands);
 		} else {
-			fNumberOfConcurrentCommands = 1;
+			fCommandWindow = new CommandWindow(1, 1);
 		}
+		fCoalesceCommands = Boolean.parseBoolean(System.getProperty(COALESCE_COMMANDS_PROPERTY, "true")); //$NON-NLS-1$
 	}
 
 	/**
@@ -312,10 +342,7 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		 *  First go through the commands which have been queueud and not yet sent to the backend.
 		 */
 		for (CommandHandle commandHandle : fCommandQueue) {
-			if (commandHandle.getRequestMonitor() == null)
-				continue;
-			commandHandle.getRequestMonitor().setStatus(genStatus("Connection is shut down")); //$NON-NLS-1$
-			commandHandle.getRequestMonitor().done();
+			abortCommand(commandHandle);
 		}
 		fCommandQueue.clear();
 
@@ -330,10 +357,7 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		List<CommandHandle> txCommands = new ArrayList<>();
 		fTxCommands.drainTo(txCommands);
 		for (CommandHandle commandHandle : txCommands) {
-			if (commandHandle.getRequestMonitor() == null)
-				continue;
-			commandHandle.getRequestMonitor().setStatus(genStatus("Connection is shut down")); //$NON-NLS-1$
-			commandHandle.getRequestMonitor().done();
+			abortCommand(commandHandle);
 		}
 
 		// Queue a null value to tell the send thread to shut down.
@@ -347,10 +371,16 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 			fRxCommands.clear();
 		}
 		for (CommandHandle commandHandle : rxCommandsCopy.values()) {
-			if (commandHandle.getRequestMonitor() == null)
+			abortCommand(commandHandle);
+		}
+	}
+
+	private void abortCommand(CommandHandle commandHandle) {
+		for (CommandHandle handle : commandHandle.getHandles()) {
+			if (handle.getRequestMonitor() == null)
 				continue;
-			commandHandle.getRequestMonitor().setStatus(genStatus("Connection is shut down")); //$NON-NLS-1$
-			commandHandle.getRequestMonitor().done();
+			handle.getRequestMonitor().setStatus(genStatus("Connection is shut down")); //$NON-NLS-1$
+			handle.getRequestMonitor().done();
 		}
 	}
 
@@ -385,8 +415,18 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 			rm.setStatus(genStatus("Connection is shut down")); //$NON-NLS-1$
 			rm.done();
 		} else {
+			CommandHandle queuedHandle = findCoalescableCommand(miCommand);
+			if (queuedHandle != null) {
+				/*
+				 *  An identical query is waiting to be sent, its result will answer this one as well.
+				 */
+				queuedHandle.addCoalescedHandle(handle);
+				processCommandQueued(handle);
+				return handle;
+			}
+
 			/*
-			 *  We only allow three outstanding commands to be on the wire to the backend
+			 *  We only allow a few outstanding commands to be on the wire to the backend
 			 *  at any one time. This allows for coalescing as well as canceling
 			 *  existing commands on a state change. So we add it to the waiting list and let
 			 *  the user know they can now work with this item if need be.
@@ -407,11 +447,32 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		return handle;
 	}
 
+	private CommandHandle findCoalescableCommand(MICommand<MIInfo> command) {
+		if (!fCoalesceCommands || command instanceof RawCommand
+				|| !COALESCABLE_OPERATIONS.contains(command.getOperation())) {
+			return null;
+		}
+		// Only the queries after the last command with side effects see the same state of the backend
+		for (int i = fCommandQueue.size() - 1; i >= 0; i--) {
+			final MICommand<MIInfo> queued = fCommandQueue.get(i).getCommand();
+			if (command.equals(queued)) {
+				return fCommandQueue.get(i);
+			}
+			if (queued instanceof RawCommand || !COALESCABLE_OPERATIONS.contains(queued.getOperation())) {
+				return null;
+			}
+		}
+		return null;
+	}
+
 	private void processNextQueuedCommand() {
-		if (!fCommandQueue.isEmpty() && fRxCommands.size() < fNumberOfConcurrentCommands) {
+		// The commands handed to the TX thread are on the wire as well
+		while (!fCommandQueue.isEmpty() && fRxCommands.size() + fTxCommands.size() < fCommandWindow.getSize()) {
 			final CommandHandle handle = fCommandQueue.remove(0);
 			if (handle != null) {
-				processCommandSent(handle);
+				for (CommandHandle sentHandle : handle.getHandles()) {
+					processCommandSent(sentHandle);
+				}
 
 				// Older debuggers didn't support the --thread/--frame options
 				// Also, not all commands support those options (e.g., CLI commands)
@@ -477,11 +538,24 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 
 		synchronized (fCommandQueue) {
 
-			for (CommandHandle handle : fCommandQueue) {
+			for (int i = 0; i < fCommandQueue.size(); i++) {
+				CommandHandle handle = fCommandQueue.get(i);
+				CommandHandle removedHandle = null;
 				if (handle.equals(token)) {
-					fCommandQueue.remove(handle);
+					removedHandle = handle;
+					// The commands coalesced with the removed one must still be sent
+					CommandHandle nextHandle = handle.removeCoalescedHandles();
+					if (nextHandle != null) {
+						fCommandQueue.set(i, nextHandle);
+					} else {
+						fCommandQueue.remove(i);
+					}
+				} else if (handle.removeCoalescedHandle(token)) {
+					removedHandle = (CommandHandle) token;
+				}
 
-					final CommandHandle finalHandle = handle;
+				if (removedHandle != null) {
+					final CommandHandle finalHandle = removedHandle;
 					getExecutor().execute(new DsfRunnable() {
 						@Override
 						public void run() {
@@ -651,11 +725,64 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 	 *  individual request.
 	 */
 
+	/**
+	 * The number of commands allowed on the wire to the backend, adapted to the round trip times of
+	 * the commands. As long as the round trips take about as long as the fastest one, they are
+	 * dominated by the latency of the connection and more commands are sent without waiting for the
+	 * results. When the round trips get much longer, the backend is queuing the commands itself and
+	 * fewer are sent, so that queued commands can still be coalesced or removed.
+	 */
+	static class CommandWindow {
+		private final int fMinSize;
+		private final int fMaxSize;
+		private int fSize;
+		// Round trip times, in nanoseconds
+		private long fMinRoundTrip = Long.MAX_VALUE;
+		private long fAverageRoundTrip = -1;
+
+		/**
+		 * @param minSize the initial size of the window, it never gets smaller
+		 * @param maxSize the maximum size of the window, no adaptation takes place if it is not larger
+		 *        than minSize
+		 */
+		CommandWindow(int minSize, int maxSize) {
+			fMinSize = minSize;
+			fMaxSize = maxSize;
+			fSize = minSize;
+		}
+
+		int getSize() {
+			return fSize;
+		}
+
+		/**
+		 * Adapts the size of the window to the round trip time of the last command.
+		 * @param roundTrip the time between writing the command and reading its result, in nanoseconds
+		 * @param commandsWaiting whether commands are waiting to be sent
+		 */
+		void update(long roundTrip, boolean commandsWaiting) {
+			fMinRoundTrip = Math.min(fMinRoundTrip, roundTrip);
+			fAverageRoundTrip = fAverageRoundTrip < 0 ? roundTrip
+					: fAverageRoundTrip + (roundTrip - fAverageRoundTrip) / 8;
+			if (fAverageRoundTrip > 4 * fMinRoundTrip) {
+				if (fSize > fMinSize) {
+					fSize--;
+				}
+			} else if (fAverageRoundTrip < 2 * fMinRoundTrip && commandsWaiting && fSize < fMaxSize) {
+				fSize++;
+			}
+		}
+	}
+
 	private class CommandHandle implements ICommandToken {
 
 		private MICommand<MIInfo> fCommand;
 		private DataRequestMonitor<MIInfo> fRequestMonitor;
 		private int fTokenId;
+		// Identical commands queued after this one, answered by the result of this one
+		private List<CommandHandle> fCoalescedHandles;
+		// Time at which the TX thread wrote the command
+		private volatile long fSentTime;
 
 		CommandHandle(MICommand<MIInfo> c, DataRequestMonitor<MIInfo> d) {
 			fCommand = c;
@@ -663,6 +790,47 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 			fTokenId = -1; // Only initialize to a real value when needed
 		}
 
+		void addCoalescedHandle(CommandHandle handle) {
+			if (fCoalescedHandles == null) {
+				fCoalescedHandles = new ArrayList<>();
+			}
+			fCoalescedHandles.add(handle);
+		}
+
+		boolean removeCoalescedHandle(ICommandToken token) {
+			return fCoalescedHandles != null && fCoalescedHandles.remove(token);
+		}
+
+		/**
+		 * Removes the commands coalesced with this one.
+		 * @return the first of these commands, with the others coalesced with it,
+		 *         or <code>null</code> if there were none
+		 */
+		CommandHandle removeCoalescedHandles() {
+			if (fCoalescedHandles == null || fCoalescedHandles.isEmpty()) {
+				return null;
+			}
+			CommandHandle first = fCoalescedHandles.remove(0);
+			for (CommandHandle handle : fCoalescedHandles) {
+				first.addCoalescedHandle(handle);
+			}
+			fCoalescedHandles = null;
+			return first;
+		}
+
+		/**
+		 * @return this handle followed by the handles of the commands coalesced with it
+		 */
+		List<CommandHandle> getHandles() {
+			if (fCoalescedHandles == null) {
+				return Collections.singletonList(this);
+			}
+			List<CommandHandle> handles = new ArrayList<>(fCoalescedHandles.size() + 1);
+			handles.add(this);
+			handles.addAll(fCoalescedHandles);
+			return handles;
+		}
+
 		@Override
 		public MICommand<MIInfo> getCommand() {
 			return fCommand;
@@ -786,6 +954,7 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 						}
 						writeToTracingStream(true, str);
 
+						commandHandle.fSentTime = System.nanoTime();
 						fOutputStream.write(str.getBytes());
 						fOutputStream.flush();
 					}
@@ -985,6 +1154,8 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		void processMIOutput(String line) {
 
 			MIParser.RecordType recordType = fMiParser.getRecordType(line);
+			// Round trip time of the command answered by this line, if any
+			long roundTrip = -1;
 
 			if (recordType == MIParser.RecordType.ResultRecord) {
 				final MIResultRecord rr = fMiParser.parseMIResultRecord(line);
@@ -998,79 +1169,77 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 				final CommandHandle commandHandle = fRxCommands.remove(id);
 
 				if (commandHandle != null) {
+					if (commandHandle.fSentTime != 0) {
+						roundTrip = System.nanoTime() - commandHandle.fSentTime;
+					}
 					final MIOutput response = new MIOutput(rr,
 							fAccumulatedOOBRecords.toArray(new MIOOBRecord[fAccumulatedOOBRecords.size()]));
 					fAccumulatedOOBRecords.clear();
 					fAccumulatedStreamRecords.clear();
 
-					MIInfo result = commandHandle.getCommand().getResult(response);
-					DataRequestMonitor<MIInfo> rm = commandHandle.getRequestMonitor();
-
 					/*
-					 *  Not all users want to get there results. They indicate so by not having
-					 *  a completion object.
+					 *  The commands coalesced with this one get the same answer.
 					 */
-					if (rm != null) {
-						rm.setData(result);
+					final List<CommandHandle> handles = commandHandle.getHandles();
+					final List<ICommandResult> results = new ArrayList<>(handles.size());
+					for (CommandHandle handle : handles) {
+						MIInfo result = handle.getCommand().getResult(response);
+						results.add(result);
+						DataRequestMonitor<MIInfo> rm = handle.getRequestMonitor();
 
 						/*
-						 * We need to indicate if this request had an error or not.
+						 *  Not all users want to get there results. They indicate so by not having
+						 *  a completion object.
 						 */
-						String errorResult = rr.getResultClass();
-
-						if (errorResult.equals(MIResultRecord.ERROR)) {
-							String status = getStatusString(commandHandle.getCommand(), response);
-							String message = getBackendMessage(response);
-							Exception exception = new Exception(message);
-							rm.setStatus(
-									new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, REQUEST_FAILED, status, exception));
+						if (rm != null) {
+							rm.setData(result);
+
+							/*
+							 * We need to indicate if this request had an error or not.
+							 */
+							String errorResult = rr.getResultClass();
+
+							if (errorResult.equals(MIResultRecord.ERROR)) {
+								String status = getStatusString(handle.getCommand(), response);
+								String message = getBackendMessage(response);
+								Exception exception = new Exception(message);
+								rm.setStatus(new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, REQUEST_FAILED, status,
+										exception));
+							}
 						}
+					}
+
+					/*
+					 *  We need to complete the command on the DSF thread for data security.
+					 */
+					getExecutor().execute(new DsfRunnable() {
+						@Override
+						public void run() {
+							for (int i = 0; i < handles.size(); i++) {
+								CommandHandle handle = handles.get(i);
 
-						/*
-						 *  We need to complete the command on the DSF thread for data security.
-						 */
-						final ICommandResult finalResult = result;
-						getExecutor().execute(new DsfRunnable() {
-							@Override
-							public void run() {
 								/*
-								 *  Complete the specific command.
+								 *  Complete the specific command. While the specific requestor may not
+								 *  care about the completion  we need to call any listeners. This could
+								 *  have been a CLI command for example and  the CommandDone listeners
+								 *  there handle the IO as part of the work.
 								 */
-								if (commandHandle.getRequestMonitor() != null) {
-									commandHandle.getRequestMonitor().done();
+								if (handle.getRequestMonitor() != null) {
+									handle.getRequestMonitor().done();
 								}
 
 								/*
 								 *  Now tell the generic listeners about it.
 								 */
-								processCommandDone(commandHandle, finalResult);
-							}
-
-							@Override
-							public String toString() {
-								return "MI command output received for: " + commandHandle.getCommand(); //$NON-NLS-1$
-							}
-						});
-					} else {
-						/*
-						 *  While the specific requestor did not care about the completion  we
-						 *  need to call any listeners. This could have been a CLI command for
-						 *  example and  the CommandDone listeners there handle the IO as part
-						 *  of the work.
-						 */
-						final ICommandResult finalResult = result;
-						getExecutor().execute(new DsfRunnable() {
-							@Override
-							public void run() {
-								processCommandDone(commandHandle, finalResult);
+								processCommandDone(handle, results.get(i));
 							}
+						}
 
-							@Override
-							public String toString() {
-								return "MI command output received for: " + commandHandle.getCommand(); //$NON-NLS-1$
-							}
-						});
-					}
+						@Override
+						public String toString() {
+							return "MI command output received for: " + commandHandle.getCommand(); //$NON-NLS-1$
+						}
+					});
 				} else {
 					/*
 					 *  GDB apparently can sometimes send multiple responses to the same command.  In those cases,
@@ -1139,9 +1308,13 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 				});
 			}
 
+			final long finalRoundTrip = roundTrip;
 			getExecutor().execute(new DsfRunnable() {
 				@Override
 				public void run() {
+					if (finalRoundTrip >= 0) {
+						fCommandWindow.update(finalRoundTrip, !fCommandQueue.isEmpty());
+					}
 					processNextQueuedCommand();
 				}
 			});
@@ -1244,18 +1417,21 @@ public abstract class AbstractMIControl extends AbstractDsfService implements IM
 		resultRecord.setMIResults(new MIResult[] { result });
 		MIOutput miOutput = new MIOutput(resultRecord, new MIOOBRecord[0]);
 
-		final MIInfo info = commandHandle.getCommand().getResult(miOutput);
-		DataRequestMonitor<MIInfo> rm = commandHandle.getRequestMonitor();
+		// The commands coalesced with this one fail as well
+		for (CommandHandle handle : commandHandle.getHandles()) {
+			final MIInfo info = handle.getCommand().getResult(miOutput);
+			DataRequestMonitor<MIInfo> rm = handle.getRequestMonitor();
 
-		if (rm != null) {
-			rm.setData(info);
-			rm.setStatus(new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, statusCode, errorMessage, null));
-			rm.done();
+			if (rm != null) {
+				rm.setData(info);
+				rm.setStatus(new Status(IStatus.ERROR, GdbPlugin.PLUGIN_ID, statusCode, errorMessage, null));
+				rm.done();
 
-			/*
-			 *  Now tell the generic listeners about it.
-			 */
-			processCommandDone(commandHandle, info);
+				/*
+				 *  Now tell the generic listeners about it.
+				 */
+				processCommandDone(handle, info);
+			}
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 QNX Software Systems and others.
+ * Copyright (c) 2000, 2026 QNX Software Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -99,6 +99,10 @@ public class MIParser {
 		ResultRecord, OOBRecord, PrimaryPrompt
 	}
 
+	private static final int NAME_CACHE_SIZE = 256;
+	private static final int MAX_CACHED_NAME_LENGTH = 32;
+	private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
 	public String primaryPrompt = "(gdb)"; //$NON-NLS-1$
 	public String cliPrompt = primaryPrompt;
 	public String secondaryPrompt = ">"; //$NON-NLS-1$
@@ -122,43 +126,56 @@ public class MIParser {
 		}
 	}
 
+	/**
+	 * The line being parsed and the position of the next character to parse. The records are
+	 * parsed in a single pass over the line, without copying it.
+	 */
+	private String fLine;
+	private int fPos;
+	private int fEnd;
+
+	/** Reused to translate the C strings that contain escape sequences. */
+	private final StringBuilder fCStringBuilder = new StringBuilder();
+
+	/**
+	 * Cache of the variable names, the same few names are repeated for each element of large
+	 * results, e.g. the frames of a stack or the children of a variable object.
+	 */
+	private final String[] fNames = new String[NAME_CACHE_SIZE];
+
 	/**
 	 *
 	 */
 	public MIResultRecord parseMIResultRecord(String line) {
-		StringBuffer buffer = new StringBuffer(line);
+		reset(line);
 		// Fetch the Token/Id
-		int id = parseToken(buffer);
+		int id = parseToken();
 		// Consume the '^'
-		buffer.deleteCharAt(0);
+		fPos++;
 
 		MIResultRecord rr = new MIResultRecord();
 		rr.setToken(id);
-		if (buffer.toString().startsWith(MIResultRecord.DONE)) {
+		if (consume(MIResultRecord.DONE)) {
 			rr.setResultClass(MIResultRecord.DONE);
-			buffer.delete(0, MIResultRecord.DONE.length());
-		} else if (buffer.toString().startsWith(MIResultRecord.ERROR)) {
+		} else if (consume(MIResultRecord.ERROR)) {
 			rr.setResultClass(MIResultRecord.ERROR);
-			buffer.delete(0, MIResultRecord.ERROR.length());
-		} else if (buffer.toString().startsWith(MIResultRecord.EXIT)) {
+		} else if (consume(MIResultRecord.EXIT)) {
 			rr.setResultClass(MIResultRecord.EXIT);
-			buffer.delete(0, MIResultRecord.EXIT.length());
-		} else if (buffer.toString().startsWith(MIResultRecord.RUNNING)) {
+		} else if (consume(MIResultRecord.RUNNING)) {
 			rr.setResultClass(MIResultRecord.RUNNING);
-			buffer.delete(0, MIResultRecord.RUNNING.length());
-		} else if (buffer.toString().startsWith(MIResultRecord.CONNECTED)) {
+		} else if (consume(MIResultRecord.CONNECTED)) {
 			rr.setResultClass(MIResultRecord.CONNECTED);
-			buffer.delete(0, MIResultRecord.CONNECTED.length());
 		} else {
 			// Error throw an exception?
 		}
 
 		// Results are separated by commas.
-		if (buffer.length() > 0 && buffer.charAt(0) == ',') {
-			buffer.deleteCharAt(0);
-			MIResult[] res = processMIResults(new FSB(buffer));
+		if (peek() == ',') {
+			fPos++;
+			MIResult[] res = processMIResults();
 			rr.setMIResults(res);
 		}
+		reset(null);
 		return rr;
 	}
 
@@ -166,13 +183,13 @@ public class MIParser {
 	 * Find OutOfBand Records depending on the starting token.
 	 */
 	public MIOOBRecord parseMIOOBRecord(String line) {
-		StringBuffer buffer = new StringBuffer(line);
-		int id = parseToken(buffer);
+		reset(line);
+		int id = parseToken();
 		MIOOBRecord oob = null;
-		char c = buffer.length() != 0 ? buffer.charAt(0) : 0;
+		char c = peek();
 		if (c == '*' || c == '+' || c == '=') {
 			// Consume the first char
-			buffer.deleteCharAt(0);
+			fPos++;
 			MIAsyncRecord async = null;
 			switch (c) {
 			case '*':
@@ -192,22 +209,21 @@ public class MIParser {
 			}
 			async.setToken(id);
 			// Extract the Async-Class
-			int i = buffer.toString().indexOf(',');
+			int i = line.indexOf(',', fPos);
 			if (i != -1) {
-				String asyncClass = buffer.substring(0, i);
-				async.setAsyncClass(asyncClass);
+				async.setAsyncClass(name(fPos, i));
 				// Consume the async-class and the comma
-				buffer.delete(0, i + 1);
+				fPos = i + 1;
 			} else {
-				async.setAsyncClass(buffer.toString().trim());
-				buffer.setLength(0);
+				async.setAsyncClass(line.substring(fPos).trim());
+				fPos = fEnd;
 			}
-			MIResult[] res = processMIResults(new FSB(buffer));
+			MIResult[] res = processMIResults();
 			async.setMIResults(res);
 			oob = async;
 		} else if (c == '~' || c == '@' || c == '&') {
 			// Consume the first char
-			buffer.deleteCharAt(0);
+			fPos++;
 			MIStreamRecord stream = null;
 			switch (c) {
 			case '~':
@@ -225,13 +241,13 @@ public class MIParser {
 				assert false;
 				stream = new MIConsoleStreamOutput();
 			}
-			// translateCString() assumes that the leading " is deleted
-			if (buffer.length() > 0 && buffer.charAt(0) == '"') {
-				buffer.deleteCharAt(0);
+			// translateCString() assumes that the leading " is consumed
+			if (peek() == '"') {
+				fPos++;
 			}
 			// Don't parse any backslashes - backslashes within stream records
 			// aren't escaped.
-			stream.setCString(translateCString(new FSB(buffer), false));
+			stream.setCString(translateCString(false));
 			oob = stream;
 		} else {
 			// Badly format MI line, just pass it to the user as target stream
@@ -239,71 +255,107 @@ public class MIParser {
 			stream.setCString(line + "\n"); //$NON-NLS-1$
 			oob = stream;
 		}
+		reset(null);
 		return oob;
 	}
 
-	private int parseToken(StringBuffer buffer) {
+	private void reset(String line) {
+		fLine = line;
+		fPos = 0;
+		fEnd = line != null ? line.length() : 0;
+	}
+
+	/**
+	 * Returns the next character or 0 at the end of the line.
+	 */
+	private char peek() {
+		return fPos < fEnd ? fLine.charAt(fPos) : 0;
+	}
+
+	private boolean consume(String prefix) {
+		if (fLine.startsWith(prefix, fPos)) {
+			fPos += prefix.length();
+			return true;
+		}
+		return false;
+	}
+
+	private int parseToken() {
 		int id = -1;
 		// Fetch the Token/Id
-		if (Character.isDigit(buffer.charAt(0))) {
-			int i = 1;
-			while (i < buffer.length() && Character.isDigit(buffer.charAt(i))) {
+		if (Character.isDigit(peek())) {
+			int i = fPos + 1;
+			while (i < fEnd && Character.isDigit(fLine.charAt(i))) {
 				i++;
 			}
-			String numbers = buffer.substring(0, i);
 			try {
-				id = Integer.parseInt(numbers);
+				id = Integer.parseInt(fLine, fPos, i, 10);
 			} catch (NumberFormatException e) {
 			}
 			// Consume the token.
-			buffer.delete(0, i);
+			fPos = i;
 		}
 		return id;
 	}
 
+	/**
+	 * Returns the characters of the line in the given range, sharing the string with
+	 * previous occurrences of the same name.
+	 */
+	private String name(int start, int end) {
+		int length = end - start;
+		if (length > MAX_CACHED_NAME_LENGTH) {
+			return fLine.substring(start, end);
+		}
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + fLine.charAt(i);
+		}
+		int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+		String name = fNames[slot];
+		if (name == null || name.length() != length || !fLine.regionMatches(start, name, 0, length)) {
+			name = fLine.substring(start, end);
+			fNames[slot] = name;
+		}
+		return name;
+	}
+
 	/**
 	 * Assuming that the usual leading comma was consumed.
 	 * Extract the MI Result comma seperated responses.
 	 */
-	private MIResult[] processMIResults(FSB buffer) {
+	private MIResult[] processMIResults() {
 		List<MIResult> aList = new ArrayList<>();
-		MIResult result = processMIResult(buffer);
-		if (result != null) {
-			aList.add(result);
-		}
-		while (buffer.length() > 0 && buffer.charAt(0) == ',') {
-			buffer.deleteCharAt(0);
-			result = processMIResult(buffer);
-			if (result != null) {
-				aList.add(result);
-			}
+		aList.add(processMIResult());
+		while (peek() == ',') {
+			fPos++;
+			aList.add(processMIResult());
 		}
 		return aList.toArray(new MIResult[aList.size()]);
 	}
 
 	/**
-	 * Construct the DsfMIResult.  Characters will be consume/delete
+	 * Construct the DsfMIResult.  Characters will be consumed
 	 * moving forward constructing the AST.
 	 */
-	private MIResult processMIResult(FSB buffer) {
+	private MIResult processMIResult() {
 		MIResult result = new MIResult();
 		int equal;
-		if (buffer.length() > 0 && Character.isLetter(buffer.charAt(0)) && (equal = buffer.indexOf('=')) != -1) {
+		if (fPos < fEnd && Character.isLetter(fLine.charAt(fPos)) && (equal = fLine.indexOf('=', fPos)) != -1) {
 			// Result is a variable and value
-			String variable = buffer.substring(0, equal);
-			result.setVariable(variable);
-			buffer.delete(0, equal + 1);
-			MIValue value = processMIValue(buffer);
+			result.setVariable(name(fPos, equal));
+			fPos = equal + 1;
+			MIValue value = processMIValue();
 			result.setMIValue(value);
 		} else {
-			MIValue value = processMIValue(buffer);
+			MIValue value = processMIValue();
 			if (value != null) {
 				// Result is a value only (bug 527419)
 				result.setMIValue(value);
 			} else {
-				result.setVariable(buffer.toString());
+				result.setVariable(fLine.substring(fPos));
 				result.setMIValue(new MIConst()); // Empty string:???
-				buffer.setLength(0);
+				fPos = fEnd;
 			}
 		}
 		return result;
@@ -312,118 +364,110 @@ public class MIParser {
 	/**
 	 * Find a DsfMIValue implementation or return null.
 	 */
-	private MIValue processMIValue(FSB buffer) {
+	private MIValue processMIValue() {
 		MIValue value = null;
-		if (buffer.length() > 0) {
-			if (buffer.charAt(0) == '{') {
-				buffer.deleteCharAt(0);
-				value = processMITuple(buffer);
-			} else if (buffer.charAt(0) == '[') {
-				buffer.deleteCharAt(0);
-				value = processMIList(buffer);
-			} else if (buffer.charAt(0) == '"') {
-				buffer.deleteCharAt(0);
-				MIConst cnst = new MIConst();
-				// Parse backslashes - backslashes within result
-				// and out of band records are escaped.
-				cnst.setCString(translateCString(buffer, true));
-				value = cnst;
-			}
+		char c = peek();
+		if (c == '{') {
+			fPos++;
+			value = processMITuple();
+		} else if (c == '[') {
+			fPos++;
+			value = processMIList();
+		} else if (c == '"') {
+			fPos++;
+			MIConst cnst = new MIConst();
+			// Parse backslashes - backslashes within result
+			// and out of band records are escaped.
+			cnst.setCString(translateCString(true));
+			value = cnst;
 		}
 		return value;
 	}
 
 	/**
-	 * Assuming the starting '{' was deleted form the StringBuffer,
-	 * go to the closing '}' consuming/deleting all the characters.
+	 * Assuming the starting '{' was consumed,
+	 * go to the closing '}' consuming all the characters.
 	 * This is usually call by processMIvalue();
 	 */
-	private MIValue processMITuple(FSB buffer) {
+	private MIValue processMITuple() {
 		MITuple tuple = new MITuple();
 		List<MIValue> valueList = new ArrayList<>();
 		List<MIResult> resultList = new ArrayList<>();
-		// Catch closing '}'
-		while (buffer.length() > 0 && buffer.charAt(0) != '}') {
-			// Try for the DsfMIValue first
-			MIValue value = processMIValue(buffer);
-			if (value != null) {
-				valueList.add(value);
-			} else {
-				MIResult result = processMIResult(buffer);
-				if (result != null) {
-					resultList.add(result);
-				}
-			}
-			if (buffer.length() > 0 && buffer.charAt(0) == ',') {
-				buffer.deleteCharAt(0);
-			}
-		}
-		if (buffer.length() > 0 && buffer.charAt(0) == '}') {
-			buffer.deleteCharAt(0);
-		}
-		MIValue[] values = valueList.toArray(new MIValue[valueList.size()]);
-		MIResult[] res = resultList.toArray(new MIResult[resultList.size()]);
-		tuple.setMIValues(values);
-		tuple.setMIResults(res);
+		processElements('}', valueList, resultList);
+		tuple.setMIValues(valueList.toArray(new MIValue[valueList.size()]));
+		tuple.setMIResults(resultList.toArray(new MIResult[resultList.size()]));
 		return tuple;
 	}
 
 	/**
-	 * Assuming the leading '[' was deleted, find the closing
-	 * ']' consuming/delete chars from the StringBuffer.
+	 * Assuming the leading '[' was consumed, find the closing
+	 * ']' consuming the chars.
 	 */
-	private MIValue processMIList(FSB buffer) {
+	private MIValue processMIList() {
 		MIList list = new MIList();
 		List<MIValue> valueList = new ArrayList<>();
 		List<MIResult> resultList = new ArrayList<>();
-		// catch closing ']'
-		while (buffer.length() > 0 && buffer.charAt(0) != ']') {
+		processElements(']', valueList, resultList);
+		list.setMIValues(valueList.toArray(new MIValue[valueList.size()]));
+		list.setMIResults(resultList.toArray(new MIResult[resultList.size()]));
+		return list;
+	}
+
+	private void processElements(char closing, List<MIValue> valueList, List<MIResult> resultList) {
+		// Catch closing char
+		while (fPos < fEnd && fLine.charAt(fPos) != closing) {
 			// Try for the DsfMIValue first
-			MIValue value = processMIValue(buffer);
+			MIValue value = processMIValue();
 			if (value != null) {
 				valueList.add(value);
 			} else {
-				MIResult result = processMIResult(buffer);
-				if (result != null) {
-					resultList.add(result);
-				}
+				resultList.add(processMIResult());
 			}
-			if (buffer.length() > 0 && buffer.charAt(0) == ',') {
-				buffer.deleteCharAt(0);
+			if (peek() == ',') {
+				fPos++;
 			}
 		}
-		if (buffer.length() > 0 && buffer.charAt(0) == ']') {
-			buffer.deleteCharAt(0);
+		if (peek() == closing) {
+			fPos++;
 		}
-		MIValue[] values = valueList.toArray(new MIValue[valueList.size()]);
-		MIResult[] res = resultList.toArray(new MIResult[resultList.size()]);
-		list.setMIValues(values);
-		list.setMIResults(res);
-		return list;
 	}
 
 	/**
 	 * MI C-String rather MIConst values are enclosed in double quotes
 	 * and any double quotes or backslashes in the string are escaped.
-	 * Assuming the starting double quote was removed. This method will
+	 * Assuming the starting double quote was consumed. This method will
 	 * stop at the closing double quote, remove the extra backslash escaping
 	 * and return the string __without__ the enclosing double quotes. The
-	 * original string buffer will move forward.
-	 * @param buffer The string buffer to read from.
+	 * position in the line moves forward.
 	 * @param parseBackslashes Defines whether backslashes should be parsed.
 	 * This parameter is necessary to differentiate between records which
 	 * contain escaped backslashes and records which do not.
 	 * @return The translated C string.
 	 */
-	private String translateCString(FSB buffer, boolean parseBackslashes) {
+	private String translateCString(boolean parseBackslashes) {
+		int start = fPos;
+		int index = start;
+		// Fast path for the strings without escape sequences, they are copied as a whole
+		for (; index < fEnd; index++) {
+			char c = fLine.charAt(index);
+			if (c == '"') {
+				fPos = index + 1;
+				return fLine.substring(start, index);
+			}
+			if (c == '\\') {
+				break;
+			}
+		}
+
 		boolean escape = false;
 		boolean closingQuotes = false;
 
-		StringBuffer sb = new StringBuffer();
+		StringBuilder sb = fCStringBuilder;
+		sb.setLength(0);
+		sb.append(fLine, start, index);
 
-		int index = 0;
-		for (; index < buffer.length() && !closingQuotes; index++) {
-			char c = buffer.charAt(index);
+		for (; index < fEnd && !closingQuotes; index++) {
+			char c = fLine.charAt(index);
 			if (c == '\\') {
 				if (escape) {
 					sb.append(c);
@@ -450,8 +494,14 @@ public class MIParser {
 				escape = false;
 			}
 		}
-		buffer.delete(0, index);
-		return sb.toString();
+		fPos = index;
+		String result = sb.toString();
+		if (sb.capacity() > MAX_RETAINED_BUFFER) {
+			// Don't hold on to the buffer of an exceptionally large string
+			sb.setLength(0);
+			sb.trimToSize();
+		}
+		return result;
 	}
 
 	/**
@@ -485,7 +535,10 @@ public class MIParser {
 	 * with this for large arrays. Use of FSB rather than String
 	 * Buffer makes MIParser N rather than N^2 because FSB can
 	 * delete from the front in constant time.
+	 *
+	 * @deprecated The parser reads the line in place and no longer uses this class.
 	 */
+	@Deprecated
 	public class FSB {
 		StringBuffer buf;
 		int pos;
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.tests.dsf.gdb.tests;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Runs the expression tests with the variable objects of all roots updated at
+ * once with <code>-var-update *</code>.
+ */
+@RunWith(Parameterized.class)
+public class MIExpressionsBatchUpdatesTest extends MIExpressionsTest {
+	private static final String BATCH_UPDATES_PROPERTY = "org.eclipse.cdt.dsf.gdb.batchVariableUpdates";
+
+	@Override
+	public void doBeforeTest() throws Exception {
+		// The variable manager reads the property when the launch creates it
+		System.setProperty(BATCH_UPDATES_PROPERTY, Boolean.TRUE.toString());
+		super.doBeforeTest();
+	}
+
+	@Override
+	public void doAfterTest() throws Exception {
+		try {
+			super.doAfterTest();
+		} finally {
+			System.clearProperty(BATCH_UPDATES_PROPERTY);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Ericsson and others.
+ * Copyright (c) 2007, 2026 Ericsson and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,10 @@ import static org.junit.Assert.assertEquals;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,7 +44,12 @@ import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryChangedEvent;
 import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryDMContext;
 import org.eclipse.cdt.dsf.debug.service.IRunControl.StepType;
 import org.eclipse.cdt.dsf.debug.service.IStack.IFrameDMContext;
+import org.eclipse.cdt.dsf.debug.service.command.ICommandControlService;
+import org.eclipse.cdt.dsf.debug.service.command.ICommandListener;
+import org.eclipse.cdt.dsf.debug.service.command.ICommandResult;
+import org.eclipse.cdt.dsf.debug.service.command.ICommandToken;
 import org.eclipse.cdt.dsf.mi.service.MIRunControl;
+import org.eclipse.cdt.dsf.mi.service.command.commands.MIDataReadMemoryBytes;
 import org.eclipse.cdt.dsf.mi.service.command.events.MIStoppedEvent;
 import org.eclipse.cdt.dsf.service.DsfServiceEventHandler;
 import org.eclipse.cdt.dsf.service.DsfServicesTracker;
@@ -81,6 +90,7 @@ public class MIMemoryTest extends BaseParametrizedTestCase {
 	private MIRunControl fRunControl;
 	private IMemory fMemoryService;
 	private IExpressions fExpressionService;
+	private ICommandControlService fCommandControl;
 	private int fWordSize = 1 /* Default */;
 	private ByteOrder fByteOrder;
 
@@ -90,6 +100,30 @@ public class MIMemoryTest extends BaseParametrizedTestCase {
 	private AtomicInteger fMemoryChangedEventCount = new AtomicInteger(0);
 	private boolean[] fMemoryAddressesChanged = new boolean[BLOCK_SIZE];
 
+	// Keeps track of the number of addressable units of the memory reads sent to GDB
+	private final List<String> fMemoryReads = Collections.synchronizedList(new ArrayList<>());
+	private final ICommandListener fMemoryReadListener = new ICommandListener() {
+		@Override
+		public void commandSent(ICommandToken token) {
+			if (token.getCommand() instanceof MIDataReadMemoryBytes) {
+				String[] parameters = ((MIDataReadMemoryBytes) token.getCommand()).getParameters();
+				fMemoryReads.add(parameters[parameters.length - 1]);
+			}
+		}
+
+		@Override
+		public void commandQueued(ICommandToken token) {
+		}
+
+		@Override
+		public void commandRemoved(ICommandToken token) {
+		}
+
+		@Override
+		public void commandDone(ICommandToken token, ICommandResult result) {
+		}
+	};
+
 	@Rule
 	final public ExpectedException expectedException = ExpectedException.none();
 
@@ -119,6 +153,11 @@ public class MIMemoryTest extends BaseParametrizedTestCase {
 			fExpressionService = fServicesTracker.getService(IExpressions.class);
 			assert (fExpressionService != null);
 
+			fCommandControl = fServicesTracker.getService(ICommandControlService.class);
+			assert (fCommandControl != null);
+			fCommandControl.addCommandListener(fMemoryReadListener);
+			fMemoryReads.clear();
+
 			fSession.addServiceEventListener(MIMemoryTest.this, null);
 			fBaseAddress = null;
 			clearEventCounters();
@@ -141,7 +180,12 @@ public class MIMemoryTest extends BaseParametrizedTestCase {
 	public void doAfterTest() throws Exception {
 		// Clear the references (not strictly necessary)
 		if (fSession != null)
-			fSession.getExecutor().submit(() -> fSession.removeServiceEventListener(MIMemoryTest.this)).get();
+			fSession.getExecutor().submit(() -> {
+				fSession.removeServiceEventListener(MIMemoryTest.this);
+				if (fCommandControl != null)
+					fCommandControl.removeCommandListener(fMemoryReadListener);
+			}).get();
+		fCommandControl = null;
 		fBaseAddress = null;
 		fExpressionService = null;
 		fMemoryService = null;
@@ -1251,6 +1295,124 @@ public class MIMemoryTest extends BaseParametrizedTestCase {
 		assertEquals("Incorrect count of MemoryChangedEvent", 0, getEventCount());
 	}
 
+	// Reads memory and returns the number of addressable units of each read sent to GDB
+	private List<String> memoryCacheMissesHelper(long offset, int count)
+			throws InterruptedException, ExecutionException {
+		fMemoryReads.clear();
+		memoryCacheReadHelper(offset, count, fWordSize);
+		synchronized (fMemoryReads) {
+			return new ArrayList<>(fMemoryReads);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	// memoryCacheHit
+	// Read memory that is already cached
+	// ------------------------------------------------------------------------
+	@Test
+	public void memoryCacheHit() throws Throwable {
+		SyncUtil.runToLocation("MemoryTestApp.cc:setBlocks");
+		MIStoppedEvent stoppedEvent = SyncUtil.step(StepType.STEP_RETURN);
+		IFrameDMContext frameDmc = SyncUtil.getStackFrame(stoppedEvent.getDMContext(), 0);
+		fBaseAddress = evaluateExpression(frameDmc, "&charBlock");
+
+		// Clear the cache
+		SyncUtil.step(StepType.STEP_OVER);
+
+		assertThat(memoryCacheMissesHelper(0, 64), is(Arrays.asList("64")));
+
+		// Memory within the cached block is not read again
+		assertThat(memoryCacheMissesHelper(16, 32), is(Collections.emptyList()));
+		assertThat(memoryCacheMissesHelper(0, 64), is(Collections.emptyList()));
+	}
+
+	// ------------------------------------------------------------------------
+	// memoryCacheMiss
+	// Only the memory that is not cached is read, without reading ahead
+	// ------------------------------------------------------------------------
+	@Test
+	public void memoryCacheMiss() throws Throwable {
+		SyncUtil.runToLocation("MemoryTestApp.cc:setBlocks");
+		MIStoppedEvent stoppedEvent = SyncUtil.step(StepType.STEP_RETURN);
+		IFrameDMContext frameDmc = SyncUtil.getStackFrame(stoppedEvent.getDMContext(), 0);
+		fBaseAddress = evaluateExpression(frameDmc, "&charBlock");
+
+		// Clear the cache
+		SyncUtil.step(StepType.STEP_OVER);
+
+		assertThat(memoryCacheMissesHelper(0, 64), is(Arrays.asList("64")));
+		assertThat(memoryCacheMissesHelper(128, 64), is(Arrays.asList("64")));
+
+		// Only the gap between the cached blocks is read
+		assertThat(memoryCacheMissesHelper(32, 128), is(Arrays.asList("64")));
+
+		// The cache is cleared when the target stops
+		SyncUtil.step(StepType.STEP_OVER);
+		assertThat(memoryCacheMissesHelper(32, 128), is(Arrays.asList("128")));
+	}
+
+	// ------------------------------------------------------------------------
+	// memoryCacheBoundary
+	// Read memory that starts or ends at the boundary of the cached memory
+	// ------------------------------------------------------------------------
+	@Test
+	public void memoryCacheBoundary() throws Throwable {
+		SyncUtil.runToLocation("MemoryTestApp.cc:setBlocks");
+		MIStoppedEvent stoppedEvent = SyncUtil.step(StepType.STEP_RETURN);
+		IFrameDMContext frameDmc = SyncUtil.getStackFrame(stoppedEvent.getDMContext(), 0);
+		fBaseAddress = evaluateExpression(frameDmc, "&charBlock");
+
+		// Clear the cache
+		SyncUtil.step(StepType.STEP_OVER);
+
+		assertThat(memoryCacheMissesHelper(64, 64), is(Arrays.asList("64")));
+
+		// A block that ends at the first cached unit
+		assertThat(memoryCacheMissesHelper(0, 65), is(Arrays.asList("64")));
+
+		// A block that starts at the last cached unit
+		assertThat(memoryCacheMissesHelper(127, 2), is(Arrays.asList("1")));
+
+		// A block that spans the cached blocks exactly
+		assertThat(memoryCacheMissesHelper(0, 129), is(Collections.emptyList()));
+
+		// Ensure no MemoryChangedEvent event was received
+		assertEquals("Incorrect count of MemoryChangedEvent", 0, getEventCount());
+	}
+
+	// ------------------------------------------------------------------------
+	// memoryCacheWrite
+	// The cached memory is updated when it is written
+	// ------------------------------------------------------------------------
+	@Test
+	public void memoryCacheWrite() throws Throwable {
+		SyncUtil.runToLocation("MemoryTestApp.cc:setBlocks");
+		MIStoppedEvent stoppedEvent = SyncUtil.step(StepType.STEP_RETURN);
+		IFrameDMContext frameDmc = SyncUtil.getStackFrame(stoppedEvent.getDMContext(), 0);
+		fBaseAddress = evaluateExpression(frameDmc, "&charBlock");
+
+		// Clear the cache
+		SyncUtil.step(StepType.STEP_OVER);
+		memoryCacheReadHelper(0, BLOCK_SIZE, fWordSize);
+
+		// Write a value that differs from the one of the block
+		int offset = 16;
+		byte[] buffer = valueToBytes(BLOCK_SIZE - 1 - offset);
+		ServiceEventWaitor<IMemoryChangedEvent> eventWaitor = new ServiceEventWaitor<>(fSession,
+				IMemoryChangedEvent.class);
+		SyncUtil.writeMemory(fMemoryDmc, fBaseAddress, offset, fWordSize, 1, buffer);
+		eventWaitor.waitForEvent(TestsPlugin.massageTimeout(1000));
+
+		// The written value is read from the cache
+		fMemoryReads.clear();
+		MemoryByte[] block = SyncUtil.readMemory(fMemoryDmc, fBaseAddress, 0, fWordSize, BLOCK_SIZE);
+		MemoryByteBuffer memBuf = new MemoryByteBuffer(block, fByteOrder, fWordSize);
+		for (long i = 0; i < BLOCK_SIZE; i++) {
+			assertThat("index " + i, memBuf.getNextWord(), is(i == offset ? BLOCK_SIZE - 1L - offset : i));
+		}
+		assertThat(fMemoryReads, is(Collections.emptyList()));
+	}
+
 	private static class MemoryReadQuery extends Query<MemoryByte[]> {
 
 		private IMemory fMemoryService;
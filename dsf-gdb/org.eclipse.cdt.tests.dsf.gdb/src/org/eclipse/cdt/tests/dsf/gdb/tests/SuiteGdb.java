@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 QNX Software System and others.
+ * Copyright (c) 2016, 2026 QNX Software System and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -39,7 +39,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 		// new style tests
 		MIBreakpointsTest.class, MICatchpointsTest.class, MIRegistersTest.class, MIExpressionsTest.class,
-		LaunchConfigurationAndRestartTest.class, SourceLookupTest.class, StepIntoSelectionTest.class,
+		MIExpressionsBatchUpdatesTest.class, LaunchConfigurationAndRestartTest.class, SourceLookupTest.class,
+		StepIntoSelectionTest.class,
 		OperationsWhileTargetIsRunningTest.class, MIModifiedServicesTest.class, MIRunControlTest.class,
 		MIRunControlTargetAvailableTest.class, MIRunControlReverseTest.class, GDBPatternMatchingExpressionsTest.class,
 		GDBMultiNonStopRunControlTest.class, GDBConsoleBreakpointsTest.class,
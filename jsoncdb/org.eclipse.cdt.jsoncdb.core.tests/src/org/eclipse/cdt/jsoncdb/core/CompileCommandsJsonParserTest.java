@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.jsoncdb.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.cdt.jsoncdb.core.participant.Arglets;
+import org.eclipse.cdt.jsoncdb.core.participant.DefaultToolCommandlineParser;
+import org.eclipse.cdt.jsoncdb.core.participant.IToolCommandlineParser.IResult;
+import org.eclipse.cdt.jsoncdb.core.participant.ResponseFileArglets;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.Test;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * Tests for reading the entries of a {@code compile_commands.json} file and for
+ * parsing their command-lines.
+ */
+public class CompileCommandsJsonParserTest {
+
+	/**
+	 * Counts its invocations and the maximum number of concurrent invocations.
+	 */
+	private static class CountingParser extends DefaultToolCommandlineParser {
+		final AtomicInteger invocations = new AtomicInteger();
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+
+		CountingParser() {
+			super(new ResponseFileArglets.At(), null, new Arglets.MacroDefine_C_POSIX());
+		}
+
+		@Override
+		public IResult processArgs(IPath cwd, String args) {
+			invocations.incrementAndGet();
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				return super.processArgs(cwd, args);
+			} finally {
+				running.decrementAndGet();
+			}
+		}
+	}
+
+	private static List<CommandEntry> readCommandEntries(String json) throws Exception {
+		List<CommandEntry> entries = new ArrayList<>();
+		assertTrue(CompileCommandsJsonParser.readCommandEntries(new StringReader(json), entries::add));
+		return entries;
+	}
+
+	private static void assertMalformed(String json) throws Exception {
+		try {
+			CompileCommandsJsonParser.readCommandEntries(new StringReader(json), entry -> {
+			});
+			fail("malformed json not detected: " + json);
+		} catch (JsonParseException | IOException expected) {
+		}
+	}
+
+	@Test
+	public void testReadEntries() throws Exception {
+		List<CommandEntry> entries = readCommandEntries("[" //
+				+ "{\"directory\": \"/build\", \"command\": \"cc -DA -c ../src/a.c\", \"file\": \"/src/a.c\"},"
+				+ "{\"directory\": \"/build\", \"arguments\": [\"cc\", \"-c\", \"/src/b.c\"], \"file\": \"/src/b.c\"}"
+				+ "]");
+		assertEquals(2, entries.size());
+		assertEquals("/build", entries.get(0).getDirectory());
+		assertEquals("cc -DA -c ../src/a.c", entries.get(0).getCommand());
+		assertEquals("/src/a.c", entries.get(0).getFile());
+		assertEquals(3, entries.get(1).getArguments().length);
+		assertEquals("/src/b.c", entries.get(1).getFile());
+	}
+
+	@Test
+	public void testReadEmpty() throws Exception {
+		assertFalse(CompileCommandsJsonParser.readCommandEntries(new StringReader(""), entry -> fail()));
+		assertFalse(CompileCommandsJsonParser.readCommandEntries(new StringReader("null"), entry -> fail()));
+		assertEquals(0, readCommandEntries("[]").size());
+	}
+
+	@Test
+	public void testReadLargeFile() throws Exception {
+		final int count = 100_000;
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"directory\": \"/build\", \"command\": \"cc -DA -c /src/file").append(i)
+					.append(".c\", \"file\": \"/src/file").append(i).append(".c\"}");
+		}
+		json.append(']');
+		List<CommandEntry> entries = readCommandEntries(json.toString());
+		assertEquals(count, entries.size());
+		assertEquals("/src/file" + (count - 1) + ".c", entries.get(count - 1).getFile());
+	}
+
+	@Test
+	public void testReadMalformed() throws Exception {
+		assertMalformed("{\"directory\": \"/build\"}");
+		assertMalformed("42");
+		assertMalformed("[{\"directory\": \"/build\", \"file\": \"/src/a.c\"");
+		assertMalformed("[{\"directory\": \"/build\", \"file\": \"/src/a.c\"},");
+		assertMalformed("[{\"directory\": \"/build\", \"arguments\": \"cc -c /src/a.c\"}]");
+		assertMalformed("[42]");
+		assertMalformed("[{\"directory\": }]");
+	}
+
+	@Test
+	public void testReadMalformedAfterEntries() throws Exception {
+		List<CommandEntry> entries = new ArrayList<>();
+		try {
+			CompileCommandsJsonParser.readCommandEntries(
+					new StringReader("[{\"file\": \"/src/a.c\"}, {\"file\": \"/src/b.c\"}, {\"file\": "), entries::add);
+			fail("truncated json not detected");
+		} catch (JsonParseException | EOFException expected) {
+		}
+		// entries are passed on as soon as they have been read
+		assertEquals(2, entries.size());
+	}
+
+	@Test
+	public void testWithoutFileArgs() {
+		final IPath cwd = new Path("/build");
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -c /src/a.c", cwd, "/src/a.c"));
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA  -c ../src/a.c", cwd, "/src/a.c"));
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -c \"/src/a.c\"", cwd, "/src/a.c"));
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -c a.c", cwd, "/build/a.c"));
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -c ../src/a.c", cwd, "../src/a.c"));
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -c '/my src/a.c'", cwd, "/my src/a.c"));
+		// other files of the same name are kept
+		assertEquals("-include /other/a.c -c",
+				CommandLineParses.withoutFileArgs("-include /other/a.c -c /src/a.c", cwd, "/src/a.c"));
+		// output and dependency files are removed with their option
+		assertEquals("-DA -c", CommandLineParses.withoutFileArgs("-DA -o a.c.o -c /src/a.c", cwd, "/src/a.c"));
+		assertEquals("-DA -MD -c", CommandLineParses.withoutFileArgs(
+				"-DA -MD -MT a.c.o -MF \"a.c.o.d\" -c /src/a.c", cwd, "/src/a.c"));
+		assertEquals("/DA /c",
+				CommandLineParses.withoutFileArgs("/DA /Foa.obj /Fdvc.pdb /c /src/a.c", cwd, "/src/a.c"));
+		// options that only start like output options are kept
+		assertEquals("-DA -openmp -MTd -c", CommandLineParses.withoutFileArgs("-DA -openmp -MTd -c", cwd, "/src/a.c"));
+	}
+
+	@Test
+	public void testDuplicateEntriesParsedOnce() throws Exception {
+		final CountingParser parser = new CountingParser();
+		final CommandLineParses parses = new CommandLineParses(4);
+		final IPath cwd = new Path("/build");
+
+		CompletableFuture<IResult> first = parses.processArgs(parser, cwd, "-DA -c /src/file0.c", "/src/file0.c");
+		for (int i = 1; i < 100; i++) {
+			String file = "/src/file" + i + ".c";
+			assertSame(first, parses.processArgs(parser, cwd, "-DA -c " + file, file));
+			assertSame(first, parses.processArgs(parser, cwd, "-DA -c ../src/file" + i + ".c", file));
+		}
+		assertEquals("A", first.get().getDefines().keySet().iterator().next());
+		assertEquals(1, parser.invocations.get());
+
+		// different options, working directory or parser are parsed separately
+		CompletableFuture<IResult> other = parses.processArgs(parser, cwd, "-DB -c /src/file0.c", "/src/file0.c");
+		assertTrue(other.get().getDefines().containsKey("B"));
+		parses.processArgs(parser, new Path("/build2"), "-DA -c /src/file0.c", "/src/file0.c").get();
+		assertEquals(3, parser.invocations.get());
+		final CountingParser otherParser = new CountingParser();
+		parses.processArgs(otherParser, cwd, "-DA -c /src/file0.c", "/src/file0.c").get();
+		assertEquals(1, otherParser.invocations.get());
+	}
+
+	@Test
+	public void testCMakeEntriesParsedOnce() throws Exception {
+		final CountingParser parser = new CountingParser();
+		final CommandLineParses parses = new CommandLineParses(4);
+		final IPath cwd = new Path("/project/build");
+
+		// as written by the Ninja generator of CMake
+		CompletableFuture<IResult> first = parses.processArgs(parser, cwd,
+				"-DFOO -I/project/include -O2 -MD -MT CMakeFiles/app.dir/src/a.cpp.o"
+						+ " -MF CMakeFiles/app.dir/src/a.cpp.o.d -o CMakeFiles/app.dir/src/a.cpp.o"
+						+ " -c /project/src/a.cpp",
+				"/project/src/a.cpp");
+		CompletableFuture<IResult> second = parses.processArgs(parser, cwd,
+				"-DFOO -I/project/include -O2 -MD -MT CMakeFiles/app.dir/src/b.cpp.o"
+						+ " -MF CMakeFiles/app.dir/src/b.cpp.o.d -o CMakeFiles/app.dir/src/b.cpp.o"
+						+ " -c /project/src/b.cpp",
+				"/project/src/b.cpp");
+		assertSame(first, second);
+		assertTrue(first.get().getDefines().containsKey("FOO"));
+		assertEquals(1, parser.invocations.get());
+	}
+
+	@Test
+	public void testManyCommandLines() throws Exception {
+		final int count = 20_000;
+		final int maxPending = 4;
+		final CountingParser parser = new CountingParser();
+		final CommandLineParses parses = new CommandLineParses(maxPending);
+		final IPath cwd = new Path("/build");
+
+		List<CompletableFuture<IResult>> results = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String file = "/src/file" + i + ".c";
+			results.add(parses.processArgs(parser, cwd, "-DMACRO" + i + " -c " + file, file));
+		}
+		for (int i = 0; i < count; i++) {
+			IResult result = results.get(i).get();
+			assertNotNull(result);
+			assertEquals(1, result.getDefines().size());
+			assertTrue(result.getDefines().containsKey("MACRO" + i));
+		}
+		assertEquals(count, parser.invocations.get());
+		assertTrue("pending parses not bounded: " + parser.maxRunning.get(), parser.maxRunning.get() <= maxPending);
+	}
+}
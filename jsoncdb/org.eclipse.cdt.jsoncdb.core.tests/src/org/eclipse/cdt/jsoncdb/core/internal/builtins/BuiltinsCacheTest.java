@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.cdt.jsoncdb.core.internal.builtins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.eclipse.cdt.core.CommandLauncher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BuiltinsCacheTest {
+	private static final List<String> OUTPUT_ARGS = List.of("-E", "-P", "-dM", "-Wp,-v");
+	private static final String[] ENV = { "LANGUAGE=en", "LC_ALL=C.UTF-8" };
+
+	private Path compiler;
+
+	@Before
+	public void setUp() throws Exception {
+		compiler = Files.createTempFile("gcc", ".exe");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(compiler);
+	}
+
+	@Test
+	public void testKeyDependsOnCompilerAndArgs() throws Exception {
+		CommandLauncher launcher = new CommandLauncher();
+		String key = BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "cpp", ENV,
+				launcher);
+		assertNotNull(key);
+		assertEquals(key,
+				BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "cpp", ENV, launcher));
+		assertNotEquals(key,
+				BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++20"), "cpp", ENV, launcher));
+		assertNotEquals(key,
+				BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "c", ENV, launcher));
+
+		// the environment of the compiler affects its built-ins, not the order of its variables
+		assertEquals(key, BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "cpp",
+				new String[] { "LC_ALL=C.UTF-8", "LANGUAGE=en" }, launcher));
+		assertNotEquals(key, BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "cpp",
+				new String[] { "LANGUAGE=en", "LC_ALL=C.UTF-8", "CPATH=/opt/include" }, launcher));
+
+		// an updated compiler must be run again
+		Files.setLastModifiedTime(compiler, FileTime.fromMillis(Files.getLastModifiedTime(compiler).toMillis() - 10000));
+		assertNotEquals(key,
+				BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of("-std=c++17"), "cpp", ENV, launcher));
+	}
+
+	@Test
+	public void testSaveOncePerBatch() throws Exception {
+		Path file = compiler.resolveSibling(compiler.getFileName() + ".json");
+		try {
+			BuiltinsCache cache = new BuiltinsCache(file);
+			cache.put("a", new RawSourceFileInfo());
+			cache.put("b", new RawSourceFileInfo());
+			// entries are not written one by one
+			assertFalse(Files.exists(file));
+			cache.save();
+			assertTrue(Files.exists(file));
+
+			BuiltinsCache reloaded = new BuiltinsCache(file);
+			assertNotNull(reloaded.get("a"));
+			assertNotNull(reloaded.get("b"));
+			assertNull(reloaded.get("c"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testNoKeyForUnknownCompilerFile() {
+		assertNull(BuiltinsCache.makeKey("gcc", OUTPUT_ARGS, List.of(), "c", ENV, new CommandLauncher()));
+		assertNull(BuiltinsCache.makeKey(compiler.resolveSibling("does-not-exist").toString(), OUTPUT_ARGS, List.of(),
+				"c", ENV, new CommandLauncher()));
+	}
+
+	@Test
+	public void testNoKeyForOtherLaunchers() {
+		CommandLauncher containerLauncher = new CommandLauncher() {
+		};
+		assertNull(BuiltinsCache.makeKey(compiler.toString(), OUTPUT_ARGS, List.of(), "c", ENV, containerLauncher));
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.jsoncdb.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.cdt.jsoncdb.core.participant.DefaultToolCommandlineParser;
+import org.eclipse.cdt.jsoncdb.core.participant.IToolCommandlineParser;
+import org.eclipse.cdt.jsoncdb.core.participant.IToolCommandlineParser.IResult;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Parses the command-lines of the entries of a {@code compile_commands.json}
+ * file. Command-lines that differ only in the source file being compiled and in
+ * the object and dependency files written are parsed once and the result is
+ * shared.
+ */
+class CommandLineParses {
+	/**
+	 * the options naming the object file or the dependency file written by the
+	 * compiler, followed by the file name as a separate argument. These differ for
+	 * every source file but do not affect the result of parsing.
+	 */
+	private static final Set<String> OUTPUT_OPTIONS = Set.of("-o", "-MF", "-MT", "-MQ"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	/**
+	 * the results of the command-lines parsed so far (cmdline parser -> digest of
+	 * working directory and command-line -> IResult). Digests are used as keys to
+	 * avoid keeping all command-lines of huge json files in memory.
+	 */
+	private final Map<IToolCommandlineParser, Map<String, CompletableFuture<IResult>>> results;
+
+	/** limits the number of pending command-line parses */
+	private final Semaphore parseSlots;
+
+	private final MessageDigest digest;
+
+	/**
+	 * @param maxPendingParses the maximum number of command-lines being parsed
+	 *                         concurrently or waiting to be parsed
+	 */
+	CommandLineParses(int maxPendingParses) {
+		results = new IdentityHashMap<>();
+		parseSlots = new Semaphore(maxPendingParses);
+		try {
+			digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Parses the specified command-line arguments, unless the same arguments, apart
+	 * from the source file and the files written by the compiler, have been parsed
+	 * before for the same working directory.
+	 * Command-lines are parsed concurrently if the parser allows it.
+	 *
+	 * @param parser     the parser for the arguments
+	 * @param cwd        the working directory of the compiler
+	 * @param args       the command-line arguments, without the compiler
+	 * @param sourceFile the source file being compiled, absolute or relative to
+	 *                   {@code cwd}
+	 *
+	 * @return the result of parsing the arguments
+	 */
+	CompletableFuture<IResult> processArgs(IToolCommandlineParser parser, IPath cwd, String args, String sourceFile) {
+		// DefaultToolCommandlineParser skips non-option arguments and the options
+		// naming output files, so these files do not affect the result. Other parsers
+		// get the whole command-line compared.
+		final boolean isDefaultParser = parser instanceof DefaultToolCommandlineParser;
+		final String keyArgs = isDefaultParser ? withoutFileArgs(args, cwd, sourceFile) : args;
+		digest.update(cwd.toString().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(keyArgs.getBytes(StandardCharsets.UTF_8));
+		final String key = Base64.getEncoder().encodeToString(digest.digest());
+
+		Map<String, CompletableFuture<IResult>> parserResults = results.computeIfAbsent(parser, p -> new HashMap<>());
+		CompletableFuture<IResult> result = parserResults.get(key);
+		if (result == null) {
+			if (isDefaultParser) {
+				// DefaultToolCommandlineParser keeps no state between invocations
+				parseSlots.acquireUninterruptibly();
+				result = CompletableFuture.supplyAsync(() -> parser.processArgs(cwd, args));
+				result.whenComplete((r, ex) -> parseSlots.release());
+			} else {
+				result = CompletableFuture.completedFuture(parser.processArgs(cwd, args));
+			}
+			parserResults.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the arguments that name the files produced by the compiler and the
+	 * arguments denoting the specified source file from a command-line. The output
+	 * and dependency-file options are removed together with their argument. Other
+	 * arguments may be quoted and are compared as paths, after resolving them
+	 * against the working directory. Arguments not recognized as the source file,
+	 * e.g. because of escape sequences, are kept.
+	 *
+	 * @param args       the command-line arguments
+	 * @param cwd        the working directory of the compiler
+	 * @param sourceFile the source file, absolute or relative to {@code cwd}
+	 *
+	 * @return the remaining arguments, separated by single spaces
+	 */
+	static String withoutFileArgs(String args, IPath cwd, String sourceFile) {
+		final IPath source = resolve(cwd, sourceFile);
+		final String name = source.lastSegment();
+		final int length = args.length();
+		final StringBuilder result = new StringBuilder(length);
+		final StringBuilder arg = new StringBuilder();
+		boolean skipNext = false;
+		int i = 0;
+		while (i < length) {
+			if (Character.isWhitespace(args.charAt(i))) {
+				i++;
+				continue;
+			}
+			final int start = i;
+			char quote = 0;
+			arg.setLength(0);
+			for (; i < length; i++) {
+				char c = args.charAt(i);
+				if (quote != 0) {
+					if (c == quote) {
+						quote = 0;
+					} else {
+						arg.append(c);
+					}
+				} else if (c == '"' || c == '\'') {
+					quote = c;
+				} else if (Character.isWhitespace(c)) {
+					break;
+				} else {
+					arg.append(c);
+				}
+			}
+			final String unquoted = arg.toString();
+			if (skipNext) {
+				skipNext = false;
+				continue;
+			}
+			if (OUTPUT_OPTIONS.contains(unquoted)) {
+				skipNext = true;
+				continue;
+			}
+			if (isJoinedOutputOption(unquoted)) {
+				continue;
+			}
+			if (name != null && unquoted.endsWith(name) && resolve(cwd, unquoted).equals(source)) {
+				continue;
+			}
+			if (result.length() > 0) {
+				result.append(' ');
+			}
+			result.append(args, start, i);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Gets whether the specified argument is an output option of MSVC, which takes
+	 * the file name joined to the option.
+	 */
+	private static boolean isJoinedOutputOption(String arg) {
+		return arg.length() > 3 && (arg.charAt(0) == '/' || arg.charAt(0) == '-') && arg.charAt(1) == 'F'
+				&& (arg.charAt(2) == 'o' || arg.charAt(2) == 'd');
+	}
+
+	private static IPath resolve(IPath cwd, String file) {
+		final IPath path = new Path(file);
+		return path.isAbsolute() ? path : cwd.append(path);
+	}
+}
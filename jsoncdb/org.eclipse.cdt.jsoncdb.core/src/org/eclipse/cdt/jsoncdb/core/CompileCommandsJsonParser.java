@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2020 Martin Weber.
+ * Copyright (c) 2016, 2026 Martin Weber and others.
  *
  * Content is provided to you under the terms and conditions of the Eclipse Public License Version 2.0 "EPL".
  * A copy of the EPL is available at http://www.eclipse.org/legal/epl-2.0.
@@ -8,11 +8,15 @@
  *******************************************************************************/
 package org.eclipse.cdt.jsoncdb.core;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -21,15 +25,20 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FilenameUtils;
+import org.eclipse.cdt.core.CommandLauncher;
 import org.eclipse.cdt.jsoncdb.core.internal.ParserDetection;
 import org.eclipse.cdt.jsoncdb.core.internal.ParserDetection.DetectorWithMethod;
 import org.eclipse.cdt.jsoncdb.core.internal.ParserDetection.ParserDetectionResult;
 import org.eclipse.cdt.jsoncdb.core.internal.Plugin;
+import org.eclipse.cdt.jsoncdb.core.internal.builtins.BuiltinsCache;
 import org.eclipse.cdt.jsoncdb.core.internal.builtins.CompilerBuiltinsDetector;
 import org.eclipse.cdt.jsoncdb.core.participant.DefaultToolDetectionParticipant;
 import org.eclipse.cdt.jsoncdb.core.participant.IRawSourceFileInfo;
@@ -52,8 +61,11 @@ import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.osgi.framework.FrameworkUtil;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 /**
  * Parses the file 'compile_commands.json' produced by cmake when option
@@ -79,6 +91,12 @@ public class CompileCommandsJsonParser {
 
 	private static final String MARKER_ID = Plugin.PLUGIN_ID + ".CompileCommandsJsonParserMarker"; //$NON-NLS-1$
 
+	/**
+	 * the maximum number of command-lines being parsed concurrently or waiting to
+	 * be parsed
+	 */
+	private static final int MAX_PENDING_PARSES = 4 * ForkJoinPool.getCommonPoolParallelism();
+
 	private ParseRequest parseRequest;
 
 	private final IParserPreferencesAccess prefsAccess;
@@ -114,6 +132,43 @@ public class CompileCommandsJsonParser {
 	 */
 	private Map<String, String> fileToBuiltinDetectorLinks;
 
+	/**
+	 * the command-lines parsed so far, to parse command-lines that differ only in
+	 * the source file once
+	 */
+	private CommandLineParses parsedCommandLines;
+
+	/**
+	 * the source files whose command-line is being parsed, in the order of the json
+	 * file
+	 */
+	private Deque<PendingFileResult> pendingFileResults;
+
+	/**
+	 * Handles the entries read from a {@code compile_commands.json} file.
+	 */
+	interface CommandEntryHandler {
+		void accept(CommandEntry entry) throws CoreException;
+	}
+
+	/**
+	 * A source file whose command-line is being parsed.
+	 */
+	private static class PendingFileResult {
+		final String sourceFileName;
+		final CompletableFuture<IResult> result;
+		final IBuiltinsDetectionBehavior builtinsDetection;
+		final String compilerCommand;
+
+		PendingFileResult(String sourceFileName, CompletableFuture<IResult> result,
+				IBuiltinsDetectionBehavior builtinsDetection, String compilerCommand) {
+			this.sourceFileName = sourceFileName;
+			this.result = result;
+			this.builtinsDetection = builtinsDetection;
+			this.compilerCommand = compilerCommand;
+		}
+	}
+
 	/**
 	 * Creates a new object that will try to parse the {@code compile_commands.json}
 	 * file in the build directory specified in the {@code ParseRequest#getBuildConfiguration()}.
@@ -164,20 +219,15 @@ public class CompileCommandsJsonParser {
 			// must parse json file...
 			monitor.setTaskName(Messages.CompileCommandsJsonParser_msg_processing);
 
-			try (Reader in = new FileReader(jsonDiskFile.toFile())) {
-				// parse file...
-				Gson gson = new Gson();
-				CommandEntry[] sourceFileInfos = gson.fromJson(in, CommandEntry[].class);
-				if (sourceFileInfos == null) {
+			try (Reader in = new BufferedReader(new FileReader(jsonDiskFile.toFile()))) {
+				if (!readCommandEntries(in, entry -> processCommandEntry(entry, jsonFile))) {
 					final String msg = String.format(Messages.CompileCommandsJsonParser_errmsg_empty_json, jsonDiskFile,
 							WORKBENCH_WILL_NOT_KNOW_ALL_MSG);
 					createMarker(jsonFile, msg);
 					return false;
 				}
-				for (CommandEntry sourceFileInfo : sourceFileInfos) {
-					processCommandEntry(sourceFileInfo, jsonFile);
-				}
-			} catch (JsonSyntaxException | JsonIOException ex) {
+				rememberPendingFileResults(true);
+			} catch (JsonParseException | MalformedJsonException | EOFException ex) {
 				// file format error
 				final String msg = String.format(Messages.CompileCommandsJsonParser_errmsg_not_json, jsonDiskFile,
 						WORKBENCH_WILL_NOT_KNOW_ALL_MSG);
@@ -198,6 +248,48 @@ public class CompileCommandsJsonParser {
 		return false;
 	}
 
+	/**
+	 * Reads the entries of a {@code compile_commands.json} file one by one, huge
+	 * files must not be held in memory.
+	 *
+	 * @param in      the content of the file
+	 * @param handler the handler to pass each entry to
+	 *
+	 * @return {@code false} if the file is empty
+	 * @throws JsonParseException     if the content is not an array of command
+	 *                                entries
+	 * @throws MalformedJsonException if the content is not well-formed
+	 * @throws EOFException           if the content ends unexpectedly
+	 * @throws IOException            if the content could not be read
+	 * @throws CoreException          if the handler failed
+	 */
+	static boolean readCommandEntries(Reader in, CommandEntryHandler handler) throws IOException, CoreException {
+		Gson gson = new Gson();
+		JsonReader reader = gson.newJsonReader(in);
+		reader.setLenient(true);
+		JsonToken token;
+		try {
+			token = reader.peek();
+		} catch (EOFException ex) {
+			token = JsonToken.NULL;
+		}
+		if (token == JsonToken.NULL) {
+			return false;
+		}
+		if (token != JsonToken.BEGIN_ARRAY) {
+			throw new JsonSyntaxException("Expected an array of command entries"); //$NON-NLS-1$
+		}
+		reader.beginArray();
+		while (reader.hasNext()) {
+			CommandEntry entry = gson.fromJson(reader, CommandEntry.class);
+			if (entry != null) {
+				handler.accept(entry);
+			}
+		}
+		reader.endArray();
+		return true;
+	}
+
 	/**
 	 * Processes an entry from a {@code compile_commands.json} file and remembers a
 	 * {@link IRawSourceFileInfo} for the given sourceFileInfo.
@@ -212,7 +304,7 @@ public class CompileCommandsJsonParser {
 		// CMake-notation (directory separator are forward slashes, even on windows)
 		final String file = sourceFileInfo.getFile();
 		String cmdLine = sourceFileInfo.getCommand();
-		if (cmdLine == null) {
+		if (cmdLine == null && sourceFileInfo.getArguments() != null) {
 			cmdLine = String.join(" ", sourceFileInfo.getArguments()); //$NON-NLS-1$
 		}
 		if (file != null && !file.isEmpty() && cmdLine != null && !cmdLine.isEmpty()) {
@@ -225,15 +317,13 @@ public class CompileCommandsJsonParser {
 				// CMake-notation (fileSep are forward slashes)
 				final String cwdStr = sourceFileInfo.getDirectory();
 				IPath cwd = cwdStr != null ? Path.fromOSString(cwdStr) : new Path(""); //$NON-NLS-1$
-				IResult result = parser.processArgs(cwd, pdr.getReducedCommandLine().stripLeading());
-				// remember result together with file name
-				rememberFileResult(file, result);
-
+				CompletableFuture<IResult> result = parsedCommandLines.processArgs(parser, cwd,
+						pdr.getReducedCommandLine().stripLeading(), file);
+				// remember result together with file name once the command-line is parsed
 				final Optional<IBuiltinsDetectionBehavior> builtinDetection = parser.getIBuiltinsDetectionBehavior();
-				if (builtinDetection.isPresent()) {
-					rememberBuiltinsDetection(file, builtinDetection.get(), pdr.getCommandLine().getCommand(),
-							result.getBuiltinDetectionArgs());
-				}
+				pendingFileResults.add(new PendingFileResult(file, result, builtinDetection.orElse(null),
+						builtinDetection.isPresent() ? pdr.getCommandLine().getCommand() : null));
+				rememberPendingFileResults(false);
 			} else {
 				// no matching parser found
 
@@ -259,6 +349,34 @@ public class CompileCommandsJsonParser {
 		createMarker(jsonFile, msg);
 	}
 
+	/**
+	 * Remembers the results of the source files whose command-line has been parsed,
+	 * in the order of the json file.
+	 *
+	 * @param all whether to wait until the command-lines of all source files have
+	 *            been parsed
+	 */
+	private void rememberPendingFileResults(boolean all) {
+		PendingFileResult pending;
+		while ((pending = pendingFileResults.peek()) != null && (all || pending.result.isDone())) {
+			pendingFileResults.remove();
+			IResult result;
+			try {
+				result = pending.result.join();
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) ex.getCause();
+				}
+				throw ex;
+			}
+			rememberFileResult(pending.sourceFileName, result);
+			if (pending.builtinsDetection != null) {
+				rememberBuiltinsDetection(pending.sourceFileName, pending.builtinsDetection, pending.compilerCommand,
+						result.getBuiltinDetectionArgs());
+			}
+		}
+	}
+
 	/** Runs detection of compiler built-ins if supported and notifies the
 	 * {@code ISourceFileInfoConsumer} that was specified in the constructor for each source file.
 	 *
@@ -286,11 +404,20 @@ public class CompileCommandsJsonParser {
 			java.nio.file.Path buildDir = java.nio.file.Path.of(buildRootFolder.getLocationURI());
 			// run each built-in detector and collect the results..
 			Map<String, IRawSourceFileInfo> builtinDetectorsResults = new HashMap<>();
-			for (Entry<String, CompilerBuiltinsDetector> entry : builtinDetectorsToRun.entrySet()) {
-				IRawSourceFileInfo result = entry.getValue().detectBuiltins(jsonFile.getProject(), buildDir,
-						parseRequest.getLauncher(), parseRequest.getConsole(), monitor);
-				// store detector key with result
-				builtinDetectorsResults.put(entry.getKey(), result);
+			try {
+				if (canDetectBuiltinsConcurrently()) {
+					detectBuiltinsConcurrently(jsonFile.getProject(), buildDir, builtinDetectorsResults, monitor);
+				} else {
+					for (Entry<String, CompilerBuiltinsDetector> entry : builtinDetectorsToRun.entrySet()) {
+						IRawSourceFileInfo result = entry.getValue().detectBuiltins(jsonFile.getProject(), buildDir,
+								parseRequest.getLauncher(), parseRequest.getConsole(), monitor);
+						// store detector key with result
+						builtinDetectorsResults.put(entry.getKey(), result);
+					}
+				}
+			} finally {
+				// write the newly detected built-ins once for all detectors
+				BuiltinsCache.getDefault().save();
 			}
 			// all built-in detectors have been run at this point, reduce memory footprint
 			builtinDetectorsToRun.clear();
@@ -314,6 +441,53 @@ public class CompileCommandsJsonParser {
 		}
 	}
 
+	/**
+	 * Gets whether the built-in detectors can be run concurrently. That requires a
+	 * launcher for the local machine, since a new launcher is needed for each
+	 * detector. And the output of the compilers must not be printed to the
+	 * console, where it would be interleaved.
+	 */
+	private boolean canDetectBuiltinsConcurrently() {
+		return builtinDetectorsToRun.size() > 1 && parseRequest.getLauncher().getClass() == CommandLauncher.class
+				&& (parseRequest.getConsole() == null || !prefsAccess.getWorkspacePreferences().getAllocateConsole());
+	}
+
+	/**
+	 * Runs the built-in detectors concurrently and collects their results.
+	 *
+	 * @param builtinDetectorsResults receives the results of the detectors (detector
+	 *                                key -> IRawSourceFileInfo)
+	 * @throws CoreException
+	 */
+	private void detectBuiltinsConcurrently(IProject project, java.nio.file.Path buildDir,
+			Map<String, IRawSourceFileInfo> builtinDetectorsResults, IProgressMonitor monitor) throws CoreException {
+		Map<String, CompletableFuture<IRawSourceFileInfo>> futures = new HashMap<>();
+		for (Entry<String, CompilerBuiltinsDetector> entry : builtinDetectorsToRun.entrySet()) {
+			final CompilerBuiltinsDetector detector = entry.getValue();
+			futures.put(entry.getKey(), CompletableFuture.supplyAsync(() -> {
+				try {
+					return detector.runDetection(project, buildDir, new CommandLauncher(), null, monitor);
+				} catch (CoreException e) {
+					throw new CompletionException(e);
+				}
+			}));
+		}
+		for (Entry<String, CompletableFuture<IRawSourceFileInfo>> entry : futures.entrySet()) {
+			try {
+				builtinDetectorsResults.put(entry.getKey(), entry.getValue().join());
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof CoreException) {
+					throw (CoreException) e.getCause();
+				} else if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+			// markers must be created by this thread, it may hold the workspace lock
+			builtinDetectorsToRun.get(entry.getKey()).createMarkers();
+		}
+	}
+
 	/**
 	 * Merges preprocessor symbols and macros for a source file with compiler
 	 * built-in preprocessor symbols and macros and passes them to the
@@ -445,6 +619,8 @@ public class CompileCommandsJsonParser {
 		fileResults = new HashMap<>();
 		builtinDetectorsToRun = new HashMap<>();
 		fileToBuiltinDetectorLinks = new HashMap<>();
+		parsedCommandLines = new CommandLineParses(MAX_PENDING_PARSES);
+		pendingFileResults = new ArrayDeque<>();
 
 		try {
 			if (DEBUG_TIME) {
@@ -464,6 +640,8 @@ public class CompileCommandsJsonParser {
 			builtinDetectorsToRun = null;
 			fileResults = null;
 			fileToBuiltinDetectorLinks = null;
+			parsedCommandLines = null;
+			pendingFileResults = null;
 		}
 	}
 
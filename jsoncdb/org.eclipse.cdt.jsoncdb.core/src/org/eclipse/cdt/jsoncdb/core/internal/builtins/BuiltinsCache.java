@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.cdt.jsoncdb.core.internal.builtins;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.CommandLauncher;
+import org.eclipse.cdt.core.ICommandLauncher;
+import org.eclipse.cdt.jsoncdb.core.internal.Plugin;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Persistent cache of the built-ins detected for compilers, shared by all
+ * projects of the workspace. Entries are keyed by the compiler executable, its
+ * modification time and size, the arguments that affect built-ins detection and
+ * the environment of the compiler process. So a compiler is run again for
+ * detection only if it was updated or is invoked differently. New entries are
+ * written to the cache file by {@link #save()}, once for a batch of detections.
+ */
+public final class BuiltinsCache {
+	private static final String CACHE_FILE = "compiler-builtins.json"; //$NON-NLS-1$
+	private static final Type ENTRIES_TYPE = new TypeToken<Map<String, RawSourceFileInfo>>() {
+	}.getType();
+
+	private static BuiltinsCache instance;
+
+	private final Path file;
+	/** detector key -> detected built-ins, loaded lazily */
+	private Map<String, RawSourceFileInfo> entries;
+	/** whether entries have been added since the cache file was written */
+	private boolean modified;
+
+	BuiltinsCache(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Gets the cache of the workspace.
+	 */
+	public static synchronized BuiltinsCache getDefault() {
+		if (instance == null) {
+			instance = new BuiltinsCache(Plugin.getDefault().getStateLocation().append(CACHE_FILE).toFile().toPath());
+		}
+		return instance;
+	}
+
+	/**
+	 * Creates the key for the built-ins of a compiler.
+	 *
+	 * @param command               the compiler command
+	 * @param outputEnablingArgs    the arguments that make the compiler print its
+	 *                              built-ins
+	 * @param builtinsDetectionArgs the compiler arguments from the command-line
+	 *                              that affect built-in detection
+	 * @param sourceFileExtension   the extension of the source file name
+	 * @param envp                  the environment of the compiler process, as
+	 *                              "name=value" strings
+	 * @param launcher              the launcher that runs the compiler
+	 * @return the key or {@code null} if the built-ins of the compiler must not be
+	 *         cached. This is the case if the compiler is not specified by an
+	 *         absolute path or is not run on the local machine.
+	 */
+	@SuppressWarnings("nls")
+	public static String makeKey(String command, List<String> outputEnablingArgs, List<String> builtinsDetectionArgs,
+			String sourceFileExtension, String[] envp, ICommandLauncher launcher) {
+		if (launcher.getClass() != CommandLauncher.class) {
+			// the compiler might run in a container, its file is not visible here
+			return null;
+		}
+		Path compiler = Path.of(command);
+		if (!compiler.isAbsolute() || !Files.isRegularFile(compiler)) {
+			return null;
+		}
+		// variables like CPATH or GCC_EXEC_PREFIX change the built-ins, the order of
+		// the variables does not matter
+		final String[] env = envp.clone();
+		Arrays.sort(env);
+		try {
+			return compiler + "#" + Files.getLastModifiedTime(compiler).toMillis() + "#" + Files.size(compiler) + "#"
+					+ sourceFileExtension + "#" + String.join(" ", outputEnablingArgs) + "#"
+					+ String.join(" ", builtinsDetectionArgs) + "#" + String.join("\0", env);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the cached built-ins for the specified key.
+	 *
+	 * @return the built-ins or {@code null} if none are cached
+	 */
+	public synchronized RawSourceFileInfo get(String key) {
+		return getEntries().get(key);
+	}
+
+	/**
+	 * Caches the built-ins for the specified key. The entry is written to the cache
+	 * file with the next invocation of {@link #save()}.
+	 */
+	public synchronized void put(String key, RawSourceFileInfo builtins) {
+		getEntries().put(key, builtins);
+		modified = true;
+	}
+
+	/**
+	 * Writes the cache file, if entries have been added since it was last written.
+	 */
+	public synchronized void save() {
+		if (!modified) {
+			return;
+		}
+		modified = false;
+		Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (Writer out = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+				new Gson().toJson(entries, ENTRIES_TYPE, out);
+			}
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | JsonParseException e) {
+			Plugin.getDefault().getLog().log(new Status(IStatus.ERROR, Plugin.PLUGIN_ID, "save()", e)); //$NON-NLS-1$
+		}
+	}
+
+	private Map<String, RawSourceFileInfo> getEntries() {
+		if (entries == null) {
+			if (Files.exists(file)) {
+				try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+					entries = new Gson().fromJson(in, ENTRIES_TYPE);
+				} catch (IOException | JsonParseException e) {
+					// a corrupt cache is discarded
+					Plugin.getDefault().getLog().log(new Status(IStatus.WARNING, Plugin.PLUGIN_ID, "getEntries()", e)); //$NON-NLS-1$
+				}
+			}
+			if (entries == null) {
+				entries = new HashMap<>();
+			}
+		}
+		return entries;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018-2020 Martin Weber.
+ * Copyright (c) 2018, 2026 Martin Weber and others.
  *
  * Content is provided to you under the terms and conditions of the Eclipse Public License Version 2.0 "EPL".
  * A copy of the EPL is available at http://www.eclipse.org/legal/epl-2.0.
@@ -10,6 +10,7 @@
 package org.eclipse.cdt.jsoncdb.core.internal.builtins;
 
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -55,6 +56,8 @@ public class CompilerBuiltinsDetector {
 
 	private IProject project;
 	private java.nio.file.Path buildDirectory;
+	/** the messages of the problems detected by the last detection run */
+	private final List<String> problems = new ArrayList<>();
 
 	/**
 	 * @param builtinsDetectionBehavior how compiler built-ins are to be detected
@@ -76,7 +79,7 @@ public class CompilerBuiltinsDetector {
 	}
 
 	/**
-	 * Runs built-in detection.
+	 * Runs built-in detection and creates markers for any problems.
 	 *
 	 * @param project            the project
 	 * @param buildDirectory	the build root directory. This is the working directory of the compiler process. Temporary,
@@ -88,13 +91,49 @@ public class CompilerBuiltinsDetector {
 	 */
 	public IRawSourceFileInfo detectBuiltins(IProject project, java.nio.file.Path buildDirectory,
 			ICommandLauncher launcher, IConsole console, IProgressMonitor monitor) throws CoreException {
+		IRawSourceFileInfo result = runDetection(project, buildDirectory, launcher, console, monitor);
+		createMarkers();
+		return result;
+	}
+
+	/**
+	 * Runs built-in detection, unless the built-ins of the compiler are cached.
+	 * Unlike {@link #detectBuiltins}, this does not create markers for problems
+	 * and may be invoked on any thread, as long as no console output is requested.
+	 * Markers are created by a subsequent invocation of {@link #createMarkers()}.
+	 * Detected built-ins are added to the {@link BuiltinsCache}, the caller saves it
+	 * once all detectors have run.
+	 *
+	 * @param project        the project
+	 * @param buildDirectory the build root directory. This is the working
+	 *                       directory of the compiler process.
+	 * @param launcher       the launcher for the compiler process. Must not be used
+	 *                       by other threads at the same time.
+	 * @param console        the console to print the compiler output to or
+	 *                       <code>null</code> if no console output is requested.
+	 * @throws CoreException
+	 */
+	public IRawSourceFileInfo runDetection(IProject project, java.nio.file.Path buildDirectory,
+			ICommandLauncher launcher, IConsole console, IProgressMonitor monitor) throws CoreException {
 		this.project = Objects.requireNonNull(project, "project"); //$NON-NLS-1$
 		this.buildDirectory = Objects.requireNonNull(buildDirectory, "buildDirectory"); //$NON-NLS-1$
+		problems.clear();
 
 		if (monitor == null) {
 			monitor = new NullProgressMonitor();
 		}
 
+		final String[] envp = getEnvp();
+		final String cacheKey = BuiltinsCache.makeKey(command,
+				builtinsDetectionBehavior.getBuiltinsOutputEnablingArgs(), builtinsDetectionArgs, sourceFileExtension,
+				envp, launcher);
+		if (cacheKey != null) {
+			RawSourceFileInfo cached = BuiltinsCache.getDefault().get(cacheKey);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
 		RawSourceFileInfo result = new RawSourceFileInfo();
 
 		final List<String> argList = getCompilerArguments();
@@ -104,7 +143,7 @@ public class CompilerBuiltinsDetector {
 
 		launcher.setProject(project);
 		launcher.showCommand(console != null);
-		final Process proc = launcher.execute(new Path(command), argList.toArray(new String[argList.size()]), getEnvp(),
+		final Process proc = launcher.execute(new Path(command), argList.toArray(new String[argList.size()]), envp,
 				new Path(this.buildDirectory.toString()), monitor);
 		if (proc != null) {
 			try {
@@ -160,6 +199,9 @@ public class CompilerBuiltinsDetector {
 			// process start failed
 			createMarker(launcher.getErrorMessage());
 		}
+		if (cacheKey != null && problems.isEmpty() && !monitor.isCanceled()) {
+			BuiltinsCache.getDefault().put(cacheKey, result);
+		}
 		return result;
 	}
 
@@ -212,6 +254,8 @@ public class CompilerBuiltinsDetector {
 				// In the typical case it is sufficient to have an empty file.
 				Files.createDirectories(specFile.getParent()); // no build ran yet, must create dirs
 				Files.createFile(specFile);
+			} catch (FileAlreadyExistsException e) {
+				// created by a detector running concurrently
 			} catch (IOException e) {
 				Plugin.getDefault().getLog().log(new Status(IStatus.ERROR, Plugin.PLUGIN_ID, "getInputFile()", e)); //$NON-NLS-1$
 			}
@@ -220,10 +264,23 @@ public class CompilerBuiltinsDetector {
 		return specFile.toString();
 	}
 
-	private void createMarker(String message) throws CoreException {
-		IMarker marker = project.createMarker(MARKER_ID);
-		marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
-		marker.setAttribute(IMarker.MESSAGE, message);
+	private void createMarker(String message) {
+		problems.add(Objects.toString(message, command));
+	}
+
+	/**
+	 * Creates markers for the problems detected by the last invocation of
+	 * {@link #runDetection}.
+	 *
+	 * @throws CoreException
+	 */
+	public void createMarkers() throws CoreException {
+		for (String message : problems) {
+			IMarker marker = project.createMarker(MARKER_ID);
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+			marker.setAttribute(IMarker.MESSAGE, message);
+		}
+		problems.clear();
 	}
 
 	/**